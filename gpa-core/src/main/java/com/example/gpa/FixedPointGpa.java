@@ -0,0 +1,232 @@
+package com.example.gpa;
+
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+
+import java.util.List;
+
+/**
+ * Exact GPA arithmetic on scaled longs.
+ *
+ * Credits are held in thousandths (1.5 -> 1500) and grade points in hundredths (3.75 -> 375),
+ * so every quality point product is an exact integer and sums never drift.
+ * Rounding only happens at the boundaries, always half-up:
+ *   - entry:       a double credit is rounded to the nearest 0.001 when the Course is created
+ *   - persistence: GPA is rounded to 4 decimals ({@link #toStoredGpa})
+ *   - display:     the stored 4-decimal GPA is rounded to 2 decimals ({@link #formatGpa}),
+ *                  so the live result screen and the saved history always show the same digits
+ * Grade points come from the active {@link GradeScale}. The accumulation loops do not allocate.
+ * Retaken courses count as the active {@link RetakePolicy} says; under the default {@code all}
+ * every entry counts and the plain loops below are used.
+ */
+public final class FixedPointGpa {
+
+    public static final long CREDIT_SCALE = 1_000;
+    public static final long POINT_SCALE = 100;
+    public static final long STORED_SCALE = 10_000;
+    public static final long DISPLAY_SCALE = 100;
+
+    private FixedPointGpa() {
+    }
+
+    /**
+     * Convert a credit value to thousandths, rounding half-up
+     */
+    public static long toScaledCredit(double credit) {
+        return Math.round(credit * CREDIT_SCALE);
+    }
+
+    /**
+     * Grade point of a grade in hundredths, on the active scale
+     */
+    public static long scaledPoint(Grade grade) {
+        return GradeScale.getActive().scaledPoint(grade.ordinal());
+    }
+
+    /**
+     * Credits and quality points that count toward the GPA after the retake policy
+     *
+     * @param retakes entries that were retakes of an earlier entry (0 under {@code all})
+     */
+    public record Totals(long scaledCredits, long scaledQuality, int retakes) {
+        /**
+         * @return GPA multiplied by {@code scale}, rounded half-up
+         */
+        public long gpa(long scale) {
+            return divide(scaledQuality, scaledCredits, scale);
+        }
+    }
+
+    /**
+     * Counted totals of a transcript under the active retake policy and grade scale
+     */
+    public static Totals totals(List<Course> courses) {
+        return totals(courses, RetakePolicy.getActive(), GradeScale.getActive());
+    }
+
+    /**
+     * Counted totals of a transcript, in list order = attempt order, in one pass
+     */
+    public static Totals totals(List<Course> courses, RetakePolicy policy, GradeScale gradeScale) {
+        if (policy == RetakePolicy.ALL) {
+            long quality = 0;
+            long credits = 0;
+            for (int i = 0, n = courses.size(); i < n; i++) {
+                Course c = courses.get(i);
+                quality += c.getScaledCredit() * gradeScale.scaledPoint(c.getGradeValue().ordinal());
+                credits += c.getScaledCredit();
+            }
+            return new Totals(credits, quality, 0);
+        }
+        RetakeTable attempts = new RetakeTable(policy, courses.size());
+        for (int i = 0, n = courses.size(); i < n; i++) {
+            Course c = courses.get(i);
+            attempts.add(c.getCode(), c.getScaledCredit(), gradeScale.scaledPoint(c.getGradeValue().ordinal()));
+        }
+        return new Totals(attempts.totalCredits(), attempts.totalQuality(), attempts.retakes());
+    }
+
+    /**
+     * Sum of credits in thousandths, every entry included (retakes are not deduplicated)
+     */
+    public static long totalScaledCredits(List<Course> courses) {
+        long total = 0;
+        for (int i = 0, n = courses.size(); i < n; i++) {
+            total += courses.get(i).getScaledCredit();
+        }
+        return total;
+    }
+
+    /**
+     * Sum of credit x grade point, in thousandths x hundredths, every entry included
+     */
+    public static long totalScaledQuality(List<Course> courses) {
+        GradeScale gradeScale = GradeScale.getActive();
+        long total = 0;
+        for (int i = 0, n = courses.size(); i < n; i++) {
+            Course c = courses.get(i);
+            total += c.getScaledCredit() * gradeScale.scaledPoint(c.getGradeValue().ordinal());
+        }
+        return total;
+    }
+
+    /**
+     * GPA of pre-scaled columns, for batch paths that already hold credits and grade ordinals
+     * @return GPA multiplied by {@code scale}, rounded half-up
+     */
+    public static long gpa(long[] scaledCredits, byte[] gradeOrdinals, int from, int to, long scale) {
+        return gpa(scaledCredits, gradeOrdinals, from, to, scale, GradeScale.getActive());
+    }
+
+    /**
+     * GPA of pre-scaled columns on an explicit grade scale (e.g. when recomputing for a new scale)
+     * @return GPA multiplied by {@code scale}, rounded half-up
+     */
+    public static long gpa(long[] scaledCredits, byte[] gradeOrdinals, int from, int to, long scale,
+                           GradeScale gradeScale) {
+        long quality = 0;
+        long credits = 0;
+        for (int i = from; i < to; i++) {
+            long credit = scaledCredits[i];
+            quality += credit * gradeScale.scaledPoint(gradeOrdinals[i]);
+            credits += credit;
+        }
+        return divide(quality, credits, scale);
+    }
+
+    /**
+     * GPA of pre-scaled columns with retakes resolved by {@code attempts}, whose policy decides
+     * which rows count. Rows of the range must be in attempt order; {@code codeKeys} holds any
+     * int that identifies the course code of each row. Unless the policy is {@code all},
+     * {@code attempts} holds the counted totals of the range afterwards.
+     * @return GPA multiplied by {@code scale}, rounded half-up
+     */
+    public static long gpa(long[] scaledCredits, byte[] gradeOrdinals, int[] codeKeys, int from, int to, long scale,
+                           GradeScale gradeScale, RetakeTable attempts) {
+        if (attempts.policy() == RetakePolicy.ALL) {
+            return gpa(scaledCredits, gradeOrdinals, from, to, scale, gradeScale);
+        }
+        attempts.reset(to - from);
+        for (int i = from; i < to; i++) {
+            attempts.add(codeKeys[i], scaledCredits[i], gradeScale.scaledPoint(gradeOrdinals[i]));
+        }
+        return divide(attempts.totalQuality(), attempts.totalCredits(), scale);
+    }
+
+    /**
+     * GPA of a course list
+     * @return GPA multiplied by {@code scale}, rounded half-up
+     */
+    public static long gpa(List<Course> courses, long scale) {
+        if (RetakePolicy.getActive() != RetakePolicy.ALL) {
+            return totals(courses).gpa(scale);
+        }
+        GradeScale gradeScale = GradeScale.getActive();
+        long quality = 0;
+        long credits = 0;
+        for (int i = 0, n = courses.size(); i < n; i++) {
+            Course c = courses.get(i);
+            long credit = c.getScaledCredit();
+            quality += credit * gradeScale.scaledPoint(c.getGradeValue().ordinal());
+            credits += credit;
+        }
+        return divide(quality, credits, scale);
+    }
+
+    /**
+     * quality / (credits x POINT_SCALE) x scale, rounded half-up, without overflowing
+     * for any realistic batch size
+     */
+    public static long divide(long scaledQuality, long scaledCredits, long scale) {
+        if (scaledCredits <= 0) return 0;
+        long denominator = Math.multiplyExact(scaledCredits, POINT_SCALE);
+        long whole = scaledQuality / denominator;
+        long remainder = scaledQuality % denominator;
+        long fraction = (Math.multiplyExact(remainder, 2 * scale) + denominator) / (2 * denominator);
+        return whole * scale + fraction;
+    }
+
+    /**
+     * GPA value as persisted in gpa_summary (4 decimals)
+     */
+    public static double toStoredGpa(List<Course> courses) {
+        return (double) gpa(courses, STORED_SCALE) / STORED_SCALE;
+    }
+
+    /**
+     * Counted credits as a double, summed exactly in thousandths (a retaken course counts once
+     * unless the retake policy is {@code all})
+     */
+    public static double toStoredCredits(List<Course> courses) {
+        long credits = RetakePolicy.getActive() == RetakePolicy.ALL
+                ? totalScaledCredits(courses) : totals(courses).scaledCredits();
+        return (double) credits / CREDIT_SCALE;
+    }
+
+    /**
+     * GPA of a course list formatted for display
+     */
+    public static String formatGpa(List<Course> courses) {
+        return formatStored(gpa(courses, STORED_SCALE));
+    }
+
+    /**
+     * Stored GPA (as read from gpa_summary) formatted for display
+     */
+    public static String formatGpa(double storedGpa) {
+        return formatStored(Math.round(storedGpa * STORED_SCALE));
+    }
+
+    private static String formatStored(long gpaTenThousandths) {
+        long factor = STORED_SCALE / DISPLAY_SCALE;
+        return formatScaled((gpaTenThousandths + factor / 2) / factor);
+    }
+
+    /**
+     * Format a GPA already scaled by DISPLAY_SCALE as "x.yy"
+     */
+    public static String formatScaled(long gpaHundredths) {
+        long fraction = gpaHundredths % DISPLAY_SCALE;
+        return (gpaHundredths / DISPLAY_SCALE) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
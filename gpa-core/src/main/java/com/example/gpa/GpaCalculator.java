@@ -0,0 +1,27 @@
+package com.example.gpa;
+
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+
+import java.util.List;
+
+public class GpaCalculator {
+
+    /**
+     * Grade point of a grade label on the active {@link GradeScale}.
+     * Unknown or empty labels count as F.
+     */
+    public static double gradeToPoint(String grade) {
+        long scaled = GradeScale.getActive().scaledPoint(Grade.fromLabel(grade).ordinal());
+        return (double) scaled / FixedPointGpa.POINT_SCALE;
+    }
+
+    /**
+     * Weighted GPA of the courses, computed exactly by {@link FixedPointGpa}
+     * and rounded half-up to 4 decimals (the value that gets stored).
+     * Retaken courses count as the active {@link RetakePolicy} says.
+     */
+    public static double calculateGpa(List<Course> courses) {
+        return FixedPointGpa.toStoredGpa(courses);
+    }
+}
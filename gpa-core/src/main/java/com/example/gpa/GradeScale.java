@@ -0,0 +1,127 @@
+package com.example.gpa;
+
+import com.example.gpa.model.Grade;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Grade-point mapping used for GPA calculation, in hundredths per {@link Grade}.
+ * The standard scale comes from the Grade enum; an institution can switch to another
+ * mapping (e.g. loaded from a properties file like {@code A+=4.0}) with {@link #setActive}.
+ * The scale of the last GPA recompute is stored in the database and made active again
+ * when the database is opened.
+ */
+public final class GradeScale {
+
+    private static final GradeScale STANDARD = fromGrades();
+    private static volatile GradeScale active = STANDARD;
+
+    // Grade points in hundredths, indexed by Grade.ordinal()
+    private final long[] points;
+
+    private GradeScale(long[] points) {
+        this.points = points;
+    }
+
+    /**
+     * The scale defined by the Grade enum
+     */
+    public static GradeScale standard() {
+        return STANDARD;
+    }
+
+    /**
+     * The scale the calculator currently uses
+     */
+    public static GradeScale getActive() {
+        return active;
+    }
+
+    public static void setActive(GradeScale scale) {
+        active = scale;
+    }
+
+    /**
+     * Build a scale from explicit points; grades not in the map keep their standard point
+     */
+    public static GradeScale of(Map<Grade, Double> overrides) {
+        long[] points = STANDARD.points.clone();
+        for (Map.Entry<Grade, Double> e : overrides.entrySet()) {
+            points[e.getKey().ordinal()] = Math.round(e.getValue() * FixedPointGpa.POINT_SCALE);
+        }
+        return new GradeScale(points);
+    }
+
+    /**
+     * Load a scale from a properties file with one {@code label=point} line per grade
+     */
+    public static GradeScale load(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            props.load(reader);
+        }
+        Map<Grade, Double> overrides = new EnumMap<>(Grade.class);
+        for (Grade grade : Grade.values()) {
+            String value = props.getProperty(grade.getLabel());
+            if (value != null) {
+                overrides.put(grade, Double.parseDouble(value.trim()));
+            }
+        }
+        return of(overrides);
+    }
+
+    /**
+     * Grade point of a grade ordinal in hundredths
+     */
+    public long scaledPoint(int gradeOrdinal) {
+        return points[gradeOrdinal];
+    }
+
+    /**
+     * Stable text form of the mapping, used to tell whether a checkpoint belongs to this scale
+     */
+    public String fingerprint() {
+        StringBuilder sb = new StringBuilder();
+        for (Grade grade : Grade.values()) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(grade.getLabel()).append('=').append(points[grade.ordinal()]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Rebuild a scale from its {@link #fingerprint()}
+     * @throws IllegalArgumentException if the text is not a scale fingerprint
+     */
+    public static GradeScale fromFingerprint(String fingerprint) {
+        long[] points = STANDARD.points.clone();
+        for (String entry : fingerprint.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Not a grade scale fingerprint: " + fingerprint);
+            }
+            points[Grade.fromLabel(entry.substring(0, eq)).ordinal()] = Long.parseLong(entry.substring(eq + 1));
+        }
+        return new GradeScale(points);
+    }
+
+    private static GradeScale fromGrades() {
+        Grade[] grades = Grade.values();
+        long[] points = new long[grades.length];
+        for (Grade g : grades) {
+            points[g.ordinal()] = Math.round(g.getPoint() * FixedPointGpa.POINT_SCALE);
+        }
+        return new GradeScale(points);
+    }
+
+    @Override
+    public String toString() {
+        return "GradeScale{" + fingerprint() + "}";
+    }
+}
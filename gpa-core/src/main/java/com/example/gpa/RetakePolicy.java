@@ -0,0 +1,58 @@
+package com.example.gpa;
+
+/**
+ * Which attempts of a retaken course count toward the GPA.
+ * Attempts are matched by course code. A transcript lists attempts in the order they were
+ * taken, so of two entries with the same code the later one is the later attempt.
+ * The active policy starts as {@code -Dgpa.retakePolicy} (default {@code all}) and can be
+ * switched with {@link #setActive}; stored GPAs follow once they are recomputed. The policy of
+ * the last recompute is stored in the database and becomes active when it is opened, unless
+ * the property is set.
+ */
+public enum RetakePolicy {
+    /** Every attempt counts (no deduplication) */
+    ALL("all"),
+    /** Only the attempt with the highest grade point counts; on a tie the later one */
+    BEST("best"),
+    /** Only the most recent attempt counts */
+    LATEST("latest"),
+    /** The grade points of all attempts are averaged, with the credit of the latest attempt */
+    AVERAGE("average");
+
+    private static volatile RetakePolicy active = fromLabel(System.getProperty("gpa.retakePolicy", "all"));
+
+    private final String label;
+
+    RetakePolicy(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * The policy the calculator currently uses
+     */
+    public static RetakePolicy getActive() {
+        return active;
+    }
+
+    public static void setActive(RetakePolicy policy) {
+        active = policy;
+    }
+
+    public static RetakePolicy fromLabel(String label) {
+        for (RetakePolicy policy : values()) {
+            if (policy.label.equalsIgnoreCase(label.trim())) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown retake policy: " + label + " (all, best, latest or average)");
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.gpa;
+
+import java.util.Arrays;
+
+/**
+ * Applies a {@link RetakePolicy} to one transcript in a single pass, with no sorting.
+ *
+ * Attempts are added in the order they were taken. An open-addressing table keyed by course
+ * code holds the attempt that currently counts for each course, and running totals of the
+ * counted credits and quality points are adjusted in place whenever a retake replaces it.
+ * After the last attempt the totals are final. Each attempt costs one hash probe.
+ *
+ * A table is reused across transcripts with {@link #reset}, which invalidates all slots by
+ * bumping a generation number instead of clearing them, so batch paths allocate nothing per
+ * transcript. Not thread-safe: use one table per thread.
+ */
+public final class RetakeTable {
+
+    private final RetakePolicy policy;
+
+    private int mask;
+    private int generation = 1;
+    private int[] stamps;      // slot is in use when stamps[slot] == generation
+    private int[] hashes;
+    private Object[] codes;    // code strings on the Course path, null on the code-key path
+    private int[] keys;        // code keys on the column path
+    private long[] credits;    // counted credit of each course, in thousandths
+    private long[] points;     // counted grade point; for AVERAGE the sum over attempts
+    private int[] attempts;
+    private long[] qualities;  // counted credit x point of each course
+
+    private long totalCredits;
+    private long totalQuality;
+    private int retakes;
+
+    public RetakeTable(RetakePolicy policy) {
+        this(policy, 32);
+    }
+
+    /**
+     * A table ready for a first transcript of up to {@code expectedAttempts} attempts
+     */
+    public RetakeTable(RetakePolicy policy, int expectedAttempts) {
+        this.policy = policy;
+        allocate(capacityFor(expectedAttempts));
+    }
+
+    public RetakePolicy policy() {
+        return policy;
+    }
+
+    /**
+     * Start a new transcript of up to {@code expectedAttempts} attempts
+     */
+    public void reset(int expectedAttempts) {
+        totalCredits = 0;
+        totalQuality = 0;
+        retakes = 0;
+        if (expectedAttempts * 2 > stamps.length) {
+            allocate(capacityFor(expectedAttempts));
+        } else if (++generation == 0) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Add the next attempt of the course with this code
+     */
+    public void add(String code, long scaledCredit, long scaledPoint) {
+        int hash = spread(code.hashCode());
+        int slot = hash & mask;
+        while (stamps[slot] == generation) {
+            if (hashes[slot] == hash && code.equals(codes[slot])) {
+                retake(slot, scaledCredit, scaledPoint);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        codes[slot] = code;
+        first(slot, scaledCredit, scaledPoint);
+    }
+
+    /**
+     * Add the next attempt of the course with this code key (any int that identifies the code)
+     */
+    public void add(int codeKey, long scaledCredit, long scaledPoint) {
+        int slot = spread(codeKey) & mask;
+        while (stamps[slot] == generation) {
+            if (keys[slot] == codeKey && codes[slot] == null) {
+                retake(slot, scaledCredit, scaledPoint);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = codeKey;
+        codes[slot] = null;
+        first(slot, scaledCredit, scaledPoint);
+    }
+
+    /** Counted credits in thousandths */
+    public long totalCredits() {
+        return totalCredits;
+    }
+
+    /** Counted quality points in thousandths x hundredths */
+    public long totalQuality() {
+        return totalQuality;
+    }
+
+    /** Attempts that were retakes of a course already added */
+    public int retakes() {
+        return retakes;
+    }
+
+    private void first(int slot, long credit, long point) {
+        stamps[slot] = generation;
+        credits[slot] = credit;
+        points[slot] = point;
+        attempts[slot] = 1;
+        qualities[slot] = credit * point;
+        totalCredits += credit;
+        totalQuality += credit * point;
+    }
+
+    private void retake(int slot, long credit, long point) {
+        retakes++;
+        switch (policy) {
+            case ALL -> {
+                // No deduplication: the attempt simply adds to the totals
+                totalCredits += credit;
+                totalQuality += credit * point;
+            }
+            case BEST -> {
+                if (point >= points[slot]) {
+                    replace(slot, credit, point, credit * point);
+                }
+            }
+            case LATEST -> replace(slot, credit, point, credit * point);
+            case AVERAGE -> {
+                long sum = points[slot] + point;
+                int count = ++attempts[slot];
+                // credit x mean point, rounded half-up like every other rounding in FixedPointGpa
+                replace(slot, credit, sum, (2 * credit * sum + count) / (2L * count));
+            }
+        }
+    }
+
+    private void replace(int slot, long credit, long point, long quality) {
+        totalCredits += credit - credits[slot];
+        totalQuality += quality - qualities[slot];
+        credits[slot] = credit;
+        points[slot] = point;
+        qualities[slot] = quality;
+    }
+
+    private void allocate(int capacity) {
+        mask = capacity - 1;
+        generation = 1;
+        stamps = new int[capacity];
+        hashes = new int[capacity];
+        codes = new Object[capacity];
+        keys = new int[capacity];
+        credits = new long[capacity];
+        points = new long[capacity];
+        attempts = new int[capacity];
+        qualities = new long[capacity];
+    }
+
+    // Power of two with the table at most half full
+    private static int capacityFor(int expectedAttempts) {
+        return Math.max(16, Integer.highestOneBit(Math.max(1, expectedAttempts * 2 - 1)) << 1);
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
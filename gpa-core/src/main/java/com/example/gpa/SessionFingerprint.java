@@ -0,0 +1,135 @@
+package com.example.gpa;
+
+import com.example.gpa.model.Course;
+import com.example.gpa.model.CourseCatalogEntry;
+import com.example.gpa.model.Grade;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical content hash of a session's course set, stored in gpa_summary.content_hash.
+ *
+ * Each course is hashed from its code, name, teachers, credit and grade, and the course hashes
+ * are summed, so the result does not depend on the order the courses were entered in and a
+ * course listed twice counts twice. Two sessions with the same courses always get the same
+ * hash; equal hashes are only a candidate match and are confirmed with {@link #sameCourses}.
+ *
+ * The order of attempts of one course code does matter: under the {@code latest} and {@code best}
+ * retake policies it decides which attempt counts. So a retake's hash also covers its attempt
+ * number within its code (first attempts hash as if there were no retakes), and two sessions
+ * only match if each code's attempts come in the same order.
+ */
+public final class SessionFingerprint {
+
+    /**
+     * Hash of a session without courses. Such sessions are never treated as duplicates.
+     */
+    public static final long NONE = 0;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // Outside the char range, so a missing teacher differs from every string
+    private static final long NULL_MARK = 0x10000;
+    private static final long END_MARK = 0x10001;
+
+    private SessionFingerprint() {
+    }
+
+    /**
+     * @return the content hash, or {@link #NONE} for an empty course list
+     */
+    public static long of(List<Course> courses) {
+        if (courses.isEmpty()) {
+            return NONE;
+        }
+        long sum = 0;
+        int[] attempts = attemptNumbers(courses);
+        for (int i = 0; i < courses.size(); i++) {
+            sum += courseHash(courses.get(i), attempts[i]);
+        }
+        long hash = mix(sum + courses.size());
+        return hash == NONE ? 1 : hash;
+    }
+
+    /**
+     * Whether two sessions hold the same courses, in any order as long as the attempts of
+     * each course code are in the same order
+     */
+    public static boolean sameCourses(List<Course> a, List<Course> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        Map<Key, Integer> counts = new HashMap<>();
+        int[] attemptsA = attemptNumbers(a);
+        for (int i = 0; i < a.size(); i++) {
+            counts.merge(new Key(a.get(i), attemptsA[i]), 1, Integer::sum);
+        }
+        int[] attemptsB = attemptNumbers(b);
+        for (int i = 0; i < b.size(); i++) {
+            Key key = new Key(b.get(i), attemptsB[i]);
+            Integer count = counts.get(key);
+            if (count == null) {
+                return false;
+            }
+            if (count == 1) {
+                counts.remove(key);
+            } else {
+                counts.put(key, count - 1);
+            }
+        }
+        return counts.isEmpty();
+    }
+
+    private record Key(CourseCatalogEntry entry, long scaledCredit, Grade grade, int attempt) {
+        Key(Course course, int attempt) {
+            this(course.getCatalogEntry(), course.getScaledCredit(), course.getGradeValue(), attempt);
+        }
+    }
+
+    /**
+     * For each course, how many earlier courses in the list have the same code
+     * (retakes are matched by code, as in {@link RetakeTable})
+     */
+    private static int[] attemptNumbers(List<Course> courses) {
+        int[] attempts = new int[courses.size()];
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < attempts.length; i++) {
+            Integer earlier = seen.merge(courses.get(i).getCode(), 1, Integer::sum);
+            attempts[i] = earlier - 1;
+        }
+        return attempts;
+    }
+
+    private static long courseHash(Course course, int attempt) {
+        long h = FNV_OFFSET;
+        h = string(h, course.getCode());
+        h = string(h, course.getName());
+        h = string(h, course.getTeacher1());
+        h = string(h, course.getTeacher2());
+        h = (h ^ course.getScaledCredit()) * FNV_PRIME;
+        h = (h ^ course.getGradeValue().ordinal()) * FNV_PRIME;
+        if (attempt > 0) {
+            h = (h ^ attempt) * FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    private static long string(long h, String text) {
+        if (text == null) {
+            return (h ^ NULL_MARK) * FNV_PRIME;
+        }
+        for (int i = 0, n = text.length(); i < n; i++) {
+            h = (h ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ END_MARK) * FNV_PRIME;
+    }
+
+    // SplitMix64 finalizer, so the summed course hashes are spread over all 64 bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+import com.example.gpa.services.CgpaProjection;
+
+import java.util.List;
+
+/**
+ * Times CgpaProjection for growing sample counts and checks its answer against the exact
+ * distribution, computed by convolving the grade distribution once per remaining course.
+ *
+ * Run: java -cp gpa-core/target/classes com.example.gpa.benchmark.CgpaProjectionBenchmark [remainingCredits]
+ */
+public class CgpaProjectionBenchmark {
+
+    private static final double THRESHOLD = 3.5;
+
+    public static void main(String[] args) {
+        double remainingCredits = args.length > 0 ? Double.parseDouble(args[0]) : 31.5;
+
+        List<Course> completed = List.of(
+                new Course("Structured Programming", "CSE1101", 3.0, null, null, "A"),
+                new Course("Discrete Mathematics", "CSE1103", 3.0, null, null, "B+"),
+                new Course("Programming Lab", "CSE1102", 1.5, null, null, "A-"),
+                new Course("Physics", "PHY1201", 3.0, null, null, "C"));
+        long[] history = new long[Grade.values().length];
+        history[Grade.A_PLUS.ordinal()] = 10;
+        history[Grade.A.ordinal()] = 30;
+        history[Grade.B_PLUS.ordinal()] = 40;
+        history[Grade.C.ordinal()] = 20;
+        history[Grade.F.ordinal()] = 5;
+        double[] probabilities = CgpaProjection.gradeProbabilities(history, completed);
+
+        // Warm up so the JIT has compiled the sampling loop before timing
+        for (int i = 0; i < 5; i++) {
+            CgpaProjection.run(completed, remainingCredits, probabilities,
+                    CgpaProjection.DEFAULT_COURSE_CREDIT, 500_000, i);
+        }
+
+        double exact = exactProbabilityAtLeast(completed, remainingCredits, probabilities);
+        System.out.printf("Completed %.1f credits, %.1f remaining, %d cores%n",
+                FixedPointGpa.toStoredCredits(completed), remainingCredits, Runtime.getRuntime().availableProcessors());
+        System.out.printf("exact P(CGPA >= %.2f) = %.5f%n", THRESHOLD, exact);
+        for (int samples : new int[] {100_000, 1_000_000, 2_000_000, 10_000_000}) {
+            CgpaProjection.Projection projection = CgpaProjection.run(completed, remainingCredits, probabilities,
+                    CgpaProjection.DEFAULT_COURSE_CREDIT, samples, 42);
+            System.out.printf("%,11d samples: %5d ms  P = %.5f (error %+.5f)  p5/p50/p95 = %.2f/%.2f/%.2f%n",
+                    samples, projection.millis(), projection.probabilityAtLeast(THRESHOLD),
+                    projection.probabilityAtLeast(THRESHOLD) - exact,
+                    projection.percentile(5), projection.percentile(50), projection.percentile(95));
+        }
+    }
+
+    // Distribution of the summed grade points of the full-credit courses, then the last course
+    private static double exactProbabilityAtLeast(List<Course> completed, double remainingCredits,
+                                                  double[] probabilities) {
+        GradeScale scale = GradeScale.getActive();
+        int grades = probabilities.length;
+        long fullCredit = FixedPointGpa.toScaledCredit(CgpaProjection.DEFAULT_COURSE_CREDIT);
+        long remaining = FixedPointGpa.toScaledCredit(remainingCredits);
+        int fullCourses = (int) (remaining / fullCredit);
+        long lastCredit = remaining % fullCredit;
+        long maxPoint = 0;
+        for (int g = 0; g < grades; g++) {
+            maxPoint = Math.max(maxPoint, scale.scaledPoint(g));
+        }
+
+        double[] sums = new double[(int) (maxPoint * fullCourses) + 1];
+        sums[0] = 1;
+        for (int course = 0; course < fullCourses; course++) {
+            double[] next = new double[sums.length];
+            for (int sum = 0; sum < sums.length; sum++) {
+                if (sums[sum] == 0) continue;
+                for (int g = 0; g < grades; g++) {
+                    next[sum + (int) scale.scaledPoint(g)] += sums[sum] * probabilities[g];
+                }
+            }
+            sums = next;
+        }
+
+        FixedPointGpa.Totals counted = FixedPointGpa.totals(completed);
+        long completedQuality = counted.scaledQuality();
+        long totalCredits = counted.scaledCredits() + remaining;
+        long threshold = Math.round(THRESHOLD * FixedPointGpa.DISPLAY_SCALE);
+        double probability = 0;
+        for (int sum = 0; sum < sums.length; sum++) {
+            if (sums[sum] == 0) continue;
+            for (int g = 0; g < (lastCredit > 0 ? grades : 1); g++) {
+                long quality = completedQuality + fullCredit * sum + lastCredit * scale.scaledPoint(g);
+                double weight = lastCredit > 0 ? probabilities[g] : 1;
+                if (FixedPointGpa.divide(quality, totalCredits, FixedPointGpa.DISPLAY_SCALE) >= threshold) {
+                    probability += sums[sum] * weight;
+                }
+            }
+        }
+        return probability;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+import com.example.gpa.services.CohortStore;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a synthetic cohort transcript, then computes every student's GPA from it twice: with
+ * the transcript loaded into CohortStore (direct or mapped), and loaded as one List&lt;Course&gt;
+ * per student. Reports load time, GPA run time, heap in use after the load, and the
+ * collections and GC time of the load and of the GPA runs. Both paths must agree on every GPA.
+ *
+ * Run: java -cp gpa-core/target/classes:... com.example.gpa.benchmark.CohortStoreBenchmark [students] [courses] [direct|mapped]
+ */
+public class CohortStoreBenchmark {
+
+    private static final Grade[] GRADES = Grade.values();
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int coursesPer = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        CohortStore.Storage storage = args.length > 2
+                ? CohortStore.Storage.valueOf(args[2].toUpperCase()) : CohortStore.Storage.DIRECT;
+
+        Path transcript = Files.createTempFile("gpa-cohort-", ".csv");
+        try {
+            write(transcript, students, coursesPer);
+            System.out.printf("%d students x %d courses, %.0f MB transcript%n",
+                    students, coursesPer, Files.size(transcript) / 1e6);
+            GradeScale scale = GradeScale.getActive();
+
+            long heapBefore = usedHeap();
+            long[] gc = gcTotals();
+            long start = System.nanoTime();
+            long offHeapSum;
+            try (CohortStore store = CohortStore.fromTranscript(transcript, storage)) {
+                long loadNanos = System.nanoTime() - start;
+                long heap = usedHeap() - heapBefore;
+                long[] loadGc = gcSince(gc);
+                gc = gcTotals();
+                CohortStore.GpaRun run = null;
+                long[] runNanos = new long[RUNS];
+                for (int i = 0; i < RUNS; i++) {
+                    start = System.nanoTime();
+                    run = store.computeGpas(scale, RetakePolicy.LATEST);
+                    runNanos[i] = System.nanoTime() - start;
+                }
+                offHeapSum = 0;
+                for (int s = 0; s < store.students(); s++) {
+                    offHeapSum += Math.round(store.gpa(s) * FixedPointGpa.STORED_SCALE);
+                }
+                print("CohortStore " + storage, loadNanos, loadGc, heap, runNanos, gcSince(gc));
+                System.out.printf("  %.0f MB off-heap, %s%n", store.offHeapBytes() / 1e6, run);
+            }
+
+            heapBefore = usedHeap();
+            gc = gcTotals();
+            start = System.nanoTime();
+            List<List<Course>> cohort = load(transcript, students);
+            long loadNanos = System.nanoTime() - start;
+            long heap = usedHeap() - heapBefore;
+            long[] loadGc = gcSince(gc);
+            gc = gcTotals();
+            long heapSum = 0;
+            long[] runNanos = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                start = System.nanoTime();
+                long sum = 0;
+                for (List<Course> courses : cohort) {
+                    sum += FixedPointGpa.totals(courses, RetakePolicy.LATEST, scale).gpa(FixedPointGpa.STORED_SCALE);
+                }
+                runNanos[i] = System.nanoTime() - start;
+                heapSum = sum;
+            }
+            print("List<Course> per student", loadNanos, loadGc, heap, runNanos, gcSince(gc));
+            cohort = null;
+
+            if (heapSum != offHeapSum) {
+                throw new IllegalStateException("GPA sums differ: " + heapSum + " / " + offHeapSum);
+            }
+        } finally {
+            Files.deleteIfExists(transcript);
+        }
+    }
+
+    // About one course in eight is a retake of one the student took before
+    private static void write(Path transcript, int students, int coursesPer) throws Exception {
+        SplittableRandom random = new SplittableRandom(11);
+        try (BufferedWriter writer = Files.newBufferedWriter(transcript, StandardCharsets.UTF_8)) {
+            writer.write("student,code,credit,grade\n");
+            int[] taken = new int[coursesPer];
+            for (int s = 0; s < students; s++) {
+                for (int c = 0; c < coursesPer; c++) {
+                    taken[c] = c > 0 && random.nextInt(8) == 0 ? taken[random.nextInt(c)] : 1000 + random.nextInt(400);
+                    writer.write((100_000 + s) + ",CSE" + taken[c] + "," + (taken[c] % 4 == 3 ? "1.5" : "3")
+                            + "," + GRADES[random.nextInt(GRADES.length)].getLabel() + "\n");
+                }
+            }
+        }
+    }
+
+    private static List<List<Course>> load(Path transcript, int students) throws Exception {
+        List<List<Course>> cohort = new ArrayList<>(students);
+        int lastStudent = -1;
+        try (BufferedReader reader = Files.newBufferedReader(transcript, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(",");
+                int student = Integer.parseInt(fields[0]);
+                if (student != lastStudent) {
+                    cohort.add(new ArrayList<>());
+                    lastStudent = student;
+                }
+                cohort.get(cohort.size() - 1).add(new Course(fields[1], fields[1], Double.parseDouble(fields[2]),
+                        null, null, fields[3]));
+            }
+        }
+        return cohort;
+    }
+
+    private static void print(String label, long loadNanos, long[] loadGc, long heap, long[] runNanos, long[] runGc) {
+        long best = Long.MAX_VALUE;
+        for (long n : runNanos) best = Math.min(best, n);
+        System.out.printf("%-26s load %6.0f ms (%d GCs, %d ms)  heap +%4.0f MB  GPA run best %4.0f ms"
+                        + "  %d runs: %d GCs, %d ms%n",
+                label, loadNanos / 1e6, loadGc[0], loadGc[1], Math.max(0, heap) / 1e6, best / 1e6, RUNS, runGc[0], runGc[1]);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long[] gcSince(long[] before) {
+        long[] now = gcTotals();
+        return new long[]{now[0] - before[0], now[1] - before[1]};
+    }
+
+    // Collections and milliseconds spent collecting, over all collectors
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+}
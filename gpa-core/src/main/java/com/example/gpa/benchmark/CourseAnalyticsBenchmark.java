@@ -0,0 +1,130 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.database.AnalyticsDao;
+import com.example.gpa.database.DatabaseManager;
+import com.example.gpa.services.CourseAnalytics;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Loads a synthetic history into a scratch database and times CourseAnalytics:
+ * the initial column load, each grouping, an incremental refresh after new saves,
+ * and the reload after sessions are deleted.
+ *
+ * Run: java -cp gpa-core/target/classes:... com.example.gpa.benchmark.CourseAnalyticsBenchmark [sessions] [coursesPerSession]
+ */
+public class CourseAnalyticsBenchmark {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int TEACHERS = 60;
+    private static final int COURSES = 400;
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 250_000;
+        int coursesPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        Path db = Files.createTempFile("gpa-analytics-", ".db");
+        System.setProperty("gpa.db.path", db.toString());
+        try {
+            long start = System.nanoTime();
+            populate(sessions, coursesPerSession, 0);
+            System.out.printf("Inserted %d sessions x %d courses in %.1f s%n",
+                    sessions, coursesPerSession, (System.nanoTime() - start) / 1e9);
+
+            CourseAnalytics analytics = new CourseAnalytics(new AnalyticsDao());
+            start = System.nanoTime();
+            analytics.refresh();
+            System.out.printf("Initial load: %d rows in %.0f ms%n", analytics.getRowCount(), (System.nanoTime() - start) / 1e6);
+
+            for (CourseAnalytics.Dimension dimension : CourseAnalytics.Dimension.values()) {
+                for (CourseAnalytics.TimeBucket bucket : CourseAnalytics.TimeBucket.values()) {
+                    long[] times = new long[7];
+                    CourseAnalytics.Report report = null;
+                    for (int i = 0; i < times.length; i++) {
+                        report = analytics.query(dimension, bucket);
+                        times[i] = report.scanMicros();
+                    }
+                    Arrays.sort(times);
+                    System.out.printf("  %-11s %-5s %6d groups  median %6.1f ms  best %6.1f ms%n",
+                            dimension, bucket, report.groups().size(), times[times.length / 2] / 1000.0, times[0] / 1000.0);
+                }
+            }
+
+            populate(1_000, coursesPerSession, sessions);
+            start = System.nanoTime();
+            analytics.refresh();
+            System.out.printf("Incremental refresh after 1000 new sessions: %d rows in %.1f ms%n",
+                    analytics.getRowCount(), (System.nanoTime() - start) / 1e6);
+
+            try (Connection conn = DatabaseManager.getInstance().getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM gpa_summary WHERE id % 100 = 0");
+            }
+            start = System.nanoTime();
+            analytics.refresh();
+            System.out.printf("Refresh after deleting 1%% of sessions (full reload): %d rows in %.0f ms%n",
+                    analytics.getRowCount(), (System.nanoTime() - start) / 1e6);
+        } finally {
+            Files.deleteIfExists(db);
+        }
+    }
+
+    /**
+     * Bulk insert sessions spread over five years, with courses drawn from a fixed catalog
+     */
+    static void populate(int sessions, int coursesPerSession, int firstSession) throws SQLException {
+        SplittableRandom random = new SplittableRandom(firstSession + 1);
+        LocalDateTime origin = LocalDateTime.of(2021, 1, 1, 9, 0);
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (int t = 1; t <= TEACHERS; t++) {
+                    stmt.executeUpdate("INSERT OR IGNORE INTO teachers (id, name) VALUES (" + t + ", 'Teacher " + t + "')");
+                }
+                for (int c = 1; c <= COURSES; c++) {
+                    stmt.executeUpdate("INSERT OR IGNORE INTO course_catalog (id, code, name, teacher1_id, teacher2_id) VALUES ("
+                            + c + ", 'CSE" + (1000 + c) + "', 'Course " + c + "', " + (1 + c % TEACHERS) + ", "
+                            + (c % 3 == 0 ? 0 : 1 + (c * 7) % TEACHERS) + ")");
+                }
+            }
+            try (PreparedStatement summary = conn.prepareStatement(
+                         "INSERT INTO gpa_summary (id, gpa, credits, timestamp) VALUES (?, ?, ?, ?)");
+                 PreparedStatement course = conn.prepareStatement(
+                         "INSERT INTO courses (gpa_summary_id, catalog_id, credit, grade) VALUES (?, ?, ?, ?)")) {
+                for (int s = 0; s < sessions; s++) {
+                    int id = firstSession + s + 1;
+                    summary.setInt(1, id);
+                    summary.setDouble(2, 3.0);
+                    summary.setDouble(3, coursesPerSession * 3.0);
+                    summary.setString(4, origin.plusMinutes(random.nextLong(5L * 365 * 24 * 60)).format(TIMESTAMP_FORMAT));
+                    summary.addBatch();
+                    for (int c = 0; c < coursesPerSession; c++) {
+                        course.setInt(1, id);
+                        course.setInt(2, 1 + random.nextInt(COURSES));
+                        course.setDouble(3, 1.5 * (1 + random.nextInt(3)));
+                        course.setInt(4, random.nextInt(12));
+                        course.addBatch();
+                    }
+                    if (s % 5_000 == 4_999) {
+                        summary.executeBatch();
+                        course.executeBatch();
+                    }
+                }
+                summary.executeBatch();
+                course.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+}
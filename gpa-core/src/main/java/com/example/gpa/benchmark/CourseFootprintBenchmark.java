@@ -0,0 +1,139 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.model.Course;
+import com.example.gpa.model.GpaSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares heap bytes per resident session for the old Course layout
+ * (own copies of every string, eager ArrayList per summary) against the
+ * flyweight layout (shared CourseCatalogEntry, grade ordinal, shared empty list).
+ *
+ * Run: java -cp gpa-core/target/classes com.example.gpa.benchmark.CourseFootprintBenchmark [sessions] [coursesPerSession]
+ */
+public class CourseFootprintBenchmark {
+
+    private static final String[] GRADES = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F"};
+    private static final int DISTINCT_COURSES = 60;
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int coursesPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        System.out.println("Sessions: " + sessions + ", courses per session: " + coursesPerSession);
+
+        long legacyLoaded = measure(() -> buildLegacy(sessions, coursesPerSession));
+        long flyweightLoaded = measure(() -> buildFlyweight(sessions, coursesPerSession));
+        long legacyUnloaded = measure(() -> buildLegacy(sessions, 0));
+        long flyweightUnloaded = measure(() -> buildFlyweight(sessions, 0));
+
+        report("Sessions with courses loaded", legacyLoaded, flyweightLoaded, sessions);
+        report("Sessions without courses", legacyUnloaded, flyweightUnloaded, sessions);
+    }
+
+    private static void report(String label, long before, long after, int sessions) {
+        System.out.printf("%s: before %.1f bytes/session, after %.1f bytes/session (%.1f%% saved)%n",
+                label, (double) before / sessions, (double) after / sessions,
+                100.0 * (before - after) / before);
+    }
+
+    private static Object buildLegacy(int sessions, int coursesPerSession) {
+        List<LegacySummary> summaries = new ArrayList<>(sessions);
+        for (int s = 0; s < sessions; s++) {
+            LegacySummary summary = new LegacySummary(s, 3.5, coursesPerSession * 3.0, "2025-01-01 10:00:00");
+            for (int c = 0; c < coursesPerSession; c++) {
+                int course = (s + c) % DISTINCT_COURSES;
+                // new String(...) mimics ResultSet.getString handing out a fresh copy per row
+                summary.courses.add(new LegacyCourse(
+                        new String("Course " + course), new String("CSE" + (1000 + course)), 3.0,
+                        new String("Teacher " + course % 7), new String("Teacher " + course % 5),
+                        new String(GRADES[(s + c) % GRADES.length])));
+            }
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private static Object buildFlyweight(int sessions, int coursesPerSession) {
+        List<GpaSummary> summaries = new ArrayList<>(sessions);
+        for (int s = 0; s < sessions; s++) {
+            GpaSummary summary = new GpaSummary(s, 3.5, coursesPerSession * 3.0, 1_735_722_000_000L);
+            if (coursesPerSession > 0) {
+                List<Course> courses = new ArrayList<>(coursesPerSession);
+                for (int c = 0; c < coursesPerSession; c++) {
+                    int course = (s + c) % DISTINCT_COURSES;
+                    courses.add(new Course(
+                            new String("Course " + course), new String("CSE" + (1000 + course)), 3.0,
+                            new String("Teacher " + course % 7), new String("Teacher " + course % 5),
+                            new String(GRADES[(s + c) % GRADES.length])));
+                }
+                summary.setCourses(courses);
+            }
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    /**
+     * Retained heap of whatever the builder returns, measured as the used-heap delta
+     */
+    static long measure(java.util.function.Supplier<Object> builder) {
+        long before = usedHeap();
+        Object retained = builder.get();
+        long after = usedHeap();
+        if (retained.hashCode() == 42) {
+            System.out.print(""); // keep the result reachable until after the measurement
+        }
+        return after - before;
+    }
+
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // Copy of the Course layout before catalog entries were shared
+    private static final class LegacyCourse {
+        final String name;
+        final String code;
+        final double credit;
+        final String teacher1;
+        final String teacher2;
+        final String grade;
+
+        LegacyCourse(String name, String code, double credit, String teacher1, String teacher2, String grade) {
+            this.name = name;
+            this.code = code;
+            this.credit = credit;
+            this.teacher1 = teacher1;
+            this.teacher2 = teacher2;
+            this.grade = grade;
+        }
+    }
+
+    // Copy of the GpaSummary layout with an eagerly allocated course list
+    private static final class LegacySummary {
+        final int id;
+        final double gpa;
+        final double credits;
+        final String timestamp;
+        final List<LegacyCourse> courses = new ArrayList<>();
+
+        LegacySummary(int id, double gpa, double credits, String timestamp) {
+            this.id = id;
+            this.gpa = gpa;
+            this.credits = credits;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.SessionFingerprint;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.DatabaseConfig;
+import com.example.gpa.database.DatabaseManager;
+import com.example.gpa.model.Course;
+import com.example.gpa.services.CourseLayoutJob;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Loads a synthetic history into a scratch database in the row-per-course layout, then compares
+ * it with the packed layout: single-session load and save latency, the chunked column read of
+ * the batch jobs, and the database size after a VACUUM. The history is moved to the packed
+ * layout with CourseLayoutJob in between, which is timed too. Both layouts must load the same
+ * courses for every sampled session.
+ *
+ * Run: java -cp gpa-core/target/classes:... com.example.gpa.benchmark.CourseLayoutBenchmark [sessions] [coursesPerSession] [samples]
+ */
+public class CourseLayoutBenchmark {
+
+    private static final int CHUNK = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int coursesPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int samples = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        Path db = Files.createTempFile("gpa-layout-", ".db");
+        System.setProperty("gpa.db.path", db.toString());
+        PrintStream stdout = System.out;
+        try {
+            CourseAnalyticsBenchmark.populate(sessions, coursesPerSession, 0);
+            System.out.printf("%d sessions x %d courses, %d samples%n", sessions, coursesPerSession, samples);
+            CourseDao rowsDao = new CourseDao(DatabaseConfig.CourseLayout.ROWS);
+            CourseDao packedDao = new CourseDao(DatabaseConfig.CourseLayout.PACKED);
+
+            SplittableRandom random = new SplittableRandom(5);
+            int[] ids = new int[samples];
+            for (int i = 0; i < samples; i++) {
+                ids[i] = 1 + random.nextInt(sessions);
+            }
+            long rowsSize = vacuumedSize();
+
+            // The DAOs log every load and save; keep that out of the timings
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            List<List<Course>> loaded = new ArrayList<>(samples);
+            long[] rowsLoads = new long[samples];
+            for (int i = 0; i < samples; i++) {
+                long t = System.nanoTime();
+                loaded.add(rowsDao.fetchCoursesByGpaSummaryId(ids[i]));
+                rowsLoads[i] = System.nanoTime() - t;
+            }
+            long rowsChunks = chunkReads(rowsDao, sessions);
+            long[] rowsSaves = saves(rowsDao, loaded);
+            System.setOut(stdout);
+
+            long start = System.nanoTime();
+            CourseLayoutJob.Result moved = new CourseLayoutJob(rowsDao, DatabaseConfig.CourseLayout.PACKED).run(() -> false);
+            long migrationNanos = System.nanoTime() - start;
+            long packedSize = vacuumedSize();
+
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long[] packedLoads = new long[samples];
+            for (int i = 0; i < samples; i++) {
+                long t = System.nanoTime();
+                List<Course> courses = packedDao.fetchCoursesByGpaSummaryId(ids[i]);
+                packedLoads[i] = System.nanoTime() - t;
+                if (!same(courses, loaded.get(i))) {
+                    throw new IllegalStateException("Session " + ids[i] + " loads differently when packed");
+                }
+            }
+            long packedChunks = chunkReads(packedDao, sessions);
+            long[] packedSaves = saves(packedDao, loaded);
+            System.setOut(stdout);
+
+            print("Load session, rows", rowsLoads);
+            print("Load session, packed", packedLoads);
+            print("Save session, rows", rowsSaves);
+            print("Save session, packed", packedSaves);
+            System.out.printf("%-24s rows %6.0f ms  packed %6.0f ms%n",
+                    "Column read, all chunks", rowsChunks / 1e6, packedChunks / 1e6);
+            System.out.printf("%-24s rows %6.1f MB  packed %6.1f MB%n",
+                    "Database after VACUUM", rowsSize / 1e6, packedSize / 1e6);
+            System.out.printf("Migration to packed: %d sessions in %.0f ms (%.0f sessions/s)%n",
+                    moved.converted(), migrationNanos / 1e6, moved.converted() / (migrationNanos / 1e9));
+        } finally {
+            System.setOut(stdout);
+            DatabaseManager.getInstance().closeConnection();
+            Files.deleteIfExists(db);
+        }
+    }
+
+    // Every session read as primitive columns, as GpaRecomputeJob reads them
+    private static long chunkReads(CourseDao courseDao, int sessions) {
+        long start = System.nanoTime();
+        long rows = 0;
+        for (int first = 1; first <= sessions; first += CHUNK) {
+            rows += courseDao.fetchCourseColumns(first, Math.min(sessions, first + CHUNK - 1)).size();
+        }
+        if (rows == 0) {
+            throw new IllegalStateException("No courses read");
+        }
+        return System.nanoTime() - start;
+    }
+
+    // A new session with its courses, as the service saves it
+    private static long[] saves(CourseDao courseDao, List<List<Course>> sessions) {
+        long[] nanos = new long[sessions.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            List<Course> courses = sessions.get(i);
+            long t = System.nanoTime();
+            courseDao.insertSession(FixedPointGpa.toStoredGpa(courses), FixedPointGpa.toStoredCredits(courses),
+                    SessionFingerprint.of(courses), courses);
+            nanos[i] = System.nanoTime() - t;
+        }
+        return nanos;
+    }
+
+    private static boolean same(List<Course> a, List<Course> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            Course x = a.get(i);
+            Course y = b.get(i);
+            if (x.getCatalogEntry() != y.getCatalogEntry() || x.getScaledCredit() != y.getScaledCredit()
+                    || x.getGradeValue() != y.getGradeValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long vacuumedSize() throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("VACUUM");
+            try (ResultSet rs = stmt.executeQuery("SELECT page_count * page_size FROM pragma_page_count, pragma_page_size")) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static void print(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long n : nanos) total += n;
+        System.out.printf("%-24s mean %6.3f ms  p50 %6.3f ms  p99 %6.3f ms%n",
+                label, total / 1e6 / nanos.length, sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 99 / 100] / 1e6);
+    }
+}
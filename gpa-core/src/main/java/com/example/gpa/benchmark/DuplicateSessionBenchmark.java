@@ -0,0 +1,102 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.SessionFingerprint;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.DatabaseManager;
+import com.example.gpa.database.GpaSummaryDao;
+import com.example.gpa.model.Course;
+import com.example.gpa.services.DuplicateSessionJob;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Loads a synthetic history without content hashes into a scratch database, then times
+ * DuplicateSessionJob hashing it, saving sessions again the old way (insert) against the
+ * content-hash lookup that replaces the insert, and merging the duplicates the inserts left.
+ *
+ * Run: java -cp gpa-core/target/classes:... com.example.gpa.benchmark.DuplicateSessionBenchmark [sessions] [saves]
+ */
+public class DuplicateSessionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int saves = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        Path db = Files.createTempFile("gpa-duplicates-", ".db");
+        System.setProperty("gpa.db.path", db.toString());
+        PrintStream stdout = System.out;
+        try {
+            CourseAnalyticsBenchmark.populate(sessions, 8, 0);
+            GpaSummaryDao dao = new GpaSummaryDao();
+            CourseDao courseDao = new CourseDao();
+            DuplicateSessionJob job = new DuplicateSessionJob(dao, courseDao);
+            System.out.printf("%d sessions x 8 courses%n", sessions);
+
+            long start = System.nanoTime();
+            DuplicateSessionJob.Result hashed = job.run(() -> false);
+            System.out.printf("Hashing existing sessions: %d in %.0f ms%n",
+                    hashed.hashed(), (System.nanoTime() - start) / 1e6);
+
+            // Sessions to save again, as reopening and recalculating them would
+            SplittableRandom random = new SplittableRandom(7);
+            List<List<Course>> reopened = new ArrayList<>(saves);
+            for (int i = 0; i < saves; i++) {
+                int id = 1 + random.nextInt(sessions);
+                reopened.add(courseDao.fetchCoursesForSummaries(id, id).get(id));
+            }
+
+            // The DAOs log every insert; keep that out of the timings
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long[] lookups = new long[saves];
+            int found = 0;
+            for (int i = 0; i < saves; i++) {
+                List<Course> courses = reopened.get(i);
+                long t = System.nanoTime();
+                if (courseDao.findSessionWithCourses(SessionFingerprint.of(courses),
+                        FixedPointGpa.toStoredGpa(courses), FixedPointGpa.toStoredCredits(courses), courses) > 0) {
+                    found++;
+                }
+                lookups[i] = System.nanoTime() - t;
+            }
+            long[] inserts = new long[saves];
+            for (int i = 0; i < saves; i++) {
+                List<Course> courses = reopened.get(i);
+                long t = System.nanoTime();
+                courseDao.insertSession(FixedPointGpa.toStoredGpa(courses), FixedPointGpa.toStoredCredits(courses),
+                        SessionFingerprint.of(courses), courses);
+                inserts[i] = System.nanoTime() - t;
+            }
+            System.setOut(stdout);
+            print("Save as a new session (insert)", inserts, saves);
+            print("Content-hash lookup, no write", lookups, found);
+
+            start = System.nanoTime();
+            DuplicateSessionJob.Result merged = job.run(() -> false);
+            System.out.printf("Merging duplicates: %d groups, %d removed in %.0f ms%n",
+                    merged.groups(), merged.removedIds().size(), (System.nanoTime() - start) / 1e6);
+            System.out.println("Sessions left: " + dao.getCount());
+        } finally {
+            System.setOut(stdout);
+            DatabaseManager.getInstance().closeConnection();
+            Files.deleteIfExists(db);
+        }
+    }
+
+    private static void print(String label, long[] nanos, int matched) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long n : nanos) total += n;
+        System.out.printf("%-32s %d saves, %d matched  mean %6.3f ms  p50 %6.3f ms  p99 %6.3f ms%n",
+                label, nanos.length, matched, total / 1e6 / nanos.length,
+                sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 99 / 100] / 1e6);
+    }
+}
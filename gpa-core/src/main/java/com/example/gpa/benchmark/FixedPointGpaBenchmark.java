@@ -0,0 +1,137 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the old double GPA path against FixedPointGpa over many random sessions
+ * with fractional credits, for speed and for exactness against a BigDecimal reference.
+ *
+ * Run: java -cp gpa-core/target/classes com.example.gpa.benchmark.FixedPointGpaBenchmark [sessions] [coursesPerSession]
+ */
+public class FixedPointGpaBenchmark {
+
+    private static final double[] CREDITS = {0.75, 1.0, 1.5, 2.0, 3.0, 0.3, 1.2};
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int coursesPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+
+        SplittableRandom random = new SplittableRandom(42);
+        Grade[] grades = Grade.values();
+        List<List<Course>> batch = new ArrayList<>(sessions);
+        for (int s = 0; s < sessions; s++) {
+            List<Course> courses = new ArrayList<>(coursesPerSession);
+            for (int c = 0; c < coursesPerSession; c++) {
+                courses.add(new Course("Course " + c, "CSE" + (1000 + c),
+                        CREDITS[random.nextInt(CREDITS.length)], null, null,
+                        grades[random.nextInt(grades.length)].getLabel()));
+            }
+            batch.add(courses);
+        }
+
+        // Warm up both paths so the JIT has compiled them before timing
+        for (int i = 0; i < 3; i++) {
+            runDouble(batch);
+            runFixed(batch);
+        }
+
+        // Same data as flat columns, the layout batch/cohort jobs use
+        long[] scaledCredits = new long[sessions * coursesPerSession];
+        byte[] gradeOrdinals = new byte[sessions * coursesPerSession];
+        int row = 0;
+        for (List<Course> courses : batch) {
+            for (Course c : courses) {
+                scaledCredits[row] = c.getScaledCredit();
+                gradeOrdinals[row++] = (byte) c.getGradeValue().ordinal();
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            runColumns(scaledCredits, gradeOrdinals, coursesPerSession);
+        }
+
+        long start = System.nanoTime();
+        double doubleChecksum = runDouble(batch);
+        long doubleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long fixedChecksum = runFixed(batch);
+        long fixedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long columnChecksum = runColumns(scaledCredits, gradeOrdinals, coursesPerSession);
+        long columnNanos = System.nanoTime() - start;
+
+        int doubleMismatches = 0;
+        int fixedMismatches = 0;
+        for (List<Course> courses : batch) {
+            String expected = referenceDisplay(courses);
+            if (!expected.equals(String.format("%.2f", legacyGpa(courses)))) doubleMismatches++;
+            if (!expected.equals(FixedPointGpa.formatGpa(courses))) fixedMismatches++;
+        }
+
+        System.out.printf("Sessions: %d x %d courses%n", sessions, coursesPerSession);
+        System.out.printf("double path: %.1f ms (checksum %.4f), display mismatches vs exact: %d%n",
+                doubleNanos / 1e6, doubleChecksum, doubleMismatches);
+        System.out.printf("fixed path:  %.1f ms (checksum %d), display mismatches vs exact: %d%n",
+                fixedNanos / 1e6, fixedChecksum, fixedMismatches);
+        System.out.printf("fixed path over columns: %.1f ms (checksum %d)%n", columnNanos / 1e6, columnChecksum);
+    }
+
+    private static double runDouble(List<List<Course>> batch) {
+        double checksum = 0;
+        for (List<Course> courses : batch) {
+            checksum += legacyGpa(courses);
+        }
+        return checksum;
+    }
+
+    private static long runFixed(List<List<Course>> batch) {
+        long checksum = 0;
+        for (List<Course> courses : batch) {
+            checksum += FixedPointGpa.gpa(courses, FixedPointGpa.STORED_SCALE);
+        }
+        return checksum;
+    }
+
+    private static long runColumns(long[] scaledCredits, byte[] gradeOrdinals, int coursesPerSession) {
+        long checksum = 0;
+        for (int from = 0; from < scaledCredits.length; from += coursesPerSession) {
+            checksum += FixedPointGpa.gpa(scaledCredits, gradeOrdinals, from, from + coursesPerSession,
+                    FixedPointGpa.STORED_SCALE);
+        }
+        return checksum;
+    }
+
+    // The double accumulation GpaCalculator used before the fixed-point engine
+    private static double legacyGpa(List<Course> courses) {
+        double totalQualityPoints = 0.0;
+        double totalCredits = 0.0;
+        for (Course c : courses) {
+            double gradePoint = c.getGradeValue().getPoint();
+            totalQualityPoints += gradePoint * c.getCredit();
+            totalCredits += c.getCredit();
+        }
+        if (totalCredits == 0) return 0.0;
+        return totalQualityPoints / totalCredits;
+    }
+
+    // Exact decimal GPA with the documented policy: 4 decimals half-up, then 2 decimals half-up
+    private static String referenceDisplay(List<Course> courses) {
+        BigDecimal quality = BigDecimal.ZERO;
+        BigDecimal credits = BigDecimal.ZERO;
+        for (Course c : courses) {
+            BigDecimal credit = BigDecimal.valueOf(c.getCredit());
+            quality = quality.add(credit.multiply(BigDecimal.valueOf(c.getGradeValue().getPoint())));
+            credits = credits.add(credit);
+        }
+        return quality.divide(credits, 4, RoundingMode.HALF_UP).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
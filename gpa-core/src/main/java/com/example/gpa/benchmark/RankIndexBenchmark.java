@@ -0,0 +1,100 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.services.GpaRankIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares answering "where does this GPA rank" by sorting the whole history list (what callers
+ * did before) against GpaRankIndex, for rank and top-k queries and for the cost of keeping the
+ * index current under saves, edits and deletes.
+ *
+ * Run: java -cp gpa-core/target/classes com.example.gpa.benchmark.RankIndexBenchmark [sessions] [queries]
+ */
+public class RankIndexBenchmark {
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<GpaSummary> history = new ArrayList<>(sessions);
+        for (int id = 1; id <= sessions; id++) {
+            history.add(new GpaSummary(id, random.nextInt(40_001) / 10_000.0, 24.0, 0));
+        }
+        double[] probes = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            probes[i] = random.nextInt(40_001) / 10_000.0;
+        }
+
+        long start = System.nanoTime();
+        GpaRankIndex index = new GpaRankIndex();
+        index.rebuild(history);
+        long buildNanos = System.nanoTime() - start;
+
+        // Warm up both paths so the JIT has compiled them before timing
+        long checksum = 0;
+        for (int i = 0; i < 3; i++) {
+            checksum += sortedRank(history, probes[i]);
+            checksum += index.standing(probes[i]).rank();
+        }
+
+        start = System.nanoTime();
+        long sortedChecksum = 0;
+        for (double probe : probes) {
+            sortedChecksum += sortedRank(history, probe);
+        }
+        long sortedNanos = (System.nanoTime() - start) / queries;
+
+        int indexQueries = queries * 10_000;
+        start = System.nanoTime();
+        long indexChecksum = 0;
+        for (int i = 0; i < indexQueries; i++) {
+            indexChecksum += index.standing(probes[i % queries]).rank();
+        }
+        long indexNanos = (System.nanoTime() - start) / indexQueries;
+
+        start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            checksum += (long) (index.topK(10)[9] * 10_000);
+        }
+        long topKNanos = (System.nanoTime() - start) / 10_000;
+
+        int updates = 1_000_000;
+        start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            int id = 1 + random.nextInt(sessions + sessions / 10);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+            } else {
+                index.put(id, random.nextInt(40_001) / 10_000.0);
+            }
+        }
+        long updateNanos = (System.nanoTime() - start) / updates;
+
+        if (sortedChecksum * 10_000 != indexChecksum) {
+            throw new IllegalStateException("Index ranks differ from sorting: " + sortedChecksum + " vs " + indexChecksum / 10_000);
+        }
+        System.out.printf("Sessions: %d (checksum %d)%n", sessions, checksum);
+        System.out.printf("build index:          %.1f ms%n", buildNanos / 1e6);
+        System.out.printf("rank by sorting list: %.1f ms per query%n", sortedNanos / 1e6);
+        System.out.printf("rank from index:      %d ns per query%n", indexNanos);
+        System.out.printf("top-10 from index:    %d ns per query%n", topKNanos);
+        System.out.printf("index put/remove:     %d ns per update%n", updateNanos);
+    }
+
+    // Sort a copy of the history, highest GPA first, and count the sessions above the probe
+    private static int sortedRank(List<GpaSummary> history, double gpa) {
+        List<GpaSummary> sorted = new ArrayList<>(history);
+        sorted.sort(Comparator.comparingDouble(GpaSummary::getGpa).reversed());
+        int rank = 1;
+        while (rank <= sorted.size() && sorted.get(rank - 1).getGpa() > gpa) {
+            rank++;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.GpaSummaryDao;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.services.ReportGenerator;
+import com.example.gpa.services.ReportTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes a report for every session of a synthetic history and compares the straightforward
+ * way (load all summaries, fetch each session's courses with its own query, fill the template
+ * text with String.replace, one thread) against ReportGenerator with 1..n render threads.
+ * Reports time, reports and megabytes per second, and the peak heap of each run.
+ *
+ * Run: java -cp gpa-core/target/classes:... com.example.gpa.benchmark.ReportBenchmark [sessions] [coursesPerSession]
+ */
+public class ReportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int coursesPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        Path db = Files.createTempFile("gpa-reports-", ".db");
+        Path out = Files.createTempDirectory("gpa-reports-");
+        System.setProperty("gpa.db.path", db.toString());
+        try {
+            CourseAnalyticsBenchmark.populate(sessions, coursesPerSession, 0);
+            System.out.printf("%d sessions x %d courses, %d cores%n",
+                    sessions, coursesPerSession, Runtime.getRuntime().availableProcessors());
+            String text;
+            try (InputStream in = ReportTemplate.class.getResourceAsStream(
+                    "/com/example/gpa/reports/" + ReportTemplate.DEFAULT)) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            // Warm up both paths so the JIT has compiled them before timing
+            quiet(() -> naive(text, out.resolve("warmup"), 2_000));
+            generator(1).generate(out.resolve("warmup"), sessions - 2_000, null);
+
+            resetPeakHeap();
+            long start = System.nanoTime();
+            long[] naive = quiet(() -> naive(text, out.resolve("naive"), Integer.MAX_VALUE));
+            print("per-session queries, replace", naive[0], naive[1], (System.nanoTime() - start) / 1_000_000);
+
+            for (int threads = 1; threads <= 4; threads *= 2) {
+                resetPeakHeap();
+                ReportGenerator.Result result = generator(threads).generate(out.resolve("t" + threads), 0, null);
+                print("streaming, " + threads + " thread(s)", result.sessions(), result.bytes(), result.millis());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(out)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+            Files.deleteIfExists(db);
+        }
+    }
+
+    private static ReportGenerator generator(int threads) {
+        return new ReportGenerator(ReportTemplate.forResource(ReportTemplate.DEFAULT), new CourseDao(), threads);
+    }
+
+    // Re-reads the template text for every report, as a hand-rolled exporter would
+    private static long[] naive(String text, Path dir, int limit) throws IOException {
+        Files.createDirectories(dir);
+        CourseDao courseDao = new CourseDao();
+        List<GpaSummary> summaries = new GpaSummaryDao().fetchAllSummaries();
+        long written = 0;
+        long bytes = 0;
+        for (GpaSummary summary : summaries.subList(0, Math.min(limit, summaries.size()))) {
+            List<Course> courses = courseDao.fetchCoursesByGpaSummaryId(summary.getId());
+            int open = text.indexOf("{{#courses}}");
+            int close = text.indexOf("{{/courses}}");
+            String row = text.substring(open + "{{#courses}}".length(), close);
+            StringBuilder rows = new StringBuilder();
+            for (Course course : courses) {
+                rows.append(row.replace("{{name}}", escape(course.getName()))
+                        .replace("{{code}}", escape(course.getCode()))
+                        .replace("{{credit}}", String.valueOf(course.getCredit()))
+                        .replace("{{grade}}", course.getGrade())
+                        .replace("{{points}}", String.format("%.2f", course.getGradeValue().getPoint())));
+            }
+            String html = (text.substring(0, open) + rows + text.substring(close + "{{/courses}}".length()))
+                    .replace("{{id}}", String.valueOf(summary.getId()))
+                    .replace("{{date}}", summary.getTimestamp())
+                    .replace("{{courseCount}}", String.valueOf(courses.size()))
+                    .replace("{{gpa}}", FixedPointGpa.formatGpa(summary.getGpa()))
+                    .replace("{{credits}}", String.valueOf(summary.getCredits()));
+            byte[] data = html.getBytes(StandardCharsets.UTF_8);
+            Files.write(dir.resolve("session-" + summary.getId() + ".html"), data);
+            written++;
+            bytes += data.length;
+        }
+        return new long[] {written, bytes};
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+
+    private interface Work {
+        long[] run() throws IOException;
+    }
+
+    // The per-session DAO calls log a line each; keep them out of the output
+    private static long[] quiet(Work work) throws IOException {
+        PrintStream stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return work.run();
+        } finally {
+            System.setOut(stdout);
+        }
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static void print(String label, long reports, long bytes, long millis) {
+        System.out.printf("%-30s %7d ms  %6.0f reports/s  %5.1f MB/s  peak heap %4d MB%n",
+                label, millis, reports * 1000.0 / Math.max(1, millis), bytes / 1e6 * 1000.0 / Math.max(1, millis),
+                peakHeap() >> 20);
+    }
+}
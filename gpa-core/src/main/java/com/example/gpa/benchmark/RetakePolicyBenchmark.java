@@ -0,0 +1,194 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.RetakeTable;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Resolves retakes on long multi-year transcripts three ways: by sorting a copy of each
+ * transcript by course code and walking the groups, with a HashMap per transcript, and with
+ * the single-pass RetakeTable on both the Course path and the column path (code keys) used by
+ * GpaRecomputeJob. All four must agree on every GPA for every policy.
+ *
+ * Run: java -cp gpa-core/target/classes com.example.gpa.benchmark.RetakePolicyBenchmark [transcripts] [attempts]
+ */
+public class RetakePolicyBenchmark {
+
+    private static final Grade[] GRADES = Grade.values();
+
+    public static void main(String[] args) {
+        int transcripts = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int attemptsPer = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+
+        // About one attempt in six is a retake of an earlier course
+        SplittableRandom random = new SplittableRandom(42);
+        List<List<Course>> courses = new ArrayList<>(transcripts);
+        long[] credits = new long[transcripts * attemptsPer];
+        byte[] grades = new byte[transcripts * attemptsPer];
+        int[] codeKeys = new int[transcripts * attemptsPer];
+        int row = 0;
+        for (int t = 0; t < transcripts; t++) {
+            List<Course> transcript = new ArrayList<>(attemptsPer);
+            int distinct = 0;
+            for (int a = 0; a < attemptsPer; a++) {
+                int course = distinct > 0 && random.nextInt(6) == 0 ? random.nextInt(distinct) : distinct++;
+                double credit = course % 4 == 3 ? 1.5 : 3.0;
+                Grade grade = GRADES[random.nextInt(GRADES.length)];
+                transcript.add(new Course("Course " + course, String.format("CSE%04d", 1000 + course),
+                        credit, null, null, grade.getLabel()));
+                credits[row] = FixedPointGpa.toScaledCredit(credit);
+                grades[row] = (byte) grade.ordinal();
+                codeKeys[row] = course;
+                row++;
+            }
+            courses.add(transcript);
+        }
+
+        GradeScale scale = GradeScale.getActive();
+        System.out.printf("%d transcripts x %d attempts%n", transcripts, attemptsPer);
+        for (RetakePolicy policy : RetakePolicy.values()) {
+            if (policy == RetakePolicy.ALL) continue;
+            // Warm up all paths so the JIT has compiled them before timing
+            for (int i = 0; i < 3; i++) {
+                sorted(courses, policy, scale);
+                hashMap(courses, policy, scale);
+                table(courses, policy, scale);
+                columns(credits, grades, codeKeys, transcripts, attemptsPer, policy, scale);
+            }
+
+            long start = System.nanoTime();
+            long sortedSum = sorted(courses, policy, scale);
+            long sortedNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            long mapSum = hashMap(courses, policy, scale);
+            long mapNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            long tableSum = table(courses, policy, scale);
+            long tableNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            long columnSum = columns(credits, grades, codeKeys, transcripts, attemptsPer, policy, scale);
+            long columnNanos = System.nanoTime() - start;
+
+            if (sortedSum != mapSum || sortedSum != tableSum || sortedSum != columnSum) {
+                throw new IllegalStateException(policy + " results differ: " + sortedSum + " / " + mapSum
+                        + " / " + tableSum + " / " + columnSum);
+            }
+            System.out.printf("%-8s sort %6.1f ms  HashMap %6.1f ms  RetakeTable %6.1f ms  columns %6.1f ms  (%.0f ns/transcript)%n",
+                    policy, sortedNanos / 1e6, mapNanos / 1e6, tableNanos / 1e6, columnNanos / 1e6,
+                    (double) columnNanos / transcripts);
+        }
+    }
+
+    // Stable sort of a copy by code keeps attempt order within each course
+    private static long sorted(List<List<Course>> courses, RetakePolicy policy, GradeScale scale) {
+        long checksum = 0;
+        for (List<Course> transcript : courses) {
+            List<Course> byCode = new ArrayList<>(transcript);
+            byCode.sort(Comparator.comparing(Course::getCode));
+            long totalCredits = 0;
+            long totalQuality = 0;
+            int i = 0;
+            while (i < byCode.size()) {
+                int end = i + 1;
+                while (end < byCode.size() && byCode.get(end).getCode().equals(byCode.get(i).getCode())) {
+                    end++;
+                }
+                long[] counted = resolve(byCode.subList(i, end), policy, scale);
+                totalCredits += counted[0];
+                totalQuality += counted[1];
+                i = end;
+            }
+            checksum += FixedPointGpa.divide(totalQuality, totalCredits, FixedPointGpa.STORED_SCALE);
+        }
+        return checksum;
+    }
+
+    private static long hashMap(List<List<Course>> courses, RetakePolicy policy, GradeScale scale) {
+        long checksum = 0;
+        for (List<Course> transcript : courses) {
+            Map<String, List<Course>> byCode = new HashMap<>();
+            for (Course course : transcript) {
+                byCode.computeIfAbsent(course.getCode(), code -> new ArrayList<>(2)).add(course);
+            }
+            long totalCredits = 0;
+            long totalQuality = 0;
+            for (List<Course> attempts : byCode.values()) {
+                long[] counted = resolve(attempts, policy, scale);
+                totalCredits += counted[0];
+                totalQuality += counted[1];
+            }
+            checksum += FixedPointGpa.divide(totalQuality, totalCredits, FixedPointGpa.STORED_SCALE);
+        }
+        return checksum;
+    }
+
+    // Counted credit and quality of one course's attempts, oldest first
+    private static long[] resolve(List<Course> attempts, RetakePolicy policy, GradeScale scale) {
+        Course last = attempts.get(attempts.size() - 1);
+        long lastCredit = last.getScaledCredit();
+        switch (policy) {
+            case BEST -> {
+                Course best = attempts.get(0);
+                for (Course attempt : attempts) {
+                    if (point(attempt, scale) >= point(best, scale)) {
+                        best = attempt;
+                    }
+                }
+                return new long[] {best.getScaledCredit(), best.getScaledCredit() * point(best, scale)};
+            }
+            case LATEST -> {
+                return new long[] {lastCredit, lastCredit * point(last, scale)};
+            }
+            case AVERAGE -> {
+                long sum = 0;
+                for (Course attempt : attempts) {
+                    sum += point(attempt, scale);
+                }
+                long count = attempts.size();
+                return new long[] {lastCredit, (2 * lastCredit * sum + count) / (2 * count)};
+            }
+            default -> {
+                long credit = 0;
+                long quality = 0;
+                for (Course attempt : attempts) {
+                    credit += attempt.getScaledCredit();
+                    quality += attempt.getScaledCredit() * point(attempt, scale);
+                }
+                return new long[] {credit, quality};
+            }
+        }
+    }
+
+    private static long point(Course course, GradeScale scale) {
+        return scale.scaledPoint(course.getGradeValue().ordinal());
+    }
+
+    private static long table(List<List<Course>> courses, RetakePolicy policy, GradeScale scale) {
+        long checksum = 0;
+        for (List<Course> transcript : courses) {
+            checksum += FixedPointGpa.totals(transcript, policy, scale).gpa(FixedPointGpa.STORED_SCALE);
+        }
+        return checksum;
+    }
+
+    private static long columns(long[] credits, byte[] grades, int[] codeKeys, int transcripts, int attemptsPer,
+                                RetakePolicy policy, GradeScale scale) {
+        RetakeTable attempts = new RetakeTable(policy, attemptsPer);
+        long checksum = 0;
+        for (int t = 0; t < transcripts; t++) {
+            checksum += FixedPointGpa.gpa(credits, grades, codeKeys, t * attemptsPer, (t + 1) * attemptsPer,
+                    FixedPointGpa.STORED_SCALE, scale, attempts);
+        }
+        return checksum;
+    }
+}
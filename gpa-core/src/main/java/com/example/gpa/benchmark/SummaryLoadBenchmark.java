@@ -0,0 +1,169 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.database.DatabaseManager;
+import com.example.gpa.database.GpaSummaryDao;
+import com.example.gpa.model.GpaSummary;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Loads a large history into a scratch database and compares loading it into the old
+ * GpaSummary layout (timestamp kept as the column text) against the current one
+ * (epoch milliseconds), reporting bytes allocated during the load, retained heap and time.
+ * Also compares creating new summaries, which used to build a DateTimeFormatter each time.
+ *
+ * Run: java -cp gpa-core/target/classes:... com.example.gpa.benchmark.SummaryLoadBenchmark [rows]
+ */
+public class SummaryLoadBenchmark {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Path db = Files.createTempFile("gpa-summaries-", ".db");
+        System.setProperty("gpa.db.path", db.toString());
+        try {
+            populate(rows);
+            GpaSummaryDao dao = new GpaSummaryDao();
+
+            // Warm up both paths so JIT compilation is not charged to either
+            for (int i = 0; i < 2; i++) {
+                loadLegacy();
+                dao.fetchAllSummaries();
+            }
+
+            report("Load " + rows + " rows", rows,
+                    measure(SummaryLoadBenchmark::loadLegacy),
+                    measure(dao::fetchAllSummaries));
+
+            report("Create " + rows + " new summaries", rows,
+                    measure(() -> createLegacy(rows)),
+                    measure(() -> create(rows)));
+        } finally {
+            Files.deleteIfExists(db);
+        }
+    }
+
+    private record Measurement(long allocatedBytes, long retainedBytes, long nanos) {
+    }
+
+    private static Measurement measure(Supplier<Object> work) {
+        long heapBefore = CourseFootprintBenchmark.usedHeap();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Object retained = work.get();
+        long nanos = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        long heapAfter = CourseFootprintBenchmark.usedHeap();
+        if (retained.hashCode() == 42) {
+            System.out.print(""); // keep the result reachable until after the measurement
+        }
+        return new Measurement(allocated, heapAfter - heapBefore, nanos);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void report(String label, int rows, Measurement before, Measurement after) {
+        System.out.println(label + ":");
+        System.out.printf("  allocated  before %6.1f bytes/row  after %6.1f bytes/row  (%.1f%% less)%n",
+                (double) before.allocatedBytes() / rows, (double) after.allocatedBytes() / rows,
+                100.0 * (before.allocatedBytes() - after.allocatedBytes()) / before.allocatedBytes());
+        System.out.printf("  retained   before %6.1f bytes/row  after %6.1f bytes/row  (%.1f MB saved)%n",
+                (double) before.retainedBytes() / rows, (double) after.retainedBytes() / rows,
+                (before.retainedBytes() - after.retainedBytes()) / 1e6);
+        System.out.printf("  time       before %6.0f ms         after %6.0f ms%n",
+                before.nanos() / 1e6, after.nanos() / 1e6);
+    }
+
+    // Copy of the DAO mapping before timestamps were stored as epoch milliseconds
+    private static Object loadLegacy() {
+        List<LegacySummary> summaries = new ArrayList<>();
+        String selectSQL = "SELECT id, gpa, credits, timestamp FROM gpa_summary ORDER BY timestamp DESC";
+
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(selectSQL)) {
+            while (rs.next()) {
+                summaries.add(new LegacySummary(rs.getInt("id"), rs.getDouble("gpa"),
+                        rs.getDouble("credits"), rs.getString("timestamp")));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return summaries;
+    }
+
+    private static Object createLegacy(int count) {
+        List<LegacySummary> summaries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            summaries.add(new LegacySummary(3.5, 30.0));
+        }
+        return summaries;
+    }
+
+    private static Object create(int count) {
+        List<GpaSummary> summaries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            summaries.add(new GpaSummary(3.5, 30.0));
+        }
+        return summaries;
+    }
+
+    private static void populate(int rows) throws SQLException {
+        LocalDateTime origin = LocalDateTime.of(2021, 1, 1, 9, 0);
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO gpa_summary (gpa, credits, timestamp) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    pstmt.setDouble(1, (i % 401) / 100.0);
+                    pstmt.setDouble(2, 24.0);
+                    pstmt.setString(3, origin.plusMinutes(i * 7L).format(TIMESTAMP_FORMAT));
+                    pstmt.addBatch();
+                    if (i % 10_000 == 9_999) {
+                        pstmt.executeBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Copy of the GpaSummary layout with a text timestamp
+    private static final class LegacySummary {
+        final int id;
+        final double gpa;
+        final double credits;
+        final String timestamp;
+        final List<Object> courses = List.of();
+
+        LegacySummary(double gpa, double credits) {
+            this(0, gpa, credits, LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        }
+
+        LegacySummary(int id, double gpa, double credits, String timestamp) {
+            this.id = id;
+            this.gpa = gpa;
+            this.credits = credits;
+            this.timestamp = timestamp;
+        }
+    }
+}
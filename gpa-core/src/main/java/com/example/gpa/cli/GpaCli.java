@@ -0,0 +1,282 @@
+package com.example.gpa.cli;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.SessionFingerprint;
+import com.example.gpa.database.AnalyticsDao;
+import com.example.gpa.database.ChangeLogDao;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.DatabaseConfig;
+import com.example.gpa.database.DatabaseManager;
+import com.example.gpa.database.GpaSummaryDao;
+import com.example.gpa.database.JobCheckpointDao;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.services.CohortStore;
+import com.example.gpa.services.CourseImportParser;
+import com.example.gpa.services.CourseLayoutJob;
+import com.example.gpa.services.DuplicateSessionJob;
+import com.example.gpa.services.GpaRecomputeJob;
+import com.example.gpa.services.ReportGenerator;
+import com.example.gpa.services.ReportTemplate;
+import com.example.gpa.services.SyncEngine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Command-line entry point of the core jar, for batch jobs and servers.
+ *
+ * Runs without JavaFX: the work is done directly on the calling thread with the DAOs,
+ * and the database is only opened by commands that need it, so {@code gpa} on a file
+ * starts and finishes in a fraction of the desktop app's startup time.
+ *
+ * Usage: java -jar gpa-core.jar <command> [args]
+ *   gpa <file|-> [--save]   GPA of the courses in a CSV/TSV file (- reads stdin); --save stores the session
+ *                           unless a stored session already has the same courses
+ *   history [limit]         latest saved sessions, newest first (default 20)
+ *   recompute <scale-file> [retake-policy]
+ *                           recompute every stored GPA for a grade-scale properties file and,
+ *                           optionally, a retake policy (all, best, latest or average)
+ *   sync                    one history sync round with the configured sync directory
+ *   dedup                   delete sessions stored more than once with the same courses, keeping the oldest
+ *   report <dir> [threads] [template]
+ *                           one HTML report per stored session, written in parallel
+ *   cohort [transcript|-db] [retake-policy]
+ *                           GPA distribution of a student,code,credit,grade transcript file, or of every
+ *                           stored session, computed off-heap
+ *   layout <rows|packed>    move every stored session's courses to one layout (see db.courseLayout)
+ *
+ * Database settings come from gpa.properties / -Dgpa.* exactly as for the desktop app.
+ * Exit status: 0 on success, 1 on failure, 2 on a usage error.
+ */
+public final class GpaCli {
+
+    private GpaCli() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            usage();
+            System.exit(2);
+        }
+        int status;
+        try {
+            status = switch (args[0]) {
+                case "gpa" -> gpa(args);
+                case "history" -> history(args);
+                case "recompute" -> recompute(args);
+                case "sync" -> sync();
+                case "dedup" -> dedup();
+                case "report" -> report(args);
+                case "cohort" -> cohort(args);
+                case "layout" -> layout(args);
+                case "help", "--help", "-h" -> {
+                    usage();
+                    yield 0;
+                }
+                default -> {
+                    System.err.println("Unknown command: " + args[0]);
+                    usage();
+                    yield 2;
+                }
+            };
+        } catch (IOException | SQLException | RuntimeException e) {
+            System.err.println("[ERROR] " + args[0] + " failed: " + e.getMessage());
+            e.printStackTrace();
+            status = 1;
+        }
+        System.exit(status);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java -jar gpa-core.jar <command> [args]");
+        System.err.println("  gpa <file|-> [--save]   GPA of the courses in a CSV/TSV file (- reads stdin)");
+        System.err.println("  history [limit]         latest saved sessions, newest first (default 20)");
+        System.err.println("  recompute <scale-file> [all|best|latest|average]");
+        System.err.println("                          recompute every stored GPA for a grade scale and retake policy");
+        System.err.println("  sync                    one history sync round with the configured directory");
+        System.err.println("  dedup                   merge sessions stored more than once with the same courses");
+        System.err.println("  report <dir> [threads] [template]");
+        System.err.println("                          write one HTML report per stored session into dir");
+        System.err.println("  cohort [transcript|-db] [all|best|latest|average]");
+        System.err.println("                          GPA distribution of a transcript file or of every stored session");
+        System.err.println("  layout <rows|packed>    store every session's courses as rows or as one packed blob");
+    }
+
+    private static int gpa(String[] args) throws IOException {
+        if (args.length < 2) {
+            usage();
+            return 2;
+        }
+        boolean save = args.length > 2 && args[2].equals("--save");
+        // Calculate with the grade scale and retake policy of the last recompute
+        if (save) {
+            DatabaseManager.getInstance();
+        } else {
+            DatabaseManager.restoreGradingSettings(DatabaseConfig.load());
+        }
+        String text = args[1].equals("-")
+                ? new String(System.in.readAllBytes(), StandardCharsets.UTF_8)
+                : Files.readString(Path.of(args[1]));
+
+        CourseImportParser.ImportResult parsed = CourseImportParser.parse(text);
+        if (!parsed.errors().isEmpty()) {
+            System.err.print(parsed.errorReport());
+        }
+        if (parsed.courses().isEmpty()) {
+            System.err.println("No valid courses in " + args[1]);
+            return 1;
+        }
+
+        double gpa = FixedPointGpa.toStoredGpa(parsed.courses());
+        double credits = FixedPointGpa.toStoredCredits(parsed.courses());
+        System.out.printf("GPA %s over %s credits (%d courses)%n",
+                FixedPointGpa.formatGpa(gpa), credits, parsed.courses().size());
+
+        if (save) {
+            CourseDao courseDao = new CourseDao();
+            long contentHash = SessionFingerprint.of(parsed.courses());
+            int existing = courseDao.findSessionWithCourses(contentHash, gpa, credits, parsed.courses());
+            if (existing > 0) {
+                System.out.println("Already saved as session " + existing);
+            } else {
+                int id = courseDao.insertSession(gpa, credits, contentHash, parsed.courses());
+                if (id <= 0) {
+                    System.err.println("Failed to save GPA summary");
+                    return 1;
+                }
+                System.out.println("Saved as session " + id);
+                persist();
+            }
+        }
+        return parsed.errors().isEmpty() ? 0 : 1;
+    }
+
+    private static int history(String[] args) {
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        List<GpaSummary> summaries = new GpaSummaryDao().fetchAllSummaries();
+        for (GpaSummary summary : summaries.subList(0, Math.min(limit, summaries.size()))) {
+            System.out.printf("%6d  %s  GPA %s  %5.1f credits%n", summary.getId(), summary.getTimestamp(),
+                    FixedPointGpa.formatGpa(summary.getGpa()), summary.getCredits());
+        }
+        System.out.println(summaries.size() + " sessions in " + DatabaseManager.getInstance().getConfig().getPath());
+        return 0;
+    }
+
+    private static int recompute(String[] args) throws IOException {
+        if (args.length < 2) {
+            usage();
+            return 2;
+        }
+        GradeScale scale = GradeScale.load(Path.of(args[1]));
+        // Open first: the default policy is the one of the last recompute
+        DatabaseManager.getInstance();
+        RetakePolicy policy = args.length > 2 ? RetakePolicy.fromLabel(args[2]) : RetakePolicy.getActive();
+        GradeScale.setActive(scale);
+        RetakePolicy.setActive(policy);
+        GpaRecomputeJob job = new GpaRecomputeJob(scale, policy,
+                new GpaSummaryDao(), new CourseDao(), new JobCheckpointDao());
+        GpaRecomputeJob.Progress progress = job.runToCompletion(p ->
+                System.out.printf("  %d/%d sessions, %d updated%n", p.processed(), p.total(), p.updated()));
+        System.out.println("GPA recompute ended: " + progress);
+        persist();
+        return progress.done() ? 0 : 1;
+    }
+
+    private static int sync() throws IOException, SQLException {
+        DatabaseConfig config = DatabaseManager.getInstance().getConfig();
+        if (!config.isSyncEnabled()) {
+            System.err.println("History sync is not configured (set sync.dir or -Dgpa.sync.dir)");
+            return 1;
+        }
+        SyncEngine.Result result = new SyncEngine(config.getSyncDir(), new ChangeLogDao()).sync();
+        System.out.println("Sync finished: " + result);
+        persist();
+        return 0;
+    }
+
+    private static int dedup() {
+        DuplicateSessionJob.Result result = new DuplicateSessionJob(new GpaSummaryDao(), new CourseDao())
+                .run(() -> false);
+        System.out.printf("%d sessions hashed, %d duplicate sessions removed%n",
+                result.hashed(), result.removedIds().size());
+        persist();
+        return 0;
+    }
+
+    private static int report(String[] args) throws IOException {
+        if (args.length < 2) {
+            usage();
+            return 2;
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        DatabaseManager.getInstance();
+        ReportTemplate template = args.length > 3
+                ? ReportTemplate.forFile(Path.of(args[3]))
+                : ReportTemplate.forResource(ReportTemplate.DEFAULT);
+        ReportGenerator.Result result = new ReportGenerator(template, new CourseDao(), threads)
+                .generate(Path.of(args[1]), 0, p -> System.out.printf("  %d reports, %.0f/s%n",
+                        p.sessions(), p.sessionsPerSecond()));
+        System.out.printf("%d reports in %s (%.1f MB, %d ms, %.0f reports/s, %.1f MB/s)%n",
+                result.sessions(), args[1], result.bytes() / 1e6, result.millis(),
+                result.sessionsPerSecond(), result.megabytesPerSecond());
+        return result.failed() == 0 ? 0 : 1;
+    }
+
+    private static int cohort(String[] args) throws IOException {
+        boolean database = args.length < 2 || args[1].equals("-db");
+        if (database) {
+            // Stored sessions are computed with the grade scale and retake policy they were recomputed for
+            DatabaseManager.getInstance();
+        }
+        RetakePolicy policy = args.length > 2 ? RetakePolicy.fromLabel(args[2]) : RetakePolicy.getActive();
+        try (CohortStore store = database
+                ? CohortStore.fromDatabase(new AnalyticsDao(), CohortStore.Storage.DIRECT)
+                : CohortStore.fromTranscript(Path.of(args[1]), CohortStore.Storage.DIRECT)) {
+            CohortStore.GpaRun run = store.computeGpas(GradeScale.getActive(), policy);
+            System.out.printf("%d students, %d courses, retakes: %s%n", run.students(), run.rows(), policy.getLabel());
+            System.out.printf("Mean GPA %.4f, median %.4f (%d ms)%n", run.mean(), run.median(), run.millis());
+            long[] bands = store.gpaHistogram(0.5);
+            for (int b = 0; b < bands.length; b++) {
+                // The last band holds only the top grade point
+                String band = b == bands.length - 1
+                        ? String.format("%.2f", b * 0.5)
+                        : String.format("%.2f-%.2f", b * 0.5, b * 0.5 + 0.5);
+                System.out.printf("  %-9s %d%n", band, bands[b]);
+            }
+        }
+        return 0;
+    }
+
+    private static int layout(String[] args) {
+        if (args.length < 2 || !(args[1].equalsIgnoreCase("rows") || args[1].equalsIgnoreCase("packed"))) {
+            usage();
+            return 2;
+        }
+        DatabaseConfig.CourseLayout target = DatabaseConfig.CourseLayout.valueOf(args[1].toUpperCase());
+        CourseLayoutJob.Result result = new CourseLayoutJob(new CourseDao(), target).run(() -> false);
+        System.out.printf("%d sessions moved to the %s course layout in %d ms%n",
+                result.converted(), args[1].toLowerCase(), result.millis());
+        if (DatabaseManager.getInstance().getConfig().getCourseLayout() != target) {
+            System.out.println("New sessions still use the " + DatabaseManager.getInstance().getConfig().getCourseLayout()
+                    .name().toLowerCase() + " layout; set db.courseLayout=" + args[1].toLowerCase() + " to change that");
+        }
+        persist();
+        return 0;
+    }
+
+    /**
+     * In memory mode, write the database back to its file before the process exits
+     */
+    private static void persist() {
+        DatabaseManager database = DatabaseManager.getInstance();
+        if (database.isInMemory() && !database.backupToDisk()) {
+            System.err.println("[ERROR] Failed to write the in-memory database to " + database.getConfig().getPath());
+        }
+    }
+}
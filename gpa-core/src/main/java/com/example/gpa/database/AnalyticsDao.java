@@ -0,0 +1,270 @@
+package com.example.gpa.database;
+
+import com.example.gpa.FixedPointGpa;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulk reads for the course analytics engine.
+ * Rows are handed to primitive callbacks in ID order so the caller can append them to
+ * column arrays without building objects, and so a later scan can continue after the last ID.
+ * Sessions in the packed course layout have no course IDs; they are scanned separately by
+ * session ID ({@link #scanPackedCourses}) and counted in {@link SummaryCounts#packed()}.
+ */
+public class AnalyticsDao {
+
+    /**
+     * One stored course with the day its session was saved (days since 1970-01-01)
+     */
+    public interface CourseRowConsumer {
+        void accept(int courseId, int catalogId, double credit, int grade, int epochDay);
+    }
+
+    public interface CatalogRowConsumer {
+        void accept(int catalogId, String code, int teacher1Id, int teacher2Id);
+    }
+
+    /**
+     * One stored course of a session's transcript
+     */
+    public interface TranscriptRowConsumer {
+        void accept(int summaryId, int catalogId, double credit, int grade);
+    }
+
+    /**
+     * One course of a packed session with the day the session was saved
+     */
+    public interface PackedCourseConsumer {
+        void accept(int summaryId, int catalogId, double credit, int grade, int epochDay);
+    }
+
+    /**
+     * Size of gpa_summary, used to notice deletions between incremental scans.
+     * {@code packed} counts packed sessions up to the ID the counts were asked about, so a
+     * change of layout behind an incremental scan can be noticed too.
+     */
+    public record SummaryCounts(int total, int newerThan, int maxId, int packed) {
+    }
+
+    /**
+     * Number of course rows, and of sessions that have at least one
+     */
+    public record TranscriptCounts(long rows, int sessions) {
+    }
+
+    private final DatabaseManager dbManager;
+
+    public AnalyticsDao() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Stream courses with ID greater than {@code afterCourseId} whose session still exists
+     */
+    public void scanCourses(int afterCourseId, CourseRowConsumer consumer) {
+        String sql = "SELECT c.id, c.catalog_id, c.credit, c.grade, " +
+                     "CAST(julianday(s.timestamp) - 2440587.5 AS INTEGER) " +
+                     "FROM courses c JOIN gpa_summary s ON s.id = c.gpa_summary_id " +
+                     "WHERE c.id > ? ORDER BY c.id";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt(1), rs.getInt(2), rs.getDouble(3), rs.getInt(4), rs.getInt(5));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error scanning courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stream the courses of packed sessions with ID greater than {@code afterSummaryId} and up to
+     * {@code lastSummaryId}, in session and entry order
+     * @return number of packed sessions scanned
+     */
+    public int scanPackedCourses(int afterSummaryId, int lastSummaryId, PackedCourseConsumer consumer) {
+        String sql = "SELECT id, courses_blob, CAST(julianday(timestamp) - 2440587.5 AS INTEGER) " +
+                     "FROM gpa_summary WHERE id > ? AND id <= ? AND courses_blob IS NOT NULL ORDER BY id";
+        int sessions = 0;
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterSummaryId);
+            pstmt.setInt(2, lastSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int summaryId = rs.getInt(1);
+                    int epochDay = rs.getInt(3);
+                    PackedCourses.unpack(rs.getBytes(2), (catalogId, scaledCredit, grade) ->
+                            consumer.accept(summaryId, catalogId, (double) scaledCredit / FixedPointGpa.CREDIT_SCALE,
+                                    grade, epochDay));
+                    sessions++;
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error scanning packed courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return sessions;
+    }
+
+    /**
+     * Stream catalog entries with ID greater than {@code afterCatalogId}
+     */
+    public void scanCatalog(int afterCatalogId, CatalogRowConsumer consumer) {
+        String sql = "SELECT id, code, teacher1_id, teacher2_id FROM course_catalog WHERE id > ? ORDER BY id";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterCatalogId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getInt(4));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error scanning course catalog: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Teacher names by ID
+     */
+    public Map<Integer, String> fetchTeachers() {
+        Map<Integer, String> teachers = new HashMap<>();
+        String sql = "SELECT id, name FROM teachers";
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                teachers.put(rs.getInt(1), rs.getString(2));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error fetching teachers: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return teachers;
+    }
+
+    /**
+     * Course rows plus the courses of packed sessions; the packed ones are counted from
+     * each blob's header
+     */
+    public TranscriptCounts getTranscriptCounts() {
+        String sql = "SELECT COUNT(*), COUNT(DISTINCT gpa_summary_id) FROM courses";
+        String packedSQL = "SELECT courses_blob FROM gpa_summary WHERE courses_blob IS NOT NULL";
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            long rows = 0;
+            int sessions = 0;
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                if (rs.next()) {
+                    rows = rs.getLong(1);
+                    sessions = rs.getInt(2);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery(packedSQL)) {
+                while (rs.next()) {
+                    int count = PackedCourses.count(rs.getBytes(1));
+                    if (count > 0) {
+                        rows += count;
+                        sessions++;
+                    }
+                }
+            }
+            return new TranscriptCounts(rows, sessions);
+
+        } catch (SQLException e) {
+            System.err.println("Error counting courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return new TranscriptCounts(0, 0);
+    }
+
+    /**
+     * Stream every course ordered by session and then by entry order, so each session's
+     * courses arrive together and in the order they were taken. Packed sessions are
+     * unpacked in place.
+     * @return number of courses streamed, or -1 if the read failed
+     */
+    public long scanTranscripts(TranscriptRowConsumer consumer) {
+        String sql = "SELECT s.id, s.courses_blob, c.catalog_id, c.credit, c.grade " +
+                     "FROM gpa_summary s LEFT JOIN courses c ON c.gpa_summary_id = s.id ORDER BY s.id, c.id";
+        long[] rows = {0};
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                int summaryId = rs.getInt(1);
+                byte[] blob = rs.getBytes(2);
+                if (blob != null) {
+                    rows[0] += PackedCourses.unpack(blob, (catalogId, scaledCredit, grade) ->
+                            consumer.accept(summaryId, catalogId, (double) scaledCredit / FixedPointGpa.CREDIT_SCALE,
+                                    grade));
+                    continue;
+                }
+                int catalogId = rs.getInt(3);
+                if (!rs.wasNull()) {
+                    consumer.accept(summaryId, catalogId, rs.getDouble(4), rs.getInt(5));
+                    rows[0]++;
+                }
+            }
+            return rows[0];
+
+        } catch (SQLException e) {
+            System.err.println("Error scanning transcripts after " + rows[0] + " rows: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    public SummaryCounts getSummaryCounts(int afterSummaryId) {
+        String sql = "SELECT COUNT(*), COUNT(CASE WHEN id > ? THEN 1 END), COALESCE(MAX(id), 0), " +
+                     "COUNT(CASE WHEN id <= ? AND courses_blob IS NOT NULL THEN 1 END) FROM gpa_summary";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterSummaryId);
+            pstmt.setInt(2, afterSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new SummaryCounts(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error counting GPA summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return new SummaryCounts(0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.gpa.database;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.model.Grade;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Data Access Object for archived GPA sessions.
+ * Old sessions are moved out of gpa_summary/courses into gpa_archive, with their
+ * courses packed into one deflate-compressed blob of (catalog id, credit, grade).
+ * Sessions stored in the packed course layout are re-encoded into the same archive format.
+ * Archived sessions can still be listed and their courses loaded on demand.
+ */
+public class ArchiveDao {
+
+    private static final int BATCH_SIZE = 500;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DatabaseManager dbManager;
+    private final CourseCatalogDao catalogDao;
+
+    public ArchiveDao() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.catalogDao = new CourseCatalogDao();
+    }
+
+    /**
+     * Move every session with a timestamp before the cutoff into the archive, in one transaction.
+     * @param cutoffTimestamp sessions strictly older than this ("yyyy-MM-dd HH:mm:ss") are archived
+     * @return IDs of the archived sessions, empty if none or on error
+     */
+    public List<Integer> archiveOlderThan(String cutoffTimestamp) {
+        List<Integer> archivedIds = new ArrayList<>();
+        String selectSummariesSQL = "SELECT id, gpa, credits, timestamp, courses_blob FROM gpa_summary WHERE timestamp < ? ORDER BY id";
+        String selectCoursesSQL = "SELECT catalog_id, credit, grade FROM courses WHERE gpa_summary_id = ? ORDER BY id";
+        String insertArchiveSQL = "INSERT OR REPLACE INTO gpa_archive (id, gpa, credits, timestamp, archived_at, course_count, courses) " +
+                                  "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String archivedAt = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement summaries = conn.prepareStatement(selectSummariesSQL);
+                 PreparedStatement courses = conn.prepareStatement(selectCoursesSQL);
+                 PreparedStatement insert = conn.prepareStatement(insertArchiveSQL);
+                 PreparedStatement deleteCourses = conn.prepareStatement("DELETE FROM courses WHERE gpa_summary_id = ?");
+                 PreparedStatement deleteSummary = conn.prepareStatement("DELETE FROM gpa_summary WHERE id = ?")) {
+
+                // Retention is a per-instance policy: moving sessions to the archive is not synced
+                ChangeLogDao.setCaptureSuspended(conn, true);
+                summaries.setString(1, cutoffTimestamp);
+                try (ResultSet rs = summaries.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id");
+                        courses.setInt(1, id);
+                        int count = 0;
+                        byte[] blob = rs.getBytes("courses_blob");
+                        ByteArrayOutputStream packed = new ByteArrayOutputStream();
+                        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(packed))) {
+                            if (blob != null) {
+                                count = PackedCourses.unpack(blob, (catalogId, scaledCredit, grade) -> {
+                                    try {
+                                        out.writeInt(catalogId);
+                                        out.writeDouble((double) scaledCredit / FixedPointGpa.CREDIT_SCALE);
+                                        out.writeByte(grade);
+                                    } catch (IOException e) {
+                                        throw new SQLException("Failed to pack archived courses", e);
+                                    }
+                                });
+                            } else {
+                                try (ResultSet courseRs = courses.executeQuery()) {
+                                    while (courseRs.next()) {
+                                        out.writeInt(courseRs.getInt("catalog_id"));
+                                        out.writeDouble(courseRs.getDouble("credit"));
+                                        out.writeByte(courseRs.getInt("grade"));
+                                        count++;
+                                    }
+                                }
+                            }
+                        }
+
+                        insert.setInt(1, id);
+                        insert.setDouble(2, rs.getDouble("gpa"));
+                        insert.setDouble(3, rs.getDouble("credits"));
+                        insert.setString(4, rs.getString("timestamp"));
+                        insert.setString(5, archivedAt);
+                        insert.setInt(6, count);
+                        insert.setBytes(7, packed.toByteArray());
+                        insert.addBatch();
+                        deleteCourses.setInt(1, id);
+                        deleteCourses.addBatch();
+                        deleteSummary.setInt(1, id);
+                        deleteSummary.addBatch();
+                        archivedIds.add(id);
+                        if (archivedIds.size() % BATCH_SIZE == 0) {
+                            insert.executeBatch(); // keep the compressed blobs from piling up in memory
+                        }
+                    }
+                }
+
+                insert.executeBatch();
+                deleteCourses.executeBatch();
+                deleteSummary.executeBatch();
+                ChangeLogDao.setCaptureSuspended(conn, false);
+                conn.commit();
+                System.out.println("Archived " + archivedIds.size() + " GPA summaries older than " + cutoffTimestamp);
+
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                archivedIds.clear();
+                throw new SQLException("Archive transaction rolled back", e);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error archiving GPA summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return archivedIds;
+    }
+
+    /**
+     * Fetch all archived summaries (without courses), newest first
+     */
+    public List<GpaSummary> fetchArchivedSummaries() {
+        List<GpaSummary> summaries = new ArrayList<>();
+        String selectSQL = "SELECT id, gpa, credits, " + GpaSummaryDao.TIMESTAMP_SECONDS + " FROM gpa_archive ORDER BY timestamp DESC";
+
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(selectSQL)) {
+
+            while (rs.next()) {
+                summaries.add(new GpaSummary(
+                    rs.getInt("id"),
+                    rs.getDouble("gpa"),
+                    rs.getDouble("credits"),
+                    GpaSummary.fromLocalEpochSecond(rs.getLong("local_seconds"))
+                ));
+            }
+            System.out.println("Fetched " + summaries.size() + " archived GPA summaries.");
+
+        } catch (SQLException e) {
+            System.err.println("Error fetching archived summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Unpack the courses of one archived session
+     */
+    public List<Course> fetchArchivedCourses(int archivedId) {
+        List<Course> courses = new ArrayList<>();
+        String selectSQL = "SELECT course_count, courses FROM gpa_archive WHERE id = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+
+            pstmt.setInt(1, archivedId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int count = rs.getInt("course_count");
+                    byte[] blob = rs.getBytes("courses");
+                    try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(blob)))) {
+                        for (int i = 0; i < count; i++) {
+                            int catalogId = in.readInt();
+                            double credit = in.readDouble();
+                            Grade grade = Grade.fromOrdinal(in.readUnsignedByte());
+                            courses.add(new Course(catalogDao.getEntry(conn, catalogId), credit, grade));
+                        }
+                    }
+                }
+            }
+            System.out.println("Fetched " + courses.size() + " archived courses for summary ID: " + archivedId);
+
+        } catch (SQLException | IOException e) {
+            System.err.println("Error fetching archived courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return courses;
+    }
+
+    /**
+     * Get count of archived summaries
+     */
+    public int getArchivedCount() {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) AS count FROM gpa_archive")) {
+            if (rs.next()) {
+                return rs.getInt("count");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting archive count: " + e.getMessage());
+        }
+        return 0;
+    }
+}
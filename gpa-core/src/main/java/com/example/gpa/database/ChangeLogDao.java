@@ -0,0 +1,537 @@
+package com.example.gpa.database;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.CourseCatalog;
+import com.example.gpa.model.CourseCatalogEntry;
+import com.example.gpa.model.Grade;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for history sync.
+ *
+ * While sync is enabled, triggers append every insert, update and delete on gpa_summary and
+ * courses to change_log. An export turns the logged rows into one record per changed session
+ * (its current state, or a tombstone) and an import applies other instances' records.
+ *
+ * Sessions are identified across instances by (origin node, id on the origin). sync_identity maps
+ * that global id to the local id, so imported sessions get fresh local ids and courses are
+ * matched to the local catalog by value. Each record carries a version (time of the change,
+ * then node id as tie-break) and the newer version wins.
+ */
+public class ChangeLogDao {
+
+    private static final String SUMMARY_TABLE = "gpa_summary";
+
+    /**
+     * A course by value, so it can be resolved against any instance's catalog
+     */
+    public record SyncCourse(String code, String name, String teacher1, String teacher2, double credit, int grade) {
+    }
+
+    /**
+     * The state of one session after a change, or its deletion
+     */
+    public record SyncRecord(String origin, int originId, long version, String versionNode, boolean deleted,
+                             double gpa, double credits, String timestamp, List<SyncCourse> courses) {
+    }
+
+    public interface RecordSink {
+        void accept(SyncRecord record) throws IOException;
+    }
+
+    public interface RecordSource {
+        /**
+         * @return the next record, or null at the end
+         */
+        SyncRecord next() throws IOException;
+    }
+
+    /**
+     * Export that was written but not yet confirmed with {@link #completeExport}
+     */
+    public record PendingExport(long lastSeq, boolean snapshot, int records) {
+    }
+
+    public record ApplyResult(int applied, int skipped, int conflicts) {
+    }
+
+    private final DatabaseManager dbManager;
+    private final CourseCatalogDao catalogDao;
+
+    public ChangeLogDao() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.catalogDao = new CourseCatalogDao();
+    }
+
+    /**
+     * Stop or resume change capture for the caller's transaction.
+     * Used while applying other instances' changes, and by operations that are local only.
+     */
+    public static void setCaptureSuspended(Connection conn, boolean suspended) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE sync_state SET suspended = ? WHERE id = 1")) {
+            pstmt.setInt(1, suspended ? 1 : 0);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * This instance's node id, generated when the sync tables were created
+     */
+    public String getNodeId() {
+        try (Connection conn = dbManager.getConnection()) {
+            return nodeId(conn);
+        } catch (SQLException e) {
+            System.err.println("Error reading sync node id: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Number of the last change file applied from a peer, 0 if none
+     */
+    public long getLastFile(String peer) {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT last_file FROM sync_peer WHERE node = ?")) {
+
+            pstmt.setString(1, peer);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading sync progress: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Number of the last change file this instance wrote, 0 if none
+     */
+    public long getLastExport() {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_export FROM sync_state WHERE id = 1")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Error reading sync progress: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Number of logged changes not yet exported
+     */
+    public int getPendingChangeCount() {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM change_log")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("Error counting pending changes: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Stream one record per session changed since the last export to the sink.
+     * After a fresh start of change capture every session is exported once (snapshot).
+     * Nothing is marked as exported until {@link #completeExport} is called, so a failed write
+     * just repeats the same changes next time.
+     *
+     * @return the export to confirm, or null if there was nothing to export
+     */
+    public PendingExport collectChanges(RecordSink sink) throws SQLException, IOException {
+        try (Connection conn = dbManager.getConnection()) {
+            String self = nodeId(conn);
+            boolean snapshot;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT snapshot_pending FROM sync_state WHERE id = 1")) {
+                rs.next();
+                snapshot = rs.getInt(1) != 0;
+            }
+            long lastSeq;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM change_log")) {
+                rs.next();
+                lastSeq = rs.getLong(1);
+            }
+            if (!snapshot && lastSeq == 0) {
+                return null;
+            }
+
+            // Latest change per session in this export, and whether the session was created in it
+            String changed = "WITH l AS (SELECT summary_id, MAX(changed_at) AS changed_at, " +
+                             "MAX(tbl = '" + SUMMARY_TABLE + "' AND op = 'I') AS inserted " +
+                             "FROM change_log WHERE seq <= ? GROUP BY summary_id) ";
+            String sql = snapshot
+                    ? changed + "SELECT s.id, l.changed_at, COALESCE(l.inserted, 0) FROM gpa_summary s " +
+                      "LEFT JOIN l ON l.summary_id = s.id " +
+                      "UNION ALL SELECT summary_id, changed_at, inserted FROM l " +
+                      "WHERE summary_id NOT IN (SELECT id FROM gpa_summary)"
+                    : changed + "SELECT summary_id, changed_at, inserted FROM l";
+
+            int records = 0;
+            try (PreparedStatement changes = conn.prepareStatement(sql);
+                 PreparedStatement identity = conn.prepareStatement(
+                         "SELECT origin, origin_id, version, version_node, deleted FROM sync_identity WHERE local_id = ?");
+                 PreparedStatement summary = conn.prepareStatement(
+                         "SELECT gpa, credits, timestamp, courses_blob FROM gpa_summary WHERE id = ?");
+                 PreparedStatement courses = conn.prepareStatement(
+                         "SELECT c.credit, c.grade, cat.code, cat.name, t1.name, t2.name FROM courses c " +
+                         "JOIN course_catalog cat ON cat.id = c.catalog_id " +
+                         "LEFT JOIN teachers t1 ON t1.id = cat.teacher1_id " +
+                         "LEFT JOIN teachers t2 ON t2.id = cat.teacher2_id " +
+                         "WHERE c.gpa_summary_id = ? ORDER BY c.id")) {
+
+                changes.setLong(1, lastSeq);
+                try (ResultSet rs = changes.executeQuery()) {
+                    while (rs.next()) {
+                        int localId = rs.getInt(1);
+                        long changedAt = rs.getLong(2);
+                        boolean logged = !rs.wasNull();
+                        boolean insertedNow = rs.getInt(3) != 0;
+
+                        String origin = self;
+                        int originId = localId;
+                        long version = 0;
+                        String versionNode = self;
+                        boolean known = false;
+                        boolean knownDeleted = false;
+                        identity.setInt(1, localId);
+                        try (ResultSet id = identity.executeQuery()) {
+                            if (id.next()) {
+                                known = true;
+                                origin = id.getString(1);
+                                originId = id.getInt(2);
+                                version = id.getLong(3);
+                                versionNode = id.getString(4);
+                                knownDeleted = id.getInt(5) != 0;
+                            }
+                        }
+                        if (logged) {
+                            version = changedAt;
+                            versionNode = self;
+                        }
+                        if (snapshot && known && !logged) {
+                            continue; // already distributed by an earlier sync
+                        }
+
+                        summary.setInt(1, localId);
+                        try (ResultSet row = summary.executeQuery()) {
+                            if (!row.next()) {
+                                // Created and deleted since the last export, or already sent as deleted
+                                if ((!known && insertedNow) || (knownDeleted && !logged)) {
+                                    continue;
+                                }
+                                sink.accept(new SyncRecord(origin, originId, version, versionNode, true,
+                                        0, 0, null, List.of()));
+                                records++;
+                                continue;
+                            }
+
+                            List<SyncCourse> courseList = new ArrayList<>();
+                            byte[] blob = row.getBytes(4);
+                            if (blob != null) {
+                                PackedCourses.unpack(blob, (catalogId, scaledCredit, grade) -> {
+                                    CourseCatalogEntry entry = catalogDao.getEntry(conn, catalogId);
+                                    courseList.add(new SyncCourse(entry.getCode(), entry.getName(),
+                                            entry.getTeacher1(), entry.getTeacher2(),
+                                            (double) scaledCredit / FixedPointGpa.CREDIT_SCALE, grade));
+                                });
+                            } else {
+                                courses.setInt(1, localId);
+                                try (ResultSet c = courses.executeQuery()) {
+                                    while (c.next()) {
+                                        courseList.add(new SyncCourse(c.getString(3), c.getString(4),
+                                                c.getString(5), c.getString(6), c.getDouble(1), c.getInt(2)));
+                                    }
+                                }
+                            }
+                            sink.accept(new SyncRecord(origin, originId, version, versionNode, false,
+                                    row.getDouble(1), row.getDouble(2), row.getString(3), courseList));
+                            records++;
+                        }
+                    }
+                }
+            }
+            return new PendingExport(lastSeq, snapshot, records);
+        }
+    }
+
+    /**
+     * Mark an export as delivered: remember the global id and version of every exported session,
+     * drop the exported log rows and record the file number, in one transaction
+     */
+    public void completeExport(PendingExport export, long fileNumber) throws SQLException {
+        try (Connection conn = dbManager.getConnection()) {
+            String self = nodeId(conn);
+            String exported = "(SELECT summary_id FROM change_log WHERE seq <= ?)";
+            conn.setAutoCommit(false);
+            try (PreparedStatement insertLogged = conn.prepareStatement(
+                         "INSERT OR IGNORE INTO sync_identity (local_id, origin, origin_id, version, version_node) " +
+                         "SELECT summary_id, ?, summary_id, MAX(changed_at), ? FROM change_log WHERE seq <= ? GROUP BY summary_id");
+                 PreparedStatement updateLogged = conn.prepareStatement(
+                         "UPDATE sync_identity SET version_node = ?, " +
+                         "version = (SELECT MAX(changed_at) FROM change_log l WHERE l.summary_id = sync_identity.local_id AND l.seq <= ?), " +
+                         "deleted = (local_id NOT IN (SELECT id FROM gpa_summary)) " +
+                         "WHERE local_id IN " + exported);
+                 PreparedStatement insertSnapshot = conn.prepareStatement(
+                         "INSERT OR IGNORE INTO sync_identity (local_id, origin, origin_id, version, version_node) " +
+                         "SELECT id, ?, id, 0, ? FROM gpa_summary");
+                 PreparedStatement prune = conn.prepareStatement("DELETE FROM change_log WHERE seq <= ?");
+                 PreparedStatement state = conn.prepareStatement(
+                         "UPDATE sync_state SET last_export = ?, snapshot_pending = 0 WHERE id = 1")) {
+
+                insertLogged.setString(1, self);
+                insertLogged.setString(2, self);
+                insertLogged.setLong(3, export.lastSeq());
+                insertLogged.executeUpdate();
+
+                updateLogged.setString(1, self);
+                updateLogged.setLong(2, export.lastSeq());
+                updateLogged.setLong(3, export.lastSeq());
+                updateLogged.executeUpdate();
+
+                if (export.snapshot()) {
+                    insertSnapshot.setString(1, self);
+                    insertSnapshot.setString(2, self);
+                    insertSnapshot.executeUpdate();
+                }
+
+                prune.setLong(1, export.lastSeq());
+                prune.executeUpdate();
+
+                state.setLong(1, fileNumber);
+                state.executeUpdate();
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Apply one change file from a peer in a single transaction, with change capture suspended
+     * so the applied rows are not sent back out. The peer's progress is saved in the same
+     * transaction, so a file is applied exactly once.
+     */
+    public ApplyResult applyFile(String peer, long fileNumber, RecordSource source) throws SQLException, IOException {
+        int applied = 0;
+        int skipped = 0;
+        int conflicts = 0;
+
+        try (Connection conn = dbManager.getConnection()) {
+            String self = nodeId(conn);
+            conn.setAutoCommit(false);
+            try (PreparedStatement findIdentity = conn.prepareStatement(
+                         "SELECT local_id, version, version_node FROM sync_identity WHERE origin = ? AND origin_id = ?");
+                 PreparedStatement findLogged = conn.prepareStatement(
+                         "SELECT MAX(changed_at) FROM change_log WHERE summary_id = ?");
+                 PreparedStatement exists = conn.prepareStatement("SELECT 1 FROM gpa_summary WHERE id = ?");
+                 PreparedStatement insertSummary = conn.prepareStatement(
+                         "INSERT INTO gpa_summary (gpa, credits, timestamp) VALUES (?, ?, ?)");
+                 // The courses are replaced too, as rows; DuplicateSessionJob hashes them again
+                 PreparedStatement updateSummary = conn.prepareStatement(
+                         "UPDATE gpa_summary SET gpa = ?, credits = ?, timestamp = ?, content_hash = NULL, " +
+                         "courses_blob = NULL WHERE id = ?");
+                 PreparedStatement deleteSummary = conn.prepareStatement("DELETE FROM gpa_summary WHERE id = ?");
+                 PreparedStatement deleteCourses = conn.prepareStatement("DELETE FROM courses WHERE gpa_summary_id = ?");
+                 PreparedStatement insertCourse = conn.prepareStatement(
+                         "INSERT INTO courses (gpa_summary_id, catalog_id, credit, grade) VALUES (?, ?, ?, ?)");
+                 PreparedStatement dropLogged = conn.prepareStatement("DELETE FROM change_log WHERE summary_id = ?");
+                 PreparedStatement updateIdentity = conn.prepareStatement(
+                         "UPDATE sync_identity SET local_id = ?, version = ?, version_node = ?, deleted = ? " +
+                         "WHERE origin = ? AND origin_id = ?");
+                 PreparedStatement insertIdentity = conn.prepareStatement(
+                         "INSERT INTO sync_identity (local_id, origin, origin_id, version, version_node, deleted) " +
+                         "VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement saveProgress = conn.prepareStatement(
+                         "INSERT OR REPLACE INTO sync_peer (node, last_file) VALUES (?, ?)")) {
+
+                setCaptureSuspended(conn, true);
+
+                SyncRecord record;
+                while ((record = source.next()) != null) {
+                    // Resolve the global id to a local one
+                    int localId = 0;
+                    boolean known = false;
+                    long localVersion = 0;
+                    String localNode = "";
+                    findIdentity.setString(1, record.origin());
+                    findIdentity.setInt(2, record.originId());
+                    try (ResultSet rs = findIdentity.executeQuery()) {
+                        if (rs.next()) {
+                            known = true;
+                            localId = rs.getInt(1);
+                            localVersion = rs.getLong(2);
+                            localNode = rs.getString(3);
+                        }
+                    }
+                    if (!known && record.origin().equals(self)) {
+                        localId = record.originId();
+                    }
+
+                    // Local edits not exported yet are newer than anything in sync_identity
+                    boolean pendingLocal = false;
+                    if (localId > 0) {
+                        findLogged.setInt(1, localId);
+                        try (ResultSet rs = findLogged.executeQuery()) {
+                            long changedAt = rs.next() ? rs.getLong(1) : 0;
+                            if (!rs.wasNull()) {
+                                pendingLocal = true;
+                                localVersion = changedAt;
+                                localNode = self;
+                            }
+                        }
+                    }
+
+                    if (compareVersions(record.version(), record.versionNode(), localVersion, localNode) <= 0) {
+                        skipped++;
+                        if (pendingLocal) conflicts++;
+                        continue;
+                    }
+                    if (pendingLocal) conflicts++;
+
+                    int resolvedId = localId;
+                    boolean present = false;
+                    if (localId > 0) {
+                        exists.setInt(1, localId);
+                        try (ResultSet rs = exists.executeQuery()) {
+                            present = rs.next();
+                        }
+                    }
+
+                    if (record.deleted()) {
+                        if (present) {
+                            deleteCourses.setInt(1, localId);
+                            deleteCourses.executeUpdate();
+                            deleteSummary.setInt(1, localId);
+                            deleteSummary.executeUpdate();
+                        } else if (localId == 0) {
+                            // Never seen here: keep the tombstone so an older update arriving later is ignored
+                            localId = nextTombstoneId(conn);
+                        }
+                    } else {
+                        if (present) {
+                            updateSummary.setDouble(1, record.gpa());
+                            updateSummary.setDouble(2, record.credits());
+                            updateSummary.setString(3, record.timestamp());
+                            updateSummary.setInt(4, localId);
+                            updateSummary.executeUpdate();
+                            deleteCourses.setInt(1, localId);
+                            deleteCourses.executeUpdate();
+                        } else {
+                            insertSummary.setDouble(1, record.gpa());
+                            insertSummary.setDouble(2, record.credits());
+                            insertSummary.setString(3, record.timestamp());
+                            insertSummary.executeUpdate();
+                            localId = lastInsertId(conn);
+                        }
+                        for (SyncCourse course : record.courses()) {
+                            Course resolved = new Course(
+                                    CourseCatalog.getInstance().intern(course.name(), course.code(),
+                                            course.teacher1(), course.teacher2()),
+                                    course.credit(), Grade.fromOrdinal(course.grade()));
+                            insertCourse.setInt(1, localId);
+                            insertCourse.setInt(2, catalogDao.resolveCatalogId(conn, resolved));
+                            insertCourse.setDouble(3, course.credit());
+                            insertCourse.setInt(4, course.grade());
+                            insertCourse.addBatch();
+                        }
+                        insertCourse.executeBatch();
+                    }
+
+                    // The applied state supersedes local edits of this session that were not exported yet
+                    dropLogged.setInt(1, localId);
+                    dropLogged.executeUpdate();
+                    if (resolvedId > 0 && resolvedId != localId) {
+                        dropLogged.setInt(1, resolvedId);
+                        dropLogged.executeUpdate();
+                    }
+
+                    PreparedStatement identity = known ? updateIdentity : insertIdentity;
+                    if (known) {
+                        updateIdentity.setInt(1, localId);
+                        updateIdentity.setLong(2, record.version());
+                        updateIdentity.setString(3, record.versionNode());
+                        updateIdentity.setInt(4, record.deleted() ? 1 : 0);
+                        updateIdentity.setString(5, record.origin());
+                        updateIdentity.setInt(6, record.originId());
+                    } else {
+                        insertIdentity.setInt(1, localId);
+                        insertIdentity.setString(2, record.origin());
+                        insertIdentity.setInt(3, record.originId());
+                        insertIdentity.setLong(4, record.version());
+                        insertIdentity.setString(5, record.versionNode());
+                        insertIdentity.setInt(6, record.deleted() ? 1 : 0);
+                    }
+                    identity.executeUpdate();
+                    applied++;
+                }
+
+                saveProgress.setString(1, peer);
+                saveProgress.setLong(2, fileNumber);
+                saveProgress.executeUpdate();
+                setCaptureSuspended(conn, false);
+                conn.commit();
+
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return new ApplyResult(applied, skipped, conflicts);
+    }
+
+    /**
+     * Order versions by change time, then node id, so every instance picks the same winner
+     */
+    static int compareVersions(long version, String node, long otherVersion, String otherNode) {
+        int byTime = Long.compare(version, otherVersion);
+        return byTime != 0 ? byTime : node.compareTo(otherNode);
+    }
+
+    private static String nodeId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT node_id FROM sync_state WHERE id = 1")) {
+            if (rs.next()) {
+                return rs.getString(1);
+            }
+        }
+        throw new SQLException("Sync state is missing");
+    }
+
+    private static int lastInsertId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Negative ids mark tombstones with no local row; they never collide with session ids
+     */
+    private static int nextTombstoneId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(0, COALESCE(MIN(local_id), 0)) - 1 FROM sync_identity")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
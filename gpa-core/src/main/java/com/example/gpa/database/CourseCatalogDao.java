@@ -0,0 +1,160 @@
+package com.example.gpa.database;
+
+import com.example.gpa.model.Course;
+import com.example.gpa.model.CourseCatalog;
+import com.example.gpa.model.CourseCatalogEntry;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data Access Object for the normalized course catalog.
+ * Resolves (code, name, teacher1, teacher2) to a shared catalog row and
+ * interns teacher names into the teachers table.
+ * Resolved ids and entries are cached, so repeated sessions cost no extra queries.
+ * Entries read back are interned through {@link CourseCatalog}, so they are the same
+ * instances the UI uses.
+ */
+public class CourseCatalogDao {
+
+    // Teacher id 0 means "no teacher" (NULL in the legacy schema)
+    static final int NO_TEACHER = 0;
+
+    private final Map<String, Integer> teacherIds = new HashMap<>();
+    private final Map<Integer, String> teacherNames = new HashMap<>();
+    private final Map<CourseCatalogEntry, Integer> catalogIds = new HashMap<>();
+    private final Map<Integer, CourseCatalogEntry> entries = new HashMap<>();
+
+    /**
+     * Get the catalog id for a course, inserting catalog and teacher rows if needed.
+     * Must be called with the caller's connection so it joins the caller's transaction.
+     */
+    public synchronized int resolveCatalogId(Connection conn, Course course) throws SQLException {
+        CourseCatalogEntry entry = course.getCatalogEntry();
+        Integer cached = catalogIds.get(entry);
+        if (cached != null) {
+            return cached;
+        }
+
+        int teacher1Id = resolveTeacherId(conn, course.getTeacher1());
+        int teacher2Id = resolveTeacherId(conn, course.getTeacher2());
+
+        String insertSQL = "INSERT OR IGNORE INTO course_catalog (code, name, teacher1_id, teacher2_id) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+            pstmt.setString(1, course.getCode());
+            pstmt.setString(2, course.getName());
+            pstmt.setInt(3, teacher1Id);
+            pstmt.setInt(4, teacher2Id);
+            pstmt.executeUpdate();
+        }
+
+        String selectSQL = "SELECT id FROM course_catalog WHERE code = ? AND name = ? AND teacher1_id = ? AND teacher2_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            pstmt.setString(1, course.getCode());
+            pstmt.setString(2, course.getName());
+            pstmt.setInt(3, teacher1Id);
+            pstmt.setInt(4, teacher2Id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id = rs.getInt(1);
+                    catalogIds.put(entry, id);
+                    entries.put(id, entry);
+                    return id;
+                }
+            }
+        }
+        throw new SQLException("Failed to resolve catalog entry for course " + course.getCode());
+    }
+
+    /**
+     * Get the shared catalog entry for an id.
+     * The same instance is returned for every course referring to that id.
+     */
+    public synchronized CourseCatalogEntry getEntry(Connection conn, int catalogId) throws SQLException {
+        CourseCatalogEntry cached = entries.get(catalogId);
+        if (cached != null) {
+            return cached;
+        }
+
+        String selectSQL = "SELECT code, name, teacher1_id, teacher2_id FROM course_catalog WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            pstmt.setInt(1, catalogId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Unknown catalog id: " + catalogId);
+                }
+                String code = rs.getString("code");
+                String name = rs.getString("name");
+                int teacher1Id = rs.getInt("teacher1_id");
+                int teacher2Id = rs.getInt("teacher2_id");
+
+                CourseCatalogEntry entry = CourseCatalog.getInstance().intern(name, code,
+                        getTeacherName(conn, teacher1Id), getTeacherName(conn, teacher2Id));
+                entries.put(catalogId, entry);
+                catalogIds.put(entry, catalogId);
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Drop all cached ids, e.g. after the catalog tables were rewritten externally
+     */
+    public synchronized void clearCache() {
+        teacherIds.clear();
+        teacherNames.clear();
+        catalogIds.clear();
+        entries.clear();
+    }
+
+    private int resolveTeacherId(Connection conn, String teacher) throws SQLException {
+        if (teacher == null) {
+            return NO_TEACHER;
+        }
+        Integer cached = teacherIds.get(teacher);
+        if (cached != null) {
+            return cached;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT OR IGNORE INTO teachers (name) VALUES (?)")) {
+            pstmt.setString(1, teacher);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT id FROM teachers WHERE name = ?")) {
+            pstmt.setString(1, teacher);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    int id = rs.getInt(1);
+                    teacherIds.put(teacher, id);
+                    teacherNames.put(id, teacher);
+                    return id;
+                }
+            }
+        }
+        throw new SQLException("Failed to resolve teacher: " + teacher);
+    }
+
+    private String getTeacherName(Connection conn, int teacherId) throws SQLException {
+        if (teacherId == NO_TEACHER) {
+            return null;
+        }
+        String cached = teacherNames.get(teacherId);
+        if (cached != null) {
+            return cached;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT name FROM teachers WHERE id = ?")) {
+            pstmt.setInt(1, teacherId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    String name = rs.getString(1);
+                    teacherNames.put(teacherId, name);
+                    teacherIds.put(name, teacherId);
+                    return name;
+                }
+            }
+        }
+        return null;
+    }
+}
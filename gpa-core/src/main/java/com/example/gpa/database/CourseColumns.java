@@ -0,0 +1,53 @@
+package com.example.gpa.database;
+
+import java.util.Arrays;
+
+/**
+ * Course rows held as parallel primitive arrays instead of Course objects.
+ * Used by batch jobs that stream large ranges of the courses table.
+ * Rows are ordered by summary id, so each summary's courses are contiguous.
+ */
+public final class CourseColumns {
+    private int size;
+    private int[] summaryIds;
+    private int[] catalogIds;
+    private int[] codeKeys;
+    private long[] scaledCredits;
+    private byte[] gradeOrdinals;
+
+    public CourseColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.summaryIds = new int[capacity];
+        this.catalogIds = new int[capacity];
+        this.codeKeys = new int[capacity];
+        this.scaledCredits = new long[capacity];
+        this.gradeOrdinals = new byte[capacity];
+    }
+
+    /**
+     * @param codeKey identifies the course code: rows with equal keys are attempts of the same course
+     */
+    public void add(int summaryId, int catalogId, int codeKey, long scaledCredit, int gradeOrdinal) {
+        if (size == summaryIds.length) {
+            int capacity = size * 2;
+            summaryIds = Arrays.copyOf(summaryIds, capacity);
+            catalogIds = Arrays.copyOf(catalogIds, capacity);
+            codeKeys = Arrays.copyOf(codeKeys, capacity);
+            scaledCredits = Arrays.copyOf(scaledCredits, capacity);
+            gradeOrdinals = Arrays.copyOf(gradeOrdinals, capacity);
+        }
+        summaryIds[size] = summaryId;
+        catalogIds[size] = catalogId;
+        codeKeys[size] = codeKey;
+        scaledCredits[size] = scaledCredit;
+        gradeOrdinals[size] = (byte) gradeOrdinal;
+        size++;
+    }
+
+    public int size() { return size; }
+    public int[] summaryIds() { return summaryIds; }
+    public int[] catalogIds() { return catalogIds; }
+    public int[] codeKeys() { return codeKeys; }
+    public long[] scaledCredits() { return scaledCredits; }
+    public byte[] gradeOrdinals() { return gradeOrdinals; }
+}
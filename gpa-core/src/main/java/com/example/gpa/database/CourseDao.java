@@ -0,0 +1,608 @@
+package com.example.gpa.database;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.SessionFingerprint;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.CourseCatalogEntry;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.model.Grade;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Data Access Object for Course entities.
+ * Handles CRUD operations for courses linked to GPA summaries.
+ *
+ * A session's courses are stored in one of two layouts: one courses row per course, or all
+ * of them packed into gpa_summary.courses_blob (see {@link PackedCourses}), which loads and
+ * saves with a single row read or write. A NULL blob means the courses are rows; a session
+ * never has both. New sessions use {@link DatabaseConfig#getCourseLayout()} unless a layout is
+ * passed in, and {@link #insertSession} writes a new summary and its courses in one transaction.
+ * The reads here handle either layout, and {@link #convertLayout} moves stored sessions between them.
+ */
+public class CourseDao {
+    
+    private final CourseCatalogDao catalogDao;
+    // null: the configured layout
+    private final DatabaseConfig.CourseLayout layout;
+    
+    public CourseDao() {
+        this(null);
+    }
+    
+    /**
+     * @param layout how {@link #insertCourses} stores the courses of new sessions, overriding the configuration
+     */
+    public CourseDao(DatabaseConfig.CourseLayout layout) {
+        this.catalogDao = new CourseCatalogDao();
+        this.layout = layout;
+    }
+    
+    /**
+     * Insert a new GPA summary together with its courses, in one transaction, so a crash never
+     * leaves a session without its courses. In the packed layout the blob is part of the
+     * gpa_summary INSERT, so the session is a single row write.
+     * @param contentHash {@link SessionFingerprint#of} of {@code courses}
+     * @return the ID of the inserted summary, or -1 if failed
+     */
+    public int insertSession(double gpa, double credits, long contentHash, List<Course> courses) {
+        String summarySql = "INSERT INTO gpa_summary (gpa, credits, timestamp, content_hash, courses_blob) VALUES (?, ?, ?, ?, ?)";
+        String courseSql = "INSERT INTO courses (gpa_summary_id, catalog_id, credit, grade) VALUES (?, ?, ?, ?)";
+        boolean packed = targetLayout() == DatabaseConfig.CourseLayout.PACKED && !courses.isEmpty();
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement summaryStmt = conn.prepareStatement(summarySql);
+                 PreparedStatement courseStmt = conn.prepareStatement(courseSql);
+                 Statement stmt = conn.createStatement()) {
+                
+                byte[] blob = null;
+                if (packed) {
+                    PackedCourses packedCourses = new PackedCourses(courses.size());
+                    for (Course course : courses) {
+                        packedCourses.add(conn, catalogDao, course);
+                    }
+                    blob = packedCourses.toBytes();
+                }
+                summaryStmt.setDouble(1, gpa);
+                summaryStmt.setDouble(2, credits);
+                summaryStmt.setString(3, GpaSummary.formatTimestamp(System.currentTimeMillis()));
+                summaryStmt.setLong(4, contentHash);
+                summaryStmt.setBytes(5, blob);
+                summaryStmt.executeUpdate();
+                
+                // sqlite-jdbc no longer supports getGeneratedKeys(), so ask SQLite directly
+                int id;
+                try (ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                    rs.next();
+                    id = rs.getInt(1);
+                }
+                
+                if (!packed) {
+                    for (Course course : courses) {
+                        courseStmt.setInt(1, id);
+                        courseStmt.setInt(2, catalogDao.resolveCatalogId(conn, course));
+                        courseStmt.setDouble(3, course.getCredit());
+                        courseStmt.setInt(4, course.getGradeValue().ordinal());
+                        courseStmt.addBatch();
+                    }
+                    courseStmt.executeBatch();
+                }
+                conn.commit();
+                System.out.println("Inserted GPA summary with ID: " + id + " and " + courses.size()
+                        + (packed ? " packed courses" : " courses"));
+                return id;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error inserting GPA summary with courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+    
+    /**
+     * Insert multiple courses for a GPA summary.
+     * Name, code and teachers go to the shared course_catalog/teachers tables;
+     * each courses row (or packed entry) only stores the catalog id, credit and grade ordinal.
+     */
+    public void insertCourses(int gpaSummaryId, List<Course> courses) {
+        String sql = "INSERT INTO courses (gpa_summary_id, catalog_id, credit, grade) VALUES (?, ?, ?, ?)";
+        boolean packed = targetLayout() == DatabaseConfig.CourseLayout.PACKED;
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                if (packed && writePacked(conn, gpaSummaryId, courses)) {
+                    conn.commit();
+                    System.out.println("Inserted " + courses.size() + " packed courses for GPA summary ID: " + gpaSummaryId);
+                    return;
+                }
+                for (Course course : courses) {
+                    pstmt.setInt(1, gpaSummaryId);
+                    pstmt.setInt(2, catalogDao.resolveCatalogId(conn, course));
+                    pstmt.setDouble(3, course.getCredit());
+                    pstmt.setInt(4, course.getGradeValue().ordinal());
+                    pstmt.addBatch();
+                }
+                
+                pstmt.executeBatch();
+                conn.commit();
+                System.out.println("Inserted " + courses.size() + " courses for GPA summary ID: " + gpaSummaryId);
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error inserting courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    private DatabaseConfig.CourseLayout targetLayout() {
+        return layout != null ? layout : DatabaseManager.getInstance().getConfig().getCourseLayout();
+    }
+    
+    /**
+     * Store courses in the session's blob. A new session takes one UPDATE; courses already
+     * packed are kept in front of the new ones.
+     * @return false if the session already has course rows, so the courses must be added as rows
+     */
+    private boolean writePacked(Connection conn, int gpaSummaryId, List<Course> courses) throws SQLException {
+        PackedCourses packed = new PackedCourses(courses.size());
+        for (Course course : courses) {
+            packed.add(conn, catalogDao, course);
+        }
+        String sql = "UPDATE gpa_summary SET courses_blob = ? WHERE id = ? AND courses_blob IS NULL " +
+                     "AND NOT EXISTS (SELECT 1 FROM courses WHERE gpa_summary_id = ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setBytes(1, packed.toBytes());
+            pstmt.setInt(2, gpaSummaryId);
+            pstmt.setInt(3, gpaSummaryId);
+            if (pstmt.executeUpdate() > 0) {
+                return true;
+            }
+        }
+        
+        byte[] existing = null;
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT courses_blob FROM gpa_summary WHERE id = ?")) {
+            pstmt.setInt(1, gpaSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    existing = rs.getBytes(1);
+                }
+            }
+        }
+        if (existing == null) {
+            return false;
+        }
+        PackedCourses merged = new PackedCourses(PackedCourses.count(existing) + courses.size());
+        PackedCourses.unpack(existing, merged::add);
+        for (Course course : courses) {
+            merged.add(conn, catalogDao, course);
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE gpa_summary SET courses_blob = ? WHERE id = ?")) {
+            pstmt.setBytes(1, merged.toBytes());
+            pstmt.setInt(2, gpaSummaryId);
+            pstmt.executeUpdate();
+        }
+        return true;
+    }
+    
+    /**
+     * Fetch all courses for a specific GPA summary.
+     * Courses sharing a catalog row get the same name/code/teacher instances.
+     */
+    public List<Course> fetchCoursesByGpaSummaryId(int gpaSummaryId) {
+        List<Course> courses = new ArrayList<>();
+        String sql = "SELECT s.courses_blob, c.catalog_id, c.credit, c.grade " +
+                     "FROM gpa_summary s LEFT JOIN courses c ON c.gpa_summary_id = s.id " +
+                     "WHERE s.id = ? ORDER BY c.id";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, gpaSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    addCourses(conn, rs, 1, courses);
+                }
+            }
+            
+            System.out.println("Fetched " + courses.size() + " courses for GPA summary ID: " + gpaSummaryId);
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return courses;
+    }
+    
+    /**
+     * Fetch the courses of a range of summaries in one query, by summary ID.
+     * Summaries without courses have no entry.
+     */
+    public Map<Integer, List<Course>> fetchCoursesForSummaries(int firstSummaryId, int lastSummaryId) {
+        Map<Integer, List<Course>> courses = new HashMap<>();
+        String sql = "SELECT s.id, s.courses_blob, c.catalog_id, c.credit, c.grade " +
+                     "FROM gpa_summary s LEFT JOIN courses c ON c.gpa_summary_id = s.id " +
+                     "WHERE s.id BETWEEN ? AND ? ORDER BY s.id, c.id";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, firstSummaryId);
+            pstmt.setInt(2, lastSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                List<Course> current = new ArrayList<>();
+                int currentId = 0;
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (id != currentId) {
+                        current = new ArrayList<>();
+                        currentId = id;
+                    }
+                    addCourses(conn, rs, 2, current);
+                    if (!current.isEmpty()) {
+                        courses.putIfAbsent(id, current);
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching courses of summaries " + firstSummaryId + "-" + lastSummaryId
+                    + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return courses;
+    }
+    
+    /**
+     * Add the courses carried by one row of a {@code s.courses_blob, c.catalog_id, c.credit, c.grade}
+     * join: the whole packed session, one course row, or nothing for a session without courses
+     */
+    private void addCourses(Connection conn, ResultSet rs, int blobColumn, List<Course> courses) throws SQLException {
+        byte[] blob = rs.getBytes(blobColumn);
+        if (blob != null) {
+            PackedCourses.unpack(blob, (catalogId, scaledCredit, grade) ->
+                    courses.add(new Course(catalogDao.getEntry(conn, catalogId),
+                            (double) scaledCredit / FixedPointGpa.CREDIT_SCALE, Grade.fromOrdinal(grade))));
+            return;
+        }
+        int catalogId = rs.getInt(blobColumn + 1);
+        if (!rs.wasNull()) {
+            courses.add(new Course(catalogDao.getEntry(conn, catalogId), rs.getDouble(blobColumn + 2),
+                    Grade.fromOrdinal(rs.getInt(blobColumn + 3))));
+        }
+    }
+    
+    /**
+     * Find a stored session with exactly these courses (in any order, apart from the order of
+     * retakes of one code) and the same stored GPA and credits.
+     * Candidates come from the content_hash index and are confirmed by comparing their
+     * courses, so a hash collision is never reported as a match. A session with the same
+     * courses but a different GPA (saved under another grade scale or retake policy) is not a match.
+     * @param contentHash {@link SessionFingerprint#of} of {@code courses}
+     * @param gpa the GPA about to be stored for {@code courses}
+     * @param credits the credits about to be stored for {@code courses}
+     * @return the ID of the oldest matching session, or -1 if there is none
+     */
+    public int findSessionWithCourses(long contentHash, double gpa, double credits, List<Course> courses) {
+        if (contentHash == SessionFingerprint.NONE) {
+            return -1;
+        }
+        List<Integer> candidates = new ArrayList<>();
+        // Stored values are rounded to 4 decimals, so anything closer than that is equal
+        String sql = "SELECT id FROM gpa_summary WHERE content_hash = ? "
+                + "AND ABS(gpa - ?) < 0.00005 AND ABS(credits - ?) < 0.00005 ORDER BY id";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, contentHash);
+            pstmt.setDouble(2, gpa);
+            pstmt.setDouble(3, credits);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    candidates.add(rs.getInt(1));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error looking up content hash: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+        
+        for (int id : candidates) {
+            List<Course> stored = fetchCoursesForSummaries(id, id).get(id);
+            if (stored != null && SessionFingerprint.sameCourses(stored, courses)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Read the courses of a range of summaries into primitive columns, ordered by summary
+     * and then by entry order. Used by batch jobs that must not build Course objects for
+     * millions of rows. The code key of a row is the lowest catalog id with the same code,
+     * found through the catalog's (code, ...) unique index, so no code strings are read.
+     */
+    public CourseColumns fetchCourseColumns(int firstSummaryId, int lastSummaryId) {
+        CourseColumns columns = new CourseColumns(1024);
+        String sql = "SELECT s.id, s.courses_blob, c.catalog_id, " +
+                     "(SELECT MIN(k.id) FROM course_catalog k WHERE k.code = cat.code), c.credit, c.grade " +
+                     "FROM gpa_summary s LEFT JOIN courses c ON c.gpa_summary_id = s.id " +
+                     "LEFT JOIN course_catalog cat ON cat.id = c.catalog_id " +
+                     "WHERE s.id BETWEEN ? AND ? ORDER BY s.id, c.id";
+        String codeKeySQL = "SELECT MIN(k.id) FROM course_catalog k JOIN course_catalog cat ON k.code = cat.code " +
+                            "WHERE cat.id = ?";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             PreparedStatement codeKeyStmt = conn.prepareStatement(codeKeySQL)) {
+            
+            // Code keys of the catalog ids met in packed sessions
+            Map<Integer, Integer> codeKeys = new HashMap<>();
+            pstmt.setInt(1, firstSummaryId);
+            pstmt.setInt(2, lastSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int summaryId = rs.getInt(1);
+                    byte[] blob = rs.getBytes(2);
+                    if (blob != null) {
+                        PackedCourses.unpack(blob, (catalogId, scaledCredit, grade) -> {
+                            Integer codeKey = codeKeys.get(catalogId);
+                            if (codeKey == null) {
+                                codeKeyStmt.setInt(1, catalogId);
+                                try (ResultSet key = codeKeyStmt.executeQuery()) {
+                                    codeKey = key.next() ? key.getInt(1) : catalogId;
+                                }
+                                codeKeys.put(catalogId, codeKey);
+                            }
+                            columns.add(summaryId, catalogId, codeKey, scaledCredit, grade);
+                        });
+                        continue;
+                    }
+                    int catalogId = rs.getInt(3);
+                    if (!rs.wasNull()) {
+                        columns.add(summaryId, catalogId, rs.getInt(4),
+                                FixedPointGpa.toScaledCredit(rs.getDouble(5)), rs.getInt(6));
+                    }
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching course columns: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return columns;
+    }
+    
+    /**
+     * Stream the summaries after an ID with their courses, in ID order, over one query.
+     * Only the summary being assembled is held here; {@code sink} gets each complete one and
+     * may block to slow the read down, or return false to stop early.
+     * @return number of summaries passed to the sink, or -1 if the read failed
+     */
+    public int streamSummariesWithCourses(int afterId, Predicate<GpaSummary> sink) {
+        String sql = "SELECT s.id, s.gpa, s.credits, " + GpaSummaryDao.TIMESTAMP_SECONDS + ", " +
+                     "s.courses_blob, c.catalog_id, c.credit, c.grade " +
+                     "FROM gpa_summary s LEFT JOIN courses c ON c.gpa_summary_id = s.id " +
+                     "WHERE s.id > ? ORDER BY s.id, c.id";
+        int streamed = 0;
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, afterId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                GpaSummary current = null;
+                List<Course> courses = null;
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (current == null || current.getId() != id) {
+                        if (current != null) {
+                            current.setCourses(courses);
+                            streamed++;
+                            if (!sink.test(current)) {
+                                return streamed;
+                            }
+                        }
+                        current = new GpaSummary(id, rs.getDouble(2), rs.getDouble(3),
+                                GpaSummary.fromLocalEpochSecond(rs.getLong(4)));
+                        courses = new ArrayList<>();
+                    }
+                    addCourses(conn, rs, 5, courses);
+                }
+                if (current != null) {
+                    current.setCourses(courses);
+                    streamed++;
+                    sink.test(current);
+                }
+            }
+            return streamed;
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming GPA summaries after " + streamed + " rows: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Delete all courses for a specific GPA summary, in either layout
+     * Note: CASCADE delete should handle this automatically, 
+     * but this method is provided for explicit deletion if needed
+     */
+    public boolean deleteCoursesForSummary(int gpaSummaryId) {
+        String sql = "DELETE FROM courses WHERE gpa_summary_id = ?";
+        String clearBlobSQL = "UPDATE gpa_summary SET courses_blob = NULL WHERE id = ? AND courses_blob IS NOT NULL";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             PreparedStatement clearBlob = conn.prepareStatement(clearBlobSQL)) {
+            
+            pstmt.setInt(1, gpaSummaryId);
+            int rowsAffected = pstmt.executeUpdate();
+            clearBlob.setInt(1, gpaSummaryId);
+            boolean packed = clearBlob.executeUpdate() > 0;
+            System.out.println("Deleted " + (packed ? "packed" : rowsAffected + "") + " courses for GPA summary ID: "
+                    + gpaSummaryId);
+            return rowsAffected > 0 || packed;
+            
+        } catch (SQLException e) {
+            System.err.println("Error deleting courses: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    /**
+     * Next page of IDs, in ID order, of summaries whose courses are not stored in the target
+     * layout. Sessions without courses are listed for {@link DatabaseConfig.CourseLayout#PACKED}
+     * and left as they are by {@link #convertLayout}.
+     */
+    public List<Integer> fetchIdsToConvert(int afterId, int limit, DatabaseConfig.CourseLayout target) {
+        List<Integer> ids = new ArrayList<>(limit);
+        String selectSQL = "SELECT id FROM gpa_summary WHERE id > ? AND courses_blob IS " +
+                           (target == DatabaseConfig.CourseLayout.PACKED ? "NULL" : "NOT NULL") + " ORDER BY id LIMIT ?";
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching summaries to convert: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return ids;
+    }
+    
+    /**
+     * Move the courses of every session in an ID range to the target layout, in one transaction.
+     * The courses themselves do not change, so the rewrite is kept out of the sync change log
+     * and content hashes stay valid. Sessions without courses are skipped.
+     * @return number of sessions converted, or -1 if the transaction was rolled back
+     */
+    public int convertLayout(int firstSummaryId, int lastSummaryId, DatabaseConfig.CourseLayout target) {
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                ChangeLogDao.setCaptureSuspended(conn, true);
+                int converted = target == DatabaseConfig.CourseLayout.PACKED
+                        ? packRows(conn, firstSummaryId, lastSummaryId)
+                        : unpackBlobs(conn, firstSummaryId, lastSummaryId);
+                ChangeLogDao.setCaptureSuspended(conn, false);
+                conn.commit();
+                return converted;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error converting courses of summaries " + firstSummaryId + "-" + lastSummaryId
+                    + " to " + target + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return -1;
+    }
+    
+    private int packRows(Connection conn, int firstSummaryId, int lastSummaryId) throws SQLException {
+        String selectSQL = "SELECT c.gpa_summary_id, c.catalog_id, c.credit, c.grade " +
+                           "FROM courses c JOIN gpa_summary s ON s.id = c.gpa_summary_id " +
+                           "WHERE c.gpa_summary_id BETWEEN ? AND ? AND s.courses_blob IS NULL " +
+                           "ORDER BY c.gpa_summary_id, c.id";
+        Map<Integer, PackedCourses> sessions = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            pstmt.setInt(1, firstSummaryId);
+            pstmt.setInt(2, lastSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sessions.computeIfAbsent(rs.getInt(1), id -> new PackedCourses(16))
+                            .add(rs.getInt(2), FixedPointGpa.toScaledCredit(rs.getDouble(3)), rs.getInt(4));
+                }
+            }
+        }
+        
+        try (PreparedStatement update = conn.prepareStatement("UPDATE gpa_summary SET courses_blob = ? WHERE id = ?");
+             PreparedStatement delete = conn.prepareStatement("DELETE FROM courses WHERE gpa_summary_id = ?")) {
+            for (Map.Entry<Integer, PackedCourses> session : sessions.entrySet()) {
+                update.setBytes(1, session.getValue().toBytes());
+                update.setInt(2, session.getKey());
+                update.addBatch();
+                delete.setInt(1, session.getKey());
+                delete.addBatch();
+            }
+            update.executeBatch();
+            delete.executeBatch();
+        }
+        return sessions.size();
+    }
+    
+    private int unpackBlobs(Connection conn, int firstSummaryId, int lastSummaryId) throws SQLException {
+        String selectSQL = "SELECT id, courses_blob FROM gpa_summary " +
+                           "WHERE id BETWEEN ? AND ? AND courses_blob IS NOT NULL ORDER BY id";
+        Map<Integer, byte[]> blobs = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            pstmt.setInt(1, firstSummaryId);
+            pstmt.setInt(2, lastSummaryId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    blobs.put(rs.getInt(1), rs.getBytes(2));
+                }
+            }
+        }
+        
+        try (PreparedStatement insert = conn.prepareStatement(
+                     "INSERT INTO courses (gpa_summary_id, catalog_id, credit, grade) VALUES (?, ?, ?, ?)");
+             PreparedStatement clear = conn.prepareStatement("UPDATE gpa_summary SET courses_blob = NULL WHERE id = ?")) {
+            for (Map.Entry<Integer, byte[]> session : blobs.entrySet()) {
+                int id = session.getKey();
+                PackedCourses.unpack(session.getValue(), (catalogId, scaledCredit, grade) -> {
+                    insert.setInt(1, id);
+                    insert.setInt(2, catalogId);
+                    insert.setDouble(3, (double) scaledCredit / FixedPointGpa.CREDIT_SCALE);
+                    insert.setInt(4, grade);
+                    insert.addBatch();
+                });
+                clear.setInt(1, id);
+                clear.addBatch();
+            }
+            insert.executeBatch();
+            clear.executeBatch();
+        }
+        return blobs.size();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.gpa.database;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Where and how the database is opened.
+ *
+ * Values come from a properties file ({@code -Dgpa.config=path}, default {@code gpa.properties}
+ * in the working directory, optional) and can be overridden by system properties:
+ *
+ *   db.path                   / -Dgpa.db.path                    database file (default gpa_history.db)
+ *   db.mode                   / -Dgpa.db.mode                    file | memory (default file)
+ *   db.backup.intervalSeconds / -Dgpa.db.backupIntervalSeconds   memory mode: seconds between
+ *                                                                background backups, 0 = only at shutdown (default 60)
+ *   sync.dir                  / -Dgpa.sync.dir                    shared directory for history sync (default: sync off)
+ *   sync.intervalSeconds      / -Dgpa.sync.intervalSeconds        seconds between background syncs, 0 = manual only (default 300)
+ *   db.profile                / -Dgpa.db.profile                  true = profile every statement (default false)
+ *   db.profile.slowMillis     / -Dgpa.db.profileSlowMillis        slow-query threshold when profiling (default 25)
+ *   db.courseLayout           / -Dgpa.db.courseLayout             rows | packed: how newly saved sessions store
+ *                                                                their courses (default rows, see {@link CourseDao})
+ *
+ * In memory mode the file is loaded into an in-memory database at startup, all DAO traffic is
+ * served from memory, and the file is only written by online backups.
+ */
+public final class DatabaseConfig {
+
+    public enum Mode { FILE, MEMORY }
+
+    /**
+     * ROWS: one courses row per course. PACKED: all of a session's courses in one
+     * gpa_summary.courses_blob value. Both can be present in a database; this only
+     * decides how new sessions are written.
+     */
+    public enum CourseLayout { ROWS, PACKED }
+
+    private static final String DEFAULT_PATH = "gpa_history.db";
+    // Shared-cache name, so every connection of this process sees the same in-memory database
+    private static final String MEMORY_URL = "jdbc:sqlite:file:gpa_memdb?mode=memory&cache=shared";
+
+    private final Path path;
+    private final Mode mode;
+    private final long backupIntervalSeconds;
+    private final Path syncDir;
+    private final long syncIntervalSeconds;
+    private final boolean profiling;
+    private final long profileSlowMillis;
+    private final CourseLayout courseLayout;
+
+    private DatabaseConfig(Path path, Mode mode, long backupIntervalSeconds, Path syncDir, long syncIntervalSeconds,
+                           boolean profiling, long profileSlowMillis, CourseLayout courseLayout) {
+        this.path = path;
+        this.mode = mode;
+        this.backupIntervalSeconds = backupIntervalSeconds;
+        this.syncDir = syncDir;
+        this.syncIntervalSeconds = syncIntervalSeconds;
+        this.profiling = profiling;
+        this.profileSlowMillis = profileSlowMillis;
+        this.courseLayout = courseLayout;
+    }
+
+    public static DatabaseConfig load() {
+        Properties file = new Properties();
+        Path configFile = Path.of(System.getProperty("gpa.config", "gpa.properties"));
+        if (Files.isRegularFile(configFile)) {
+            try (Reader reader = Files.newBufferedReader(configFile)) {
+                file.load(reader);
+            } catch (IOException e) {
+                System.err.println("Could not read " + configFile + ": " + e.getMessage());
+            }
+        }
+
+        String path = setting(file, "gpa.db.path", "db.path", DEFAULT_PATH);
+        String mode = setting(file, "gpa.db.mode", "db.mode", "file");
+        String interval = setting(file, "gpa.db.backupIntervalSeconds", "db.backup.intervalSeconds", "60");
+        String syncDir = setting(file, "gpa.sync.dir", "sync.dir", "");
+        String syncInterval = setting(file, "gpa.sync.intervalSeconds", "sync.intervalSeconds", "300");
+        String profile = setting(file, "gpa.db.profile", "db.profile", "false");
+        String slowMillis = setting(file, "gpa.db.profileSlowMillis", "db.profile.slowMillis", "25");
+        String layout = setting(file, "gpa.db.courseLayout", "db.courseLayout", "rows");
+
+        return new DatabaseConfig(Path.of(path),
+                mode.equalsIgnoreCase("memory") ? Mode.MEMORY : Mode.FILE,
+                Long.parseLong(interval),
+                syncDir.isEmpty() ? null : Path.of(syncDir),
+                Long.parseLong(syncInterval),
+                Boolean.parseBoolean(profile),
+                Long.parseLong(slowMillis),
+                layout.equalsIgnoreCase("packed") ? CourseLayout.PACKED : CourseLayout.ROWS);
+    }
+
+    private static String setting(Properties file, String systemKey, String fileKey, String defaultValue) {
+        String value = System.getProperty(systemKey);
+        if (value == null) {
+            value = file.getProperty(fileKey, defaultValue);
+        }
+        return value.trim();
+    }
+
+    /**
+     * The database file: opened directly in file mode, loaded from and backed up to in memory mode
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isInMemory() {
+        return mode == Mode.MEMORY;
+    }
+
+    public long getBackupIntervalSeconds() {
+        return backupIntervalSeconds;
+    }
+
+    /**
+     * Shared directory other instances sync through, or null if sync is off
+     */
+    public Path getSyncDir() {
+        return syncDir;
+    }
+
+    public boolean isSyncEnabled() {
+        return syncDir != null;
+    }
+
+    public long getSyncIntervalSeconds() {
+        return syncIntervalSeconds;
+    }
+
+    /**
+     * Whether statement profiling starts enabled (see {@link QueryProfiler})
+     */
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    public long getProfileSlowMillis() {
+        return profileSlowMillis;
+    }
+
+    public CourseLayout getCourseLayout() {
+        return courseLayout;
+    }
+
+    /**
+     * JDBC URL the DAOs connect to
+     */
+    public String getUrl() {
+        return isInMemory() ? MEMORY_URL : "jdbc:sqlite:" + path;
+    }
+
+    @Override
+    public String toString() {
+        String location = isInMemory()
+                ? "in-memory (backed by " + path + ", backup every " + backupIntervalSeconds + "s)"
+                : path.toString();
+        return isSyncEnabled() ? location + ", synced through " + syncDir : location;
+    }
+}
@@ -0,0 +1,586 @@
+package com.example.gpa.database;
+
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.model.Grade;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manages SQLite database connection and initialization.
+ * Creates database file and tables if they don't exist.
+ * The location and mode come from {@link DatabaseConfig}; in memory mode the file is restored
+ * into a shared in-memory database at startup and written back with {@link #backupToDisk()}.
+ */
+public class DatabaseManager {
+    // PRAGMA user_version from which stored content hashes include the order of retakes
+    private static final int CONTENT_HASH_VERSION = 1;
+    private static DatabaseManager instance;
+    private final DatabaseConfig config;
+    private Connection connection;
+    // Memory mode: stays open for the life of the process, otherwise the in-memory database is dropped
+    // as soon as the DAOs close their connection
+    private Connection memoryKeeper;
+
+    private DatabaseManager() {
+        config = DatabaseConfig.load();
+        QueryProfiler.getInstance().setSlowThresholdMillis(config.getProfileSlowMillis());
+        QueryProfiler.getInstance().setEnabled(config.isProfiling());
+        if (config.isInMemory()) {
+            openInMemory();
+        }
+        initializeDatabase();
+    }
+
+    /**
+     * Singleton pattern to ensure single database connection
+     */
+    public static synchronized DatabaseManager getInstance() {
+        if (instance == null) {
+            instance = new DatabaseManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Get active database connection.
+     * While {@link QueryProfiler} is enabled the connection is wrapped so its statements are timed.
+     */
+    public Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = DriverManager.getConnection(config.getUrl());
+        }
+        QueryProfiler profiler = QueryProfiler.getInstance();
+        return profiler.isEnabled() ? profiler.wrap(connection) : connection;
+    }
+
+    public DatabaseConfig getConfig() {
+        return config;
+    }
+
+    public boolean isInMemory() {
+        return config.isInMemory();
+    }
+
+    /**
+     * Open the in-memory database and load the database file into it, if there is one
+     */
+    private void openInMemory() {
+        try {
+            memoryKeeper = DriverManager.getConnection(config.getUrl());
+            Path file = config.getPath();
+            if (Files.isRegularFile(file) && Files.size(file) > 0) {
+                long start = System.nanoTime();
+                try (Statement stmt = memoryKeeper.createStatement()) {
+                    stmt.executeUpdate("restore from " + quote(file));
+                }
+                System.out.printf("Loaded %s into memory in %.1f ms%n", file, (System.nanoTime() - start) / 1e6);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Error loading database into memory: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Write the in-memory database to its file with SQLite's online backup API.
+     * The copy goes to a temporary file first and replaces the old file in one move,
+     * so a crash during the backup leaves the previous copy intact.
+     * Call from the database worker (or after it has stopped) so no write is in progress.
+     *
+     * @return true if a backup was written
+     */
+    public synchronized boolean backupToDisk() {
+        if (memoryKeeper == null) {
+            return false;
+        }
+        Path file = config.getPath().toAbsolutePath();
+        Path tmp = file.resolveSibling(file.getFileName() + ".backup");
+        long start = System.nanoTime();
+        try {
+            Files.deleteIfExists(tmp);
+            try (Statement stmt = memoryKeeper.createStatement()) {
+                stmt.executeUpdate("backup to " + quote(tmp));
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.printf("Backed up in-memory database to %s in %.1f ms%n", file, (System.nanoTime() - start) / 1e6);
+            return true;
+        } catch (SQLException | IOException e) {
+            System.err.println("Error backing up database: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static String quote(Path path) {
+        return "\"" + path + "\"";
+    }
+
+    /**
+     * Initialize database and create table if not exists
+     */
+    private void initializeDatabase() {
+        String createGpaSummaryTable = """
+            CREATE TABLE IF NOT EXISTS gpa_summary (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                gpa REAL NOT NULL,
+                credits REAL NOT NULL,
+                timestamp TEXT NOT NULL,
+                content_hash INTEGER,
+                courses_blob BLOB
+            )
+            """;
+        
+        // Sessions moved out of gpa_summary by retention; courses are a compressed blob
+        String createArchiveTable = """
+            CREATE TABLE IF NOT EXISTS gpa_archive (
+                id INTEGER PRIMARY KEY,
+                gpa REAL NOT NULL,
+                credits REAL NOT NULL,
+                timestamp TEXT NOT NULL,
+                archived_at TEXT NOT NULL,
+                course_count INTEGER NOT NULL,
+                courses BLOB
+            )
+            """;
+        
+        // Progress of resumable batch jobs
+        String createCheckpointTable = """
+            CREATE TABLE IF NOT EXISTS job_checkpoint (
+                job TEXT PRIMARY KEY,
+                last_id INTEGER NOT NULL,
+                fingerprint TEXT NOT NULL,
+                updated_at TEXT NOT NULL
+            )
+            """;
+        
+        // Grade scale and retake policy of the last GPA recompute, which the stored GPAs follow
+        String createGradingTable = """
+            CREATE TABLE IF NOT EXISTS grading_settings (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                grade_scale TEXT NOT NULL,
+                retake_policy TEXT NOT NULL,
+                updated_at TEXT NOT NULL
+            )
+            """;
+        
+        try (Connection conn = DriverManager.getConnection(config.getUrl());
+             Statement stmt = conn.createStatement()) {
+            
+            stmt.execute(createGpaSummaryTable);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_gpa_summary_timestamp ON gpa_summary(timestamp)");
+            addSummaryColumn(conn, "content_hash", "INTEGER");
+            addSummaryColumn(conn, "courses_blob", "BLOB");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_gpa_summary_content_hash ON gpa_summary(content_hash)");
+            if (isLegacyCoursesTable(conn)) {
+                migrateLegacyCoursesTable(conn);
+            } else {
+                createCourseTables(stmt);
+            }
+            stmt.execute(createArchiveTable);
+            stmt.execute(createCheckpointTable);
+            stmt.execute(createGradingTable);
+            restoreGradingSettings(stmt);
+            createSyncTables(stmt);
+            clearStaleContentHashes(conn);
+            if (config.isSyncEnabled()) {
+                installChangeCapture(conn);
+            } else {
+                removeChangeCapture(conn);
+            }
+            enableIncrementalVacuum(conn);
+            System.out.println("Database initialized successfully: " + config);
+            
+        } catch (SQLException e) {
+            System.err.println("Error initializing database: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Switch the database to incremental auto-vacuum so free pages left by deletes
+     * can be reclaimed in small steps. Converting an existing file needs one full VACUUM.
+     */
+    private void enableIncrementalVacuum(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+            if (rs.next() && rs.getInt(1) == 2) {
+                return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            stmt.execute("VACUUM");
+            System.out.println("Enabled incremental auto-vacuum.");
+        }
+    }
+
+    /**
+     * Create the normalized course tables.
+     * course_catalog holds each distinct (code, name, teachers) once, teachers are interned,
+     * and a courses row only references the catalog with its credit and grade ordinal.
+     */
+    private void createCourseTables(Statement stmt) throws SQLException {
+        String createTeachersTable = """
+            CREATE TABLE IF NOT EXISTS teachers (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL UNIQUE
+            )
+            """;
+
+        String createCatalogTable = """
+            CREATE TABLE IF NOT EXISTS course_catalog (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                code TEXT NOT NULL,
+                name TEXT NOT NULL,
+                teacher1_id INTEGER NOT NULL DEFAULT 0,
+                teacher2_id INTEGER NOT NULL DEFAULT 0,
+                UNIQUE (code, name, teacher1_id, teacher2_id)
+            )
+            """;
+
+        String createCoursesTable = """
+            CREATE TABLE IF NOT EXISTS courses (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                gpa_summary_id INTEGER NOT NULL,
+                catalog_id INTEGER NOT NULL,
+                credit REAL NOT NULL,
+                grade INTEGER NOT NULL,
+                FOREIGN KEY (gpa_summary_id) REFERENCES gpa_summary(id) ON DELETE CASCADE,
+                FOREIGN KEY (catalog_id) REFERENCES course_catalog(id)
+            )
+            """;
+
+        stmt.execute(createTeachersTable);
+        stmt.execute(createCatalogTable);
+        stmt.execute(createCoursesTable);
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_courses_summary ON courses(gpa_summary_id)");
+    }
+
+    /**
+     * Create the tables behind history sync.
+     * change_log is filled by triggers while sync is on; sync_identity maps sessions that came
+     * from (or were sent to) other instances to their global id; sync_peer remembers how far each
+     * peer's change files were applied; sync_state holds this instance's node id.
+     */
+    private void createSyncTables(Statement stmt) throws SQLException {
+        String createChangeLogTable = """
+            CREATE TABLE IF NOT EXISTS change_log (
+                seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                tbl TEXT NOT NULL,
+                op TEXT NOT NULL,
+                row_id INTEGER NOT NULL,
+                summary_id INTEGER NOT NULL,
+                changed_at INTEGER NOT NULL
+            )
+            """;
+
+        String createIdentityTable = """
+            CREATE TABLE IF NOT EXISTS sync_identity (
+                local_id INTEGER PRIMARY KEY,
+                origin TEXT NOT NULL,
+                origin_id INTEGER NOT NULL,
+                version INTEGER NOT NULL,
+                version_node TEXT NOT NULL,
+                deleted INTEGER NOT NULL DEFAULT 0,
+                UNIQUE (origin, origin_id)
+            )
+            """;
+
+        String createPeerTable = """
+            CREATE TABLE IF NOT EXISTS sync_peer (
+                node TEXT PRIMARY KEY,
+                last_file INTEGER NOT NULL
+            )
+            """;
+
+        String createStateTable = """
+            CREATE TABLE IF NOT EXISTS sync_state (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                node_id TEXT NOT NULL,
+                suspended INTEGER NOT NULL DEFAULT 0,
+                last_export INTEGER NOT NULL DEFAULT 0,
+                snapshot_pending INTEGER NOT NULL DEFAULT 1
+            )
+            """;
+
+        stmt.execute(createChangeLogTable);
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_change_log_summary ON change_log(summary_id)");
+        stmt.execute(createIdentityTable);
+        stmt.execute(createPeerTable);
+        stmt.execute(createStateTable);
+        stmt.execute("INSERT OR IGNORE INTO sync_state (id, node_id) VALUES (1, lower(hex(randomblob(16))))");
+    }
+
+    /**
+     * Install the triggers that append every write to gpa_summary and courses to change_log.
+     * Writes made while sync was off were not captured, so enabling it queues a full export.
+     */
+    private void installChangeCapture(Connection conn) throws SQLException {
+        if (hasChangeCapture(conn)) {
+            return;
+        }
+        String now = "CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)";
+        String when = "WHEN (SELECT suspended FROM sync_state WHERE id = 1) = 0";
+        try (Statement stmt = conn.createStatement()) {
+            for (String op : new String[] {"INSERT", "UPDATE", "DELETE"}) {
+                String row = op.equals("DELETE") ? "OLD" : "NEW";
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS capture_summary_" + op.toLowerCase() +
+                        " AFTER " + op + " ON gpa_summary " + when + " BEGIN " +
+                        "INSERT INTO change_log (tbl, op, row_id, summary_id, changed_at) VALUES ('gpa_summary', '" +
+                        op.charAt(0) + "', " + row + ".id, " + row + ".id, " + now + "); END");
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS capture_courses_" + op.toLowerCase() +
+                        " AFTER " + op + " ON courses " + when + " BEGIN " +
+                        "INSERT INTO change_log (tbl, op, row_id, summary_id, changed_at) VALUES ('courses', '" +
+                        op.charAt(0) + "', " + row + ".id, " + row + ".gpa_summary_id, " + now + "); END");
+            }
+            stmt.executeUpdate("UPDATE sync_state SET snapshot_pending = 1");
+        }
+        System.out.println("Enabled change capture for history sync.");
+    }
+
+    private void removeChangeCapture(Connection conn) throws SQLException {
+        if (!hasChangeCapture(conn)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String op : new String[] {"insert", "update", "delete"}) {
+                stmt.execute("DROP TRIGGER IF EXISTS capture_summary_" + op);
+                stmt.execute("DROP TRIGGER IF EXISTS capture_courses_" + op);
+            }
+            stmt.executeUpdate("DELETE FROM change_log");
+        }
+        System.out.println("Disabled change capture for history sync.");
+    }
+
+    private boolean hasChangeCapture(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger' AND name = 'capture_summary_insert'")) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    /**
+     * Add a gpa_summary column to databases created before it existed.
+     * Existing rows get NULL: content_hash is filled in by DuplicateSessionJob, and a NULL
+     * courses_blob means the session's courses are stored as rows.
+     */
+    private void addSummaryColumn(Connection conn, String column, String type) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(gpa_summary)")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE gpa_summary ADD COLUMN " + column + " " + type);
+            System.out.println("Added " + column + " column to gpa_summary.");
+        }
+    }
+
+    /**
+     * Make the grade scale and retake policy of the last recompute active again, so GPAs
+     * calculated in this process match the stored ones. Databases that were never
+     * recomputed keep the standard scale. An explicit {@code -Dgpa.retakePolicy} is kept
+     * over the stored policy.
+     */
+    private static void restoreGradingSettings(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT grade_scale, retake_policy FROM grading_settings WHERE id = 1")) {
+            if (!rs.next()) {
+                return;
+            }
+            try {
+                GradeScale.setActive(GradeScale.fromFingerprint(rs.getString(1)));
+                if (System.getProperty("gpa.retakePolicy") == null) {
+                    RetakePolicy.setActive(RetakePolicy.fromLabel(rs.getString(2)));
+                    System.out.println("Restored grade scale and retake policy " + RetakePolicy.getActive()
+                            + " of the last GPA recompute.");
+                } else {
+                    System.out.println("Restored grade scale of the last GPA recompute; retake policy "
+                            + RetakePolicy.getActive() + " from -Dgpa.retakePolicy.");
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring stored grading settings: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Restore the grading settings of an existing database file without opening the database:
+     * no schema migration or vacuum runs, and a missing file is not created. For commands that
+     * calculate GPAs but otherwise do not touch the database.
+     */
+    public static void restoreGradingSettings(DatabaseConfig config) {
+        if (!Files.isRegularFile(config.getPath())) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + config.getPath());
+             Statement stmt = conn.createStatement()) {
+            restoreGradingSettings(stmt);
+        } catch (SQLException e) {
+            // A database from before grading_settings existed was never recomputed
+        }
+    }
+
+    /**
+     * Content hashes written before SessionFingerprint covered the order of retakes do not
+     * match the current hash for sessions that repeat a course code. Clear them once (tracked
+     * in PRAGMA user_version) so DuplicateSessionJob hashes every session again.
+     */
+    private void clearStaleContentHashes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+                if (rs.next() && rs.getInt(1) >= CONTENT_HASH_VERSION) {
+                    return;
+                }
+            }
+            conn.setAutoCommit(false);
+            try {
+                ChangeLogDao.setCaptureSuspended(conn, true);
+                int cleared = stmt.executeUpdate("UPDATE gpa_summary SET content_hash = NULL WHERE content_hash IS NOT NULL");
+                ChangeLogDao.setCaptureSuspended(conn, false);
+                stmt.execute("PRAGMA user_version = " + CONTENT_HASH_VERSION);
+                conn.commit();
+                if (cleared > 0) {
+                    System.out.println("Cleared " + cleared + " content hashes for rehashing.");
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Check whether the courses table still uses the old layout
+     * that stored name/code/teacher strings on every row
+     */
+    private boolean isLegacyCoursesTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(courses)")) {
+            while (rs.next()) {
+                if ("teacher1".equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Move rows from the old per-row string layout into the normalized tables.
+     * Course ids are preserved. Runs in one transaction, then VACUUMs to give the space back.
+     * Grade labels are matched like {@link Grade#tryParse} (ignoring case and spaces). If any
+     * label still does not match, nothing is migrated: the labels are logged and the migration
+     * fails, since storing such a course as F would silently lower its session's GPA.
+     */
+    private void migrateLegacyCoursesTable(Connection conn) throws SQLException {
+        Map<String, Grade> labels = new HashMap<>();
+        int unknownRows = 0;
+        int normalizedRows = 0;
+        StringBuilder unknown = new StringBuilder();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT grade, COUNT(*) FROM courses GROUP BY grade")) {
+            while (rs.next()) {
+                String label = rs.getString(1);
+                int count = rs.getInt(2);
+                Grade grade = Grade.tryParse(label);
+                if (grade == null) {
+                    unknownRows += count;
+                    unknown.append(unknown.length() > 0 ? ", " : "")
+                            .append(label == null ? "NULL" : "'" + label + "'").append(" (").append(count).append(')');
+                } else {
+                    labels.put(label, grade);
+                    if (!label.equals(grade.getLabel())) {
+                        normalizedRows += count;
+                    }
+                }
+            }
+        }
+        if (unknownRows > 0) {
+            throw new SQLException("Courses table not migrated: " + unknownRows
+                    + " courses have unrecognized grades: " + unknown + ". Correct them and restart.");
+        }
+
+        String legacyJoin = """
+            FROM courses_legacy l
+            LEFT JOIN teachers t1 ON t1.name = l.teacher1
+            LEFT JOIN teachers t2 ON t2.name = l.teacher2
+            JOIN temp.legacy_grades g ON g.label = l.grade
+            """;
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE legacy_grades (label TEXT PRIMARY KEY, grade INTEGER NOT NULL)");
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO temp.legacy_grades (label, grade) VALUES (?, ?)")) {
+                for (Map.Entry<String, Grade> entry : labels.entrySet()) {
+                    pstmt.setString(1, entry.getKey());
+                    pstmt.setInt(2, entry.getValue().ordinal());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            stmt.execute("ALTER TABLE courses RENAME TO courses_legacy");
+            createCourseTables(stmt);
+
+            stmt.execute("INSERT OR IGNORE INTO teachers (name) " +
+                         "SELECT teacher1 FROM courses_legacy WHERE teacher1 IS NOT NULL " +
+                         "UNION SELECT teacher2 FROM courses_legacy WHERE teacher2 IS NOT NULL");
+            stmt.execute("INSERT OR IGNORE INTO course_catalog (code, name, teacher1_id, teacher2_id) " +
+                         "SELECT DISTINCT l.code, l.name, COALESCE(t1.id, 0), COALESCE(t2.id, 0) " + legacyJoin);
+            int migrated = stmt.executeUpdate(
+                    "INSERT INTO courses (id, gpa_summary_id, catalog_id, credit, grade) " +
+                    "SELECT l.id, l.gpa_summary_id, c.id, l.credit, g.grade " + legacyJoin +
+                    "JOIN course_catalog c ON c.code = l.code AND c.name = l.name " +
+                    "AND c.teacher1_id = COALESCE(t1.id, 0) AND c.teacher2_id = COALESCE(t2.id, 0)");
+            stmt.execute("DROP TABLE courses_legacy");
+            stmt.execute("DROP TABLE temp.legacy_grades");
+            conn.commit();
+            System.out.println("Migrated " + migrated + " courses to the normalized course catalog"
+                    + (normalizedRows > 0 ? " (" + normalizedRows + " grade labels normalized)." : "."));
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("VACUUM");
+        }
+    }
+
+    /**
+     * Close database connection
+     */
+    public void closeConnection() {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+                System.out.println("Database connection closed.");
+            }
+            if (memoryKeeper != null && !memoryKeeper.isClosed()) {
+                memoryKeeper.close();
+                memoryKeeper = null;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing database: " + e.getMessage());
+        }
+    }
+}
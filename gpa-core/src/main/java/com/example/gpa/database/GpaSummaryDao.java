@@ -0,0 +1,474 @@
+package com.example.gpa.database;
+
+import com.example.gpa.model.GpaSummary;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for GpaSummary table.
+ * Handles all CRUD operations for GPA history.
+ */
+public class GpaSummaryDao {
+    /**
+     * Stored timestamp as local seconds, so rows load without materializing the text
+     */
+    static final String TIMESTAMP_SECONDS = "CAST(strftime('%s', timestamp) AS INTEGER) AS local_seconds";
+
+    private final DatabaseManager dbManager;
+
+    public GpaSummaryDao() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Insert a new GPA summary into the database
+     * @return the ID of the inserted record, or -1 if failed
+     */
+    public int insertSummary(double gpa, double credits) {
+        return insertSummary(gpa, credits, null);
+    }
+
+    /**
+     * Insert a new GPA summary with the content hash of its courses
+     * @see com.example.gpa.SessionFingerprint
+     * @return the ID of the inserted record, or -1 if failed
+     */
+    public int insertSummary(double gpa, double credits, long contentHash) {
+        return insertSummary(gpa, credits, Long.valueOf(contentHash));
+    }
+
+    private int insertSummary(double gpa, double credits, Long contentHash) {
+        String insertSQL = "INSERT INTO gpa_summary (gpa, credits, timestamp, content_hash) VALUES (?, ?, ?, ?)";
+        
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+            
+            pstmt.setDouble(1, gpa);
+            pstmt.setDouble(2, credits);
+            pstmt.setString(3, GpaSummary.formatTimestamp(System.currentTimeMillis()));
+            if (contentHash != null) {
+                pstmt.setLong(4, contentHash);
+            } else {
+                pstmt.setNull(4, Types.INTEGER);
+            }
+            
+            int affectedRows = pstmt.executeUpdate();
+            
+            if (affectedRows > 0) {
+                // sqlite-jdbc no longer supports getGeneratedKeys(), so ask SQLite directly
+                try (Statement stmt = conn.createStatement();
+                     ResultSet generatedKeys = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                    if (generatedKeys.next()) {
+                        int id = generatedKeys.getInt(1);
+                        System.out.println("Inserted GPA summary with ID: " + id);
+                        return id;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error inserting GPA summary: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Fetch all GPA summaries from the database
+     * @return List of all GpaSummary objects, ordered by timestamp descending
+     */
+    public List<GpaSummary> fetchAllSummaries() {
+        List<GpaSummary> summaries = new ArrayList<>();
+        String selectSQL = "SELECT id, gpa, credits, " + TIMESTAMP_SECONDS + " FROM gpa_summary ORDER BY timestamp DESC";
+        
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(selectSQL)) {
+            
+            while (rs.next()) {
+                GpaSummary summary = new GpaSummary(
+                    rs.getInt("id"),
+                    rs.getDouble("gpa"),
+                    rs.getDouble("credits"),
+                    GpaSummary.fromLocalEpochSecond(rs.getLong("local_seconds"))
+                );
+                summaries.add(summary);
+            }
+            
+            System.out.println("Fetched " + summaries.size() + " GPA summaries from database.");
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching GPA summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return summaries;
+    }
+
+    /**
+     * Fetch the next page of summaries after an ID, in ID order (keyset pagination).
+     * Lets batch jobs walk the whole table without loading it into memory.
+     */
+    public List<GpaSummary> fetchSummariesAfter(int afterId, int limit) {
+        List<GpaSummary> summaries = new ArrayList<>(limit);
+        String selectSQL = "SELECT id, gpa, credits, " + TIMESTAMP_SECONDS + " FROM gpa_summary WHERE id > ? ORDER BY id LIMIT ?";
+        
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(new GpaSummary(
+                        rs.getInt("id"),
+                        rs.getDouble("gpa"),
+                        rs.getDouble("credits"),
+                        GpaSummary.fromLocalEpochSecond(rs.getLong("local_seconds"))
+                    ));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching GPA summary page: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return summaries;
+    }
+
+    /**
+     * Fetch one summary by ID
+     * @return the summary, or null if there is none with this ID
+     */
+    public GpaSummary fetchSummary(int id) {
+        String selectSQL = "SELECT id, gpa, credits, " + TIMESTAMP_SECONDS + " FROM gpa_summary WHERE id = ?";
+        
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new GpaSummary(
+                        rs.getInt("id"),
+                        rs.getDouble("gpa"),
+                        rs.getDouble("credits"),
+                        GpaSummary.fromLocalEpochSecond(rs.getLong("local_seconds"))
+                    );
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching GPA summary: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+
+    /**
+     * Next page of IDs, in ID order, of summaries that have no content hash yet
+     */
+    public List<Integer> fetchIdsWithoutContentHash(int afterId, int limit) {
+        List<Integer> ids = new ArrayList<>(limit);
+        String selectSQL = "SELECT id FROM gpa_summary WHERE id > ? AND content_hash IS NULL ORDER BY id LIMIT ?";
+        
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching unhashed GPA summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return ids;
+    }
+
+    /**
+     * Store content hashes in one transaction. The hash is derived from the courses, which
+     * are synced themselves, so these updates are kept out of the sync change log.
+     * @return number of summaries updated, or -1 if the transaction was rolled back
+     */
+    public int updateContentHashes(Map<Integer, Long> hashes) {
+        if (hashes.isEmpty()) return 0;
+        String updateSQL = "UPDATE gpa_summary SET content_hash = ? WHERE id = ?";
+        
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+                
+                ChangeLogDao.setCaptureSuspended(conn, true);
+                for (Map.Entry<Integer, Long> entry : hashes.entrySet()) {
+                    pstmt.setLong(1, entry.getValue());
+                    pstmt.setInt(2, entry.getKey());
+                    pstmt.addBatch();
+                }
+                int updated = sum(pstmt.executeBatch());
+                ChangeLogDao.setCaptureSuspended(conn, false);
+                conn.commit();
+                return updated;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error storing content hashes: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return -1;
+    }
+
+    /**
+     * IDs of summaries that share a content hash, GPA and credits with another summary, one
+     * list per group. Sessions with the same courses but a different stored GPA (saved under
+     * another grade scale or retake policy) are kept apart. Sessions without courses are not included.
+     * Each list is ordered by (timestamp, origin node, id on the origin), the global identity
+     * history sync uses, so every synced instance puts the same copy first. Sessions that were
+     * never synced have this instance's node and their local id as origin.
+     */
+    public List<List<Integer>> fetchContentHashGroups() {
+        List<List<Integer>> groups = new ArrayList<>();
+        String selectSQL = "SELECT s.content_hash, s.id, s.gpa, s.credits FROM gpa_summary s " +
+                           "LEFT JOIN sync_identity i ON i.local_id = s.id " +
+                           "WHERE (s.content_hash, s.gpa, s.credits) IN " +
+                           "(SELECT content_hash, gpa, credits FROM gpa_summary WHERE content_hash <> 0 " +
+                           "GROUP BY content_hash, gpa, credits HAVING COUNT(*) > 1) " +
+                           "ORDER BY s.content_hash, s.gpa, s.credits, s.timestamp, " +
+                           "COALESCE(i.origin, (SELECT node_id FROM sync_state WHERE id = 1)), " +
+                           "COALESCE(i.origin_id, s.id)";
+        
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(selectSQL)) {
+            
+            List<Integer> group = null;
+            long groupHash = 0;
+            double groupGpa = 0;
+            double groupCredits = 0;
+            while (rs.next()) {
+                long hash = rs.getLong(1);
+                double gpa = rs.getDouble(3);
+                double credits = rs.getDouble(4);
+                if (group == null || hash != groupHash || gpa != groupGpa || credits != groupCredits) {
+                    group = new ArrayList<>();
+                    groups.add(group);
+                    groupHash = hash;
+                    groupGpa = gpa;
+                    groupCredits = credits;
+                }
+                group.add(rs.getInt(2));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error fetching duplicate content hashes: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return groups;
+    }
+
+    /**
+     * Delete a GPA summary by ID
+     * @return true if deleted successfully, false otherwise
+     */
+    public boolean deleteSummary(int id) {
+        String deleteSQL = "DELETE FROM gpa_summary WHERE id = ?";
+        
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(deleteSQL)) {
+            
+            pstmt.setInt(1, id);
+            int affectedRows = pstmt.executeUpdate();
+            
+            if (affectedRows > 0) {
+                System.out.println("Deleted GPA summary with ID: " + id);
+                return true;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error deleting GPA summary: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return false;
+    }
+
+    /**
+     * Update an existing GPA summary (optional feature)
+     * @return true if updated successfully, false otherwise
+     */
+    public boolean updateSummary(GpaSummary summary) {
+        String updateSQL = "UPDATE gpa_summary SET gpa = ?, credits = ?, timestamp = ? WHERE id = ?";
+        
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+            
+            pstmt.setDouble(1, summary.getGpa());
+            pstmt.setDouble(2, summary.getCredits());
+            pstmt.setString(3, summary.getTimestamp());
+            pstmt.setInt(4, summary.getId());
+            
+            int affectedRows = pstmt.executeUpdate();
+            
+            if (affectedRows > 0) {
+                System.out.println("Updated GPA summary with ID: " + summary.getId());
+                return true;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error updating GPA summary: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return false;
+    }
+
+    /**
+     * Delete many GPA summaries, and their courses, in a single transaction.
+     * Uses one batched statement per table instead of one autocommit DELETE per record.
+     * @return number of summaries deleted, or -1 if the transaction was rolled back
+     */
+    public int deleteSummaries(Collection<Integer> ids) {
+        if (ids.isEmpty()) return 0;
+        String deleteCoursesSQL = "DELETE FROM courses WHERE gpa_summary_id = ?";
+        String deleteSummarySQL = "DELETE FROM gpa_summary WHERE id = ?";
+        
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement coursesStmt = conn.prepareStatement(deleteCoursesSQL);
+                 PreparedStatement summaryStmt = conn.prepareStatement(deleteSummarySQL)) {
+                
+                for (int id : ids) {
+                    coursesStmt.setInt(1, id);
+                    coursesStmt.addBatch();
+                    summaryStmt.setInt(1, id);
+                    summaryStmt.addBatch();
+                }
+                coursesStmt.executeBatch();
+                int deleted = sum(summaryStmt.executeBatch());
+                conn.commit();
+                
+                System.out.println("Deleted " + deleted + " GPA summaries in one transaction");
+                return deleted;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting GPA summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return -1;
+    }
+
+    /**
+     * Update many GPA summaries in a single transaction using one batched statement
+     * @return number of summaries updated, or -1 if the transaction was rolled back
+     */
+    public int updateSummaries(Collection<GpaSummary> summaries) {
+        if (summaries.isEmpty()) return 0;
+        String updateSQL = "UPDATE gpa_summary SET gpa = ?, credits = ?, timestamp = ? WHERE id = ?";
+        
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+                
+                for (GpaSummary summary : summaries) {
+                    pstmt.setDouble(1, summary.getGpa());
+                    pstmt.setDouble(2, summary.getCredits());
+                    pstmt.setString(3, summary.getTimestamp());
+                    pstmt.setInt(4, summary.getId());
+                    pstmt.addBatch();
+                }
+                int updated = sum(pstmt.executeBatch());
+                conn.commit();
+                
+                System.out.println("Updated " + updated + " GPA summaries in one transaction");
+                return updated;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating GPA summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return -1;
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count > 0) total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Get count of summaries with an ID greater than the given one
+     */
+    public int getCountAfter(int afterId) {
+        String countSQL = "SELECT COUNT(*) as count FROM gpa_summary WHERE id > ?";
+        
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(countSQL)) {
+            
+            pstmt.setInt(1, afterId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("count");
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting count: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+
+    /**
+     * Get count of all summaries
+     */
+    public int getCount() {
+        String countSQL = "SELECT COUNT(*) as count FROM gpa_summary";
+        
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(countSQL)) {
+            
+            if (rs.next()) {
+                return rs.getInt("count");
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting count: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+}
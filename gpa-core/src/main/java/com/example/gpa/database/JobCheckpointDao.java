@@ -0,0 +1,100 @@
+package com.example.gpa.database;
+
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Data Access Object for batch job checkpoints.
+ * A checkpoint stores the last processed ID and a fingerprint of the job's parameters,
+ * so a job only resumes from a checkpoint that was made with the same parameters.
+ * Also records the grade scale and retake policy of the GPA recompute, which
+ * DatabaseManager makes active again when the database is next opened.
+ */
+public class JobCheckpointDao {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DatabaseManager dbManager;
+
+    public JobCheckpointDao() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Get the last processed ID for a job
+     * @return the ID, or 0 if there is no checkpoint for this job and fingerprint
+     */
+    public int loadCheckpoint(String job, String fingerprint) {
+        String selectSQL = "SELECT last_id FROM job_checkpoint WHERE job = ? AND fingerprint = ?";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+
+            pstmt.setString(1, job);
+            pstmt.setString(2, fingerprint);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error loading checkpoint: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    public void saveCheckpoint(String job, String fingerprint, int lastId) {
+        String upsertSQL = "INSERT OR REPLACE INTO job_checkpoint (job, last_id, fingerprint, updated_at) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(upsertSQL)) {
+
+            pstmt.setString(1, job);
+            pstmt.setInt(2, lastId);
+            pstmt.setString(3, fingerprint);
+            pstmt.setString(4, LocalDateTime.now().format(TIMESTAMP_FORMAT));
+            pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error saving checkpoint: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Record the grade scale and retake policy stored GPAs are being recomputed for
+     */
+    public void saveGradingSettings(GradeScale scale, RetakePolicy policy) {
+        String upsertSQL = "INSERT OR REPLACE INTO grading_settings (id, grade_scale, retake_policy, updated_at) VALUES (1, ?, ?, ?)";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(upsertSQL)) {
+
+            pstmt.setString(1, scale.fingerprint());
+            pstmt.setString(2, policy.getLabel());
+            pstmt.setString(3, LocalDateTime.now().format(TIMESTAMP_FORMAT));
+            pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error saving grading settings: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public void clearCheckpoint(String job) {
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM job_checkpoint WHERE job = ?")) {
+
+            pstmt.setString(1, job);
+            pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error clearing checkpoint: " + e.getMessage());
+        }
+    }
+}
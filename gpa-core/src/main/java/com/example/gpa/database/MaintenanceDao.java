@@ -0,0 +1,78 @@
+package com.example.gpa.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Storage maintenance: incremental vacuum, PRAGMA optimize and space accounting.
+ * Meant to run on the background worker while the app is idle.
+ */
+public class MaintenanceDao {
+
+    // Pages freed per incremental_vacuum step, so a step never holds the worker for long
+    private static final int VACUUM_STEP_PAGES = 256;
+
+    private final DatabaseManager dbManager;
+
+    /**
+     * Page counts before and after a maintenance run
+     */
+    public record SpaceReport(long pageSize, long pagesBefore, long pagesAfter,
+                              long freePagesBefore, long freePagesAfter) {
+        public long reclaimedBytes() {
+            return (pagesBefore - pagesAfter) * pageSize;
+        }
+
+        public long fileBytes() {
+            return pagesAfter * pageSize;
+        }
+    }
+
+    public MaintenanceDao() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Release free pages in small steps, then let SQLite refresh its query planner statistics.
+     * @param shouldYield checked between steps; returning true stops the vacuum early
+     *                    (e.g. because user work is waiting on the worker)
+     */
+    public SpaceReport vacuumAndOptimize(BooleanSupplier shouldYield) {
+        try (Connection conn = dbManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            long pageSize = pragma(stmt, "page_size");
+            long pagesBefore = pragma(stmt, "page_count");
+            long freeBefore = pragma(stmt, "freelist_count");
+
+            long free = freeBefore;
+            while (free > 0 && !shouldYield.getAsBoolean()) {
+                stmt.execute("PRAGMA incremental_vacuum(" + VACUUM_STEP_PAGES + ")");
+                long remaining = pragma(stmt, "freelist_count");
+                if (remaining >= free) break; // auto_vacuum not active, nothing more to do
+                free = remaining;
+            }
+            stmt.execute("PRAGMA optimize");
+
+            SpaceReport report = new SpaceReport(pageSize, pagesBefore, pragma(stmt, "page_count"),
+                    freeBefore, pragma(stmt, "freelist_count"));
+            System.out.println("Maintenance reclaimed " + report.reclaimedBytes() + " bytes, database is now "
+                    + report.fileBytes() + " bytes");
+            return report;
+
+        } catch (SQLException e) {
+            System.err.println("Error running database maintenance: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static long pragma(Statement stmt, String name) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
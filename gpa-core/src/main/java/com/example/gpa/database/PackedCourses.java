@@ -0,0 +1,162 @@
+package com.example.gpa.database;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.model.Course;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Binary layout of a session's courses when they are stored packed in gpa_summary.courses_blob.
+ *
+ *   byte    format version (1)
+ *   varint  number of courses
+ *   then per course, in entry order:
+ *     varint  catalog id
+ *     varint  credit in thousandths (see {@link FixedPointGpa#CREDIT_SCALE})
+ *     byte    grade ordinal
+ *
+ * Varints are unsigned LEB128: 7 bits per byte, low bits first, high bit set on all but the
+ * last byte. A typical course (catalog id below 16384, credit 3.0) takes 4 or 5 bytes,
+ * against a courses row of four columns plus its id and index entry.
+ */
+final class PackedCourses {
+
+    private static final int FORMAT_VERSION = 1;
+
+    interface CourseSink {
+        void accept(int catalogId, long scaledCredit, int grade) throws SQLException;
+    }
+
+    private byte[] bytes;
+    private int length;
+    private int count;
+
+    PackedCourses(int expectedCourses) {
+        bytes = new byte[8 + expectedCourses * 6];
+        length = 8; // room for the version and the count, written by toBytes()
+    }
+
+    void add(int catalogId, long scaledCredit, int grade) {
+        ensureCapacity(11);
+        writeVarint(catalogId);
+        writeVarint(scaledCredit);
+        bytes[length++] = (byte) grade;
+        count++;
+    }
+
+    byte[] toBytes() {
+        // Write the header just before the courses and copy out from there
+        int headerLength = 1 + varintLength(count);
+        int start = 8 - headerLength;
+        bytes[start] = FORMAT_VERSION;
+        int pos = start + 1;
+        for (long v = count; ; v >>>= 7) {
+            if (v < 0x80) {
+                bytes[pos] = (byte) v;
+                break;
+            }
+            bytes[pos++] = (byte) (v | 0x80);
+        }
+        return Arrays.copyOfRange(bytes, start, length);
+    }
+
+    /**
+     * Append a course, resolving its catalog id through the caller's connection
+     */
+    void add(Connection conn, CourseCatalogDao catalogDao, Course course) throws SQLException {
+        add(catalogDao.resolveCatalogId(conn, course), course.getScaledCredit(), course.getGradeValue().ordinal());
+    }
+
+    /**
+     * Decode a blob, passing each course to the sink in entry order
+     * @return number of courses
+     * @throws SQLException if the blob is truncated or has an unknown format version
+     */
+    static int unpack(byte[] blob, CourseSink sink) throws SQLException {
+        Reader in = new Reader(blob);
+        int count = in.header();
+        for (int i = 0; i < count; i++) {
+            int catalogId = (int) in.varint();
+            long scaledCredit = in.varint();
+            sink.accept(catalogId, scaledCredit, in.grade());
+        }
+        return count;
+    }
+
+    /**
+     * Number of courses in a blob, read from its header only
+     */
+    static int count(byte[] blob) throws SQLException {
+        return new Reader(blob).header();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(length + extra, bytes.length * 2));
+        }
+    }
+
+    private void writeVarint(long value) {
+        while (value >= 0x80) {
+            bytes[length++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    private static int varintLength(long value) {
+        int n = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    private static final class Reader {
+        private final byte[] blob;
+        private int pos;
+
+        Reader(byte[] blob) {
+            this.blob = blob;
+        }
+
+        int header() throws SQLException {
+            if (blob.length == 0 || blob[0] != FORMAT_VERSION) {
+                throw new SQLException("Unsupported packed courses format: "
+                        + (blob.length == 0 ? "empty blob" : "version " + blob[0]));
+            }
+            pos = 1;
+            long count = varint();
+            // Every course takes at least 3 bytes, so a larger count means a damaged blob
+            if (count > (blob.length - pos) / 3) {
+                throw new SQLException("Packed courses blob too short for " + count + " courses");
+            }
+            return (int) count;
+        }
+
+        long varint() throws SQLException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= blob.length) {
+                    throw new SQLException("Truncated packed courses blob");
+                }
+                byte b = blob[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new SQLException("Malformed varint in packed courses blob");
+        }
+
+        int grade() throws SQLException {
+            if (pos >= blob.length) {
+                throw new SQLException("Truncated packed courses blob");
+            }
+            return blob[pos++];
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package com.example.gpa.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statement-level profiling of the connections handed out by {@link DatabaseManager}.
+ *
+ * While enabled, connections are wrapped in proxies that time every execute and batch,
+ * including the time spent reading the result set, and count the rows read or changed.
+ * Totals are kept per SQL text. Executions slower than the threshold go into a ring buffer
+ * with their bind parameters, and the first slow execution of each statement captures its
+ * {@code EXPLAIN QUERY PLAN}. When disabled, {@link DatabaseManager#getConnection()} returns
+ * the plain connection, so there is no cost at all.
+ *
+ * Enable with {@code db.profile=true} / {@code -Dgpa.db.profile=true} or {@link #setEnabled}.
+ */
+public final class QueryProfiler {
+
+    private static final QueryProfiler INSTANCE = new QueryProfiler();
+
+    private static final int SLOW_LOG_SIZE = 64;
+    private static final int MAX_STATEMENTS = 500; // distinct SQL texts tracked before lumping into "(other)"
+    private static final String OTHER = "(other statements)";
+
+    /**
+     * Totals for one SQL text
+     */
+    public record StatementStats(String sql, long executions, long batchRows, long rows,
+                                 long totalNanos, long maxNanos, String plan) {
+        public double meanMillis() {
+            return executions == 0 ? 0 : totalNanos / 1e6 / executions;
+        }
+    }
+
+    /**
+     * One execution above the slow threshold
+     */
+    public record SlowQuery(long atMillis, String sql, String parameters, long rows, long nanos, String plan) {
+    }
+
+    private static final class Totals {
+        long executions;
+        long batchRows;
+        long rows;
+        long totalNanos;
+        long maxNanos;
+        String plan;
+    }
+
+    private volatile boolean enabled;
+    private volatile long slowNanos = 25_000_000;
+    private long startedMillis = System.currentTimeMillis();
+    private final Map<String, Totals> totals = new HashMap<>();
+    private final SlowQuery[] slowLog = new SlowQuery[SLOW_LOG_SIZE];
+    private int slowNext;
+    private long slowCount;
+
+    private QueryProfiler() {
+    }
+
+    public static QueryProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn profiling on or off. Takes effect for connections handed out from now on.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowNanos / 1_000_000;
+    }
+
+    public void setSlowThresholdMillis(long millis) {
+        this.slowNanos = millis * 1_000_000;
+    }
+
+    /**
+     * Drop all collected statistics
+     */
+    public synchronized void reset() {
+        totals.clear();
+        Arrays.fill(slowLog, null);
+        slowNext = 0;
+        slowCount = 0;
+        startedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Wrap a connection so its statements are profiled
+     */
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Statements ordered by total time, most expensive first
+     */
+    public synchronized List<StatementStats> getStatementStats() {
+        List<StatementStats> stats = new ArrayList<>(totals.size());
+        for (Map.Entry<String, Totals> entry : totals.entrySet()) {
+            Totals t = entry.getValue();
+            stats.add(new StatementStats(entry.getKey(), t.executions, t.batchRows, t.rows,
+                    t.totalNanos, t.maxNanos, t.plan));
+        }
+        stats.sort(Comparator.comparingLong(StatementStats::totalNanos).reversed());
+        return stats;
+    }
+
+    /**
+     * Executions above the slow threshold, newest first (the last {@value #SLOW_LOG_SIZE})
+     */
+    public synchronized List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> slow = new ArrayList<>();
+        for (int i = 1; i <= SLOW_LOG_SIZE; i++) {
+            SlowQuery query = slowLog[Math.floorMod(slowNext - i, SLOW_LOG_SIZE)];
+            if (query == null) break;
+            slow.add(query);
+        }
+        return slow;
+    }
+
+    /**
+     * Human-readable summary: the top statements by total time with their plans,
+     * then the slowest executions still in the slow log
+     */
+    public String report(int topStatements) {
+        List<StatementStats> stats = getStatementStats();
+        List<SlowQuery> slow = new ArrayList<>(getSlowQueries());
+        slow.sort(Comparator.comparingLong(SlowQuery::nanos).reversed());
+        long totalNanos = 0;
+        long executions = 0;
+        for (StatementStats s : stats) {
+            totalNanos += s.totalNanos();
+            executions += s.executions();
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Query profile over %.1fs: %d executions, %.1f ms in SQL, %d slow (> %d ms)%n",
+                (System.currentTimeMillis() - startedMillis) / 1000.0, executions, totalNanos / 1e6,
+                slowCount, getSlowThresholdMillis()));
+        report.append(String.format("  %10s %6s %8s %9s %9s %9s  %s%n",
+                "total ms", "share", "calls", "mean ms", "max ms", "rows", "statement"));
+        for (StatementStats s : stats.subList(0, Math.min(topStatements, stats.size()))) {
+            report.append(String.format("  %10.1f %5.1f%% %8d %9.3f %9.2f %9d  %s%n",
+                    s.totalNanos() / 1e6, totalNanos == 0 ? 0 : 100.0 * s.totalNanos() / totalNanos,
+                    s.executions(), s.meanMillis(), s.maxNanos() / 1e6, s.rows(), abbreviate(s.sql(), 120)));
+            if (s.plan() != null && !s.plan().isBlank()) {
+                report.append(indent(s.plan(), "             plan: "));
+            }
+        }
+        if (!slow.isEmpty()) {
+            report.append("Slowest recent executions:").append(System.lineSeparator());
+            for (SlowQuery q : slow.subList(0, Math.min(topStatements, slow.size()))) {
+                report.append(String.format("  %9.2f ms %7d rows  %s  params=%s%n",
+                        q.nanos() / 1e6, q.rows(), abbreviate(q.sql(), 100), q.parameters()));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Record one finished execution. Captures the query plan the first time a statement is slow.
+     */
+    private void record(Connection raw, String sql, Object[] parameters, long rows, int batchRows, long nanos) {
+        boolean slow = nanos >= slowNanos;
+        boolean needPlan;
+        synchronized (this) {
+            Totals t = totals.get(sql);
+            if (t == null) {
+                if (totals.size() >= MAX_STATEMENTS) {
+                    sql = OTHER;
+                }
+                t = totals.computeIfAbsent(sql, key -> new Totals());
+            }
+            t.executions++;
+            t.batchRows += batchRows;
+            t.rows += rows;
+            t.totalNanos += nanos;
+            t.maxNanos = Math.max(t.maxNanos, nanos);
+            needPlan = slow && t.plan == null && sql != OTHER;
+        }
+        if (!slow) {
+            return;
+        }
+
+        String plan = needPlan ? explain(raw, sql, parameters) : null;
+        synchronized (this) {
+            Totals t = totals.get(sql);
+            if (plan != null && t != null && t.plan == null) {
+                t.plan = plan;
+            }
+            slowLog[slowNext] = new SlowQuery(System.currentTimeMillis(), sql, formatParameters(parameters),
+                    rows, nanos, t == null ? null : t.plan);
+            slowNext = (slowNext + 1) % SLOW_LOG_SIZE;
+            slowCount++;
+        }
+    }
+
+    /**
+     * Run EXPLAIN QUERY PLAN for a statement with the same bind parameters, on the unwrapped
+     * connection so it is not profiled itself
+     */
+    private static String explain(Connection raw, String sql, Object[] parameters) {
+        String verb = sql.stripLeading().split("\\s", 2)[0].toUpperCase();
+        if (!List.of("SELECT", "WITH", "INSERT", "UPDATE", "DELETE", "REPLACE").contains(verb)) {
+            return null;
+        }
+        try (PreparedStatement pstmt = raw.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            if (parameters != null) {
+                for (int i = 1; i < parameters.length; i++) {
+                    pstmt.setObject(i, parameters[i]);
+                }
+            }
+            // Rows are (id, parent, notused, detail); indent each step under its parent
+            Map<Integer, Integer> depth = new HashMap<>();
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int level = depth.getOrDefault(rs.getInt(2), -1) + 1;
+                    depth.put(rs.getInt(1), level);
+                    plan.append("  ".repeat(level)).append(rs.getString(4)).append(System.lineSeparator());
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "(no plan: " + e.getMessage() + ")" + System.lineSeparator();
+        }
+    }
+
+    private static String formatParameters(Object[] parameters) {
+        if (parameters == null) {
+            return "[]";
+        }
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 1; i < parameters.length; i++) {
+            if (i > 1) text.append(", ");
+            Object value = parameters[i];
+            text.append(value instanceof String ? "'" + abbreviate((String) value, 40) + "'"
+                    : value instanceof byte[] bytes ? "<" + bytes.length + " bytes>"
+                    : String.valueOf(value));
+        }
+        return text.append(']').toString();
+    }
+
+    private static String abbreviate(String sql, int max) {
+        String flat = sql.replaceAll("\\s+", " ").trim();
+        return flat.length() <= max ? flat : flat.substring(0, max - 3) + "...";
+    }
+
+    private static String indent(String text, String prefix) {
+        StringBuilder out = new StringBuilder();
+        String pad = " ".repeat(prefix.length());
+        boolean first = true;
+        for (String line : text.split(System.lineSeparator())) {
+            out.append(first ? prefix : pad).append(line).append(System.lineSeparator());
+            first = false;
+        }
+        return out.toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Hands out profiled statements; everything else goes straight to the connection
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection raw;
+
+        ConnectionHandler(Connection raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryProfiler.invoke(raw, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[] {PreparedStatement.class},
+                            new StatementHandler(raw, (Statement) result, (String) args[0]));
+                case "createStatement":
+                    return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                            new Class<?>[] {Statement.class},
+                            new StatementHandler(raw, (Statement) result, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * Times executions of one statement. A query's time includes reading its rows, so an
+     * execution is finished when its result set is exhausted or closed, the statement is
+     * executed again, or the statement is closed.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Connection raw;
+        private final Statement statement;
+        private final String preparedSql;
+        private Object[] parameters;
+        private int batchRows;
+        private List<String> batchSql;
+
+        // Execution in progress
+        private String sql;
+        private Object[] executedParameters;
+        private long elapsedNanos;
+        private long rows;
+        private int executedBatchRows;
+        private boolean open;
+
+        StatementHandler(Connection raw, Statement statement, String preparedSql) {
+            this.raw = raw;
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "addBatch" -> {
+                    if (args == null) {
+                        batchRows++;
+                    } else {
+                        if (batchSql == null) batchSql = new ArrayList<>();
+                        batchSql.add((String) args[0]);
+                        batchRows++;
+                    }
+                }
+                case "clearBatch" -> {
+                    batchRows = 0;
+                    batchSql = null;
+                }
+                case "clearParameters" -> parameters = null;
+                case "getResultSet" -> {
+                    ResultSet rs = (ResultSet) QueryProfiler.invoke(statement, method, args);
+                    return rs == null || !open ? rs : wrapResultSet(rs);
+                }
+                case "close" -> finish();
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                            && method.getDeclaringClass() == PreparedStatement.class) {
+                        recordParameter(index, name.equals("setNull") ? null : args[1]);
+                    }
+                }
+            }
+            return QueryProfiler.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finish();
+            String name = method.getName();
+            boolean batch = name.contains("Batch");
+            sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : batch && batchSql != null ? batchSql.get(0)
+                    : preparedSql;
+            executedParameters = parameters == null ? null : parameters.clone();
+            executedBatchRows = batch ? batchRows : 0;
+            rows = 0;
+            elapsedNanos = 0;
+            open = true;
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = QueryProfiler.invoke(statement, method, args);
+            } finally {
+                elapsedNanos += System.nanoTime() - start;
+                if (batch) {
+                    batchRows = 0;
+                    batchSql = null;
+                }
+            }
+
+            if (result instanceof ResultSet rs) {
+                return wrapResultSet(rs); // finished when the rows have been read
+            }
+            if (result instanceof int[] counts) {
+                for (int count : counts) rows += Math.max(count, 0);
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) rows += Math.max(count, 0);
+            } else if (result instanceof Number count) {
+                rows = Math.max(count.longValue(), 0);
+            } else if (Boolean.FALSE.equals(result)) {
+                rows = Math.max(statement.getUpdateCount(), 0);
+            }
+            if (!Boolean.TRUE.equals(result)) {
+                finish();
+            }
+            return result;
+        }
+
+        private ResultSet wrapResultSet(ResultSet rs) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("next")) {
+                            long start = System.nanoTime();
+                            boolean more = (Boolean) QueryProfiler.invoke(rs, method, args);
+                            elapsedNanos += System.nanoTime() - start;
+                            if (more) {
+                                rows++;
+                            } else {
+                                finish();
+                            }
+                            return more;
+                        }
+                        if (name.equals("close")) {
+                            finish();
+                        }
+                        return QueryProfiler.invoke(rs, method, args);
+                    });
+        }
+
+        private void recordParameter(int index, Object value) {
+            if (parameters == null) {
+                parameters = new Object[Math.max(index + 1, 8)];
+            } else if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            }
+            parameters[index] = value;
+        }
+
+        private void finish() {
+            if (!open) return;
+            open = false;
+            Object[] bound = executedParameters;
+            if (bound != null) {
+                int last = bound.length - 1;
+                while (last > 0 && bound[last] == null) last--;
+                bound = Arrays.copyOf(bound, last + 1);
+            }
+            record(raw, sql == null ? "(unknown)" : sql, bound, rows, executedBatchRows, elapsedNanos);
+        }
+    }
+}
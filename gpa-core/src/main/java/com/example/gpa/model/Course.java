@@ -0,0 +1,35 @@
+package com.example.gpa.model;
+
+import com.example.gpa.FixedPointGpa;
+
+/**
+ * A course attempt in a session.
+ * Name, code and teachers live in a shared {@link CourseCatalogEntry}; the grade is kept
+ * as a {@link Grade} ordinal, so a Course only owns its credit and grade.
+ * Credits are kept in thousandths (see {@link FixedPointGpa}) so GPA sums are exact.
+ */
+public class Course {
+    private final CourseCatalogEntry catalogEntry;
+    private final int scaledCredit;
+    private final byte grade;
+
+    public Course(String name, String code, double credit, String teacher1, String teacher2, String grade) {
+        this(CourseCatalog.getInstance().intern(name, code, teacher1, teacher2), credit, Grade.fromLabel(grade));
+    }
+
+    public Course(CourseCatalogEntry catalogEntry, double credit, Grade grade) {
+        this.catalogEntry = catalogEntry;
+        this.scaledCredit = Math.toIntExact(FixedPointGpa.toScaledCredit(credit));
+        this.grade = (byte) grade.ordinal();
+    }
+
+    public CourseCatalogEntry getCatalogEntry() { return catalogEntry; }
+    public String getName() { return catalogEntry.getName(); }
+    public String getCode() { return catalogEntry.getCode(); }
+    public double getCredit() { return (double) scaledCredit / FixedPointGpa.CREDIT_SCALE; }
+    public long getScaledCredit() { return scaledCredit; }
+    public String getTeacher1() { return catalogEntry.getTeacher1(); }
+    public String getTeacher2() { return catalogEntry.getTeacher2(); }
+    public String getGrade() { return getGradeValue().getLabel(); }
+    public Grade getGradeValue() { return Grade.fromOrdinal(grade); }
+}
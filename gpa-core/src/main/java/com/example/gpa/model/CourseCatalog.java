@@ -0,0 +1,48 @@
+package com.example.gpa.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide flyweight factory for course catalog data.
+ * Courses entered in the UI and courses loaded from the database both go through
+ * {@link #intern}, so each distinct (name, code, teachers) combination and each
+ * teacher name exists once on the heap no matter how many sessions are resident.
+ */
+public final class CourseCatalog {
+
+    private static final CourseCatalog INSTANCE = new CourseCatalog();
+
+    private final ConcurrentMap<CourseCatalogEntry, CourseCatalogEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    private CourseCatalog() {
+    }
+
+    public static CourseCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the shared entry for this catalog data, creating it on first use
+     */
+    public CourseCatalogEntry intern(String name, String code, String teacher1, String teacher2) {
+        CourseCatalogEntry candidate = new CourseCatalogEntry(
+                internString(name), internString(code), internString(teacher1), internString(teacher2));
+        CourseCatalogEntry existing = entries.putIfAbsent(candidate, candidate);
+        return existing != null ? existing : candidate;
+    }
+
+    /**
+     * Number of distinct catalog entries currently interned
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private String internString(String value) {
+        if (value == null) return null;
+        String existing = strings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
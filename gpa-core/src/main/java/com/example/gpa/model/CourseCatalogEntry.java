@@ -0,0 +1,46 @@
+package com.example.gpa.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable catalog data for a course (name, code and teachers).
+ * Instances are flyweights handed out by {@link CourseCatalog}: every Course with the
+ * same catalog data shares one entry, so sessions don't carry their own copies of these strings.
+ */
+public final class CourseCatalogEntry {
+    private final String name;
+    private final String code;
+    private final String teacher1;
+    private final String teacher2;
+
+    // Created only through CourseCatalog.intern()
+    CourseCatalogEntry(String name, String code, String teacher1, String teacher2) {
+        this.name = name;
+        this.code = code;
+        this.teacher1 = teacher1;
+        this.teacher2 = teacher2;
+    }
+
+    public String getName() { return name; }
+    public String getCode() { return code; }
+    public String getTeacher1() { return teacher1; }
+    public String getTeacher2() { return teacher2; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CourseCatalogEntry other)) return false;
+        return Objects.equals(name, other.name) && Objects.equals(code, other.code)
+                && Objects.equals(teacher1, other.teacher1) && Objects.equals(teacher2, other.teacher2);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, code, teacher1, teacher2);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CourseCatalogEntry{code='%s', name='%s'}", code, name);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.gpa.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Model class representing a GPA calculation summary stored in the database.
+ * This is separate from the Course model and only stores final GPA results.
+ *
+ * The timestamp is held as epoch milliseconds and only turned into text when rendered,
+ * so a loaded row is one small object with no strings attached.
+ */
+public class GpaSummary {
+    // Format of the timestamp column, in the local time zone
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZONE);
+
+    private int id;
+    private double gpa;
+    private double credits;
+    private long timestampMillis;
+    private List<Course> courses; // Courses for this summary; shared empty list until loaded
+
+    // Constructor for creating new summaries (without ID)
+    public GpaSummary(double gpa, double credits) {
+        this.gpa = gpa;
+        this.credits = credits;
+        this.timestampMillis = System.currentTimeMillis();
+        this.courses = Collections.emptyList();
+    }
+
+    // Constructor for loading from database (with ID)
+    public GpaSummary(int id, double gpa, double credits, long timestampMillis) {
+        this.id = id;
+        this.gpa = gpa;
+        this.credits = credits;
+        this.timestampMillis = timestampMillis;
+        this.courses = Collections.emptyList();
+    }
+
+    /**
+     * Render epoch milliseconds the way the timestamp column stores them
+     */
+    public static String formatTimestamp(long epochMillis) {
+        return TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    /**
+     * Convert a stored timestamp read as {@code strftime('%s', timestamp)} (the local wall-clock
+     * time counted as if it were UTC) to epoch milliseconds, without parsing the text in Java
+     */
+    public static long fromLocalEpochSecond(long localEpochSecond) {
+        return LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC)
+                .atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public double getGpa() {
+        return gpa;
+    }
+
+    public double getCredits() {
+        return credits;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * Timestamp as displayed and stored ("yyyy-MM-dd HH:mm:ss"), formatted on each call
+     */
+    public String getTimestamp() {
+        return formatTimestamp(timestampMillis);
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    // Setters (for updates)
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public void setGpa(double gpa) {
+        this.gpa = gpa;
+    }
+
+    public void setCredits(double credits) {
+        this.credits = credits;
+    }
+
+    public void setTimestampMillis(long timestampMillis) {
+        this.timestampMillis = timestampMillis;
+    }
+
+    public void setCourses(List<Course> courses) {
+        this.courses = courses != null ? courses : Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GpaSummary{id=%d, gpa=%.2f, credits=%.1f, timestamp='%s', courses=%d}",
+                             id, gpa, credits, getTimestamp(), courses.size());
+    }
+}
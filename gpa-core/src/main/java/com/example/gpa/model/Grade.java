@@ -0,0 +1,78 @@
+package com.example.gpa.model;
+
+/**
+ * Letter grades supported by the calculator.
+ * The ordinal is what gets stored in the database, so new grades must only be appended.
+ */
+public enum Grade {
+    A_PLUS("A+", 4.0),
+    A("A", 3.75),
+    A_MINUS("A-", 3.5),
+    B_PLUS("B+", 3.25),
+    B("B", 3.0),
+    B_MINUS("B-", 2.75),
+    C_PLUS("C+", 2.5),
+    C("C", 2.25),
+    C_MINUS("C-", 2.0),
+    D_PLUS("D+", 1.75),
+    D("D", 1.5),
+    F("F", 0.0);
+
+    private static final Grade[] VALUES = values();
+
+    private final String label;
+    private final double point;
+
+    Grade(String label, double point) {
+        this.label = label;
+        this.point = point;
+    }
+
+    public String getLabel() { return label; }
+    public double getPoint() { return point; }
+
+    /**
+     * Look up a grade by its label (e.g. "B+"), normalized as in {@link #tryParse}.
+     * Unknown or empty labels map to F, which carries the same 0.0 point value
+     * GpaCalculator has always used for them.
+     */
+    public static Grade fromLabel(String label) {
+        Grade grade = tryParse(label);
+        return grade == null ? F : grade;
+    }
+
+    /**
+     * Lookup by label, ignoring case and whitespace (so "a+" and "A +" are A+)
+     * @return the grade, or null if the label is not a known grade
+     */
+    public static Grade tryParse(String label) {
+        if (label == null) return null;
+        Grade grade = match(label.trim());
+        if (grade == null && label.chars().anyMatch(Character::isWhitespace)) {
+            grade = match(label.replaceAll("\\s+", ""));
+        }
+        return grade;
+    }
+
+    private static Grade match(String label) {
+        for (Grade g : VALUES) {
+            if (g.label.equalsIgnoreCase(label)) {
+                return g;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Look up a grade by its stored ordinal
+     */
+    public static Grade fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= VALUES.length) return F;
+        return VALUES[ordinal];
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.gpa.services;
+
+/**
+ * Cooperative cancellation flag handed to queued work and its callbacks.
+ *
+ * A screen keeps one token and cancels it when the user leaves; every request it makes gets a
+ * {@link #child()} token, so leaving the screen cancels all of them while the work queue can
+ * still cancel a single superseded request on its own. Work that is still queued is skipped;
+ * work that is already running finishes, but its callbacks see the token and do nothing.
+ */
+public final class CancellationToken {
+
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(null);
+    }
+
+    private CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * A token that is cancelled on its own or together with this one
+     */
+    public CancellationToken child() {
+        return new CancellationToken(this);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        for (CancellationToken token = this; token != null; token = token.parent) {
+            if (token.cancelled) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.gpa.services;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo projection of the final CGPA from the courses completed so far.
+ *
+ * The remaining credits are split into courses of {@link #DEFAULT_COURSE_CREDIT} (the last one
+ * takes the remainder), and each simulated outcome draws a grade for every one of them from a
+ * per-grade probability distribution. The result is the distribution of the final CGPA at
+ * display precision (0.01), from which percentiles and "chance of finishing at or above x"
+ * are read.
+ *
+ * Samples are split into a fixed number of chunks that run in parallel, each with its own
+ * {@link SplittableRandom} split from the seed, so a given seed gives the same result on any
+ * number of cores. A chunk counts outcomes into its own histogram: the sampling loop works on
+ * longs and allocates nothing. Grades are drawn in O(1) from an alias table.
+ */
+public final class CgpaProjection {
+
+    public static final double DEFAULT_COURSE_CREDIT = 3.0;
+    public static final int DEFAULT_SAMPLES = 2_000_000;
+    // Weight of stored history against the student's own grades, in courses
+    private static final int HISTORY_WEIGHT = 8;
+    private static final int CHUNKS = 64;
+    private static final int GRADES = Grade.values().length;
+
+    /**
+     * Distribution of simulated final CGPAs
+     *
+     * @param histogram number of outcomes per final CGPA in hundredths (index 350 = 3.50)
+     */
+    public record Projection(long samples, double completedCredits, double remainingCredits,
+                             long[] histogram, double mean, long millis) {
+
+        /**
+         * Final CGPA at percentile {@code p} (0-100)
+         */
+        public double percentile(double p) {
+            long target = (long) Math.ceil(p / 100.0 * samples);
+            long cumulative = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                cumulative += histogram[i];
+                if (cumulative >= Math.max(1, target)) {
+                    return (double) i / FixedPointGpa.DISPLAY_SCALE;
+                }
+            }
+            return (double) (histogram.length - 1) / FixedPointGpa.DISPLAY_SCALE;
+        }
+
+        /**
+         * Share of outcomes whose displayed CGPA is at least {@code gpa}
+         */
+        public double probabilityAtLeast(double gpa) {
+            int from = (int) Math.max(0, Math.round(gpa * FixedPointGpa.DISPLAY_SCALE));
+            long count = 0;
+            for (int i = from; i < histogram.length; i++) {
+                count += histogram[i];
+            }
+            return samples == 0 ? 0 : (double) count / samples;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Projection{samples=%d, remaining=%.1f credits, mean=%.3f, p5=%.2f, p50=%.2f, p95=%.2f, %d ms}",
+                    samples, remainingCredits, mean, percentile(5), percentile(50), percentile(95), millis);
+        }
+    }
+
+    private CgpaProjection() {
+    }
+
+    /**
+     * Grade probabilities for the remaining courses, indexed by Grade.ordinal(): the student's own
+     * grades so far, blended with the grade distribution of stored history weighted as
+     * {@value #HISTORY_WEIGHT} courses. Without history, a uniform distribution takes its place.
+     *
+     * @param historyCounts courses per grade over stored history (may be all zero)
+     */
+    public static double[] gradeProbabilities(long[] historyCounts, List<Course> completed) {
+        double[] own = new double[GRADES];
+        for (Course course : completed) {
+            own[course.getGradeValue().ordinal()]++;
+        }
+        long historyTotal = 0;
+        for (long count : historyCounts) {
+            historyTotal += count;
+        }
+
+        double[] probabilities = new double[GRADES];
+        double total = completed.size() + HISTORY_WEIGHT;
+        for (int g = 0; g < GRADES; g++) {
+            double prior = historyTotal > 0 ? (double) historyCounts[g] / historyTotal : 1.0 / GRADES;
+            probabilities[g] = (own[g] + HISTORY_WEIGHT * prior) / total;
+        }
+        return probabilities;
+    }
+
+    /**
+     * Simulate {@code samples} outcomes on the common ForkJoin pool
+     *
+     * @param gradeProbabilities probability per Grade.ordinal() (normalised here)
+     * @param courseCredit credits of each simulated remaining course
+     */
+    public static Projection run(List<Course> completed, double remainingCredits, double[] gradeProbabilities,
+                                 double courseCredit, int samples, long seed) {
+        long start = System.nanoTime();
+        GradeScale scale = GradeScale.getActive();
+        long[] points = new long[GRADES];
+        long maxPoint = 0;
+        for (int g = 0; g < GRADES; g++) {
+            points[g] = scale.scaledPoint(g);
+            maxPoint = Math.max(maxPoint, points[g]);
+        }
+        AliasTable grades = new AliasTable(gradeProbabilities);
+
+        // Completed courses count as the retake policy says, like the displayed GPA
+        FixedPointGpa.Totals counted = FixedPointGpa.totals(completed);
+        long completedQuality = counted.scaledQuality();
+        long completedCredits = counted.scaledCredits();
+        long remaining = Math.max(0, FixedPointGpa.toScaledCredit(remainingCredits));
+        long fullCredit = Math.max(1, FixedPointGpa.toScaledCredit(courseCredit));
+        int fullCourses = (int) (remaining / fullCredit);
+        long lastCredit = remaining % fullCredit;
+        long totalCredits = completedCredits + remaining;
+        int buckets = (int) (maxPoint * FixedPointGpa.DISPLAY_SCALE / FixedPointGpa.POINT_SCALE) + 1;
+
+        // Split sequentially so every chunk's stream depends only on the seed
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[CHUNKS];
+        for (int c = 0; c < CHUNKS; c++) {
+            randoms[c] = root.split();
+        }
+        long[][] histograms = new long[CHUNKS][buckets];
+
+        IntStream.range(0, CHUNKS).parallel().forEach(c -> {
+            SplittableRandom random = randoms[c];
+            long[] histogram = histograms[c];
+            int chunkSamples = samples / CHUNKS + (c < samples % CHUNKS ? 1 : 0);
+            for (int s = 0; s < chunkSamples; s++) {
+                long pointSum = 0;
+                for (int i = 0; i < fullCourses; i++) {
+                    pointSum += points[grades.sample(random)];
+                }
+                long quality = completedQuality + fullCredit * pointSum;
+                if (lastCredit > 0) {
+                    quality += lastCredit * points[grades.sample(random)];
+                }
+                histogram[(int) FixedPointGpa.divide(quality, totalCredits, FixedPointGpa.DISPLAY_SCALE)]++;
+            }
+        });
+
+        long[] histogram = new long[buckets];
+        for (long[] chunk : histograms) {
+            for (int i = 0; i < buckets; i++) {
+                histogram[i] += chunk[i];
+            }
+        }
+        double sum = 0;
+        for (int i = 0; i < buckets; i++) {
+            sum += (double) i * histogram[i];
+        }
+        double mean = samples == 0 ? 0 : sum / samples / FixedPointGpa.DISPLAY_SCALE;
+        return new Projection(samples, (double) completedCredits / FixedPointGpa.CREDIT_SCALE,
+                (double) remaining / FixedPointGpa.CREDIT_SCALE, histogram, mean,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Vose's alias table: a categorical draw costs one nextLong. The low 32 bits pick the
+     * column, the high 32 bits are the uniform that picks between it and its alias.
+     */
+    private static final class AliasTable {
+        private final double[] probability;
+        private final int[] alias;
+
+        AliasTable(double[] weights) {
+            int n = weights.length;
+            double total = 0;
+            for (double weight : weights) {
+                total += Math.max(0, weight);
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("Grade probabilities must not all be zero");
+            }
+            probability = new double[n];
+            alias = new int[n];
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = Math.max(0, weights[i]) * n / total;
+                if (scaled[i] < 1) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] += scaled[less] - 1;
+                if (scaled[more] < 1) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            // Leftovers are 1 up to rounding
+            while (largeCount > 0) {
+                probability[large[--largeCount]] = 1;
+            }
+            while (smallCount > 0) {
+                probability[small[--smallCount]] = 1;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            long bits = random.nextLong();
+            int i = (int) (((bits & 0xFFFF_FFFFL) * probability.length) >>> 32);
+            return (bits >>> 32) * 0x1.0p-32 < probability[i] ? i : alias[i];
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.example.gpa.services;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.RetakeTable;
+import com.example.gpa.database.AnalyticsDao;
+import com.example.gpa.model.Grade;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Off-heap columnar store of (student, course, credit, grade) rows for institution-wide runs.
+ *
+ * Rows are held in direct ByteBuffers, or in a memory-mapped scratch file, outside the Java
+ * heap: a course code key and a credit (in thousandths) per row as ints, and the grade ordinal
+ * as a byte, 9 bytes a row. Each student's rows are contiguous, and a per-student table holds
+ * the student id and the first row. Tens of millions of rows therefore add a handful of
+ * objects to the heap, so the collector has nothing to trace or copy however many are loaded.
+ *
+ * {@link #computeGpas} computes every student's GPA with the semantics of
+ * {@link com.example.gpa.GpaCalculator}: exact fixed-point sums, retakes resolved by a
+ * {@link RetakePolicy}, rounded half-up to 4 decimals. It runs in parallel over student ranges
+ * and writes the results into another off-heap column, together with a per-GPA count table
+ * that answers rank and percentile queries in O(1).
+ *
+ * The store is immutable once loaded; queries may run from several threads. {@link #close()}
+ * drops the buffers (direct memory is returned when they are collected) and deletes the
+ * mapped file.
+ */
+public final class CohortStore implements AutoCloseable {
+
+    public enum Storage {
+        /** Direct ByteBuffers, limited by -XX:MaxDirectMemorySize */
+        DIRECT,
+        /** A memory-mapped scratch file, paged in and out by the OS */
+        MAPPED
+    }
+
+    /**
+     * Outcome of a GPA run
+     *
+     * @param mean mean GPA over all students
+     * @param median median GPA (the lower middle value for an even count)
+     */
+    public record GpaRun(int students, long rows, double mean, double median, long millis) {
+        @Override
+        public String toString() {
+            return String.format("GpaRun{students=%d, rows=%d, mean=%.4f, median=%.4f, %d ms}",
+                    students, rows, mean, median, millis);
+        }
+    }
+
+    // 16M rows per segment, so no single buffer comes near the 2 GB limit
+    private static final int SEGMENT_SHIFT = 24;
+    private static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_ROWS - 1;
+    // Below this many students per partition the fork/merge costs more than it saves
+    private static final int MIN_STUDENTS_PER_PARTITION = 50_000;
+    private static final int GRADES = Grade.values().length;
+
+    private final Storage storage;
+    private final Path file;
+    private final FileChannel channel;
+    private long mappedBytes;
+    private long offHeapBytes;
+
+    private final int students;
+    private final long rows;
+    private final IntBuffer[] codeKeys;
+    private final IntBuffer[] credits;
+    private final ByteBuffer[] grades;
+    private final IntBuffer studentIds;
+    private final LongBuffer starts;   // students + 1 entries; student s owns rows starts[s]..starts[s+1]
+    private final IntBuffer gpas;      // stored-scale GPA per student, filled by computeGpas
+
+    // Filled while loading
+    private int loadedStudents;
+    private long loadedRows;
+
+    // Students at or below each stored-scale GPA, from the last computeGpas
+    private volatile int[] atOrBelow;
+
+    private CohortStore(Storage storage, long rows, int students) throws IOException {
+        this.storage = storage;
+        if (storage == Storage.MAPPED) {
+            file = Files.createTempFile("gpa-cohort-", ".bin");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } else {
+            file = null;
+            channel = null;
+        }
+        this.rows = rows;
+        this.students = students;
+        int segments = (int) ((rows + SEGMENT_ROWS - 1) >>> SEGMENT_SHIFT);
+        codeKeys = new IntBuffer[segments];
+        credits = new IntBuffer[segments];
+        grades = new ByteBuffer[segments];
+        for (int i = 0; i < segments; i++) {
+            int size = (int) Math.min(SEGMENT_ROWS, rows - ((long) i << SEGMENT_SHIFT));
+            codeKeys[i] = allocate(4L * size).asIntBuffer();
+            credits[i] = allocate(4L * size).asIntBuffer();
+            grades[i] = allocate(size);
+        }
+        studentIds = allocate(4L * students).asIntBuffer();
+        starts = allocate(8L * (students + 1)).asLongBuffer();
+        gpas = allocate(4L * students).asIntBuffer();
+    }
+
+    /**
+     * Load every stored session's courses; each session counts as one student, its id being
+     * the session id. Call when no sessions are being saved (e.g. on the database worker).
+     *
+     * @throws IllegalStateException if the courses could not be read or changed during the load
+     */
+    public static CohortStore fromDatabase(AnalyticsDao dao, Storage storage) throws IOException {
+        long start = System.nanoTime();
+        // Retakes are matched by course code; the key of a code is the first catalog id with it
+        Map<String, Integer> keyOfCode = new HashMap<>();
+        int[][] keyOfCatalog = {new int[1024]};
+        dao.scanCatalog(0, (catalogId, code, teacher1Id, teacher2Id) -> {
+            if (catalogId >= keyOfCatalog[0].length) {
+                keyOfCatalog[0] = Arrays.copyOf(keyOfCatalog[0], Math.max(catalogId + 1, keyOfCatalog[0].length * 2));
+            }
+            keyOfCatalog[0][catalogId] = keyOfCode.computeIfAbsent(code, c -> catalogId);
+        });
+
+        AnalyticsDao.TranscriptCounts counts = dao.getTranscriptCounts();
+        CohortStore store = new CohortStore(storage, counts.rows(), counts.sessions());
+        try {
+            long scanned = dao.scanTranscripts((summaryId, catalogId, credit, grade) -> {
+                int[] keys = keyOfCatalog[0];
+                store.append(summaryId, catalogId < keys.length ? keys[catalogId] : catalogId,
+                        FixedPointGpa.toScaledCredit(credit), grade);
+            });
+            if (scanned < 0) {
+                throw new IllegalStateException("Reading courses failed");
+            }
+            store.finish();
+        } catch (RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        System.out.printf("Cohort store loaded from the database: %s in %.0f ms%n",
+                store, (System.nanoTime() - start) / 1e6);
+        return store;
+    }
+
+    /**
+     * Load a transcript file with one {@code student,code,credit,grade} line per course, such
+     * as {@code 1042,CSE1101,3,B+}. Student ids are ints and must be in ascending order, with
+     * each student's courses together and in the order they were taken. A header line and
+     * blank lines are skipped. The file is read twice: once to size the columns, once to fill them.
+     *
+     * @throws IllegalArgumentException on a malformed line or a student id out of order
+     */
+    public static CohortStore fromTranscript(Path transcript, Storage storage) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        int students = 0;
+        long lastStudent = Long.MIN_VALUE;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(transcript, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (skip(line, lineNumber)) {
+                    continue;
+                }
+                int student = parseStudent(line, lineNumber);
+                if (student < lastStudent) {
+                    throw new IllegalArgumentException(transcript + ":" + lineNumber + ": student " + student
+                            + " after " + lastStudent + "; lines must be ordered by student id");
+                }
+                if (student != lastStudent) {
+                    students++;
+                    lastStudent = student;
+                }
+                rows++;
+            }
+        }
+
+        CohortStore store = new CohortStore(storage, rows, students);
+        Map<String, Integer> keyOfCode = new HashMap<>();
+        lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(transcript, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (skip(line, lineNumber)) {
+                    continue;
+                }
+                int c1 = line.indexOf(',');
+                int c2 = line.indexOf(',', c1 + 1);
+                int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+                if (c3 < 0 || line.indexOf(',', c3 + 1) >= 0) {
+                    throw new IllegalArgumentException(transcript + ":" + lineNumber
+                            + ": expected student,code,credit,grade");
+                }
+                String code = line.substring(c1 + 1, c2).trim();
+                Integer key = keyOfCode.get(code);
+                if (key == null) {
+                    key = keyOfCode.size();
+                    keyOfCode.put(code, key);
+                }
+                double credit;
+                try {
+                    credit = Double.parseDouble(line.substring(c2 + 1, c3).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(transcript + ":" + lineNumber + ": bad credit", e);
+                }
+                Grade grade = Grade.tryParse(line.substring(c3 + 1));
+                if (grade == null || credit < 0) {
+                    throw new IllegalArgumentException(transcript + ":" + lineNumber + ": bad "
+                            + (grade == null ? "grade" : "credit"));
+                }
+                store.append(parseStudent(line, lineNumber), key, FixedPointGpa.toScaledCredit(credit), grade.ordinal());
+            }
+            store.finish();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        System.out.printf("Cohort store loaded from %s: %s in %.0f ms%n",
+                transcript, store, (System.nanoTime() - start) / 1e6);
+        return store;
+    }
+
+    // Blank lines, and a first line that does not start with a student id
+    private static boolean skip(String line, int lineNumber) {
+        if (line.isBlank()) {
+            return true;
+        }
+        if (lineNumber == 1) {
+            char first = line.trim().charAt(0);
+            return !(first == '-' || Character.isDigit(first));
+        }
+        return false;
+    }
+
+    private static int parseStudent(String line, int lineNumber) {
+        int comma = line.indexOf(',');
+        try {
+            return Integer.parseInt(line.substring(0, comma < 0 ? line.length() : comma).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": bad student id", e);
+        }
+    }
+
+    private ByteBuffer allocate(long bytes) throws IOException {
+        offHeapBytes += bytes;
+        if (storage == Storage.DIRECT) {
+            return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, mappedBytes, bytes);
+        mappedBytes += bytes;
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    private void append(int studentId, int codeKey, long scaledCredit, int gradeOrdinal) {
+        if (loadedRows == rows) {
+            throw new IllegalStateException("More rows than counted; the source changed during the load");
+        }
+        if (loadedStudents == 0 || studentIds.get(loadedStudents - 1) != studentId) {
+            if (loadedStudents == students) {
+                throw new IllegalStateException("More students than counted; the source changed during the load");
+            }
+            studentIds.put(loadedStudents, studentId);
+            starts.put(loadedStudents, loadedRows);
+            loadedStudents++;
+        }
+        int segment = (int) (loadedRows >>> SEGMENT_SHIFT);
+        int offset = (int) (loadedRows & SEGMENT_MASK);
+        codeKeys[segment].put(offset, codeKey);
+        credits[segment].put(offset, Math.toIntExact(scaledCredit));
+        grades[segment].put(offset, (byte) gradeOrdinal);
+        loadedRows++;
+    }
+
+    private void finish() {
+        if (loadedRows != rows || loadedStudents != students) {
+            throw new IllegalStateException("Loaded " + loadedRows + " rows of " + loadedStudents
+                    + " students, counted " + rows + " of " + students + "; the source changed during the load");
+        }
+        starts.put(students, rows);
+    }
+
+    public int students() {
+        return students;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Bytes held outside the heap (or mapped) by the columns
+     */
+    public long offHeapBytes() {
+        return offHeapBytes;
+    }
+
+    public Storage storage() {
+        return storage;
+    }
+
+    public int studentId(int index) {
+        return studentIds.get(index);
+    }
+
+    /**
+     * Index of a student id, by binary search over the ascending ids
+     * @return the index, or -1 if the student is not in the store
+     */
+    public int indexOf(int studentId) {
+        int low = 0;
+        int high = students - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = studentIds.get(mid);
+            if (id < studentId) {
+                low = mid + 1;
+            } else if (id > studentId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compute every student's GPA on a grade scale and retake policy, replacing the previous run
+     */
+    public synchronized GpaRun computeGpas(GradeScale scale, RetakePolicy policy) {
+        long start = System.nanoTime();
+        long[] points = new long[GRADES];
+        long maxPoint = 0;
+        for (int g = 0; g < GRADES; g++) {
+            points[g] = scale.scaledPoint(g);
+            maxPoint = Math.max(maxPoint, points[g]);
+        }
+        // A GPA never exceeds the highest grade point
+        int buckets = Math.toIntExact(maxPoint * (FixedPointGpa.STORED_SCALE / FixedPointGpa.POINT_SCALE)) + 1;
+
+        int partitions = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                students / MIN_STUDENTS_PER_PARTITION));
+        int perPartition = (students + partitions - 1) / partitions;
+        int[][] partials = IntStream.range(0, partitions)
+                .parallel()
+                .mapToObj(p -> gpas(points, policy, buckets, p * perPartition, Math.min(students, (p + 1) * perPartition)))
+                .toArray(int[][]::new);
+
+        int[] counts = partials[0];
+        for (int p = 1; p < partitions; p++) {
+            for (int b = 0; b < buckets; b++) {
+                counts[b] += partials[p][b];
+            }
+        }
+        long sum = 0;
+        int median = -1;
+        int running = 0;
+        for (int b = 0; b < buckets; b++) {
+            sum += (long) b * counts[b];
+            running += counts[b];
+            if (median < 0 && running >= (students + 1) / 2 && students > 0) {
+                median = b;
+            }
+            counts[b] = running;
+        }
+        atOrBelow = counts;
+
+        double mean = students == 0 ? 0 : (double) sum / students / FixedPointGpa.STORED_SCALE;
+        return new GpaRun(students, rows, mean, Math.max(0, median) / (double) FixedPointGpa.STORED_SCALE,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int[] gpas(long[] points, RetakePolicy policy, int buckets, int from, int to) {
+        int[] counts = new int[buckets];
+        RetakeTable attempts = policy == RetakePolicy.ALL ? null : new RetakeTable(policy);
+        for (int s = from; s < to; s++) {
+            long first = starts.get(s);
+            long end = starts.get(s + 1);
+            long quality = 0;
+            long credit = 0;
+            if (attempts != null) {
+                attempts.reset((int) (end - first));
+            }
+            for (long row = first; row < end; row++) {
+                int segment = (int) (row >>> SEGMENT_SHIFT);
+                int offset = (int) (row & SEGMENT_MASK);
+                long rowCredit = credits[segment].get(offset);
+                long point = points[grades[segment].get(offset)];
+                if (attempts != null) {
+                    attempts.add(codeKeys[segment].get(offset), rowCredit, point);
+                } else {
+                    quality += rowCredit * point;
+                    credit += rowCredit;
+                }
+            }
+            if (attempts != null) {
+                quality = attempts.totalQuality();
+                credit = attempts.totalCredits();
+            }
+            int gpa = (int) FixedPointGpa.divide(quality, credit, FixedPointGpa.STORED_SCALE);
+            gpas.put(s, gpa);
+            counts[gpa]++;
+        }
+        return counts;
+    }
+
+    /**
+     * GPA of a student from the last {@link #computeGpas} run, rounded to 4 decimals
+     */
+    public double gpa(int index) {
+        requireGpas();
+        return (double) gpas.get(index) / FixedPointGpa.STORED_SCALE;
+    }
+
+    /**
+     * Where a student stands in the cohort, with the rank and percentile rules of {@link GpaRankIndex}
+     */
+    public GpaRankIndex.Standing standing(int index) {
+        int[] counts = requireGpas();
+        int b = gpas.get(index);
+        int atOrBelowB = counts[b];
+        int below = b == 0 ? 0 : counts[b - 1];
+        int equal = atOrBelowB - below;
+        return new GpaRankIndex.Standing(students - atOrBelowB + 1, students, equal,
+                100.0 * (below + equal / 2.0) / students);
+    }
+
+    /**
+     * Number of students per GPA band of {@code width} (e.g. 0.25), starting at 0
+     */
+    public long[] gpaHistogram(double width) {
+        int[] counts = requireGpas();
+        int bandWidth = Math.max(1, (int) Math.round(width * FixedPointGpa.STORED_SCALE));
+        long[] bands = new long[(counts.length - 1) / bandWidth + 1];
+        int previous = 0;
+        for (int b = 0; b < counts.length; b++) {
+            bands[b / bandWidth] += counts[b] - previous;
+            previous = counts[b];
+        }
+        return bands;
+    }
+
+    /**
+     * Number of course rows per grade, indexed by Grade.ordinal()
+     */
+    public long[] gradeCounts() {
+        return IntStream.range(0, grades.length)
+                .parallel()
+                .mapToObj(segment -> {
+                    long[] counts = new long[GRADES];
+                    ByteBuffer column = grades[segment];
+                    for (int i = 0, n = column.capacity(); i < n; i++) {
+                        counts[column.get(i)]++;
+                    }
+                    return counts;
+                })
+                .reduce(new long[GRADES], (a, b) -> {
+                    long[] sum = a.clone();
+                    for (int g = 0; g < GRADES; g++) {
+                        sum[g] += b[g];
+                    }
+                    return sum;
+                });
+    }
+
+    private int[] requireGpas() {
+        int[] counts = atOrBelow;
+        if (counts == null) {
+            throw new IllegalStateException("computeGpas has not run yet");
+        }
+        return counts;
+    }
+
+    @Override
+    public void close() throws IOException {
+        atOrBelow = null;
+        Arrays.fill(codeKeys, null);
+        Arrays.fill(credits, null);
+        Arrays.fill(grades, null);
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CohortStore{students=%d, rows=%d, %s, %.1f MB off-heap}",
+                students, rows, storage, offHeapBytes / 1e6);
+    }
+}
@@ -0,0 +1,570 @@
+package com.example.gpa.services;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.database.AnalyticsDao;
+import com.example.gpa.model.Grade;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory columnar analytics over every stored course.
+ *
+ * The courses table is held as parallel primitive arrays (catalog id, credit in thousandths,
+ * grade ordinal, session day). Strings are dictionary-encoded: a row only points at its catalog
+ * entry, and the catalog maps to a course-code id and two teacher ids, so grouping never touches
+ * a String until the result labels are built. A query is a parallel scan: each partition
+ * aggregates its slice into its own hash table of groups, and the partial tables are merged.
+ *
+ * {@link #refresh()} appends courses saved since the last call: course rows after the last
+ * course ID, and packed sessions after the last session ID. If sessions were deleted, archived
+ * or moved between course layouts in the meantime (or {@link #invalidate()} was called after
+ * an edit) it reloads.
+ * Queries read an immutable snapshot and can run while a refresh is in progress.
+ */
+public class CourseAnalytics {
+
+    public enum Dimension { COURSE_CODE, TEACHER1, TEACHER2, TEACHER, ALL }
+
+    public enum TimeBucket { NONE, YEAR, MONTH, DAY }
+
+    /**
+     * Aggregates of one group (and time bucket)
+     *
+     * @param gradeCounts number of courses per grade, indexed by Grade.ordinal()
+     * @param credits total credits
+     * @param passRate share of courses not graded F
+     * @param averagePoints credit-weighted average grade point on the active scale
+     */
+    public record GroupStats(String group, String bucket, long courses, long[] gradeCounts,
+                             double credits, double passRate, double averagePoints) {
+        public long count(Grade grade) {
+            return gradeCounts[grade.ordinal()];
+        }
+    }
+
+    public record Report(Dimension dimension, TimeBucket bucket, List<GroupStats> groups,
+                         int rowsScanned, long scanMicros) {
+    }
+
+    private static final int GRADES = Grade.values().length;
+    private static final int FAIL = Grade.F.ordinal();
+    // Accumulator slots per group: one count per grade, then credits and quality points
+    private static final int CREDIT_SLOT = GRADES;
+    private static final int QUALITY_SLOT = GRADES + 1;
+    private static final int WIDTH = GRADES + 2;
+    // Below this many rows per partition the fork/merge costs more than it saves
+    private static final int MIN_ROWS_PER_PARTITION = 65_536;
+    // Up to this many groups x buckets, accumulate into a flat array instead of a hash table
+    private static final int DENSE_GROUPS = 32_768;
+
+    private final AnalyticsDao dao;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean invalidated = true;
+
+    public CourseAnalytics(AnalyticsDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Force a full reload on the next refresh, e.g. after session timestamps were edited
+     */
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    public int getRowCount() {
+        return snapshot.rows;
+    }
+
+    /**
+     * Bring the columns up to date with the database: append new courses, or reload
+     * everything if sessions disappeared since the last refresh
+     */
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+        Snapshot current = snapshot;
+        boolean reload = invalidated;
+        AnalyticsDao.SummaryCounts counts = dao.getSummaryCounts(current.maxSummaryId);
+        if (!reload && counts.total() - counts.newerThan() != current.summaryCount) {
+            System.out.println("Sessions were removed since the last analytics refresh, reloading");
+            reload = true;
+        }
+        if (!reload && counts.packed() != current.packedCount) {
+            System.out.println("Sessions changed course layout since the last analytics refresh, reloading");
+            reload = true;
+        }
+        invalidated = false;
+
+        Builder builder = new Builder(reload ? Snapshot.EMPTY : current);
+        builder.summaryCount = counts.total();
+        builder.maxSummaryId = counts.maxId();
+        builder.packedCount = reload ? 0 : counts.packed();
+        builder.appendCatalog();
+        builder.appendCourses();
+        builder.appendPackedCourses(reload ? 0 : current.maxSummaryId);
+        snapshot = builder.build();
+
+        System.out.printf("Analytics %s: %d course rows (+%d) in %.1f ms%n",
+                reload ? "loaded" : "refreshed", snapshot.rows, snapshot.rows - (reload ? 0 : current.rows),
+                (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Group every course by a dimension and optional time bucket.
+     * Rows without a teacher are left out of teacher groupings; for {@link Dimension#TEACHER}
+     * a course counts once for each of its (different) teachers.
+     */
+    public Report query(Dimension dimension, TimeBucket bucket) {
+        long start = System.nanoTime();
+        Snapshot s = snapshot;
+
+        long[] points = new long[GRADES];
+        GradeScale scale = GradeScale.getActive();
+        for (int g = 0; g < GRADES; g++) {
+            points[g] = scale.scaledPoint(g);
+        }
+        int[] bucketOfDay = bucketTable(s, bucket);
+        int bucketBase = bucketOfDay == null ? 0 : bucketOfDay[0];
+        int bucketRange = bucketOfDay == null ? 1 : bucketOfDay[bucketOfDay.length - 1] - bucketBase + 1;
+        int keyRange = switch (dimension) {
+            case COURSE_CODE -> s.codeCount;
+            case TEACHER1, TEACHER2, TEACHER -> s.teacherNames.length;
+            case ALL -> 1;
+        };
+        boolean dense = (long) keyRange * bucketRange <= DENSE_GROUPS;
+
+        int partitions = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                s.rows / MIN_ROWS_PER_PARTITION));
+        int perPartition = (s.rows + partitions - 1) / Math.max(partitions, 1);
+        GroupTable[] partials = IntStream.range(0, partitions)
+                .parallel()
+                .mapToObj(p -> scan(s, dimension, bucketOfDay, points,
+                        dense ? new GroupTable(keyRange, bucketBase, bucketRange) : new GroupTable(),
+                        p * perPartition, Math.min(s.rows, (p + 1) * perPartition)))
+                .toArray(GroupTable[]::new);
+
+        GroupTable merged = partials[0];
+        for (int p = 1; p < partials.length; p++) {
+            merged.mergeFrom(partials[p]);
+        }
+
+        // Labels are looked up once per distinct group and bucket, and rows are ordered
+        // by label rank and bucket value instead of comparing strings
+        Map<Integer, String> groupLabels = new HashMap<>();
+        Map<Integer, String> bucketLabels = new HashMap<>();
+        List<Row> rows = new ArrayList<>();
+        merged.forEach((groupKey, bucketValue, acc, offset) -> {
+            String group = groupLabels.computeIfAbsent(groupKey, k -> groupLabel(s, dimension, k));
+            String bucketLabel = bucketLabels.computeIfAbsent(bucketValue, b -> bucketLabel(bucket, b));
+            rows.add(new Row(groupKey, bucketValue, toStats(group, bucketLabel, acc, offset)));
+        });
+        List<Integer> groupOrder = new ArrayList<>(groupLabels.keySet());
+        groupOrder.sort(Comparator.comparing(groupLabels::get));
+        Map<Integer, Integer> rank = new HashMap<>();
+        for (int i = 0; i < groupOrder.size(); i++) {
+            rank.put(groupOrder.get(i), i);
+        }
+        for (Row row : rows) {
+            row.rank = rank.get(row.groupKey);
+        }
+        rows.sort(Comparator.comparingInt((Row row) -> row.rank).thenComparingInt(row -> row.bucketValue));
+
+        List<GroupStats> groups = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            groups.add(row.stats);
+        }
+        return new Report(dimension, bucket, groups, s.rows, (System.nanoTime() - start) / 1000);
+    }
+
+    private static final class Row {
+        final int groupKey;
+        final int bucketValue;
+        final GroupStats stats;
+        int rank;
+
+        Row(int groupKey, int bucketValue, GroupStats stats) {
+            this.groupKey = groupKey;
+            this.bucketValue = bucketValue;
+            this.stats = stats;
+        }
+    }
+
+    private static GroupTable scan(Snapshot s, Dimension dimension, int[] bucketOfDay,
+                                   long[] points, GroupTable table, int from, int to) {
+        int[] primary = switch (dimension) {
+            case COURSE_CODE -> s.codeOfCatalog;
+            case TEACHER1, TEACHER -> s.teacher1OfCatalog;
+            case TEACHER2 -> s.teacher2OfCatalog;
+            case ALL -> null;
+        };
+        int[] secondary = dimension == Dimension.TEACHER ? s.teacher2OfCatalog : null;
+        boolean teacherKeys = dimension != Dimension.COURSE_CODE && dimension != Dimension.ALL;
+
+        int[] catalogIds = s.catalogIds;
+        int[] credits = s.credits;
+        byte[] grades = s.grades;
+        int[] days = s.days;
+        for (int i = from; i < to; i++) {
+            int catalog = catalogIds[i];
+            int b = bucketOfDay == null ? 0 : bucketOfDay[days[i] - s.minDay];
+            int grade = grades[i];
+            long credit = credits[i];
+            long quality = credit * points[grade];
+
+            int k1 = primary == null ? 0 : primary[catalog];
+            if (!teacherKeys || k1 != 0) {
+                table.add(k1, b, grade, credit, quality);
+            }
+            if (secondary != null) {
+                int k2 = secondary[catalog];
+                if (k2 != 0 && k2 != k1) {
+                    table.add(k2, b, grade, credit, quality);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Bucket value per day in the snapshot's day range: the year, year*12+month-1, or the day itself
+     */
+    private static int[] bucketTable(Snapshot s, TimeBucket bucket) {
+        if (bucket == TimeBucket.NONE || s.rows == 0) {
+            return null;
+        }
+        int[] table = new int[s.maxDay - s.minDay + 1];
+        for (int d = 0; d < table.length; d++) {
+            int day = s.minDay + d;
+            if (bucket == TimeBucket.DAY) {
+                table[d] = day;
+            } else {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                table[d] = bucket == TimeBucket.YEAR ? date.getYear() : date.getYear() * 12 + date.getMonthValue() - 1;
+            }
+        }
+        return table;
+    }
+
+    private static String groupLabel(Snapshot s, Dimension dimension, int key) {
+        return switch (dimension) {
+            case COURSE_CODE -> s.codes[key];
+            case TEACHER1, TEACHER2, TEACHER -> key < s.teacherNames.length && s.teacherNames[key] != null
+                    ? s.teacherNames[key] : "#" + key;
+            case ALL -> "All courses";
+        };
+    }
+
+    private static String bucketLabel(TimeBucket bucket, int bucketValue) {
+        return switch (bucket) {
+            case NONE -> "";
+            case YEAR -> String.valueOf(bucketValue);
+            case MONTH -> String.format("%04d-%02d", Math.floorDiv(bucketValue, 12), Math.floorMod(bucketValue, 12) + 1);
+            case DAY -> LocalDate.ofEpochDay(bucketValue).toString();
+        };
+    }
+
+    private static GroupStats toStats(String group, String bucketLabel, long[] acc, int offset) {
+        long[] gradeCounts = Arrays.copyOfRange(acc, offset, offset + GRADES);
+        long courses = 0;
+        for (long count : gradeCounts) {
+            courses += count;
+        }
+        long credits = acc[offset + CREDIT_SLOT];
+        long quality = acc[offset + QUALITY_SLOT];
+        double passRate = courses == 0 ? 0 : (double) (courses - gradeCounts[FAIL]) / courses;
+        double average = (double) FixedPointGpa.divide(quality, credits, FixedPointGpa.STORED_SCALE)
+                / FixedPointGpa.STORED_SCALE;
+        return new GroupStats(group, bucketLabel, courses, gradeCounts,
+                (double) credits / FixedPointGpa.CREDIT_SCALE, passRate, average);
+    }
+
+    /**
+     * Immutable view of the columns. Arrays may be longer than {@code rows} and are shared
+     * with the next snapshot, which only writes past this snapshot's end.
+     */
+    private record Snapshot(int rows, int[] catalogIds, int[] credits, byte[] grades, int[] days,
+                            int minDay, int maxDay, int lastCourseId,
+                            int[] codeOfCatalog, int[] teacher1OfCatalog, int[] teacher2OfCatalog, int lastCatalogId,
+                            String[] codes, int codeCount, Map<String, Integer> codeIds, String[] teacherNames,
+                            int summaryCount, int maxSummaryId, int packedCount) {
+        static final Snapshot EMPTY = new Snapshot(0, new int[0], new int[0], new byte[0], new int[0],
+                Integer.MAX_VALUE, Integer.MIN_VALUE, 0,
+                new int[1], new int[1], new int[1], 0,
+                new String[0], 0, new HashMap<>(), new String[1], 0, 0, 0);
+    }
+
+    /**
+     * Appends to a snapshot's columns, growing arrays by copying when they are full
+     */
+    private final class Builder {
+        int rows;
+        int[] catalogIds;
+        int[] credits;
+        byte[] grades;
+        int[] days;
+        int minDay;
+        int maxDay;
+        int lastCourseId;
+        int[] codeOfCatalog;
+        int[] teacher1OfCatalog;
+        int[] teacher2OfCatalog;
+        int lastCatalogId;
+        String[] codes;
+        int codeCount;
+        Map<String, Integer> codeIds;
+        String[] teacherNames;
+        int summaryCount;
+        int maxSummaryId;
+        // Packed sessions up to maxSummaryId
+        int packedCount;
+
+        Builder(Snapshot s) {
+            rows = s.rows;
+            catalogIds = s.catalogIds;
+            credits = s.credits;
+            grades = s.grades;
+            days = s.days;
+            minDay = s.minDay;
+            maxDay = s.maxDay;
+            lastCourseId = s.lastCourseId;
+            codeOfCatalog = s.codeOfCatalog;
+            teacher1OfCatalog = s.teacher1OfCatalog;
+            teacher2OfCatalog = s.teacher2OfCatalog;
+            lastCatalogId = s.lastCatalogId;
+            codes = s.codes;
+            codeCount = s.codeCount;
+            // Only refresh() (synchronized) touches the dictionary map, readers use the codes array
+            codeIds = s == Snapshot.EMPTY ? new HashMap<>() : s.codeIds;
+            teacherNames = s.teacherNames;
+        }
+
+        void appendCatalog() {
+            // Teachers are few; reload the names so new catalog rows can be checked against them
+            Map<Integer, String> teachers = dao.fetchTeachers();
+            int maxId = teachers.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            String[] names = new String[maxId + 1];
+            teachers.forEach((id, name) -> names[id] = name);
+            teacherNames = names;
+
+            dao.scanCatalog(lastCatalogId, (catalogId, code, teacher1Id, teacher2Id) -> {
+                if (catalogId >= codeOfCatalog.length) {
+                    int capacity = Math.max(catalogId + 1, codeOfCatalog.length * 2);
+                    codeOfCatalog = Arrays.copyOf(codeOfCatalog, capacity);
+                    teacher1OfCatalog = Arrays.copyOf(teacher1OfCatalog, capacity);
+                    teacher2OfCatalog = Arrays.copyOf(teacher2OfCatalog, capacity);
+                }
+                codeOfCatalog[catalogId] = codeId(code);
+                teacher1OfCatalog[catalogId] = teacherKey(teacher1Id);
+                teacher2OfCatalog[catalogId] = teacherKey(teacher2Id);
+                lastCatalogId = catalogId;
+            });
+        }
+
+        /**
+         * Teacher id to group by, 0 when the course has no teacher in that position
+         */
+        private int teacherKey(int teacherId) {
+            if (teacherId <= 0 || teacherId >= teacherNames.length) return 0;
+            String name = teacherNames[teacherId];
+            return name == null || name.isBlank() ? 0 : teacherId;
+        }
+
+        private int codeId(String code) {
+            Integer id = codeIds.get(code);
+            if (id == null) {
+                id = codeCount;
+                if (codeCount == codes.length) {
+                    codes = Arrays.copyOf(codes, Math.max(16, codes.length * 2));
+                }
+                codes[codeCount++] = code;
+                codeIds.put(code, id);
+            }
+            return id;
+        }
+
+        void appendCourses() {
+            dao.scanCourses(lastCourseId, (courseId, catalogId, credit, grade, epochDay) -> {
+                lastCourseId = courseId;
+                append(catalogId, credit, grade, epochDay);
+            });
+        }
+
+        /**
+         * Append the courses of packed sessions saved after the previous snapshot's last session.
+         * Packed sessions at or below it were either appended then or counted by packedCount,
+         * so a change there makes the next refresh reload.
+         */
+        void appendPackedCourses(int afterSummaryId) {
+            packedCount += dao.scanPackedCourses(afterSummaryId, maxSummaryId,
+                    (summaryId, catalogId, credit, grade, epochDay) -> append(catalogId, credit, grade, epochDay));
+        }
+
+        private void append(int catalogId, double credit, int grade, int epochDay) {
+            if (catalogId <= 0 || catalogId > lastCatalogId) {
+                return; // no catalog entry to group by
+            }
+            if (rows == catalogIds.length) {
+                int capacity = Math.max(1024, catalogIds.length * 2);
+                catalogIds = Arrays.copyOf(catalogIds, capacity);
+                credits = Arrays.copyOf(credits, capacity);
+                grades = Arrays.copyOf(grades, capacity);
+                days = Arrays.copyOf(days, capacity);
+            }
+            catalogIds[rows] = catalogId;
+            credits[rows] = (int) FixedPointGpa.toScaledCredit(credit);
+            grades[rows] = (byte) Grade.fromOrdinal(grade).ordinal();
+            days[rows] = epochDay;
+            minDay = Math.min(minDay, epochDay);
+            maxDay = Math.max(maxDay, epochDay);
+            rows++;
+        }
+
+        Snapshot build() {
+            return new Snapshot(rows, catalogIds, credits, grades, days, minDay, maxDay, lastCourseId,
+                    codeOfCatalog, teacher1OfCatalog, teacher2OfCatalog, lastCatalogId,
+                    codes, codeCount, codeIds, teacherNames, summaryCount, maxSummaryId, packedCount);
+        }
+    }
+
+    private interface GroupVisitor {
+        void visit(int groupKey, int bucketValue, long[] acc, int offset);
+    }
+
+    /**
+     * Accumulator rows per (group, bucket). Dense tables index a flat array directly when the
+     * key space is small; otherwise an open-addressing hash table maps the pair to a row.
+     */
+    private static final class GroupTable {
+        final boolean dense;
+        final int bucketBase;
+        final int bucketRange;
+        long[] keys;
+        int[] slots; // accumulator row + 1, 0 = empty
+        long[] acc;
+        int size;
+
+        GroupTable() {
+            dense = false;
+            bucketBase = 0;
+            bucketRange = 0;
+            keys = new long[64];
+            slots = new int[64];
+            acc = new long[32 * WIDTH];
+        }
+
+        GroupTable(int keyRange, int bucketBase, int bucketRange) {
+            dense = true;
+            this.bucketBase = bucketBase;
+            this.bucketRange = bucketRange;
+            acc = new long[keyRange * bucketRange * WIDTH];
+        }
+
+        void add(int groupKey, int bucketValue, int grade, long credit, long quality) {
+            int offset = dense
+                    ? (groupKey * bucketRange + bucketValue - bucketBase) * WIDTH
+                    : slot(((long) groupKey << 32) | (bucketValue & 0xffffffffL)) * WIDTH;
+            acc[offset + grade]++;
+            acc[offset + CREDIT_SLOT] += credit;
+            acc[offset + QUALITY_SLOT] += quality;
+        }
+
+        void mergeFrom(GroupTable other) {
+            if (dense) {
+                for (int i = 0; i < acc.length; i++) {
+                    acc[i] += other.acc[i];
+                }
+                return;
+            }
+            for (int i = 0; i < other.keys.length; i++) {
+                int otherSlot = other.slots[i] - 1;
+                if (otherSlot < 0) continue;
+                int offset = slot(other.keys[i]) * WIDTH;
+                int otherOffset = otherSlot * WIDTH;
+                for (int w = 0; w < WIDTH; w++) {
+                    acc[offset + w] += other.acc[otherOffset + w];
+                }
+            }
+        }
+
+        /**
+         * Visit every group that received at least one course
+         */
+        void forEach(GroupVisitor visitor) {
+            if (dense) {
+                for (int cell = 0, offset = 0; offset < acc.length; cell++, offset += WIDTH) {
+                    long courses = 0;
+                    for (int g = 0; g < GRADES; g++) {
+                        courses += acc[offset + g];
+                    }
+                    if (courses > 0) {
+                        visitor.visit(cell / bucketRange, bucketBase + cell % bucketRange, acc, offset);
+                    }
+                }
+                return;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                int slot = slots[i] - 1;
+                if (slot < 0) continue;
+                visitor.visit((int) (keys[i] >>> 32), (int) keys[i], acc, slot * WIDTH);
+            }
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (true) {
+                int slot = slots[i];
+                if (slot == 0) {
+                    return insert(i, key);
+                }
+                if (keys[i] == key) {
+                    return slot - 1;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        private int insert(int index, long key) {
+            int slot = size++;
+            keys[index] = key;
+            slots[index] = slot + 1;
+            if ((slot + 1) * WIDTH > acc.length) {
+                acc = Arrays.copyOf(acc, acc.length * 2);
+            }
+            if (size * 2 > keys.length) {
+                rehash();
+            }
+            return slot;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new long[oldKeys.length * 2];
+            slots = new int[oldSlots.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldSlots[i] == 0) continue;
+                int j = hash(oldKeys[i]) & mask;
+                while (slots[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                slots[j] = oldSlots[i];
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.gpa.services;
+
+import com.example.gpa.model.Course;
+import com.example.gpa.model.Grade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses pasted tabular text or CSV into courses in a single pass.
+ *
+ * Columns: name, code, credit, grade[, teacher1[, teacher2]]
+ * Rows are split on tabs when the text contains any (spreadsheet paste), otherwise on commas
+ * with CSV quoting ("a, b" and "" escapes). Blank lines are skipped and a header row whose
+ * credit column says "credit" is ignored. Every row is validated with the same rules as the
+ * entry form; rejected rows are reported with their line number instead of stopping the import.
+ */
+public final class CourseImportParser {
+
+    /**
+     * A rejected row
+     */
+    public record RowError(int lineNumber, String line, String message) {
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+
+    /**
+     * Accepted courses and rejected rows of one import
+     */
+    public record ImportResult(List<Course> courses, List<RowError> errors) {
+        public String errorReport() {
+            StringBuilder sb = new StringBuilder();
+            for (RowError error : errors) {
+                sb.append(error).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    private CourseImportParser() {
+    }
+
+    public static ImportResult parse(String text) {
+        List<Course> courses = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        char delimiter = text.indexOf('\t') >= 0 ? '\t' : ',';
+
+        List<String> fields = new ArrayList<>(6);
+        int lineNumber = 0;
+        int pos = 0;
+        int length = text.length();
+        while (pos < length) {
+            int lineEnd = text.indexOf('\n', pos);
+            if (lineEnd < 0) lineEnd = length;
+            lineNumber++;
+            String line = text.substring(pos, lineEnd > pos && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd);
+            pos = lineEnd + 1;
+
+            if (line.isBlank()) continue;
+            split(line, delimiter, fields);
+
+            if (lineNumber == 1 && fields.size() > 2 && fields.get(2).toLowerCase().contains("credit")) {
+                continue;
+            }
+
+            String error = parseRow(fields, courses);
+            if (error != null) {
+                errors.add(new RowError(lineNumber, line, error));
+            }
+        }
+
+        System.out.println("Import parsed " + courses.size() + " courses, rejected " + errors.size() + " rows");
+        return new ImportResult(courses, errors);
+    }
+
+    /**
+     * Validate one row and add the course
+     * @return an error message, or null if the row was accepted
+     */
+    private static String parseRow(List<String> fields, List<Course> courses) {
+        if (fields.size() < 4) {
+            return "Expected at least 4 columns (name, code, credit, grade), found " + fields.size();
+        }
+        String name = fields.get(0);
+        String code = fields.get(1);
+        String creditText = fields.get(2);
+        String gradeText = fields.get(3);
+        String teacher1 = fields.size() > 4 ? fields.get(4) : "";
+        String teacher2 = fields.size() > 5 ? fields.get(5) : "";
+
+        if (name.isEmpty() || code.isEmpty() || creditText.isEmpty() || gradeText.isEmpty()) {
+            return "Course name, code, credit and grade are required";
+        }
+        String codeError = CourseValidator.validateCode(code);
+        if (codeError != null) {
+            return codeError;
+        }
+        double credit;
+        try {
+            credit = CourseValidator.parseCredit(creditText);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        Grade grade = Grade.tryParse(gradeText);
+        if (grade == null) {
+            return "Unknown grade '" + gradeText + "'";
+        }
+
+        courses.add(new Course(name, code, credit, teacher1, teacher2, grade.getLabel()));
+        return null;
+    }
+
+    /**
+     * Split a line into trimmed fields, honouring double quotes
+     */
+    private static void split(String line, char delimiter, List<String> out) {
+        out.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == delimiter) {
+                out.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        out.add(field.toString().trim());
+    }
+}
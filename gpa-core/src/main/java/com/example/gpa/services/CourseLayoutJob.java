@@ -0,0 +1,76 @@
+package com.example.gpa.services;
+
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.DatabaseConfig;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Moves every stored session's courses to one course layout: from courses rows into the
+ * packed gpa_summary.courses_blob, or back.
+ *
+ * Walks the sessions not yet in the target layout in ID order, one chunk at a time, and
+ * converts each chunk in its own transaction. Sessions are always readable in either layout,
+ * so a run that is stopped part way leaves a consistent database and the next run picks up
+ * the sessions that are left.
+ */
+public class CourseLayoutJob {
+
+    private static final int CHUNK_SIZE = 2_000;
+
+    private final CourseDao courseDao;
+    private final DatabaseConfig.CourseLayout target;
+
+    /**
+     * Outcome of a run
+     *
+     * @param checked sessions listed as not in the target layout
+     * @param converted sessions whose courses were moved (sessions without courses are left alone)
+     * @param complete false if the run was stopped before it checked every session
+     */
+    public record Result(DatabaseConfig.CourseLayout target, long checked, long converted, long millis,
+                         boolean complete) {
+        @Override
+        public String toString() {
+            return String.format("CourseLayoutJob.Result{target=%s, checked=%d, converted=%d, %d ms, complete=%s}",
+                    target, checked, converted, millis, complete);
+        }
+    }
+
+    public CourseLayoutJob(CourseDao courseDao, DatabaseConfig.CourseLayout target) {
+        this.courseDao = courseDao;
+        this.target = target;
+    }
+
+    /**
+     * Run on the calling thread
+     *
+     * @param shouldStop checked between chunks; true ends the run early
+     */
+    public Result run(BooleanSupplier shouldStop) {
+        long start = System.nanoTime();
+        long checked = 0;
+        long converted = 0;
+        int lastId = 0;
+        while (true) {
+            List<Integer> ids = courseDao.fetchIdsToConvert(lastId, CHUNK_SIZE, target);
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            int chunk = courseDao.convertLayout(ids.get(0), lastId, target);
+            if (chunk < 0) {
+                throw new IllegalStateException("Failed to convert courses to " + target + " after ID " + ids.get(0));
+            }
+            checked += ids.size();
+            converted += chunk;
+            if (shouldStop.getAsBoolean()) {
+                return new Result(target, checked, converted, (System.nanoTime() - start) / 1_000_000, false);
+            }
+        }
+        Result result = new Result(target, checked, converted, (System.nanoTime() - start) / 1_000_000, true);
+        System.out.println("Course layout job finished: " + result);
+        return result;
+    }
+}
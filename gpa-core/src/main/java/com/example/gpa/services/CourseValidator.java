@@ -0,0 +1,53 @@
+package com.example.gpa.services;
+
+import java.util.regex.Pattern;
+
+/**
+ * Course input validation shared by the entry form and bulk import.
+ * Patterns are compiled once instead of on every String.matches call.
+ */
+public final class CourseValidator {
+
+    private static final Pattern CODE_ENDS_WITH_FOUR_DIGITS = Pattern.compile("\\d{4}$");
+
+    private CourseValidator() {
+    }
+
+    /**
+     * Check a course code
+     * @return an error message, or null if the code is valid
+     */
+    public static String validateCode(String code) {
+        if (code.indexOf(' ') >= 0) {
+            return "Course code cannot contain spaces. Example: CSE2200 (not CSE 2200)";
+        }
+        if (!CODE_ENDS_WITH_FOUR_DIGITS.matcher(code).find()) {
+            return "Course code must end with exactly 4 digits. Example: CSE2200";
+        }
+        return null;
+    }
+
+    /**
+     * Parse and check a credit value
+     * @throws IllegalArgumentException with a user-facing message if the credit is invalid
+     */
+    public static double parseCredit(String creditText) {
+        int decimalCount = 0;
+        for (int i = 0; i < creditText.length(); i++) {
+            if (creditText.charAt(i) == '.') decimalCount++;
+        }
+        if (decimalCount > 1) {
+            throw new IllegalArgumentException("Credit cannot have multiple decimal points.");
+        }
+        double credit;
+        try {
+            credit = Double.parseDouble(creditText);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid credit format. Please enter a valid number (e.g., 3 or 3.5).");
+        }
+        if (!(credit > 0) || Double.isInfinite(credit)) {
+            throw new IllegalArgumentException("Credit must be a positive number.");
+        }
+        return credit;
+    }
+}
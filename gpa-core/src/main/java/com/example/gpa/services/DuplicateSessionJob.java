@@ -0,0 +1,122 @@
+package com.example.gpa.services;
+
+import com.example.gpa.SessionFingerprint;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.GpaSummaryDao;
+import com.example.gpa.model.Course;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Finds sessions that were saved more than once with the same courses and keeps only the
+ * oldest copy of each.
+ *
+ * First every session without a content hash (saved before the column existed, or changed by
+ * sync) is hashed, one chunk of IDs at a time with one course query and one batched update
+ * per chunk. Then the content_hash index groups the candidates, each group's courses are
+ * compared, and the newer copies are deleted in one transaction. A run that is stopped part
+ * way keeps the hashes it stored, so the next run continues where it left off.
+ *
+ * The copy kept is the first by (timestamp, sync origin, id on the origin), not by local id:
+ * the deletions are synced, so every instance must keep the same copy or each one would
+ * delete the copy another kept.
+ */
+public class DuplicateSessionJob {
+
+    private static final int CHUNK_SIZE = 2_000;
+
+    private final GpaSummaryDao dao;
+    private final CourseDao courseDao;
+
+    /**
+     * Outcome of a run
+     *
+     * @param hashed sessions that got a content hash
+     * @param removedIds newer copies that were deleted
+     * @param complete false if the run was stopped before it checked every session
+     */
+    public record Result(long hashed, long groups, List<Integer> removedIds, boolean complete) {
+        @Override
+        public String toString() {
+            return String.format("DuplicateSessionJob.Result{hashed=%d, groups=%d, removed=%d, complete=%s}",
+                    hashed, groups, removedIds.size(), complete);
+        }
+    }
+
+    public DuplicateSessionJob(GpaSummaryDao dao, CourseDao courseDao) {
+        this.dao = dao;
+        this.courseDao = courseDao;
+    }
+
+    /**
+     * Run on the calling thread
+     *
+     * @param shouldStop checked between chunks and between groups; true ends the run early
+     */
+    public Result run(BooleanSupplier shouldStop) {
+        long hashed = 0;
+        int lastId = 0;
+        while (true) {
+            List<Integer> ids = dao.fetchIdsWithoutContentHash(lastId, CHUNK_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            Map<Integer, List<Course>> courses = courseDao.fetchCoursesForSummaries(ids.get(0), lastId);
+            Map<Integer, Long> hashes = new HashMap<>();
+            for (int id : ids) {
+                hashes.put(id, SessionFingerprint.of(courses.getOrDefault(id, List.of())));
+            }
+            int updated = dao.updateContentHashes(hashes);
+            if (updated < 0) {
+                throw new IllegalStateException("Failed to store content hashes after ID " + lastId);
+            }
+            hashed += updated;
+            if (shouldStop.getAsBoolean()) {
+                return new Result(hashed, 0, List.of(), false);
+            }
+        }
+
+        List<List<Integer>> groups = dao.fetchContentHashGroups();
+        List<Integer> duplicates = new ArrayList<>();
+        boolean complete = true;
+        for (List<Integer> group : groups) {
+            if (shouldStop.getAsBoolean()) {
+                complete = false;
+                break;
+            }
+            Map<Integer, List<Course>> courses = new HashMap<>();
+            for (int id : group) {
+                courses.put(id, courseDao.fetchCoursesForSummaries(id, id).getOrDefault(id, List.of()));
+            }
+            // Equal hashes almost always mean equal courses, but a collision must not delete anything.
+            // The group is in the order all instances agree on, so the copy kept first is the same everywhere.
+            List<Integer> kept = new ArrayList<>();
+            for (int id : group) {
+                boolean duplicate = false;
+                for (int keptId : kept) {
+                    if (SessionFingerprint.sameCourses(courses.get(keptId), courses.get(id))) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (duplicate) {
+                    duplicates.add(id);
+                } else {
+                    kept.add(id);
+                }
+            }
+        }
+
+        if (!duplicates.isEmpty() && dao.deleteSummaries(duplicates) < 0) {
+            throw new IllegalStateException("Failed to delete " + duplicates.size() + " duplicate sessions");
+        }
+        Result result = new Result(hashed, groups.size(), duplicates, complete);
+        System.out.println("Duplicate session check finished: " + result);
+        return result;
+    }
+}
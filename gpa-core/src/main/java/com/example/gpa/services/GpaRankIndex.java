@@ -0,0 +1,206 @@
+package com.example.gpa.services;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.model.GpaSummary;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Order-statistics index over stored GPAs: rank, percentile and top-k in O(log n).
+ *
+ * A Fenwick tree counts sessions per GPA bucket. Buckets are the stored 4-decimal GPA
+ * ({@link FixedPointGpa#STORED_SCALE}), so every distinct stored value has its own bucket and
+ * answers are exact. The bucket range starts at 0.0000-6.5535 and doubles when a grade scale
+ * produces a larger GPA. The bucket of each session is kept in an array indexed by session id,
+ * so an update or delete only needs the id.
+ *
+ * Thread-safe; queries take microseconds, so they can run on the FX thread.
+ */
+public class GpaRankIndex {
+
+    private static final int INITIAL_BUCKETS = 1 << 16;
+    private static final int ABSENT = -1;
+
+    /**
+     * Where a GPA stands among the indexed sessions.
+     * rank is 1 for the highest GPA; sessions with an equal GPA share a rank.
+     * percentile is the share of sessions below it, counting equal ones as half below.
+     */
+    public record Standing(int rank, int total, int equal, double percentile) {
+        @Override
+        public String toString() {
+            return String.format("Standing{rank=%d of %d, equal=%d, percentile=%.1f}", rank, total, equal, percentile);
+        }
+    }
+
+    private int[] tree = new int[INITIAL_BUCKETS + 1]; // 1-based Fenwick tree over buckets
+    private int[] bucketById = new int[0];
+    private int size;
+
+    /**
+     * Replace the contents with the given sessions, in O(n + buckets)
+     */
+    public synchronized void rebuild(List<GpaSummary> summaries) {
+        int maxId = 0;
+        int maxBucket = 0;
+        for (GpaSummary summary : summaries) {
+            maxId = Math.max(maxId, summary.getId());
+            maxBucket = Math.max(maxBucket, bucket(summary.getGpa()));
+        }
+        int buckets = INITIAL_BUCKETS;
+        while (maxBucket >= buckets) {
+            buckets <<= 1;
+        }
+
+        tree = new int[buckets + 1];
+        bucketById = new int[maxId + 1];
+        Arrays.fill(bucketById, ABSENT);
+        size = 0;
+        for (GpaSummary summary : summaries) {
+            int b = bucket(summary.getGpa());
+            if (bucketById[summary.getId()] == ABSENT) {
+                size++;
+            } else {
+                tree[bucketById[summary.getId()] + 1]--;
+            }
+            bucketById[summary.getId()] = b;
+            tree[b + 1]++;
+        }
+        // Turn the per-bucket counts into a Fenwick tree in place
+        for (int i = 1; i <= buckets; i++) {
+            int parent = i + (i & -i);
+            if (parent <= buckets) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Add a session, or move it if its GPA changed
+     */
+    public synchronized void put(int id, double gpa) {
+        int b = bucket(gpa);
+        while (b >= buckets()) {
+            grow();
+        }
+        if (id >= bucketById.length) {
+            int oldLength = bucketById.length;
+            bucketById = Arrays.copyOf(bucketById, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(bucketById, oldLength, bucketById.length, ABSENT);
+        }
+
+        int old = bucketById[id];
+        if (old == b) {
+            return;
+        }
+        if (old == ABSENT) {
+            size++;
+        } else {
+            add(old, -1);
+        }
+        add(b, 1);
+        bucketById[id] = b;
+    }
+
+    /**
+     * Remove a session; unknown ids are ignored
+     */
+    public synchronized void remove(int id) {
+        if (id < 0 || id >= bucketById.length || bucketById[id] == ABSENT) {
+            return;
+        }
+        add(bucketById[id], -1);
+        bucketById[id] = ABSENT;
+        size--;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Standing of a GPA among the indexed sessions (it does not have to be one of them)
+     */
+    public synchronized Standing standing(double gpa) {
+        int b = bucket(gpa);
+        int below = b >= buckets() ? size : prefix(b);
+        int atOrBelow = b >= buckets() ? size : prefix(b + 1);
+        int equal = atOrBelow - below;
+        int rank = size - atOrBelow + 1;
+        double percentile = size == 0 ? 100.0 : 100.0 * (below + equal / 2.0) / size;
+        return new Standing(rank, size, equal, percentile);
+    }
+
+    /**
+     * The k highest stored GPAs, highest first (fewer if fewer sessions are indexed)
+     */
+    public synchronized double[] topK(int k) {
+        int n = Math.min(k, size);
+        double[] top = new double[n];
+        for (int i = 0; i < n; i++) {
+            top[i] = (double) select(size - i) / FixedPointGpa.STORED_SCALE;
+        }
+        return top;
+    }
+
+    /**
+     * GPA of the k-th highest session (k = 1 is the highest)
+     */
+    public synchronized double kthHighest(int k) {
+        if (k < 1 || k > size) {
+            throw new IllegalArgumentException("k must be between 1 and " + size + ": " + k);
+        }
+        return (double) select(size - k + 1) / FixedPointGpa.STORED_SCALE;
+    }
+
+    private static int bucket(double gpa) {
+        return (int) Math.max(0, Math.round(gpa * FixedPointGpa.STORED_SCALE));
+    }
+
+    private int buckets() {
+        return tree.length - 1;
+    }
+
+    private void add(int bucket, int delta) {
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Number of sessions in buckets below {@code bucket}
+     */
+    private int prefix(int bucket) {
+        int sum = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Bucket of the k-th lowest session (1-based), by descending the tree
+     */
+    private int select(int k) {
+        int position = 0;
+        for (int step = buckets(); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < k) {
+                position = next;
+                k -= tree[next];
+            }
+        }
+        return position; // 0-based bucket = 1-based tree index - 1
+    }
+
+    /**
+     * Double the bucket range. With a power-of-two size, the old tree is the lower half of the
+     * new one; only the new root needs the old total.
+     */
+    private void grow() {
+        int oldBuckets = buckets();
+        tree = Arrays.copyOf(tree, oldBuckets * 2 + 1);
+        tree[oldBuckets * 2] = size;
+    }
+}
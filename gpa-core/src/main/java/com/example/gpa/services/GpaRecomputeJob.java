@@ -0,0 +1,190 @@
+package com.example.gpa.services;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.RetakeTable;
+import com.example.gpa.database.CourseColumns;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.GpaSummaryDao;
+import com.example.gpa.database.JobCheckpointDao;
+import com.example.gpa.model.GpaSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Recomputes every stored GPA for a new grade scale or retake policy.
+ * Walks gpa_summary in ID order one chunk at a time, reads the chunk's courses as primitive
+ * columns, recomputes the GPAs and counted credits in parallel and writes back only the
+ * changed ones with one batched updateSummaries transaction per chunk. Memory use is bounded by the chunk size.
+ * After each chunk the last ID is checkpointed, so a cancelled or crashed run resumes
+ * where it stopped as long as the grade scale and retake policy are the same.
+ */
+public class GpaRecomputeJob {
+
+    public static final String JOB_NAME = "recompute-gpa";
+    private static final int CHUNK_SIZE = 2_000;
+
+    private final GradeScale gradeScale;
+    private final RetakePolicy retakePolicy;
+    // One retake table per worker thread of the parallel recompute, reused across sessions
+    private final ThreadLocal<RetakeTable> retakeTables;
+    private final String fingerprint;
+    private final GpaSummaryDao dao;
+    private final CourseDao courseDao;
+    private final JobCheckpointDao checkpointDao;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private int lastId;
+    private long processed;
+    private long updated;
+    private long total;
+    private boolean done;
+
+    /**
+     * Snapshot of the job's progress
+     */
+    public record Progress(long processed, long total, long updated, boolean done, boolean cancelled) {
+        public double fraction() {
+            return total == 0 ? 1.0 : (double) processed / total;
+        }
+    }
+
+    public GpaRecomputeJob(GradeScale gradeScale, GpaSummaryDao dao, CourseDao courseDao, JobCheckpointDao checkpointDao) {
+        this(gradeScale, RetakePolicy.getActive(), dao, courseDao, checkpointDao);
+    }
+
+    public GpaRecomputeJob(GradeScale gradeScale, RetakePolicy retakePolicy, GpaSummaryDao dao, CourseDao courseDao,
+                           JobCheckpointDao checkpointDao) {
+        this.gradeScale = gradeScale;
+        this.retakePolicy = retakePolicy;
+        this.retakeTables = ThreadLocal.withInitial(() -> new RetakeTable(retakePolicy));
+        // Checkpoints written before retake policies existed belong to "all"
+        this.fingerprint = retakePolicy == RetakePolicy.ALL
+                ? gradeScale.fingerprint() : gradeScale.fingerprint() + ";retake=" + retakePolicy;
+        this.dao = dao;
+        this.courseDao = courseDao;
+        this.checkpointDao = checkpointDao;
+    }
+
+    /**
+     * Record the grade scale and retake policy as the ones stored GPAs follow, resume from the
+     * checkpoint for them, if any, and count the remaining work
+     */
+    public synchronized void start() {
+        checkpointDao.saveGradingSettings(gradeScale, retakePolicy);
+        lastId = checkpointDao.loadCheckpoint(JOB_NAME, fingerprint);
+        total = dao.getCountAfter(lastId);
+        processed = 0;
+        updated = 0;
+        done = false;
+        System.out.println("Recompute job starting after ID " + lastId + ", " + total + " summaries to check"
+                + " (retake policy " + retakePolicy + ")");
+    }
+
+    /**
+     * Process the next chunk
+     * @return true if there may be more work
+     */
+    public synchronized boolean runChunk() {
+        if (done || cancelled.get()) return false;
+
+        List<GpaSummary> page = dao.fetchSummariesAfter(lastId, CHUNK_SIZE);
+        if (page.isEmpty()) {
+            checkpointDao.clearCheckpoint(JOB_NAME);
+            done = true;
+            System.out.println("Recompute job finished: " + updated + " of " + processed + " GPAs changed");
+            return false;
+        }
+
+        int count = page.size();
+        int firstId = page.get(0).getId();
+        int pageLastId = page.get(count - 1).getId();
+        CourseColumns columns = courseDao.fetchCourseColumns(firstId, pageLastId);
+
+        // Both sides are ordered by summary ID, so one merge pass finds each summary's rows
+        int[] from = new int[count];
+        int[] to = new int[count];
+        int[] rowSummaryIds = columns.summaryIds();
+        int row = 0;
+        for (int i = 0; i < count; i++) {
+            int id = page.get(i).getId();
+            while (row < columns.size() && rowSummaryIds[row] < id) row++;
+            from[i] = row;
+            while (row < columns.size() && rowSummaryIds[row] == id) row++;
+            to[i] = row;
+        }
+
+        long[] newGpas = new long[count];
+        long[] newCredits = new long[count];
+        long[] credits = columns.scaledCredits();
+        byte[] grades = columns.gradeOrdinals();
+        int[] codeKeys = columns.codeKeys();
+        IntStream.range(0, count).parallel().forEach(i -> {
+            RetakeTable attempts = retakeTables.get();
+            newGpas[i] = FixedPointGpa.gpa(credits, grades, codeKeys, from[i], to[i], FixedPointGpa.STORED_SCALE,
+                    gradeScale, attempts);
+            // A retake policy also changes the counted credits
+            if (retakePolicy != RetakePolicy.ALL) {
+                newCredits[i] = attempts.totalCredits();
+            } else {
+                for (int r = from[i]; r < to[i]; r++) newCredits[i] += credits[r];
+            }
+        });
+
+        List<GpaSummary> changed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            GpaSummary summary = page.get(i);
+            // Sessions saved without courses keep their stored GPA
+            if (from[i] == to[i]) continue;
+            if (Math.round(summary.getGpa() * FixedPointGpa.STORED_SCALE) != newGpas[i]
+                    || Math.round(summary.getCredits() * FixedPointGpa.CREDIT_SCALE) != newCredits[i]) {
+                summary.setGpa((double) newGpas[i] / FixedPointGpa.STORED_SCALE);
+                summary.setCredits((double) newCredits[i] / FixedPointGpa.CREDIT_SCALE);
+                changed.add(summary);
+            }
+        }
+
+        if (!changed.isEmpty() && dao.updateSummaries(changed) < 0) {
+            throw new IllegalStateException("Failed to write recomputed GPAs after ID " + lastId);
+        }
+
+        lastId = pageLastId;
+        checkpointDao.saveCheckpoint(JOB_NAME, fingerprint, lastId);
+        processed += count;
+        updated += changed.size();
+        return true;
+    }
+
+    /**
+     * Run all remaining chunks on the calling thread (for headless/batch use)
+     */
+    public Progress runToCompletion(Consumer<Progress> onProgress) {
+        start();
+        while (runChunk()) {
+            if (onProgress != null) {
+                onProgress.accept(progress());
+            }
+        }
+        return progress();
+    }
+
+    /**
+     * Stop after the current chunk; the checkpoint lets a later run resume
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public synchronized Progress progress() {
+        return new Progress(processed, total, updated, done, cancelled.get());
+    }
+}
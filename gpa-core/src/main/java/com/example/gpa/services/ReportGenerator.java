@@ -0,0 +1,159 @@
+package com.example.gpa.services;
+
+import com.example.gpa.GradeScale;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.model.GpaSummary;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Writes one HTML report per stored session (session-&lt;id&gt;.html) with a ReportTemplate.
+ *
+ * The calling thread streams sessions with their courses from
+ * {@link CourseDao#streamSummariesWithCourses} into a bounded queue, and render threads
+ * take them, render into a reused buffer and write the files. When the renderers fall
+ * behind, the queue fills and the read waits, so memory use is bounded by the queue size
+ * however large the history is. The result reports sessions and bytes per second.
+ */
+public class ReportGenerator {
+
+    private static final int QUEUE_PER_THREAD = 32;
+    private static final int PROGRESS_EVERY = 1_000;
+    private static final GpaSummary END = new GpaSummary(0, 0);
+
+    /**
+     * Outcome of a run
+     *
+     * @param failed sessions whose report could not be rendered or written (logged)
+     */
+    public record Result(long sessions, long failed, long bytes, long millis) {
+
+        public double sessionsPerSecond() {
+            return millis == 0 ? 0 : sessions * 1000.0 / millis;
+        }
+
+        public double megabytesPerSecond() {
+            return millis == 0 ? 0 : bytes / 1e6 * 1000.0 / millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result{sessions=%d, failed=%d, %.1f MB, %d ms, %.0f sessions/s, %.1f MB/s}",
+                    sessions, failed, bytes / 1e6, millis, sessionsPerSecond(), megabytesPerSecond());
+        }
+    }
+
+    private final ReportTemplate template;
+    private final CourseDao courseDao;
+    private final int threads;
+
+    public ReportGenerator(ReportTemplate template, CourseDao courseDao, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.template = template;
+        this.courseDao = courseDao;
+        this.threads = threads;
+    }
+
+    /**
+     * Write the reports of every session after {@code afterId} into {@code outputDir}
+     * (created if missing), blocking until all files are written
+     *
+     * @param onProgress called on the calling thread every 1000 sessions read (optional)
+     */
+    public Result generate(Path outputDir, int afterId, Consumer<Result> onProgress) throws IOException {
+        Files.createDirectories(outputDir);
+        GradeScale scale = GradeScale.getActive();
+        BlockingQueue<GpaSummary> queue = new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD);
+        AtomicLong written = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        long start = System.nanoTime();
+
+        Thread[] renderers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            renderers[t] = new Thread(() -> {
+                StringBuilder buffer = new StringBuilder(8 * 1024);
+                try {
+                    for (GpaSummary summary = queue.take(); summary != END; summary = queue.take()) {
+                        Path file = outputDir.resolve("session-" + summary.getId() + ".html");
+                        // A failed session is counted and skipped; the renderer must keep draining
+                        try {
+                            buffer.setLength(0);
+                            template.render(summary, scale, buffer);
+                            byte[] html = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                            Files.write(file, html);
+                            written.incrementAndGet();
+                            bytes.addAndGet(html.length);
+                        } catch (IOException | RuntimeException e) {
+                            failed.incrementAndGet();
+                            System.err.println("Error writing report " + file + ": " + e.getMessage());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "GPA-Report-" + t);
+            renderers[t].setDaemon(true);
+            renderers[t].start();
+        }
+
+        long[] read = new long[1];
+        int streamed;
+        try {
+            streamed = courseDao.streamSummariesWithCourses(afterId, summary -> {
+                try {
+                    queue.put(summary);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                if (onProgress != null && ++read[0] % PROGRESS_EVERY == 0) {
+                    onProgress.accept(new Result(written.get(), failed.get(), bytes.get(),
+                            (System.nanoTime() - start) / 1_000_000));
+                }
+                return true;
+            });
+        } finally {
+            // Renderers keep draining the queue, so these puts only wait for free slots
+            boolean interrupted = Thread.interrupted();
+            for (int t = 0; t < threads; t++) {
+                while (true) {
+                    try {
+                        queue.put(END);
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            for (Thread renderer : renderers) {
+                while (renderer.isAlive()) {
+                    try {
+                        renderer.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Result result = new Result(written.get(), failed.get(), bytes.get(), (System.nanoTime() - start) / 1_000_000);
+        if (streamed < 0) {
+            throw new IllegalStateException("Reading history failed after " + result.sessions() + " reports");
+        }
+        System.out.println("Report generation finished: " + result);
+        return result;
+    }
+}
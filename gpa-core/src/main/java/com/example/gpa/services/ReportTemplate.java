@@ -0,0 +1,228 @@
+package com.example.gpa.services;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GradeScale;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.GpaSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An HTML report template for one session, compiled once and cached.
+ *
+ * Templates are plain HTML with {@code {{field}}} placeholders and one
+ * {@code {{#courses}} ... {{/courses}}} section that repeats for every course.
+ * Session fields: id, date, gpa, credits, courseCount. Course fields: name, code, credit,
+ * grade, points, teacher1, teacher2. Text fields are HTML-escaped.
+ *
+ * Compiling resolves every placeholder to its field up front (an unknown name fails there,
+ * not halfway through a batch), so rendering is a walk over literals and fields with no
+ * parsing or lookups. A compiled template is immutable and shared by all render threads.
+ */
+public final class ReportTemplate {
+
+    public static final String DEFAULT = "transcript.html";
+    private static final String RESOURCE_DIR = "/com/example/gpa/reports/";
+    private static final Map<String, ReportTemplate> RESOURCES = new ConcurrentHashMap<>();
+    private static final Map<Path, FileEntry> FILES = new ConcurrentHashMap<>();
+
+    private enum Field {
+        ID("id", false), DATE("date", false), GPA("gpa", false), CREDITS("credits", false),
+        COURSE_COUNT("courseCount", false),
+        NAME("name", true), CODE("code", true), CREDIT("credit", true), GRADE("grade", true),
+        POINTS("points", true), TEACHER1("teacher1", true), TEACHER2("teacher2", true);
+
+        final String key;
+        final boolean perCourse;
+
+        Field(String key, boolean perCourse) {
+            this.key = key;
+            this.perCourse = perCourse;
+        }
+    }
+
+    // A compiled part is a literal String, a Field, or a CourseLoop
+    private record CourseLoop(Object[] body) {
+    }
+
+    private record FileEntry(long modified, ReportTemplate template) {
+    }
+
+    private final String name;
+    private final Object[] parts;
+
+    private ReportTemplate(String name, Object[] parts) {
+        this.name = name;
+        this.parts = parts;
+    }
+
+    /**
+     * A template from the classpath (com/example/gpa/reports/), compiled on first use
+     */
+    public static ReportTemplate forResource(String resource) {
+        return RESOURCES.computeIfAbsent(resource, r -> {
+            try (InputStream in = ReportTemplate.class.getResourceAsStream(RESOURCE_DIR + r)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("No report template " + RESOURCE_DIR + r);
+                }
+                return compile(r, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * A template file, compiled on first use and again only after the file changes
+     */
+    public static ReportTemplate forFile(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        long modified = Files.getLastModifiedTime(key).toMillis();
+        FileEntry cached = FILES.get(key);
+        if (cached != null && cached.modified() == modified) {
+            return cached.template();
+        }
+        ReportTemplate template = compile(key.getFileName().toString(), Files.readString(key));
+        FILES.put(key, new FileEntry(modified, template));
+        return template;
+    }
+
+    /**
+     * Compile template text (not cached)
+     * @throws IllegalArgumentException on an unknown field or an unclosed section
+     */
+    public static ReportTemplate compile(String name, String text) {
+        List<Object> top = new ArrayList<>();
+        List<Object> loop = null;
+        int pos = 0;
+        while (pos < text.length()) {
+            int open = text.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            int close = text.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException(name + ": unclosed {{ at offset " + open);
+            }
+            List<Object> target = loop != null ? loop : top;
+            if (open > pos) {
+                target.add(text.substring(pos, open));
+            }
+            String tag = text.substring(open + 2, close).trim();
+            if (tag.equals("#courses")) {
+                if (loop != null) {
+                    throw new IllegalArgumentException(name + ": {{#courses}} cannot be nested");
+                }
+                loop = new ArrayList<>();
+            } else if (tag.equals("/courses")) {
+                if (loop == null) {
+                    throw new IllegalArgumentException(name + ": {{/courses}} without {{#courses}}");
+                }
+                top.add(new CourseLoop(loop.toArray()));
+                loop = null;
+            } else {
+                Field field = field(name, tag);
+                if (field.perCourse && loop == null) {
+                    throw new IllegalArgumentException(name + ": {{" + tag + "}} is only valid inside {{#courses}}");
+                }
+                target.add(field);
+            }
+            pos = close + 2;
+        }
+        if (loop != null) {
+            throw new IllegalArgumentException(name + ": {{#courses}} is not closed");
+        }
+        if (pos < text.length()) {
+            top.add(text.substring(pos));
+        }
+        return new ReportTemplate(name, top.toArray());
+    }
+
+    private static Field field(String name, String key) {
+        for (Field field : Field.values()) {
+            if (field.key.equals(key)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException(name + ": unknown field {{" + key + "}}");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Append the report of one session to {@code out}, with grade points on {@code scale}
+     */
+    public void render(GpaSummary summary, GradeScale scale, StringBuilder out) {
+        for (Object part : parts) {
+            if (part instanceof String literal) {
+                out.append(literal);
+            } else if (part instanceof Field field) {
+                appendSession(field, summary, out);
+            } else {
+                Object[] body = ((CourseLoop) part).body();
+                for (Course course : summary.getCourses()) {
+                    for (Object coursePart : body) {
+                        if (coursePart instanceof String literal) {
+                            out.append(literal);
+                        } else {
+                            appendCourse((Field) coursePart, course, summary, scale, out);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void appendSession(Field field, GpaSummary summary, StringBuilder out) {
+        switch (field) {
+            case ID -> out.append(summary.getId());
+            case DATE -> out.append(summary.getTimestamp());
+            case GPA -> out.append(FixedPointGpa.formatGpa(summary.getGpa()));
+            case CREDITS -> out.append(summary.getCredits());
+            case COURSE_COUNT -> out.append(summary.getCourses().size());
+            default -> throw new IllegalStateException("Course field outside the course section: " + field);
+        }
+    }
+
+    private static void appendCourse(Field field, Course course, GpaSummary summary, GradeScale scale,
+                                     StringBuilder out) {
+        switch (field) {
+            case NAME -> escape(course.getName(), out);
+            case CODE -> escape(course.getCode(), out);
+            case CREDIT -> out.append(course.getCredit());
+            case GRADE -> escape(course.getGrade(), out);
+            case POINTS -> out.append(FixedPointGpa.formatScaled(scale.scaledPoint(course.getGradeValue().ordinal())));
+            case TEACHER1 -> escape(course.getTeacher1(), out);
+            case TEACHER2 -> escape(course.getTeacher2(), out);
+            default -> appendSession(field, summary, out);
+        }
+    }
+
+    private static void escape(String text, StringBuilder out) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.example.gpa.services;
+
+import com.example.gpa.model.Course;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe autosave journal for the course entry session.
+ * Every add/remove/undo/redo is appended as one checksummed line instead of rewriting
+ * the whole session. Appends are buffered and fsync'ed in batches by a background thread,
+ * and the file is compacted into a snapshot once it grows well past the live session size.
+ * On startup the journal is replayed to restore an unsaved session.
+ *
+ * Record format (one per line, tab separated, CRC32 of the payload first):
+ *   S                  start of a session (clears courses)
+ *   T target           target credits text
+ *   A index course...  add course at index
+ *   R index            remove course at index
+ *   U / D              undo / redo of the last operation
+ */
+public class SessionJournal {
+
+    private static final Path DEFAULT_PATH = Paths.get("entry_session.journal");
+    private static final long SYNC_INTERVAL_MS = 200;
+    private static final int SYNC_BATCH_RECORDS = 32;
+    private static final int COMPACT_MIN_RECORDS = 256;
+
+    private static SessionJournal instance;
+
+    private final Path path;
+    private final ScheduledExecutorService syncer;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private int pendingRecords;
+    private int recordCount;
+
+    // Mirror of the session, used for undo/redo and compaction
+    private final List<Course> courses = new ArrayList<>();
+    private String target = "";
+    private final Deque<Op> undoStack = new ArrayDeque<>();
+    private final Deque<Op> redoStack = new ArrayDeque<>();
+
+    /**
+     * A single reversible change to the course list
+     */
+    private record Op(boolean add, int index, Course course) {
+        Op inverse() {
+            return new Op(!add, index, course);
+        }
+    }
+
+    /**
+     * Session state recovered from the journal
+     */
+    public record RestoredSession(String target, List<Course> courses) {
+        public boolean isEmpty() {
+            return courses.isEmpty() && target.isEmpty();
+        }
+    }
+
+    private SessionJournal(Path path) {
+        this.path = path;
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            thread.setName("GPA-Journal-Sync");
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_MS, SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get singleton instance
+     */
+    public static synchronized SessionJournal getInstance() {
+        if (instance == null) {
+            instance = new SessionJournal(DEFAULT_PATH);
+        }
+        return instance;
+    }
+
+    /**
+     * Replay the journal file and return the session it describes.
+     * A torn or corrupt tail (e.g. from a crash mid-write) is ignored and truncated.
+     */
+    public synchronized RestoredSession replay() {
+        sync();
+        courses.clear();
+        undoStack.clear();
+        redoStack.clear();
+        target = "";
+        recordCount = 0;
+
+        long validLength = 0;
+        if (Files.exists(path)) {
+            try {
+                byte[] data = Files.readAllBytes(path);
+                int start = 0;
+                for (int i = 0; i < data.length; i++) {
+                    if (data[i] != '\n') continue;
+                    String line = new String(data, start, i - start, StandardCharsets.UTF_8);
+                    if (!applyRecord(line)) break;
+                    recordCount++;
+                    start = i + 1;
+                    validLength = start;
+                }
+                if (validLength < data.length) {
+                    System.err.println("Journal: ignoring " + (data.length - validLength) + " bytes of incomplete records");
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading session journal: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        try {
+            openChannel(validLength);
+        } catch (IOException e) {
+            System.err.println("Error opening session journal: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        System.out.println("Journal: replayed " + recordCount + " records, " + courses.size() + " courses");
+        return new RestoredSession(target, List.copyOf(courses));
+    }
+
+    /**
+     * Start a new session from a snapshot (e.g. a session loaded from history)
+     */
+    public synchronized void reset(String newTarget, List<Course> snapshot) {
+        courses.clear();
+        courses.addAll(snapshot);
+        target = newTarget == null ? "" : newTarget;
+        compact();
+    }
+
+    /**
+     * Record the target credits; repeated values are not logged
+     */
+    public synchronized void recordTarget(String newTarget) {
+        String value = newTarget == null ? "" : newTarget;
+        if (value.equals(target)) return;
+        target = value;
+        append("T\t" + escape(value));
+    }
+
+    public synchronized void recordAdd(int index, Course course) {
+        perform(new Op(true, index, course));
+        redoStack.clear();
+    }
+
+    public synchronized void recordRemove(int index) {
+        perform(new Op(false, index, courses.get(index)));
+        redoStack.clear();
+    }
+
+    /**
+     * Undo the last add/remove
+     * @return the operation the caller must apply to its list, or null if nothing to undo
+     */
+    public synchronized Change undo() {
+        Op op = undoStack.pollLast();
+        if (op == null) return null;
+        Op inverse = op.inverse();
+        applyToMirror(inverse);
+        redoStack.addLast(op);
+        append("U");
+        return new Change(inverse.add(), inverse.index(), inverse.course());
+    }
+
+    /**
+     * Redo the last undone add/remove
+     * @return the operation the caller must apply to its list, or null if nothing to redo
+     */
+    public synchronized Change redo() {
+        Op op = redoStack.pollLast();
+        if (op == null) return null;
+        applyToMirror(op);
+        undoStack.addLast(op);
+        append("D");
+        return new Change(op.add(), op.index(), op.course());
+    }
+
+    public synchronized boolean canUndo() { return !undoStack.isEmpty(); }
+    public synchronized boolean canRedo() { return !redoStack.isEmpty(); }
+
+    /**
+     * A change the caller applies to its own course list after undo/redo
+     */
+    public record Change(boolean add, int index, Course course) {
+        public void applyTo(List<Course> list) {
+            if (add) list.add(index, course);
+            else list.remove(index);
+        }
+    }
+
+    /**
+     * Throw the session away once it has been saved to the database or abandoned
+     */
+    public synchronized void discard() {
+        courses.clear();
+        target = "";
+        undoStack.clear();
+        redoStack.clear();
+        pending.reset();
+        pendingRecords = 0;
+        recordCount = 0;
+        try {
+            if (channel != null) {
+                channel.truncate(0);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            System.err.println("Error clearing session journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flush pending records and stop the sync thread.
+     * Call this when application is closing.
+     */
+    public synchronized void close() {
+        syncer.shutdown();
+        sync();
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing session journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write buffered records to disk and fsync them as one batch
+     */
+    public synchronized void sync() {
+        if (pendingRecords == 0 || channel == null) return;
+        try {
+            channel.write(ByteBuffer.wrap(pending.toByteArray()));
+            channel.force(false);
+            pending.reset();
+            pendingRecords = 0;
+        } catch (IOException e) {
+            System.err.println("Error syncing session journal: " + e.getMessage());
+        }
+    }
+
+    private void perform(Op op) {
+        applyToMirror(op);
+        undoStack.addLast(op);
+        if (op.add()) {
+            append("A\t" + op.index() + "\t" + encodeCourse(op.course()));
+        } else {
+            append("R\t" + op.index());
+        }
+    }
+
+    private void applyToMirror(Op op) {
+        if (op.add()) courses.add(op.index(), op.course());
+        else courses.remove(op.index());
+    }
+
+    private void append(String payload) {
+        byte[] line = frame(payload);
+        pending.writeBytes(line);
+        pendingRecords++;
+        recordCount++;
+        if (pendingRecords >= SYNC_BATCH_RECORDS) {
+            sync();
+        }
+        if (recordCount >= COMPACT_MIN_RECORDS && recordCount > 4 * (courses.size() + 2)) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrite the journal as a snapshot of the current session (S, T, then one A per course).
+     * Written to a temp file, fsync'ed, then atomically moved over the journal.
+     * Undo/redo history is dropped, since the snapshot no longer holds the operations it refers to.
+     */
+    private void compact() {
+        undoStack.clear();
+        redoStack.clear();
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshot.writeBytes(frame("S"));
+        snapshot.writeBytes(frame("T\t" + escape(target)));
+        for (int i = 0; i < courses.size(); i++) {
+            snapshot.writeBytes(frame("A\t" + i + "\t" + encodeCourse(courses.get(i))));
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.wrap(snapshot.toByteArray()));
+                out.force(true);
+            }
+            if (channel != null) channel.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            openChannel(Files.size(path));
+            pending.reset();
+            pendingRecords = 0;
+            recordCount = courses.size() + 2;
+        } catch (IOException e) {
+            System.err.println("Error compacting session journal: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void openChannel(long length) throws IOException {
+        if (channel != null && channel.isOpen()) channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(length);
+        channel.position(length);
+    }
+
+    /**
+     * Apply one journal line to the mirror during replay
+     * @return false if the line is corrupt, which ends the replay
+     */
+    private boolean applyRecord(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 0) return false;
+        String payload = line.substring(tab + 1);
+        if (!line.substring(0, tab).equals(checksum(payload))) return false;
+
+        String[] fields = payload.split("\t", -1);
+        try {
+            switch (fields[0]) {
+                case "S" -> {
+                    courses.clear();
+                    undoStack.clear();
+                    redoStack.clear();
+                    target = "";
+                }
+                case "T" -> target = unescape(fields[1]);
+                case "A" -> {
+                    Op op = new Op(true, Integer.parseInt(fields[1]), decodeCourse(fields, 2));
+                    applyToMirror(op);
+                    undoStack.addLast(op);
+                    redoStack.clear();
+                }
+                case "R" -> {
+                    int index = Integer.parseInt(fields[1]);
+                    Op op = new Op(false, index, courses.get(index));
+                    applyToMirror(op);
+                    undoStack.addLast(op);
+                    redoStack.clear();
+                }
+                case "U" -> {
+                    Op op = undoStack.removeLast();
+                    applyToMirror(op.inverse());
+                    redoStack.addLast(op);
+                }
+                case "D" -> {
+                    Op op = redoStack.removeLast();
+                    applyToMirror(op);
+                    undoStack.addLast(op);
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static byte[] frame(String payload) {
+        return (checksum(payload) + "\t" + payload + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String encodeCourse(Course c) {
+        return escape(c.getName()) + "\t" + escape(c.getCode()) + "\t" + c.getCredit() + "\t"
+                + escape(c.getTeacher1()) + "\t" + escape(c.getTeacher2()) + "\t" + escape(c.getGrade());
+    }
+
+    private static Course decodeCourse(String[] fields, int offset) {
+        return new Course(
+                unescape(fields[offset]),
+                unescape(fields[offset + 1]),
+                Double.parseDouble(fields[offset + 2]),
+                unescape(fields[offset + 3]),
+                unescape(fields[offset + 4]),
+                unescape(fields[offset + 5]));
+    }
+
+    // Tabs, newlines and backslashes are escaped; null is written as \N
+    private static String escape(String value) {
+        if (value == null) return "\\N";
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\' -> sb.append("\\\\");
+                case '\t' -> sb.append("\\t");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String value) {
+        if (value.equals("\\N")) return null;
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't' -> sb.append('\t');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    default -> sb.append(next);
+                }
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+}
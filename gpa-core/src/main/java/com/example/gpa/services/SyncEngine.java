@@ -0,0 +1,237 @@
+package com.example.gpa.services;
+
+import com.example.gpa.database.ChangeLogDao;
+import com.example.gpa.database.ChangeLogDao.SyncCourse;
+import com.example.gpa.database.ChangeLogDao.SyncRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Syncs history between instances through a shared directory.
+ *
+ * Each instance writes numbered change files to its own folder ({@code <dir>/<node id>/}),
+ * each one holding only the sessions changed since its previous file, and reads the files of
+ * every other folder it has not applied yet. Files are written under a temporary name and
+ * renamed when complete, so a reader never sees half a file. Applying a file twice is harmless:
+ * a record whose version is not newer than the local one is skipped.
+ */
+public class SyncEngine {
+
+    private static final int MAGIC = 0x47504153; // "GPAS"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".changes";
+
+    private static final int END = 0;
+    private static final int UPSERT = 1;
+    private static final int DELETE = 2;
+
+    /**
+     * Outcome of one sync round
+     */
+    public record Result(int filesImported, int applied, int skipped, int conflicts,
+                         int exported, long exportBytes, long millis) {
+        @Override
+        public String toString() {
+            return String.format("SyncResult{imported=%d files/%d applied/%d skipped/%d conflicts, "
+                            + "exported=%d sessions/%d bytes, %d ms}",
+                    filesImported, applied, skipped, conflicts, exported, exportBytes, millis);
+        }
+    }
+
+    private final Path directory;
+    private final ChangeLogDao dao;
+
+    public SyncEngine(Path directory, ChangeLogDao dao) {
+        this.directory = directory;
+        this.dao = dao;
+    }
+
+    /**
+     * Apply other instances' new change files, then export this instance's changes.
+     * Call on the database worker.
+     */
+    public Result sync() throws IOException, SQLException {
+        long start = System.nanoTime();
+        String self = dao.getNodeId();
+        if (self == null) {
+            throw new SQLException("Sync state is not available");
+        }
+        Files.createDirectories(directory.resolve(self));
+
+        int files = 0;
+        int applied = 0;
+        int skipped = 0;
+        int conflicts = 0;
+        try (DirectoryStream<Path> peers = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path peerDir : peers) {
+                String peer = peerDir.getFileName().toString();
+                if (peer.equals(self)) continue;
+
+                for (long number : newFiles(peerDir, dao.getLastFile(peer))) {
+                    ChangeLogDao.ApplyResult result = importFile(peerDir.resolve(fileName(number)), peer, number);
+                    files++;
+                    applied += result.applied();
+                    skipped += result.skipped();
+                    conflicts += result.conflicts();
+                }
+            }
+        }
+
+        long[] exported = export(directory.resolve(self));
+        return new Result(files, applied, skipped, conflicts, (int) exported[0], exported[1],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Numbers of a peer's complete change files after {@code lastApplied}, in order
+     */
+    private static List<Long> newFiles(Path peerDir, long lastApplied) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(peerDir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    long number = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                    if (number > lastApplied) {
+                        numbers.add(number);
+                    }
+                } catch (NumberFormatException e) {
+                    System.err.println("Ignoring unexpected file in sync directory: " + file);
+                }
+            }
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private ChangeLogDao.ApplyResult importFile(Path file, String peer, long number) throws IOException, SQLException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 1 << 16)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a change file: " + file);
+            }
+            String node = in.readUTF();
+            long fileNumber = in.readLong();
+            if (!node.equals(peer) || fileNumber != number) {
+                throw new IOException("Change file " + file + " belongs to " + node + " #" + fileNumber);
+            }
+            ChangeLogDao.ApplyResult result = dao.applyFile(peer, number, () -> readRecord(in));
+            System.out.println("Applied " + file + ": " + result);
+            return result;
+        }
+    }
+
+    /**
+     * Write this instance's pending changes to the next numbered file
+     *
+     * @return {sessions exported, bytes written}
+     */
+    private long[] export(Path ownDir) throws IOException, SQLException {
+        long number = dao.getLastExport() + 1;
+        Path file = ownDir.resolve(fileName(number));
+        Path tmp = ownDir.resolve(fileName(number) + ".tmp");
+        ChangeLogDao.PendingExport pending;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp), 1 << 16)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(dao.getNodeId());
+            out.writeLong(number);
+            pending = dao.collectChanges(record -> writeRecord(out, record));
+            out.writeByte(END);
+        } catch (IOException | SQLException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        if (pending == null || pending.records() == 0) {
+            Files.deleteIfExists(tmp);
+            if (pending != null) {
+                dao.completeExport(pending, number - 1); // only no-op changes, e.g. created and deleted again
+            }
+            return new long[] {0, 0};
+        }
+
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        dao.completeExport(pending, number);
+
+        long bytes = Files.size(file);
+        System.out.println("Exported " + pending.records() + " changed sessions to " + file + " (" + bytes + " bytes)");
+        return new long[] {pending.records(), bytes};
+    }
+
+    private static String fileName(long number) {
+        return String.format("%012d%s", number, SUFFIX);
+    }
+
+    private static void writeRecord(DataOutputStream out, SyncRecord record) throws IOException {
+        out.writeByte(record.deleted() ? DELETE : UPSERT);
+        out.writeUTF(record.origin());
+        out.writeInt(record.originId());
+        out.writeLong(record.version());
+        out.writeUTF(record.versionNode());
+        if (record.deleted()) {
+            return;
+        }
+        out.writeDouble(record.gpa());
+        out.writeDouble(record.credits());
+        out.writeUTF(record.timestamp());
+        out.writeInt(record.courses().size());
+        for (SyncCourse course : record.courses()) {
+            out.writeUTF(course.code());
+            out.writeUTF(course.name());
+            writeNullable(out, course.teacher1());
+            writeNullable(out, course.teacher2());
+            out.writeDouble(course.credit());
+            out.writeByte(course.grade());
+        }
+    }
+
+    private static SyncRecord readRecord(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        if (type == END) {
+            return null;
+        }
+        String origin = in.readUTF();
+        int originId = in.readInt();
+        long version = in.readLong();
+        String versionNode = in.readUTF();
+        if (type == DELETE) {
+            return new SyncRecord(origin, originId, version, versionNode, true, 0, 0, null, List.of());
+        }
+        double gpa = in.readDouble();
+        double credits = in.readDouble();
+        String timestamp = in.readUTF();
+        int count = in.readInt();
+        List<SyncCourse> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            courses.add(new SyncCourse(in.readUTF(), in.readUTF(), readNullable(in), readNullable(in),
+                    in.readDouble(), in.readUnsignedByte()));
+        }
+        return new SyncRecord(origin, originId, version, versionNode, false, gpa, credits, timestamp, courses);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
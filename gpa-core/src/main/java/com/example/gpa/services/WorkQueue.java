@@ -0,0 +1,226 @@
+package com.example.gpa.services;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Single worker thread with a bounded queue, keyed deduplication and cancellation.
+ *
+ * Work is submitted with an optional key. A newer submission with the same key supersedes
+ * the older one: if the older one is still queued it is removed and never runs, and if it is
+ * already running its token is cancelled so its result is discarded. Work whose token was
+ * cancelled before it started is skipped.
+ *
+ * Backpressure: when the queue is full, cancelled entries are purged first, then the oldest
+ * keyed entry (a read that can be repeated) is shed. Unkeyed work (writes) is never shed;
+ * if nothing can be dropped, the new submission is rejected. Every submission that does not
+ * run is reported once to its {@code onDropped} callback, with the reason.
+ */
+public class WorkQueue {
+
+    public enum Drop {
+        /** A newer submission with the same key replaced it */
+        SUPERSEDED,
+        /** Its token was cancelled before it started */
+        CANCELLED,
+        /** Dropped to make room in a full queue */
+        SHED,
+        /** The queue was full (or shut down) and nothing could be dropped */
+        REJECTED
+    }
+
+    /**
+     * Counters since the queue was created
+     */
+    public record Metrics(long submitted, long completed, long superseded, long cancelled, long shed,
+                          long rejected, int pending, int capacity) {
+        @Override
+        public String toString() {
+            return String.format("WorkQueue{submitted=%d, completed=%d, superseded=%d, cancelled=%d, shed=%d, "
+                            + "rejected=%d, pending=%d/%d}",
+                    submitted, completed, superseded, cancelled, shed, rejected, pending, capacity);
+        }
+    }
+
+    private final class Entry implements Runnable {
+        final String key;
+        final CancellationToken token;
+        final Runnable work;
+        final Consumer<Drop> onDropped;
+        private final AtomicInteger state = new AtomicInteger(); // 0 queued, 1 started or dropped
+
+        Entry(String key, CancellationToken token, Runnable work, Consumer<Drop> onDropped) {
+            this.key = key;
+            this.token = token;
+            this.work = work;
+            this.onDropped = onDropped;
+        }
+
+        @Override
+        public void run() {
+            if (token.isCancelled()) {
+                drop(this, Drop.CANCELLED);
+                return;
+            }
+            if (!state.compareAndSet(0, 1)) {
+                return;
+            }
+            try {
+                work.run();
+                completed.increment();
+            } finally {
+                release(this);
+            }
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int capacity;
+    private final Map<String, Entry> latestByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder superseded = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public WorkQueue(String threadName, int capacity) {
+        this.capacity = capacity;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true); // Daemon thread won't prevent app shutdown
+                    thread.setName(threadName);
+                    return thread;
+                },
+                (runnable, pool) -> overflow((Entry) runnable));
+    }
+
+    /**
+     * Queue work that always runs (unless the queue rejects it)
+     */
+    public void submit(Runnable work, Consumer<Drop> onDropped) {
+        submit(null, new CancellationToken(), work, onDropped);
+    }
+
+    /**
+     * Queue work under a key and a token
+     *
+     * @param key work with the same key supersedes this (null: never superseded or shed)
+     * @param token cancels this work while it is queued
+     * @param onDropped called once, on the submitting or worker thread, if the work will not
+     *                  run or was superseded while running (optional)
+     */
+    public void submit(String key, CancellationToken token, Runnable work, Consumer<Drop> onDropped) {
+        Entry entry = new Entry(key, token, work, onDropped);
+        submitted.increment();
+        pending.incrementAndGet();
+        if (key != null) {
+            Entry previous = latestByKey.put(key, entry);
+            if (previous != null) {
+                previous.token.cancel();
+                drop(previous, Drop.SUPERSEDED);
+            }
+        }
+        executor.execute(entry);
+    }
+
+    /**
+     * Queued plus running work
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    public Metrics metrics() {
+        return new Metrics(submitted.sum(), completed.sum(), superseded.sum(), cancelled.sum(), shed.sum(),
+                rejected.sum(), pending.get(), capacity);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    // Runs on the submitting thread when the executor's queue is full
+    private void overflow(Entry entry) {
+        if (!executor.isShutdown()) {
+            purgeCancelled();
+            if (executor.getQueue().remainingCapacity() == 0) {
+                shedOldestKeyed();
+            }
+            if (executor.getQueue().offer(entry)) {
+                return;
+            }
+        }
+        drop(entry, Drop.REJECTED);
+        if (entry.onDropped == null) {
+            throw new RejectedExecutionException("Work queue is full (" + capacity + " entries)");
+        }
+    }
+
+    private void purgeCancelled() {
+        for (Iterator<Runnable> it = executor.getQueue().iterator(); it.hasNext(); ) {
+            Entry queued = (Entry) it.next();
+            if (queued.token.isCancelled()) {
+                it.remove();
+                drop(queued, Drop.CANCELLED);
+            }
+        }
+    }
+
+    private void shedOldestKeyed() {
+        for (Runnable runnable : executor.getQueue()) {
+            Entry queued = (Entry) runnable;
+            if (queued.key != null && executor.remove(queued)) {
+                drop(queued, Drop.SHED);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Account for an entry that will not run, once. A queued entry is taken out of the
+     * executor queue and released here; an entry superseded while running is only counted
+     * and releases its slot when it finishes.
+     */
+    private void drop(Entry entry, Drop reason) {
+        boolean queued = entry.state.compareAndSet(0, 1);
+        if (queued) {
+            executor.remove(entry);
+            release(entry);
+        }
+        if (!queued && reason != Drop.SUPERSEDED) {
+            return;
+        }
+        switch (reason) {
+            case SUPERSEDED -> superseded.increment();
+            case CANCELLED -> cancelled.increment();
+            case SHED -> shed.increment();
+            case REJECTED -> rejected.increment();
+        }
+        if (entry.onDropped != null) {
+            entry.onDropped.accept(reason);
+        }
+    }
+
+    private void release(Entry entry) {
+        pending.decrementAndGet();
+        if (entry.key != null) {
+            latestByKey.remove(entry.key, entry);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.gpa;
 
+import com.example.gpa.services.FxWatchdog;
 import com.example.gpa.services.GpaSummaryService;
+import com.example.gpa.services.SessionJournal;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -11,7 +13,11 @@ public class MainApp extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        // Load GPA history from database in background
+        // Measure FX thread stalls from the first scene on
+        FxWatchdog.getInstance().install(primaryStage);
+        
+        // Load GPA history from database in background. Getting the service opens the database,
+        // which restores the grade scale and retake policy of the last recompute before any GPA is calculated
         GpaSummaryService.getInstance().loadAllSummaries(() -> {
             System.out.println("GPA history loaded successfully on startup");
         });
@@ -39,6 +45,14 @@ public class MainApp extends Application {
     public void stop() {
         // Gracefully shutdown service on app close
         GpaSummaryService.getInstance().shutdown();
+        // Flush any unsaved entry session so it can be restored next time
+        SessionJournal.getInstance().close();
+        // Per-action FX thread latency, to find what makes the UI stutter
+        FxWatchdog watchdog = FxWatchdog.getInstance();
+        watchdog.shutdown();
+        if (watchdog.isEnabled()) {
+            System.out.print(watchdog.report(5));
+        }
         System.out.println("Application stopped gracefully");
     }
 }
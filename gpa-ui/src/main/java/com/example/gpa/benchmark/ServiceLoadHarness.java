@@ -0,0 +1,635 @@
+package com.example.gpa.benchmark;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.database.QueryProfiler;
+import com.example.gpa.metrics.LatencyHistogram;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.services.GpaSummaryService;
+import javafx.application.Platform;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Headless load and soak harness for GpaSummaryService.
+ *
+ * Many client threads issue a weighted mix of operations against a scratch database and
+ * wait for each completion callback, so latency covers queueing on the single worker,
+ * the SQLite work and the hop back to the callback thread. At the end it reports latency
+ * percentiles and throughput per operation, error and timeout counts, and heap growth
+ * (old-generation usage after GC, sampled during the run).
+ *
+ * It drives the real GpaSummaryService with the JavaFX platform started without a window, so
+ * it needs a display; on a server run it under a virtual one such as Xvfb.
+ *
+ * Run: java -cp gpa-ui/target/classes:gpa-core/target/classes:... com.example.gpa.benchmark.ServiceLoadHarness
+ *          [--threads=8] [--duration=60] [--warmup=10] [--mix=save:40,load:30,edit:15,delete:10,list:5]
+ *          [--courses=8] [--think=0] [--timeout=30] [--interval=10]
+ *          [--db=path] [--keep-db] [--memory] [--verbose] [--max-p99-ms=N] [--max-heap-growth-mb=N]
+ *          [--profile[=slowMillis]]
+ * --memory runs against the in-memory database mode (backed up to the scratch file at the end).
+ * --profile times every SQL statement during the measured window and prints the query profile.
+ * Exits with status 1 when there were errors or a --max-* limit was exceeded.
+ */
+public class ServiceLoadHarness {
+
+    enum Op { SAVE, LOAD, EDIT, DELETE, LIST }
+
+    private static final String[] GRADES = {"A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F"};
+    private static final int DISTINCT_COURSES = 200;
+
+    private static PrintStream out = System.out;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        int coursesPerSession = Integer.parseInt(options.getOrDefault("courses", "8"));
+        long thinkMillis = Long.parseLong(options.getOrDefault("think", "0"));
+        long timeoutSeconds = Long.parseLong(options.getOrDefault("timeout", "30"));
+        long intervalSeconds = Long.parseLong(options.getOrDefault("interval", "10"));
+        int[] mix = parseMix(options.getOrDefault("mix", "save:40,load:30,edit:15,delete:10,list:5"));
+
+        Path db = options.containsKey("db")
+                ? Path.of(options.get("db"))
+                : Files.createTempFile("gpa-load-", ".db");
+        // Must be set before anything touches DatabaseManager
+        System.setProperty("gpa.db.path", db.toString());
+        if (options.containsKey("memory")) {
+            System.setProperty("gpa.db.mode", "memory");
+        }
+        if (options.containsKey("profile")) {
+            System.setProperty("gpa.db.profile", "true");
+            if (!options.get("profile").equals("true")) {
+                System.setProperty("gpa.db.profileSlowMillis", options.get("profile"));
+            }
+        }
+
+        if (!options.containsKey("verbose")) {
+            // The service logs every operation; keep the report readable
+            PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+            System.setOut(quiet);
+            System.setErr(quiet);
+        }
+
+        Backend backend;
+        try {
+            backend = createBackend();
+        } catch (IllegalStateException e) {
+            // stderr may be silenced above
+            out.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        out.println("Backend: " + backend.name() + ", database: " + db);
+        out.printf("Threads: %d, warmup: %ds, duration: %ds, courses/session: %d, think: %dms%n",
+                threads, warmupSeconds, durationSeconds, coursesPerSession, thinkMillis);
+        out.println("Mix: " + describeMix(mix));
+
+        // Seed so load/edit/delete have something to work on from the start
+        IdPool ids = new IdPool();
+        SplittableRandom seedRandom = new SplittableRandom(7);
+        for (int i = 0; i < threads * 4; i++) {
+            CountDownLatch done = new CountDownLatch(1);
+            backend.save(randomCourses(seedRandom, coursesPerSession), (ok, id) -> {
+                if (ok) ids.add(id);
+                done.countDown();
+            });
+            done.await(timeoutSeconds, TimeUnit.SECONDS);
+        }
+
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicBoolean measuring = new AtomicBoolean();
+        Client[] clients = new Client[threads];
+        Thread[] clientThreads = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            clients[t] = new Client(backend, ids, mix, coursesPerSession, thinkMillis, timeoutSeconds,
+                    end, measuring, new SplittableRandom(1000 + t));
+            clientThreads[t] = new Thread(clients[t], "Load-Client-" + t);
+            clientThreads[t].setDaemon(true);
+            clientThreads[t].start();
+        }
+
+        HeapSampler heap = new HeapSampler();
+        sleepUntil(measureStart);
+        measuring.set(true);
+        QueryProfiler.getInstance().reset();
+        heap.sampleAfterGc();
+        out.println("Warmup done, measuring...");
+
+        long nextReport = measureStart + TimeUnit.SECONDS.toNanos(intervalSeconds);
+        while (System.nanoTime() < end) {
+            sleepUntil(Math.min(nextReport, end));
+            heap.sample();
+            if (System.nanoTime() >= nextReport) {
+                long elapsed = System.nanoTime() - measureStart;
+                long done = 0;
+                long failed = 0;
+                for (Client client : clients) {
+                    done += client.completed.get();
+                    failed += client.failed.get();
+                }
+                out.printf("  %5ds  ops: %9d  (%.0f/s)  errors: %d  old gen: %.1f MB  pool ids: %d%n",
+                        TimeUnit.NANOSECONDS.toSeconds(elapsed), done, done / (elapsed / 1e9), failed,
+                        heap.last() / 1048576.0, ids.size());
+                nextReport += TimeUnit.SECONDS.toNanos(intervalSeconds);
+            }
+        }
+
+        for (Thread thread : clientThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(timeoutSeconds + 1));
+        }
+        measuring.set(false);
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+        heap.sampleAfterGc();
+        backend.close();
+
+        boolean passed = report(clients, heap, measuredSeconds, options);
+        if (backend.dispatchReport() != null) {
+            out.println(backend.dispatchReport());
+        }
+        if (QueryProfiler.getInstance().isEnabled()) {
+            out.print(QueryProfiler.getInstance().report(15));
+        }
+
+        if (!options.containsKey("keep-db") && !options.containsKey("db")) {
+            Files.deleteIfExists(db);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean report(Client[] clients, HeapSampler heap, double seconds, Map<String, String> options) {
+        Map<Op, LatencyHistogram> merged = new HashMap<>();
+        long errors = 0;
+        long timeouts = 0;
+        long totalOps = 0;
+        for (Op op : Op.values()) {
+            merged.put(op, new LatencyHistogram());
+        }
+        for (Client client : clients) {
+            for (Op op : Op.values()) {
+                merged.get(op).merge(client.histograms[op.ordinal()]);
+            }
+            errors += client.failed.get();
+            timeouts += client.timedOut.get();
+        }
+
+        out.println();
+        out.printf("%-7s %9s %9s %9s %9s %9s %9s %9s %9s%n",
+                "op", "count", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        LatencyHistogram all = new LatencyHistogram();
+        for (Op op : Op.values()) {
+            LatencyHistogram h = merged.get(op);
+            if (h.count() == 0) continue;
+            printRow(op.name().toLowerCase(), h, seconds);
+            all.merge(h);
+            totalOps += h.count();
+        }
+        printRow("all", all, seconds);
+
+        out.println();
+        out.printf("Throughput: %.1f ops/s over %.1fs, errors: %d (of which timeouts: %d)%n",
+                totalOps / seconds, seconds, errors, timeouts);
+        long growth = heap.growthAfterGc();
+        out.printf("Heap (old gen after GC): start %.1f MB, end %.1f MB, growth %.1f MB, trend %.2f MB/min%n",
+                heap.firstAfterGc() / 1048576.0, heap.lastAfterGc() / 1048576.0, growth / 1048576.0,
+                heap.slopePerMinute() / 1048576.0);
+
+        boolean passed = errors == 0;
+        if (options.containsKey("max-p99-ms")) {
+            long limit = Long.parseLong(options.get("max-p99-ms"));
+            if (all.percentile(99) / 1000 > limit) {
+                out.println("FAIL: p99 above " + limit + " ms");
+                passed = false;
+            }
+        }
+        if (options.containsKey("max-heap-growth-mb")) {
+            long limit = Long.parseLong(options.get("max-heap-growth-mb"));
+            if (growth > limit * 1048576L) {
+                out.println("FAIL: heap grew more than " + limit + " MB");
+                passed = false;
+            }
+        }
+        if (errors > 0) {
+            out.println("FAIL: " + errors + " operations failed");
+        }
+        out.println(passed ? "PASS" : "FAIL");
+        return passed;
+    }
+
+    private static void printRow(String label, LatencyHistogram h, double seconds) {
+        out.printf("%-7s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label, h.count(), h.count() / seconds, h.mean() / 1000,
+                h.percentile(50) / 1000.0, h.percentile(90) / 1000.0, h.percentile(99) / 1000.0,
+                h.percentile(99.9) / 1000.0, h.max() / 1000.0);
+    }
+
+    /**
+     * One closed-loop client: issue an operation, wait for its callback, repeat
+     */
+    private static final class Client implements Runnable {
+        final LatencyHistogram[] histograms = new LatencyHistogram[Op.values().length];
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong timedOut = new AtomicLong();
+        private final Backend backend;
+        private final IdPool ids;
+        private final int[] mix;
+        private final int coursesPerSession;
+        private final long thinkMillis;
+        private final long timeoutSeconds;
+        private final long end;
+        private final AtomicBoolean measuring;
+        private final SplittableRandom random;
+
+        Client(Backend backend, IdPool ids, int[] mix, int coursesPerSession, long thinkMillis,
+               long timeoutSeconds, long end, AtomicBoolean measuring, SplittableRandom random) {
+            this.backend = backend;
+            this.ids = ids;
+            this.mix = mix;
+            this.coursesPerSession = coursesPerSession;
+            this.thinkMillis = thinkMillis;
+            this.timeoutSeconds = timeoutSeconds;
+            this.end = end;
+            this.measuring = measuring;
+            this.random = random;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < end) {
+                Op op = pick();
+                CountDownLatch done = new CountDownLatch(1);
+                boolean[] ok = new boolean[1];
+                BiConsumer<Boolean, Integer> callback = (success, id) -> {
+                    ok[0] = success;
+                    done.countDown();
+                };
+
+                // Operations started during warmup are not counted
+                boolean record = measuring.get();
+                long started = System.nanoTime();
+                if (!issue(op, callback)) {
+                    continue;
+                }
+                boolean finished;
+                try {
+                    finished = done.await(timeoutSeconds, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long micros = (System.nanoTime() - started) / 1000;
+
+                if (record) {
+                    histograms[op.ordinal()].record(micros);
+                    completed.incrementAndGet();
+                    if (!finished) {
+                        timedOut.incrementAndGet();
+                        failed.incrementAndGet();
+                    } else if (!ok[0]) {
+                        failed.incrementAndGet();
+                    }
+                }
+
+                if (thinkMillis > 0) {
+                    try {
+                        Thread.sleep(thinkMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        private Op pick() {
+            int roll = random.nextInt(mix[mix.length - 1]);
+            for (int i = 0; i < Op.values().length; i++) {
+                if (roll < mix[i]) {
+                    return Op.values()[i];
+                }
+            }
+            return Op.SAVE;
+        }
+
+        /**
+         * @return false if the operation had nothing to act on and was skipped
+         */
+        private boolean issue(Op op, BiConsumer<Boolean, Integer> callback) {
+            switch (op) {
+                case SAVE -> backend.save(randomCourses(random, coursesPerSession), (ok, id) -> {
+                    if (ok) ids.add(id);
+                    callback.accept(ok, id);
+                });
+                case LOAD -> {
+                    int id = ids.pick(random);
+                    if (id < 0) return false;
+                    backend.loadCourses(id, callback);
+                }
+                case EDIT -> {
+                    int id = ids.pick(random);
+                    if (id < 0) return false;
+                    double gpa = random.nextInt(401) / 100.0;
+                    backend.update(new GpaSummary(id, gpa, coursesPerSession * 3.0,
+                            System.currentTimeMillis()), callback);
+                }
+                case DELETE -> {
+                    int id = ids.take(random);
+                    if (id < 0) return false;
+                    backend.delete(id, callback);
+                }
+                case LIST -> backend.loadAll(callback);
+            }
+            return true;
+        }
+    }
+
+    static List<Course> randomCourses(SplittableRandom random, int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int course = random.nextInt(DISTINCT_COURSES);
+            courses.add(new Course("Course " + course, "CSE" + (1000 + course), 1.5 * (1 + random.nextInt(3)),
+                    "Teacher " + course % 17, "Teacher " + course % 11, GRADES[random.nextInt(GRADES.length)]));
+        }
+        return courses;
+    }
+
+    /**
+     * Ids of sessions that currently exist, shared by all clients. A save that matched a stored
+     * session reports that session's id, which may already be in the pool.
+     */
+    private static final class IdPool {
+        private final List<Integer> ids = new ArrayList<>();
+        private final Set<Integer> members = new HashSet<>();
+
+        synchronized void add(int id) {
+            if (members.add(id)) {
+                ids.add(id);
+            }
+        }
+
+        synchronized int pick(SplittableRandom random) {
+            return ids.isEmpty() ? -1 : ids.get(random.nextInt(ids.size()));
+        }
+
+        synchronized int take(SplittableRandom random) {
+            if (ids.isEmpty()) return -1;
+            int index = random.nextInt(ids.size());
+            int last = ids.size() - 1;
+            int id = ids.get(index);
+            ids.set(index, ids.get(last));
+            ids.remove(last);
+            members.remove(id);
+            return id;
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+    }
+
+    /**
+     * Old-generation usage after GC, the part of the heap that grows when something leaks
+     */
+    private static final class HeapSampler {
+        private final List<long[]> samples = new ArrayList<>(); // {nanoTime, bytes}
+        private long firstAfterGc = -1;
+        private long lastAfterGc;
+        private long last;
+
+        void sample() {
+            long used = collectionUsage();
+            last = used;
+            samples.add(new long[]{System.nanoTime(), used});
+        }
+
+        void sampleAfterGc() {
+            long used = CourseFootprintBenchmark.usedHeap();
+            if (firstAfterGc < 0) firstAfterGc = used;
+            lastAfterGc = used;
+            last = used;
+            samples.add(new long[]{System.nanoTime(), collectionUsage()});
+        }
+
+        long last() {
+            return last;
+        }
+
+        long firstAfterGc() {
+            return firstAfterGc;
+        }
+
+        long lastAfterGc() {
+            return lastAfterGc;
+        }
+
+        long growthAfterGc() {
+            return lastAfterGc - firstAfterGc;
+        }
+
+        /**
+         * Least-squares slope of the samples in bytes per minute
+         */
+        double slopePerMinute() {
+            int n = samples.size();
+            if (n < 2) return 0;
+            double t0 = samples.get(0)[0];
+            double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+            for (long[] s : samples) {
+                double x = (s[0] - t0) / 60e9;
+                double y = s[1];
+                sumX += x;
+                sumY += y;
+                sumXY += x * y;
+                sumXX += x * x;
+            }
+            double denominator = n * sumXX - sumX * sumX;
+            return denominator == 0 ? 0 : (n * sumXY - sumX * sumY) / denominator;
+        }
+
+        private static long collectionUsage() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() != MemoryType.HEAP) continue;
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (usage != null && isTenured(pool.getName())) {
+                    used += usage.getUsed();
+                }
+            }
+            return used;
+        }
+
+        private static boolean isTenured(String poolName) {
+            return poolName.contains("Old") || poolName.contains("Tenured");
+        }
+    }
+
+    /**
+     * The operations under test, completing through a callback that reports success and a session id
+     */
+    interface Backend {
+        String name();
+        void save(List<Course> courses, BiConsumer<Boolean, Integer> callback);
+        void loadCourses(int id, BiConsumer<Boolean, Integer> callback);
+        void update(GpaSummary summary, BiConsumer<Boolean, Integer> callback);
+        void delete(int id, BiConsumer<Boolean, Integer> callback);
+        void loadAll(BiConsumer<Boolean, Integer> callback);
+        void close();
+
+        /**
+         * FX dispatch queue statistics, if the backend has any
+         */
+        default String dispatchReport() {
+            return null;
+        }
+    }
+
+    private static Backend createBackend() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("JavaFX platform could not start: " + e.getMessage(), e);
+        }
+        Platform.setImplicitExit(false);
+        started.await();
+        return new ServiceBackend();
+    }
+
+    /**
+     * Drives the real service; callbacks arrive on the FX thread
+     */
+    private static final class ServiceBackend implements Backend {
+        private final GpaSummaryService service = GpaSummaryService.getInstance();
+
+        @Override
+        public String name() {
+            return "fx (GpaSummaryService)";
+        }
+
+        @Override
+        public void save(List<Course> courses, BiConsumer<Boolean, Integer> callback) {
+            // A save of courses that are already stored reports the existing session
+            service.saveSummaryWithCourses(FixedPointGpa.toStoredGpa(courses), FixedPointGpa.toStoredCredits(courses),
+                    courses,
+                    id -> callback.accept(id > 0, id),
+                    () -> callback.accept(false, -1));
+        }
+
+        @Override
+        public void loadCourses(int id, BiConsumer<Boolean, Integer> callback) {
+            service.loadCoursesForSummary(id, courses -> callback.accept(true, id), () -> callback.accept(false, id));
+        }
+
+        @Override
+        public void update(GpaSummary summary, BiConsumer<Boolean, Integer> callback) {
+            service.updateSummary(summary, () -> callback.accept(true, summary.getId()),
+                    () -> callback.accept(false, summary.getId()));
+        }
+
+        @Override
+        public void delete(int id, BiConsumer<Boolean, Integer> callback) {
+            service.deleteSummary(id, () -> callback.accept(true, id), () -> callback.accept(false, id));
+        }
+
+        @Override
+        public void loadAll(BiConsumer<Boolean, Integer> callback) {
+            // loadAllSummaries has no failure callback; a failure shows up as a timeout
+            service.loadAllSummaries(() -> callback.accept(true, -1));
+        }
+
+        @Override
+        public String dispatchReport() {
+            return service.getDispatchMetrics() + System.lineSeparator() + service.getWorkQueueMetrics();
+        }
+
+        @Override
+        public void close() {
+            service.shutdown();
+            Platform.exit();
+        }
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Parse "save:40,load:30,..." into cumulative weights indexed by Op ordinal
+     */
+    private static int[] parseMix(String spec) {
+        int[] weights = new int[Op.values().length];
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            weights[Op.valueOf(kv[0].trim().toUpperCase()).ordinal()] = Integer.parseInt(kv[1].trim());
+        }
+        int[] cumulative = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Operation mix must have a positive weight: " + spec);
+        }
+        return cumulative;
+    }
+
+    private static String describeMix(int[] cumulative) {
+        StringBuilder sb = new StringBuilder();
+        int previous = 0;
+        for (Op op : Op.values()) {
+            int weight = cumulative[op.ordinal()] - previous;
+            previous = cumulative[op.ordinal()];
+            if (weight == 0) continue;
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(op.name().toLowerCase()).append(' ').append(weight);
+        }
+        return sb.toString();
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.example.gpa.controllers;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.services.CourseImportParser;
+import com.example.gpa.services.CourseValidator;
+import com.example.gpa.services.FxWatchdog;
+import com.example.gpa.services.SessionJournal;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class EntryController {
+    @FXML private TextField targetCreditsField;
+    @FXML private TextField nameField;
+    @FXML private TextField codeField;
+    @FXML private TextField creditField;
+    @FXML private TextField teacher1Field;
+    @FXML private TextField teacher2Field;
+    @FXML private ComboBox<String> gradeCombo;
+    @FXML private Button addButton;
+    @FXML private Button calcButton;
+    @FXML private Button importButton;
+    @FXML private Button undoButton;
+    @FXML private Button redoButton;
+    @FXML private TableView<Course> table;
+    @FXML private TableColumn<Course, String> colName;
+    @FXML private TableColumn<Course, String> colCode;
+    @FXML private TableColumn<Course, Double> colCredit;
+    @FXML private TableColumn<Course, String> colGrade;
+    @FXML private TableColumn<Course, Void> colAction;
+    @FXML private Label statusLabel;
+
+    private final ObservableList<Course> courses = FXCollections.observableArrayList();
+    private final SessionJournal journal = SessionJournal.getInstance();
+    // A session restored from the journal that has not been saved yet
+    private boolean restoredUnsaved;
+    // Set while the form is filled from the journal or a saved session, so that is not journaled again
+    private boolean restoring;
+
+    @FXML
+    public void initialize() {
+        gradeCombo.setItems(FXCollections.observableArrayList("A+","A","A-","B+","B","B-","C+","C","C-","D+","D","F"));
+        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colCode.setCellValueFactory(new PropertyValueFactory<>("code"));
+        colCredit.setCellValueFactory(new PropertyValueFactory<>("credit"));
+        colGrade.setCellValueFactory(new PropertyValueFactory<>("grade"));
+        
+        // Add edit and delete buttons to each row
+        colAction.setCellFactory(param -> new javafx.scene.control.TableCell<>() {
+            private final javafx.scene.control.Button editBtn = new javafx.scene.control.Button("Edit");
+            private final javafx.scene.control.Button deleteBtn = new javafx.scene.control.Button("Delete");
+            private final javafx.scene.layout.HBox buttons = new javafx.scene.layout.HBox(5, editBtn, deleteBtn);
+            {
+                editBtn.setOnAction(event -> {
+                    Course course = getTableView().getItems().get(getIndex());
+                    populateFormForEdit(course);
+                    removeCourse(course);
+                    statusLabel.setText("Editing: " + course.getName());
+                    updateCalcButton();
+                });
+                deleteBtn.setOnAction(event -> {
+                    Course course = getTableView().getItems().get(getIndex());
+                    removeCourse(course);
+                    statusLabel.setText("Course removed: " + course.getName());
+                    updateCalcButton();
+                });
+            }
+            @Override
+            protected void updateItem(Void item, boolean empty) {
+                super.updateItem(item, empty);
+                setGraphic(empty ? null : buttons);
+            }
+        });
+        
+        table.setItems(courses);
+        calcButton.setDisable(true);
+        
+        // Disable form fields until target is set
+        disableFormFields(true);
+        
+        // Listen to target credits changes
+        targetCreditsField.textProperty().addListener((obs, oldVal, newVal) -> onTargetChanged());
+        
+        restoreJournaledSession();
+    }
+    
+    /**
+     * Restore a session that was not saved before the app closed or crashed
+     */
+    private void restoreJournaledSession() {
+        SessionJournal.RestoredSession restored = journal.replay();
+        if (!restored.isEmpty()) {
+            restoring = true;
+            try {
+                targetCreditsField.setText(restored.target());
+                courses.setAll(restored.courses());
+                onTargetChanged();
+            } finally {
+                restoring = false;
+            }
+            restoredUnsaved = true;
+            statusLabel.setText("Restored unsaved session: " + restored.courses().size() + " courses.");
+        }
+        updateUndoButtons();
+    }
+    
+    private void onTargetChanged() {
+        String targetText = targetCreditsField.getText().trim();
+        if (targetText.isEmpty()) {
+            disableFormFields(true);
+            statusLabel.setText("Please enter target credits first");
+            return;
+        }
+        
+        try {
+            double target = Double.parseDouble(targetText);
+            if (target <= 0) {
+                disableFormFields(true);
+                statusLabel.setText("Target credits must be positive");
+                return;
+            }
+            disableFormFields(false);
+            if (!restoring) {
+                journal.recordTarget(targetText);
+            }
+            statusLabel.setText("Target credits set. You can now add courses.");
+            updateCalcButton();
+        } catch (NumberFormatException e) {
+            disableFormFields(true);
+            statusLabel.setText("Invalid target credits format");
+        }
+    }
+    
+    private void disableFormFields(boolean disable) {
+        nameField.setDisable(disable);
+        codeField.setDisable(disable);
+        creditField.setDisable(disable);
+        teacher1Field.setDisable(disable);
+        teacher2Field.setDisable(disable);
+        gradeCombo.setDisable(disable);
+        addButton.setDisable(disable);
+        importButton.setDisable(disable);
+    }
+
+    @FXML
+    private void handleAdd(ActionEvent event) {
+        String name = nameField.getText().trim();
+        String code = codeField.getText().trim();
+        String creditText = creditField.getText().trim();
+        String t1 = teacher1Field.getText().trim();
+        String t2 = teacher2Field.getText().trim();
+        String grade = gradeCombo.getValue();
+
+        if (name.isEmpty() || code.isEmpty() || creditText.isEmpty() || grade == null) {
+            showAlert("Validation", "Please fill course name, code, credit and select grade.");
+            return;
+        }
+        
+        // Validate course code format
+        String codeError = CourseValidator.validateCode(code);
+        if (codeError != null) {
+            showAlert("Validation Error", codeError);
+            return;
+        }
+        
+        // Validate credit input
+        double credit;
+        try {
+            credit = CourseValidator.parseCredit(creditText);
+        } catch (IllegalArgumentException e) {
+            showAlert("Validation Error", e.getMessage());
+            return;
+        }
+
+        Course c = new Course(name, code, credit, t1, t2, grade);
+        journal.recordAdd(courses.size(), c);
+        courses.add(c);
+        updateUndoButtons();
+        clearForm();
+        statusLabel.setText("Course added successfully!");
+        updateCalcButton();
+    }
+
+    /**
+     * Bulk import: paste rows copied from a spreadsheet or load a CSV file.
+     * All valid rows are added with one list change; rejected rows are listed afterwards.
+     */
+    @FXML
+    private void handleImport(ActionEvent event) {
+        try (FxWatchdog.Span span = FxWatchdog.track("EntryController.handleImport")) {
+            TextArea input = new TextArea();
+            input.setPromptText("Name, Code, Credit, Grade, Teacher 1, Teacher 2 (one course per line)");
+            input.setPrefRowCount(15);
+            
+            Button loadFile = new Button("Load CSV File...");
+            loadFile.setOnAction(e -> {
+                FileChooser chooser = new FileChooser();
+                chooser.setTitle("Import Courses");
+                chooser.getExtensionFilters().addAll(
+                    new FileChooser.ExtensionFilter("CSV / Text", "*.csv", "*.tsv", "*.txt"),
+                    new FileChooser.ExtensionFilter("All Files", "*.*"));
+                File file = chooser.showOpenDialog(importButton.getScene().getWindow());
+                if (file != null) {
+                    try {
+                        input.setText(Files.readString(file.toPath()));
+                    } catch (IOException ex) {
+                        showAlert("Import Error", "Could not read file: " + ex.getMessage());
+                    }
+                }
+            });
+            
+            Dialog<String> dialog = new Dialog<>();
+            dialog.setTitle("Import Courses");
+            dialog.setHeaderText("Paste courses or load a CSV file");
+            dialog.getDialogPane().setContent(new VBox(8, loadFile, input));
+            dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+            dialog.setResultConverter(button -> button == ButtonType.OK ? input.getText() : null);
+            
+            FxWatchdog.waitForUser(dialog::showAndWait).ifPresent(text -> {
+                CourseImportParser.ImportResult result = CourseImportParser.parse(text);
+                List<Course> imported = result.courses();
+                if (!imported.isEmpty()) {
+                    for (int i = 0; i < imported.size(); i++) {
+                        journal.recordAdd(courses.size() + i, imported.get(i));
+                    }
+                    courses.addAll(imported);
+                    updateUndoButtons();
+                    updateCalcButton();
+                }
+                statusLabel.setText("Imported " + imported.size() + " courses"
+                        + (result.errors().isEmpty() ? "" : ", rejected " + result.errors().size() + " rows"));
+                
+                if (!result.errors().isEmpty()) {
+                    TextArea report = new TextArea(result.errorReport());
+                    report.setEditable(false);
+                    Alert a = new Alert(Alert.AlertType.WARNING);
+                    a.setTitle("Import Report");
+                    a.setHeaderText(result.errors().size() + " rows were rejected");
+                    a.getDialogPane().setContent(report);
+                    FxWatchdog.waitForUser(a::showAndWait);
+                }
+            });
+        }
+    }
+    
+    private void removeCourse(Course course) {
+        int index = courses.indexOf(course);
+        if (index < 0) return;
+        journal.recordRemove(index);
+        courses.remove(index);
+        updateUndoButtons();
+    }
+    
+    @FXML
+    private void handleUndo(ActionEvent event) {
+        SessionJournal.Change change = journal.undo();
+        if (change != null) {
+            change.applyTo(courses);
+            statusLabel.setText("Undone: " + (change.add() ? "restored " : "removed ") + change.course().getName());
+            updateCalcButton();
+        }
+        updateUndoButtons();
+    }
+    
+    @FXML
+    private void handleRedo(ActionEvent event) {
+        SessionJournal.Change change = journal.redo();
+        if (change != null) {
+            change.applyTo(courses);
+            statusLabel.setText("Redone: " + (change.add() ? "added " : "removed ") + change.course().getName());
+            updateCalcButton();
+        }
+        updateUndoButtons();
+    }
+    
+    private void updateUndoButtons() {
+        undoButton.setDisable(!journal.canUndo());
+        redoButton.setDisable(!journal.canRedo());
+    }
+
+    private void updateCalcButton() {
+        double target = parseTarget();
+        if (target <= 0) { 
+            calcButton.setDisable(true); 
+            return; 
+        }
+        // Counted credits: under a retake policy a retaken course counts once
+        FixedPointGpa.Totals totals = FixedPointGpa.totals(courses);
+        double sum = (double) totals.scaledCredits() / FixedPointGpa.CREDIT_SCALE;
+        String retakes = totals.retakes() == 0 ? ""
+                : String.format(" - %d retake(s), %s attempt counts", totals.retakes(), RetakePolicy.getActive());
+        
+        // Enable calculate button if sum > 0 and sum <= target
+        boolean canCalculate = sum > 0 && sum <= target;
+        calcButton.setDisable(!canCalculate);
+        
+        if (sum > target) {
+            statusLabel.setText(String.format("Credits exceeded! %.1f / %.1f (Remove courses)%s", sum, target, retakes));
+        } else if (sum > 0) {
+            statusLabel.setText(String.format("Credits: %.1f / %.1f (Can calculate GPA)%s", sum, target, retakes));
+        } else {
+            statusLabel.setText(String.format("Credits: %.1f / %.1f (Add courses)", sum, target));
+        }
+    }
+
+    private double parseTarget() {
+        try { return Double.parseDouble(targetCreditsField.getText().trim()); }
+        catch (Exception e) { return -1; }
+    }
+
+    @FXML
+    private void handleCalculate(ActionEvent event) throws IOException {
+        try (FxWatchdog.Span span = FxWatchdog.track("EntryController.handleCalculate")) {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/gpa/result.fxml"));
+            Parent root = loader.load();
+            ResultController rc = loader.getController();
+            // The result screen saves the session; the autosave is only dropped once that save has
+            // committed, so a failed save or a crash before it still leaves the session to restore
+            rc.setData(List.copyOf(courses), parseTarget(), journal::discard);
+            Stage stage = (Stage) calcButton.getScene().getWindow();
+            stage.setScene(new Scene(root, 900, 650));
+        }
+    }
+
+    private void populateFormForEdit(Course course) {
+        nameField.setText(course.getName());
+        codeField.setText(course.getCode());
+        creditField.setText(String.valueOf(course.getCredit()));
+        teacher1Field.setText(course.getTeacher1());
+        teacher2Field.setText(course.getTeacher2());
+        gradeCombo.setValue(course.getGrade());
+    }
+
+    private void clearForm() {
+        nameField.clear(); codeField.clear(); creditField.clear(); teacher1Field.clear(); teacher2Field.clear(); gradeCombo.getSelectionModel().clearSelection();
+    }
+
+    private void showAlert(String title, String text) {
+        Alert a = new Alert(Alert.AlertType.INFORMATION);
+        a.setTitle(title);
+        a.setHeaderText(null);
+        a.setContentText(text);
+        FxWatchdog.waitForUser(a::showAndWait);
+    }
+    
+    /**
+     * Ask before throwing away a session restored from the journal that was never saved
+     * @return true if there is no such session or the user agreed to discard it
+     */
+    private boolean confirmDiscardRestored() {
+        if (!restoredUnsaved) {
+            return true;
+        }
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Unsaved Session");
+        confirm.setHeaderText("Discard Restored Session");
+        confirm.setContentText("The session restored after the app last closed (" + courses.size()
+                + " courses) has not been saved. Discard it?");
+        boolean discard = FxWatchdog.waitForUser(confirm::showAndWait)
+                .filter(response -> response == ButtonType.OK).isPresent();
+        if (discard) {
+            restoredUnsaved = false;
+        }
+        return discard;
+    }
+    
+    @FXML
+    private void handleGoHome(ActionEvent event) throws IOException {
+        if (!confirmDiscardRestored()) {
+            return;
+        }
+        journal.discard();
+        HomeController.loadHome(event);
+    }
+    
+    /**
+     * Load a previous GPA session for editing.
+     * Sets the target credits and populates the course list. If this screen restored an unsaved
+     * session from the journal, the user is asked first and can keep it instead.
+     * 
+     * @param summary The GPA summary to load
+     * @param loadedCourses The list of courses from the previous session
+     */
+    public void loadPreviousSession(GpaSummary summary, List<Course> loadedCourses) {
+        // Keep a restored unsaved session unless the user lets it go
+        if (!confirmDiscardRestored()) {
+            statusLabel.setText("Kept the restored unsaved session; save or discard it before editing another one.");
+            return;
+        }
+        
+        restoring = true;
+        try {
+            // Set target credits from the summary
+            targetCreditsField.setText(String.valueOf(summary.getCredits()));
+            
+            // Clear existing courses and add loaded ones
+            courses.clear();
+            courses.addAll(loadedCourses);
+            
+            // Trigger the validation
+            onTargetChanged();
+        } finally {
+            restoring = false;
+        }
+        
+        // Start a fresh autosave journal from the loaded session
+        journal.reset(targetCreditsField.getText().trim(), loadedCourses);
+        updateUndoButtons();
+        
+        // Update the calculate button state
+        updateCalcButton();
+        
+        statusLabel.setText("Loaded session from " + summary.getTimestamp() + 
+                           " - GPA: " + FixedPointGpa.formatGpa(summary.getGpa()) + 
+                           " | " + loadedCourses.size() + " courses loaded. You can edit and recalculate.");
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.gpa.controllers;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.services.CancellationToken;
+import com.example.gpa.services.FxWatchdog;
+import com.example.gpa.services.GpaSummaryService;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.List;
+
+public class MasterController {
+    @FXML private TableView<GpaSummary> masterTable;
+    @FXML private TableColumn<GpaSummary, Integer> colId;
+    @FXML private TableColumn<GpaSummary, Double> colGpa;
+    @FXML private TableColumn<GpaSummary, Double> colCredits;
+    @FXML private TableColumn<GpaSummary, Long> colTimestamp;
+    @FXML private TableColumn<GpaSummary, Void> colAction;
+    @FXML private Label statusLabel;
+    @FXML private Button syncButton;
+    
+    // Cancelled when the user leaves, so late course loads don't navigate away again
+    private final CancellationToken screenToken = new CancellationToken();
+    
+    @FXML
+    public void initialize() {
+        // Bind table columns to GpaSummary properties
+        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
+        colGpa.setCellValueFactory(new PropertyValueFactory<>("gpa"));
+        colCredits.setCellValueFactory(new PropertyValueFactory<>("credits"));
+        colTimestamp.setCellValueFactory(new PropertyValueFactory<>("timestampMillis"));
+        
+        // Format GPA column to 2 decimal places
+        colGpa.setCellFactory(column -> new TableCell<GpaSummary, Double>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(FixedPointGpa.formatGpa(item));
+                }
+            }
+        });
+        
+        // Sort on the epoch value; only visible cells are formatted
+        colTimestamp.setCellFactory(column -> new TableCell<GpaSummary, Long>() {
+            @Override
+            protected void updateItem(Long item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(GpaSummary.formatTimestamp(item));
+                }
+            }
+        });
+        
+        // Add action buttons (Edit and Delete) to each row
+        colAction.setCellFactory(param -> new TableCell<>() {
+            private final Button editBtn = new Button("Edit");
+            private final Button deleteBtn = new Button("Delete");
+            private final HBox buttons = new HBox(5, editBtn, deleteBtn);
+            {
+                editBtn.setOnAction(event -> {
+                    GpaSummary summary = getTableView().getItems().get(getIndex());
+                    handleEditSummary(summary);
+                });
+                deleteBtn.setOnAction(event -> {
+                    GpaSummary summary = getTableView().getItems().get(getIndex());
+                    handleDeleteSummary(summary);
+                });
+            }
+            @Override
+            protected void updateItem(Void item, boolean empty) {
+                super.updateItem(item, empty);
+                setGraphic(empty ? null : buttons);
+            }
+        });
+        
+        // Bind table to ObservableList from GpaSummaryService
+        masterTable.setItems(GpaSummaryService.gpaHistoryList);
+        masterTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        
+        statusLabel.setText("Loaded " + GpaSummaryService.gpaHistoryList.size() + " saved GPA records.");
+        
+        // Only offered when a shared sync directory is configured
+        boolean syncEnabled = GpaSummaryService.getInstance().isSyncEnabled();
+        syncButton.setVisible(syncEnabled);
+        syncButton.setManaged(syncEnabled);
+    }
+    
+    private void handleEditSummary(GpaSummary summary) {
+        // Load courses for this summary first
+        GpaSummaryService.getInstance().loadCoursesForSummary(
+            summary.getId(),
+            screenToken,
+            courses -> {
+                // Courses loaded successfully, navigate to entry page
+                try (FxWatchdog.Span span = FxWatchdog.track("MasterController.openSession")) {
+                    FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/example/gpa/entry.fxml"));
+                    Parent root = loader.load();
+                    EntryController controller = loader.getController();
+                    
+                    // Load the previous session data into the entry controller
+                    controller.loadPreviousSession(summary, courses);
+                    
+                    Stage stage = (Stage) masterTable.getScene().getWindow();
+                    stage.setScene(new Scene(root, 1000, 650));
+                    
+                } catch (IOException e) {
+                    statusLabel.setText("Error loading entry page: " + e.getMessage());
+                }
+            },
+            () -> statusLabel.setText("Error loading courses for this session")
+        );
+    }
+    
+    private void handleDeleteSummary(GpaSummary summary) {
+        try (FxWatchdog.Span span = FxWatchdog.track("MasterController.handleDeleteSummary")) {
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("Confirm Delete");
+            confirm.setHeaderText("Delete GPA Record");
+            confirm.setContentText("Are you sure you want to delete this GPA record?\nGPA: " + 
+                    FixedPointGpa.formatGpa(summary.getGpa()) + " | Credits: " + summary.getCredits());
+            
+            FxWatchdog.waitForUser(confirm::showAndWait).ifPresent(response -> {
+                if (response == ButtonType.OK) {
+                    GpaSummaryService.getInstance().deleteSummary(
+                        summary.getId(),
+                        () -> statusLabel.setText("Deleted GPA record #" + summary.getId()),
+                        () -> statusLabel.setText("Error deleting record")
+                    );
+                }
+            });
+        }
+    }
+    
+    @FXML
+    private void handleDeleteSelected(ActionEvent event) {
+        try (FxWatchdog.Span span = FxWatchdog.track("MasterController.handleDeleteSelected")) {
+            List<GpaSummary> selected = List.copyOf(masterTable.getSelectionModel().getSelectedItems());
+            if (selected.isEmpty()) {
+                statusLabel.setText("Select one or more records to delete");
+                return;
+            }
+            
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+            confirm.setTitle("Confirm Delete");
+            confirm.setHeaderText("Delete " + selected.size() + " GPA Records");
+            confirm.setContentText("Are you sure you want to delete the " + selected.size() + " selected GPA records?");
+            
+            FxWatchdog.waitForUser(confirm::showAndWait).ifPresent(response -> {
+                if (response == ButtonType.OK) {
+                    List<Integer> ids = selected.stream().map(GpaSummary::getId).toList();
+                    GpaSummaryService.getInstance().deleteSummaries(
+                        ids,
+                        () -> statusLabel.setText("Deleted " + ids.size() + " GPA records"),
+                        () -> statusLabel.setText("Error deleting selected records")
+                    );
+                }
+            });
+        }
+    }
+    
+    @FXML
+    private void handleSync(ActionEvent event) {
+        syncButton.setDisable(true);
+        statusLabel.setText("Syncing with other instances...");
+        GpaSummaryService.getInstance().syncHistory(
+            result -> {
+                syncButton.setDisable(false);
+                statusLabel.setText("Sync complete: " + result.applied() + " changes received"
+                        + (result.conflicts() > 0 ? " (" + result.conflicts() + " conflicts resolved)" : "")
+                        + ", " + result.exported() + " sent");
+            },
+            () -> {
+                syncButton.setDisable(false);
+                statusLabel.setText("Sync failed");
+            }
+        );
+    }
+    
+    @FXML
+    private void handleGoHome(ActionEvent event) throws IOException {
+        screenToken.cancel();
+        HomeController.loadHome(event);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.gpa.controllers;
+
+import com.example.gpa.FixedPointGpa;
+import com.example.gpa.GpaCalculator;
+import com.example.gpa.model.Course;
+import com.example.gpa.services.CancellationToken;
+import com.example.gpa.services.FxWatchdog;
+import com.example.gpa.services.GpaRankIndex;
+import com.example.gpa.services.GpaSummaryService;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.List;
+
+public class ResultController {
+    @FXML private TableView<Course> resultTable;
+    @FXML private TableColumn<Course, String> rName;
+    @FXML private TableColumn<Course, String> rCode;
+    @FXML private TableColumn<Course, Double> rCredit;
+    @FXML private TableColumn<Course, String> rGrade;
+    @FXML private Label gpaLabel;
+    @FXML private Label rankLabel;
+    @FXML private Label projectionLabel;
+
+    // Threshold students most often ask about ("how likely am I to finish above 3.5")
+    private static final double PROJECTION_THRESHOLD = 3.5;
+
+    // Cancelled when the user leaves, so an unfinished projection is skipped
+    private final CancellationToken screenToken = new CancellationToken();
+
+    public void setData(List<Course> courses) {
+        setData(courses, 0);
+    }
+
+    public void setData(List<Course> courses, double targetCredits) {
+        setData(courses, targetCredits, null);
+    }
+
+    /**
+     * @param targetCredits Target credits from the entry screen; any credits not yet covered by
+     *                      the courses are projected with a Monte Carlo simulation
+     * @param onSaved Run once the session is stored in the database (optional); not run if the save fails
+     */
+    public void setData(List<Course> courses, double targetCredits, Runnable onSaved) {
+        try (FxWatchdog.Span span = FxWatchdog.track("ResultController.setData")) {
+            rName.setCellValueFactory(new PropertyValueFactory<>("name"));
+            rCode.setCellValueFactory(new PropertyValueFactory<>("code"));
+            rCredit.setCellValueFactory(new PropertyValueFactory<>("credit"));
+            rGrade.setCellValueFactory(new PropertyValueFactory<>("grade"));
+            resultTable.setItems(FXCollections.observableArrayList(courses));
+            
+            double gpa = GpaCalculator.calculateGpa(courses);
+            double totalCredits = FixedPointGpa.toStoredCredits(courses);
+            
+            gpaLabel.setText("GPA: " + FixedPointGpa.formatGpa(gpa));
+            
+            // Save GPA summary with courses to database (background operation),
+            // then show where it stands among all saved sessions, itself included
+            GpaSummaryService service = GpaSummaryService.getInstance();
+            service.saveSummaryWithCourses(gpa, totalCredits, courses, () -> {
+                GpaRankIndex.Standing standing = service.getRankIndex().standing(gpa);
+                rankLabel.setText(String.format("Rank %d of %d saved sessions (percentile %.1f)",
+                        standing.rank(), standing.total(), standing.percentile()));
+                if (onSaved != null) {
+                    onSaved.run();
+                }
+            }, null);
+
+            double remaining = targetCredits - totalCredits;
+            if (remaining > 0) {
+                projectionLabel.setText(String.format("Projecting %.1f remaining credits...", remaining));
+                service.projectCgpa(courses, remaining, screenToken, projection -> projectionLabel.setText(String.format(
+                        "Projected final CGPA over %.1f credits: median %.2f (90%% range %.2f-%.2f), "
+                                + "%.0f%% chance of %.2f or higher",
+                        totalCredits + remaining, projection.percentile(50), projection.percentile(5),
+                        projection.percentile(95), 100 * projection.probabilityAtLeast(PROJECTION_THRESHOLD),
+                        PROJECTION_THRESHOLD)), () -> projectionLabel.setText(""));
+            }
+        }
+    }
+    
+    @FXML
+    private void handleGoHome(ActionEvent event) throws IOException {
+        screenToken.cancel();
+        HomeController.loadHome(event);
+    }
+    
+    @FXML
+    private void handleViewMaster(ActionEvent event) throws IOException {
+        screenToken.cancel();
+        Parent root = FXMLLoader.load(getClass().getResource("/com/example/gpa/master.fxml"));
+        Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+        stage.setScene(new Scene(root, 1000, 650));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.gpa.services;
+
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ObservableList that can fold any number of edits into one change notification.
+ * Inside {@link #batch(Runnable)} listeners see nothing until the batch ends, then get a
+ * single Change with the individual sub-changes, so TableView selection and scroll
+ * position still follow added/removed rows.
+ */
+public class BatchedObservableList<E> extends ModifiableObservableListBase<E> {
+
+    private final List<E> items = new ArrayList<>();
+
+    /**
+     * Apply edits to this list and notify listeners once
+     */
+    public void batch(Runnable edits) {
+        beginChange();
+        try {
+            edits.run();
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    protected void doAdd(int index, E element) {
+        items.add(index, element);
+    }
+
+    @Override
+    protected E doSet(int index, E element) {
+        return items.set(index, element);
+    }
+
+    @Override
+    protected E doRemove(int index) {
+        return items.remove(index);
+    }
+
+    /**
+     * Replace the contents without removing rows one at a time
+     */
+    @Override
+    public boolean setAll(Collection<? extends E> col) {
+        beginChange();
+        try {
+            clearItems();
+            if (!col.isEmpty()) {
+                items.addAll(col);
+                nextAdd(0, items.size());
+            }
+            modCount++;
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (items.isEmpty()) return;
+        beginChange();
+        try {
+            clearItems();
+            modCount++;
+        } finally {
+            endChange();
+        }
+    }
+
+    private void clearItems() {
+        if (!items.isEmpty()) {
+            List<E> removed = new ArrayList<>(items);
+            items.clear();
+            nextRemove(0, removed);
+        }
+    }
+}
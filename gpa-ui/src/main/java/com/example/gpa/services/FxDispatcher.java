@@ -0,0 +1,167 @@
+package com.example.gpa.services;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces UI updates from background work into one mutation per pulse.
+ *
+ * List edits queued with {@link #update} are held until the next animation pulse, then applied
+ * to the list inside a single {@link BatchedObservableList#batch} so a burst of completed Tasks
+ * produces one change notification. Callbacks queued with an edit run right after the batch,
+ * in the order they were queued, so they always see their own edit applied.
+ * {@link #run} runs a callback directly when called on the FX thread and nothing is pending.
+ */
+public class FxDispatcher<E> {
+
+    /**
+     * Queue-lag counters. Lag is the time from queueing an update to applying it.
+     */
+    public record Metrics(long batches, long updates, int lastBatchSize, int maxBatchSize,
+                          long lastLagMicros, long maxLagMicros, double meanLagMicros, int pending) {
+        @Override
+        public String toString() {
+            return String.format("DispatchMetrics{batches=%d, updates=%d, lastBatch=%d, maxBatch=%d, "
+                            + "lastLag=%.2fms, maxLag=%.2fms, meanLag=%.2fms, pending=%d}",
+                    batches, updates, lastBatchSize, maxBatchSize,
+                    lastLagMicros / 1000.0, maxLagMicros / 1000.0, meanLagMicros / 1000.0, pending);
+        }
+    }
+
+    private record Pending<E>(Consumer<BatchedObservableList<E>> edit, Runnable then, long queuedNanos) {
+    }
+
+    private final BatchedObservableList<E> list;
+    private final ConcurrentLinkedQueue<Pending<E>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private AnimationTimer pulse; // created on the FX thread when first needed
+
+    // Written on the FX thread only; read from anywhere for metrics
+    private volatile long batches;
+    private volatile long updates;
+    private volatile int lastBatchSize;
+    private volatile int maxBatchSize;
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+    private volatile long totalLagNanos;
+
+    public FxDispatcher(BatchedObservableList<E> list) {
+        this.list = list;
+    }
+
+    /**
+     * Queue an edit of the list, applied with the others at the next pulse
+     *
+     * @param edit Mutation of the list (runs on the FX thread)
+     * @param then Callback after the batch containing the edit was applied (optional)
+     */
+    public void update(Consumer<BatchedObservableList<E>> edit, Runnable then) {
+        queue.add(new Pending<>(edit, then, System.nanoTime()));
+        schedule();
+    }
+
+    /**
+     * Run a callback on the FX thread: directly if already there and no updates are pending,
+     * otherwise after the pending updates so it sees the list they produce
+     */
+    public void run(Runnable callback) {
+        if (callback == null) return;
+        if (Platform.isFxApplicationThread() && queue.isEmpty()) {
+            callback.run();
+        } else {
+            update(null, callback);
+        }
+    }
+
+    public Metrics metrics() {
+        long count = updates;
+        return new Metrics(batches, count, lastBatchSize, maxBatchSize,
+                lastLagNanos / 1000, maxLagNanos / 1000,
+                count == 0 ? 0 : totalLagNanos / 1000.0 / count, queue.size());
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                startPulse();
+            } else {
+                Platform.runLater(this::startPulse);
+            }
+        }
+    }
+
+    private void startPulse() {
+        if (pulse == null) {
+            pulse = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    flush();
+                }
+            };
+        }
+        pulse.start();
+    }
+
+    private void flush() {
+        List<Pending<E>> drained = new ArrayList<>();
+        Pending<E> next;
+        while ((next = queue.poll()) != null) {
+            drained.add(next);
+        }
+
+        if (!drained.isEmpty()) {
+            try (FxWatchdog.Span span = FxWatchdog.track("FxDispatcher.flush")) {
+                long now = System.nanoTime();
+                list.batch(() -> {
+                    for (Pending<E> pending : drained) {
+                        if (pending.edit() == null) continue;
+                        try {
+                            pending.edit().accept(list);
+                        } catch (RuntimeException e) {
+                            System.err.println("[ERROR] UI update failed: " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                    }
+                });
+
+                long lag = 0;
+                for (Pending<E> pending : drained) {
+                    long itemLag = now - pending.queuedNanos();
+                    totalLagNanos += itemLag;
+                    lag = Math.max(lag, itemLag);
+                }
+                batches++;
+                updates += drained.size();
+                lastBatchSize = drained.size();
+                maxBatchSize = Math.max(maxBatchSize, drained.size());
+                lastLagNanos = lag;
+                maxLagNanos = Math.max(maxLagNanos, lag);
+
+                for (Pending<E> pending : drained) {
+                    if (pending.then() == null) continue;
+                    try {
+                        pending.then().run();
+                    } catch (RuntimeException e) {
+                        System.err.println("[ERROR] UI callback failed: " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        if (queue.isEmpty()) {
+            pulse.stop();
+            scheduled.set(false);
+            // An update may have slipped in between the check and the reset
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.gpa.services;
+
+import com.example.gpa.metrics.LatencyHistogram;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Responsiveness watchdog for the FX application thread.
+ *
+ * Three things are measured:
+ * - Named actions: handlers wrap their work in {@link #track}, and the time each one holds the
+ *   FX thread goes into a per-action histogram. Time spent in a modal dialog's nested event
+ *   loop is left out with {@link #waitForUser}, so a confirmation the user reads for ten
+ *   seconds does not count as ten seconds of jank.
+ * - Pulses: the layout pass of every pulse of the stage's scene, and the interval between
+ *   consecutive pulses while the scene is changing (16.7 ms at 60 fps; longer means dropped frames).
+ * - Event latency: a monitor thread posts a heartbeat with {@code Platform.runLater} every
+ *   {@value #HEARTBEAT_MILLIS} ms and records how long it waited for the FX thread. When a
+ *   heartbeat waits longer than the stall threshold, the monitor captures the FX thread's stack
+ *   with the innermost action running at the time, whether or not a handler was tracked.
+ *
+ * {@link #report} lists the actions by total time with their percentiles, the pulse and
+ * latency figures, and the stalls with their stacks. Histograms are fixed-size, so a long
+ * session costs no more memory than a short one.
+ *
+ * On by default; disable with {@code -Dgpa.fx.watchdog=false}. The stall threshold is
+ * {@code -Dgpa.fx.stallMillis} (default 200).
+ */
+public final class FxWatchdog {
+
+    private static final FxWatchdog INSTANCE = new FxWatchdog();
+
+    private static final long HEARTBEAT_MILLIS = 50;
+    private static final int STALL_LOG_SIZE = 32;
+    private static final int STACK_DEPTH = 40;
+    // Pulses further apart than this are idle gaps, not dropped frames
+    private static final long MAX_PULSE_GAP_NANOS = 1_000_000_000;
+    private static final String UNTRACKED = "(untracked)";
+    private static final String IDLE = "(waiting for user)";
+
+    /**
+     * Totals for one named action, times in microseconds
+     */
+    public record ActionStats(String action, long count, long totalMicros, long p50Micros, long p99Micros,
+                              long maxMicros, long overThreshold) {
+    }
+
+    /**
+     * One heartbeat that waited longer than the stall threshold
+     *
+     * @param action innermost tracked action when the stall was detected
+     * @param millis how long the FX thread did not respond (at least the threshold)
+     * @param stack FX thread stack when the threshold was crossed
+     */
+    public record Stall(long atMillis, String action, long millis, StackTraceElement[] stack) {
+    }
+
+    /**
+     * Time spent in one tracked action; close it when the action returns
+     */
+    public final class Span implements AutoCloseable {
+        private final String action;
+        private final long startNanos;
+        private long waitingNanos;
+        private int waits; // dialogs open inside this action
+        private boolean closed;
+
+        private Span(String action) {
+            this.action = action;
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            spans.remove(this);
+            Span outer = spans.peek();
+            currentAction = outer == null ? UNTRACKED : outer.waits > 0 ? IDLE : outer.action;
+            record(action, System.nanoTime() - startNanos - waitingNanos);
+        }
+    }
+
+    private final boolean enabled = Boolean.parseBoolean(System.getProperty("gpa.fx.watchdog", "true"));
+    private final long stallNanos = Long.getLong("gpa.fx.stallMillis", 200) * 1_000_000;
+    private final long startedMillis = System.currentTimeMillis();
+
+    // Stack captured by the monitor thread, logged by the heartbeat it was waiting for
+    private record Capture(long postedNanos, String action, StackTraceElement[] stack) {
+    }
+
+    // FX thread only
+    private final Deque<Span> spans = new ArrayDeque<>();
+    private final Runnable beforeLayout = this::beforeLayout;
+    private final Runnable afterLayout = this::afterLayout;
+    private long lastPulseNanos;
+    private long layoutStartNanos;
+
+    // Shared with the monitor thread
+    private volatile Thread fxThread;
+    private volatile Thread monitor;
+    private volatile String currentAction = UNTRACKED;
+    private volatile long heartbeatPostedNanos; // 0 when no heartbeat is outstanding
+    private volatile Capture capture;
+
+    // Guarded by this
+    private final Map<String, LatencyHistogram> actions = new HashMap<>();
+    private final Map<String, Long> actionsOverThreshold = new HashMap<>();
+    private LatencyHistogram pulseIntervals = new LatencyHistogram();
+    private LatencyHistogram pulseLayouts = new LatencyHistogram();
+    private LatencyHistogram eventLatency = new LatencyHistogram();
+    private final Stall[] stallLog = new Stall[STALL_LOG_SIZE];
+    private int stallNext;
+    private long stallCount;
+
+    private FxWatchdog() {
+    }
+
+    public static FxWatchdog getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getStallThresholdMillis() {
+        return stallNanos / 1_000_000;
+    }
+
+    /**
+     * Start watching: call once on the FX thread, with the main stage. Scenes set on the
+     * stage later are picked up automatically.
+     */
+    public void install(Stage stage) {
+        if (!enabled || fxThread != null) return;
+        fxThread = Thread.currentThread();
+        watch(stage.getScene());
+        stage.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.removePreLayoutPulseListener(beforeLayout);
+                oldScene.removePostLayoutPulseListener(afterLayout);
+            }
+            watch(newScene);
+        });
+
+        monitor = new Thread(this::monitor, "fx-watchdog");
+        monitor.setDaemon(true); // Daemon thread won't prevent app shutdown
+        monitor.start();
+    }
+
+    /**
+     * Stop the monitor thread, so heartbeats that can no longer run once the FX toolkit
+     * exits are not reported as stalls. Collected statistics stay available.
+     */
+    public void shutdown() {
+        Thread thread = monitor;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Time an action on the FX thread:
+     * {@code try (FxWatchdog.Span span = FxWatchdog.track("EntryController.handleCalculate")) { ... }}.
+     * Off the FX thread, or when disabled, the span measures nothing.
+     */
+    public static Span track(String action) {
+        FxWatchdog watchdog = INSTANCE;
+        Span span = watchdog.new Span(action);
+        if (!watchdog.enabled || !Platform.isFxApplicationThread()) {
+            span.closed = true;
+            return span;
+        }
+        watchdog.spans.push(span);
+        watchdog.currentAction = action;
+        return span;
+    }
+
+    /**
+     * Run a call that waits for the user in a nested event loop, such as
+     * {@code Alert.showAndWait}, without counting the wait against the tracked actions
+     */
+    public static <T> T waitForUser(Supplier<T> dialog) {
+        FxWatchdog watchdog = INSTANCE;
+        if (!watchdog.enabled || !Platform.isFxApplicationThread()) {
+            return dialog.get();
+        }
+        List<Span> open = new ArrayList<>(watchdog.spans);
+        String action = watchdog.currentAction;
+        watchdog.currentAction = IDLE;
+        for (Span span : open) {
+            span.waits++;
+        }
+        long start = System.nanoTime();
+        try {
+            return dialog.get();
+        } finally {
+            long waited = System.nanoTime() - start;
+            for (Span span : open) {
+                span.waitingNanos += waited;
+                span.waits--;
+            }
+            watchdog.currentAction = action;
+        }
+    }
+
+    /**
+     * Drop all collected statistics
+     */
+    public synchronized void reset() {
+        actions.clear();
+        actionsOverThreshold.clear();
+        pulseIntervals = new LatencyHistogram();
+        pulseLayouts = new LatencyHistogram();
+        eventLatency = new LatencyHistogram();
+        Arrays.fill(stallLog, null);
+        stallNext = 0;
+        stallCount = 0;
+    }
+
+    /**
+     * Actions ordered by total time, most expensive first
+     */
+    public synchronized List<ActionStats> getActionStats() {
+        List<ActionStats> stats = new ArrayList<>(actions.size());
+        for (Map.Entry<String, LatencyHistogram> entry : actions.entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            stats.add(new ActionStats(entry.getKey(), h.count(), Math.round(h.mean() * h.count()),
+                    h.percentile(50), h.percentile(99), h.max(),
+                    actionsOverThreshold.getOrDefault(entry.getKey(), 0L)));
+        }
+        stats.sort(Comparator.comparingLong(ActionStats::totalMicros).reversed());
+        return stats;
+    }
+
+    /**
+     * Stalls newest first (the last {@value #STALL_LOG_SIZE})
+     */
+    public synchronized List<Stall> getStalls() {
+        List<Stall> stalls = new ArrayList<>();
+        for (int i = 1; i <= STALL_LOG_SIZE; i++) {
+            Stall stall = stallLog[Math.floorMod(stallNext - i, STALL_LOG_SIZE)];
+            if (stall == null) break;
+            stalls.add(stall);
+        }
+        return stalls;
+    }
+
+    /**
+     * Human-readable summary: actions by total FX-thread time, pulse and event latency
+     * percentiles, then the longest recent stalls with the top of their stacks
+     */
+    public String report(int topStalls) {
+        List<ActionStats> stats = getActionStats();
+        List<Stall> stalls = new ArrayList<>(getStalls());
+        stalls.sort(Comparator.comparingLong(Stall::millis).reversed());
+
+        StringBuilder report = new StringBuilder();
+        synchronized (this) {
+            report.append(String.format("FX thread over %.1fs: %d stalls (> %d ms)%n",
+                    (System.currentTimeMillis() - startedMillis) / 1000.0, stallCount, getStallThresholdMillis()));
+            report.append(line("pulse interval", pulseIntervals));
+            report.append(line("pulse layout", pulseLayouts));
+            report.append(line("event latency", eventLatency));
+        }
+        report.append(String.format("  %-40s %7s %10s %9s %9s %9s %6s%n",
+                "action", "calls", "total ms", "p50 ms", "p99 ms", "max ms", "stalls"));
+        for (ActionStats s : stats) {
+            report.append(String.format("  %-40s %7d %10.1f %9.2f %9.2f %9.2f %6d%n",
+                    s.action(), s.count(), s.totalMicros() / 1000.0, s.p50Micros() / 1000.0,
+                    s.p99Micros() / 1000.0, s.maxMicros() / 1000.0, s.overThreshold()));
+        }
+        if (!stalls.isEmpty()) {
+            report.append("Longest recent stalls:").append(System.lineSeparator());
+            for (Stall stall : stalls.subList(0, Math.min(topStalls, stalls.size()))) {
+                report.append(String.format("  %6d ms in %s%n", stall.millis(), stall.action()));
+                for (StackTraceElement frame : Arrays.copyOf(stall.stack(), Math.min(12, stall.stack().length))) {
+                    report.append("      at ").append(frame).append(System.lineSeparator());
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    private static String line(String label, LatencyHistogram h) {
+        return String.format("  %-16s %8d samples  p50 %7.2f ms  p99 %7.2f ms  max %8.2f ms%n",
+                label, h.count(), h.percentile(50) / 1000.0, h.percentile(99) / 1000.0, h.max() / 1000.0);
+    }
+
+    private void watch(Scene scene) {
+        if (scene == null) return;
+        scene.addPreLayoutPulseListener(beforeLayout);
+        scene.addPostLayoutPulseListener(afterLayout);
+        lastPulseNanos = 0;
+    }
+
+    private void beforeLayout() {
+        long now = System.nanoTime();
+        if (lastPulseNanos != 0 && now - lastPulseNanos < MAX_PULSE_GAP_NANOS) {
+            synchronized (this) {
+                pulseIntervals.record((now - lastPulseNanos) / 1000);
+            }
+        }
+        lastPulseNanos = now;
+        layoutStartNanos = now;
+    }
+
+    private void afterLayout() {
+        long nanos = System.nanoTime() - layoutStartNanos;
+        synchronized (this) {
+            pulseLayouts.record(nanos / 1000);
+        }
+    }
+
+    private void record(String action, long nanos) {
+        synchronized (this) {
+            actions.computeIfAbsent(action, key -> new LatencyHistogram()).record(nanos / 1000);
+            if (nanos >= stallNanos) {
+                actionsOverThreshold.merge(action, 1L, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Monitor thread: keeps one heartbeat outstanding and captures the FX stack once per stall
+     */
+    private void monitor() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(HEARTBEAT_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long posted = heartbeatPostedNanos;
+            if (posted == 0) {
+                long now = System.nanoTime();
+                heartbeatPostedNanos = now;
+                Platform.runLater(() -> heartbeat(now));
+            } else if (System.nanoTime() - posted >= stallNanos && (capture == null || capture.postedNanos() != posted)) {
+                String action = currentAction;
+                StackTraceElement[] stack = fxThread.getStackTrace();
+                capture = new Capture(posted, action, Arrays.copyOf(stack, Math.min(STACK_DEPTH, stack.length)));
+                System.err.println("[WARN] FX thread has not responded for " + getStallThresholdMillis()
+                        + " ms, in " + action + (stack.length > 0 ? " at " + stack[0] : ""));
+            }
+        }
+    }
+
+    private void heartbeat(long postedNanos) {
+        long nanos = System.nanoTime() - postedNanos;
+        Capture stalled = capture;
+        boolean stall = stalled != null && stalled.postedNanos() == postedNanos;
+        synchronized (this) {
+            eventLatency.record(nanos / 1000);
+            if (stall) {
+                stallLog[stallNext] = new Stall(System.currentTimeMillis() - nanos / 1_000_000,
+                        stalled.action(), nanos / 1_000_000, stalled.stack());
+                stallNext = (stallNext + 1) % STALL_LOG_SIZE;
+                stallCount++;
+            }
+        }
+        heartbeatPostedNanos = 0;
+    }
+}
@@ -0,0 +1,1155 @@
+package com.example.gpa.services;
+
+import com.example.gpa.GradeScale;
+import com.example.gpa.RetakePolicy;
+import com.example.gpa.SessionFingerprint;
+import com.example.gpa.database.AnalyticsDao;
+import com.example.gpa.database.ArchiveDao;
+import com.example.gpa.database.ChangeLogDao;
+import com.example.gpa.database.CourseDao;
+import com.example.gpa.database.DatabaseManager;
+import com.example.gpa.database.GpaSummaryDao;
+import com.example.gpa.database.JobCheckpointDao;
+import com.example.gpa.database.MaintenanceDao;
+import com.example.gpa.model.Course;
+import com.example.gpa.model.GpaSummary;
+import com.example.gpa.model.Grade;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Service class for managing GPA summaries with background thread execution.
+ * Uses ExecutorService and JavaFX Tasks to prevent blocking the UI thread.
+ * Maintains an ObservableList that automatically updates the UI.
+ * Results are handed to the FX thread through an {@link FxDispatcher}, which applies all
+ * list edits that arrive within one pulse as a single change.
+ */
+public class GpaSummaryService {
+    
+    // Singleton instance
+    private static GpaSummaryService instance;
+    
+    // Single worker with a bounded queue; superseded and cancelled reads never reach it
+    private final WorkQueue workQueue;
+    private static final int QUEUE_CAPACITY = Integer.getInteger("gpa.worker.queueCapacity", 256);
+    
+    // DAO for database operations
+    private final GpaSummaryDao dao;
+    private final CourseDao courseDao;
+    private final ArchiveDao archiveDao;
+    private final MaintenanceDao maintenanceDao;
+    private final JobCheckpointDao checkpointDao;
+    private final CourseAnalytics analytics;
+    private final DuplicateSessionJob duplicateJob;
+    private final SyncEngine syncEngine; // null when sync is not configured
+    
+    // Retention settings: sessions older than RETENTION_DAYS are archived (0 disables archiving)
+    private static final int RETENTION_DAYS = Integer.getInteger("gpa.retention.days", 0);
+    private static final long IDLE_BEFORE_MAINTENANCE_MS = Long.getLong("gpa.maintenance.idleSeconds", 30) * 1000;
+    private static final long MAINTENANCE_INTERVAL_MS = Long.getLong("gpa.maintenance.intervalMinutes", 60) * 60_000;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    // Idle tracking used to schedule maintenance between user operations
+    private final ScheduledExecutorService maintenanceTimer;
+    private volatile long lastActivityMillis = System.currentTimeMillis();
+    private volatile long lastMaintenanceMillis;
+    private volatile long lastBackupMillis = System.currentTimeMillis();
+    
+    // Observable list that automatically updates UI (JavaFX thread-safe)
+    public static final ObservableList<GpaSummary> gpaHistoryList = new BatchedObservableList<>();
+    
+    // Callbacks of loadAllSummaries calls by request number; a load answers every request up to its own
+    private final TreeMap<Long, Runnable> loadCallbacks = new TreeMap<>();
+    private long loadRequests;
+    
+    // Rank/percentile index over all stored GPAs; written on the worker, read from any thread
+    private final GpaRankIndex rankIndex = new GpaRankIndex();
+    
+    // Applies list edits from finished Tasks once per pulse, in one change notification
+    private final FxDispatcher<GpaSummary> dispatcher =
+            new FxDispatcher<>((BatchedObservableList<GpaSummary>) gpaHistoryList);
+    
+    private GpaSummaryService() {
+        this.workQueue = new WorkQueue("GPA-DB-Worker", QUEUE_CAPACITY);
+        this.dao = new GpaSummaryDao();
+        this.courseDao = new CourseDao();
+        this.archiveDao = new ArchiveDao();
+        this.maintenanceDao = new MaintenanceDao();
+        this.checkpointDao = new JobCheckpointDao();
+        this.analytics = new CourseAnalytics(new AnalyticsDao());
+        this.duplicateJob = new DuplicateSessionJob(dao, courseDao);
+        
+        this.maintenanceTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            thread.setName("GPA-Maintenance-Timer");
+            return thread;
+        });
+        maintenanceTimer.scheduleWithFixedDelay(this::runMaintenanceIfIdle, 15, 15, TimeUnit.SECONDS);
+        
+        DatabaseManager database = DatabaseManager.getInstance();
+        long backupInterval = database.getConfig().getBackupIntervalSeconds();
+        if (database.isInMemory() && backupInterval > 0) {
+            maintenanceTimer.scheduleWithFixedDelay(this::backupIfChanged, backupInterval, backupInterval, TimeUnit.SECONDS);
+        }
+        
+        if (database.getConfig().isSyncEnabled()) {
+            this.syncEngine = new SyncEngine(database.getConfig().getSyncDir(), new ChangeLogDao());
+            long syncInterval = database.getConfig().getSyncIntervalSeconds();
+            if (syncInterval > 0) {
+                maintenanceTimer.scheduleWithFixedDelay(() -> syncHistory(null, null), syncInterval, syncInterval, TimeUnit.SECONDS);
+            }
+        } else {
+            this.syncEngine = null;
+        }
+    }
+    
+    /**
+     * Submit a task to the worker, tracking activity so maintenance only runs when idle
+     */
+    private void submit(Task<?> task) {
+        submit(task, null, new CancellationToken(), null);
+    }
+    
+    /**
+     * Submit a task that always runs, unless the full queue rejects it
+     * 
+     * @param onLost Callback if the queue rejected the task (executed on JavaFX thread, optional)
+     */
+    private void submit(Task<?> task, Runnable onLost) {
+        submit(task, null, new CancellationToken(), onLost);
+    }
+    
+    /**
+     * Submit a read under a deduplication key: a newer read with the same key supersedes it.
+     * Superseded and cancelled reads are dropped quietly; if the full queue sheds or rejects
+     * the task, {@code onLost} runs so the caller is not left waiting.
+     */
+    private void submit(Task<?> task, String key, CancellationToken token, Runnable onLost) {
+        lastActivityMillis = System.currentTimeMillis();
+        workQueue.submit(key, token, task, reason -> {
+            if (reason == WorkQueue.Drop.SHED || reason == WorkQueue.Drop.REJECTED) {
+                System.err.println("[ERROR] Worker queue full, task " + reason + ": " + workQueue.metrics());
+                dispatcher.run(onLost);
+            }
+        });
+    }
+    
+    /**
+     * Get singleton instance
+     */
+    public static synchronized GpaSummaryService getInstance() {
+        if (instance == null) {
+            instance = new GpaSummaryService();
+        }
+        return instance;
+    }
+    
+    /**
+     * Save a new GPA summary in the background.
+     * Updates the ObservableList on success.
+     * 
+     * @param gpa Calculated GPA value
+     * @param credits Total credits used
+     * @param onSuccess Callback executed on JavaFX thread when complete (optional)
+     * @param onFailure Callback executed on JavaFX thread if error occurs (optional)
+     */
+    public void saveSummary(double gpa, double credits, 
+                           Runnable onSuccess, 
+                           Runnable onFailure) {
+        
+        Task<GpaSummary> saveTask = new Task<>() {
+            @Override
+            protected GpaSummary call() {
+                System.out.println("[BG Thread] Saving GPA summary: " + gpa + ", Credits: " + credits);
+                
+                int id = dao.insertSummary(gpa, credits);
+                
+                if (id > 0) {
+                    rankIndex.put(id, gpa);
+                    // Fetch the inserted record to get exact timestamp
+                    GpaSummary summary = dao.fetchSummary(id);
+                    if (summary != null) {
+                        return summary;
+                    }
+                }
+                
+                throw new RuntimeException("Failed to save GPA summary");
+            }
+        };
+        
+        saveTask.setOnSucceeded(event -> {
+            GpaSummary savedSummary = saveTask.getValue();
+            
+            // Update ObservableList on JavaFX thread
+            dispatcher.update(list -> {
+                list.add(0, savedSummary); // Add at beginning (newest first)
+                System.out.println("[FX Thread] GPA summary added to list: " + savedSummary);
+            }, onSuccess);
+        });
+        
+        saveTask.setOnFailed(event -> {
+            Throwable error = saveTask.getException();
+            System.err.println("[ERROR] Failed to save GPA summary: " + error.getMessage());
+            error.printStackTrace();
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(saveTask, onFailure);
+    }
+    
+    /**
+     * Simplified save method without callbacks
+     */
+    public void saveSummary(double gpa, double credits) {
+        saveSummary(gpa, credits, null, null);
+    }
+    
+    /**
+     * Load all GPA summaries from database in the background.
+     * Populates the ObservableList.
+     * Call this on application startup.
+     * A newer load supersedes one that is still queued or running; the newer one then also
+     * runs the superseded call's callback, after the list holds its (fresher) result.
+     * 
+     * @param onComplete Callback when loading finishes (optional)
+     */
+    public void loadAllSummaries(Runnable onComplete) {
+        long request;
+        synchronized (loadCallbacks) {
+            request = ++loadRequests;
+            if (onComplete != null) {
+                loadCallbacks.put(request, onComplete);
+            }
+        }
+        CancellationToken token = new CancellationToken();
+        
+        Task<List<GpaSummary>> loadTask = new Task<>() {
+            @Override
+            protected List<GpaSummary> call() {
+                System.out.println("[BG Thread] Loading all GPA summaries from database...");
+                List<GpaSummary> summaries = dao.fetchAllSummaries();
+                rankIndex.rebuild(summaries);
+                return summaries;
+            }
+        };
+        
+        loadTask.setOnSucceeded(event -> {
+            if (token.isCancelled()) {
+                return; // superseded while running; the newer load updates the list
+            }
+            List<GpaSummary> summaries = loadTask.getValue();
+            List<Runnable> callbacks = new ArrayList<>();
+            synchronized (loadCallbacks) {
+                Map<Long, Runnable> answered = loadCallbacks.headMap(request, true);
+                callbacks.addAll(answered.values());
+                answered.clear();
+            }
+            
+            // Update ObservableList on JavaFX thread
+            dispatcher.update(list -> {
+                list.setAll(summaries);
+                System.out.println("[FX Thread] Loaded " + summaries.size() + " summaries into ObservableList");
+            }, () -> callbacks.forEach(Runnable::run));
+        });
+        
+        loadTask.setOnFailed(event -> {
+            Throwable error = loadTask.getException();
+            System.err.println("[ERROR] Failed to load summaries: " + error.getMessage());
+            error.printStackTrace();
+        });
+        
+        submit(loadTask, "loadAllSummaries", token, null);
+    }
+    
+    /**
+     * Simplified load method without callback
+     */
+    public void loadAllSummaries() {
+        loadAllSummaries(null);
+    }
+    
+    /**
+     * Delete a GPA summary by ID in the background.
+     * Removes from ObservableList on success.
+     * 
+     * @param id The ID of the summary to delete
+     * @param onSuccess Callback on success (optional)
+     * @param onFailure Callback on failure (optional)
+     */
+    public void deleteSummary(int id, Runnable onSuccess, Runnable onFailure) {
+        
+        Task<Boolean> deleteTask = new Task<>() {
+            @Override
+            protected Boolean call() {
+                System.out.println("[BG Thread] Deleting GPA summary with ID: " + id);
+                boolean deleted = dao.deleteSummary(id);
+                if (deleted) {
+                    rankIndex.remove(id);
+                }
+                return deleted;
+            }
+        };
+        
+        deleteTask.setOnSucceeded(event -> {
+            boolean success = deleteTask.getValue();
+            
+            if (success) {
+                dispatcher.update(list -> {
+                    // Remove from ObservableList
+                    list.removeIf(summary -> summary.getId() == id);
+                    System.out.println("[FX Thread] Removed summary ID " + id + " from list");
+                }, onSuccess);
+            } else {
+                dispatcher.run(onFailure);
+            }
+        });
+        
+        deleteTask.setOnFailed(event -> {
+            Throwable error = deleteTask.getException();
+            System.err.println("[ERROR] Failed to delete summary: " + error.getMessage());
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(deleteTask, onFailure);
+    }
+    
+    /**
+     * Simplified delete method without callbacks
+     */
+    public void deleteSummary(int id) {
+        deleteSummary(id, null, null);
+    }
+    
+    /**
+     * Update an existing GPA summary (optional feature)
+     * 
+     * @param summary The updated summary object
+     * @param onSuccess Callback on success
+     * @param onFailure Callback on failure
+     */
+    public void updateSummary(GpaSummary summary, Runnable onSuccess, Runnable onFailure) {
+        
+        Task<Boolean> updateTask = new Task<>() {
+            @Override
+            protected Boolean call() {
+                System.out.println("[BG Thread] Updating GPA summary ID: " + summary.getId());
+                boolean updated = dao.updateSummary(summary);
+                if (updated) {
+                    analytics.invalidate(); // the session's time bucket may have changed
+                    rankIndex.put(summary.getId(), summary.getGpa());
+                }
+                return updated;
+            }
+        };
+        
+        updateTask.setOnSucceeded(event -> {
+            boolean success = updateTask.getValue();
+            
+            if (success) {
+                dispatcher.update(list -> {
+                    // Update in ObservableList
+                    for (int i = 0; i < list.size(); i++) {
+                        if (list.get(i).getId() == summary.getId()) {
+                            list.set(i, summary);
+                            break;
+                        }
+                    }
+                    System.out.println("[FX Thread] Updated summary in list");
+                }, onSuccess);
+            } else {
+                dispatcher.run(onFailure);
+            }
+        });
+        
+        updateTask.setOnFailed(event -> {
+            Throwable error = updateTask.getException();
+            System.err.println("[ERROR] Failed to update summary: " + error.getMessage());
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(updateTask, onFailure);
+    }
+    
+    /**
+     * Delete many GPA summaries in one background Task and one database transaction.
+     * The ObservableList is updated with a single change notification.
+     * 
+     * @param ids IDs of the summaries to delete
+     * @param onSuccess Callback on success (optional)
+     * @param onFailure Callback on failure (optional)
+     */
+    public void deleteSummaries(Collection<Integer> ids, Runnable onSuccess, Runnable onFailure) {
+        Set<Integer> idSet = new HashSet<>(ids);
+        
+        Task<Integer> deleteTask = new Task<>() {
+            @Override
+            protected Integer call() {
+                System.out.println("[BG Thread] Deleting " + idSet.size() + " GPA summaries");
+                int deleted = dao.deleteSummaries(idSet);
+                if (deleted >= 0) {
+                    idSet.forEach(rankIndex::remove);
+                }
+                return deleted;
+            }
+        };
+        
+        deleteTask.setOnSucceeded(event -> {
+            int deleted = deleteTask.getValue();
+            
+            if (deleted >= 0) {
+                dispatcher.update(list -> {
+                    List<GpaSummary> removed = new ArrayList<>();
+                    for (GpaSummary summary : list) {
+                        if (idSet.contains(summary.getId())) {
+                            removed.add(summary);
+                        }
+                    }
+                    list.removeAll(removed);
+                    System.out.println("[FX Thread] Removed " + removed.size() + " summaries from list");
+                }, onSuccess);
+            } else {
+                dispatcher.run(onFailure);
+            }
+        });
+        
+        deleteTask.setOnFailed(event -> {
+            Throwable error = deleteTask.getException();
+            System.err.println("[ERROR] Failed to delete summaries: " + error.getMessage());
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(deleteTask, onFailure);
+    }
+    
+    /**
+     * Update many GPA summaries in one background Task and one database transaction.
+     * The ObservableList is updated with a single change notification.
+     * 
+     * @param summaries The updated summary objects
+     * @param onSuccess Callback on success (optional)
+     * @param onFailure Callback on failure (optional)
+     */
+    public void updateSummaries(Collection<GpaSummary> summaries, Runnable onSuccess, Runnable onFailure) {
+        List<GpaSummary> batch = List.copyOf(summaries);
+        
+        Task<Integer> updateTask = new Task<>() {
+            @Override
+            protected Integer call() {
+                System.out.println("[BG Thread] Updating " + batch.size() + " GPA summaries");
+                int updated = dao.updateSummaries(batch);
+                if (updated > 0) {
+                    analytics.invalidate();
+                    for (GpaSummary summary : batch) {
+                        rankIndex.put(summary.getId(), summary.getGpa());
+                    }
+                }
+                return updated;
+            }
+        };
+        
+        updateTask.setOnSucceeded(event -> {
+            int updated = updateTask.getValue();
+            
+            if (updated >= 0) {
+                dispatcher.update(list -> {
+                    Map<Integer, GpaSummary> byId = new HashMap<>();
+                    for (GpaSummary summary : batch) {
+                        byId.put(summary.getId(), summary);
+                    }
+                    // Replace in place; the batch turns this into one change
+                    for (int i = 0; i < list.size(); i++) {
+                        GpaSummary replacement = byId.get(list.get(i).getId());
+                        if (replacement != null) {
+                            list.set(i, replacement);
+                        }
+                    }
+                    System.out.println("[FX Thread] Updated " + updated + " summaries in list");
+                }, onSuccess);
+            } else {
+                dispatcher.run(onFailure);
+            }
+        });
+        
+        updateTask.setOnFailed(event -> {
+            Throwable error = updateTask.getException();
+            System.err.println("[ERROR] Failed to update summaries: " + error.getMessage());
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(updateTask, onFailure);
+    }
+    
+    /**
+     * Recompute every stored GPA for a new grading scale.
+     * The scale becomes the active one right away, so new calculations use it too.
+     * Each chunk runs as its own Task, so normal user operations interleave with the job.
+     * 
+     * @param scale The new grade-point mapping
+     * @param onProgress Callback after each chunk (executed on JavaFX thread, optional)
+     * @param onComplete Callback when the job finishes or is cancelled (optional)
+     * @return the job, which can be cancelled and resumed later with the same scale
+     */
+    public GpaRecomputeJob recomputeAllGpas(GradeScale scale,
+                                           Consumer<GpaRecomputeJob.Progress> onProgress,
+                                           Consumer<GpaRecomputeJob.Progress> onComplete) {
+        return recomputeAllGpas(scale, RetakePolicy.getActive(), onProgress, onComplete);
+    }
+
+    /**
+     * Recompute every stored GPA for a grading scale and retake policy.
+     * Both become the active ones right away, so new calculations use them too.
+     *
+     * @param retakePolicy Which attempts of a retaken course count
+     * @see #recomputeAllGpas(GradeScale, Consumer, Consumer)
+     */
+    public GpaRecomputeJob recomputeAllGpas(GradeScale scale, RetakePolicy retakePolicy,
+                                           Consumer<GpaRecomputeJob.Progress> onProgress,
+                                           Consumer<GpaRecomputeJob.Progress> onComplete) {
+        GradeScale.setActive(scale);
+        RetakePolicy.setActive(retakePolicy);
+        GpaRecomputeJob job = new GpaRecomputeJob(scale, retakePolicy, dao, courseDao, checkpointDao);
+        
+        Task<Void> startTask = new Task<>() {
+            @Override
+            protected Void call() {
+                System.out.println("[BG Thread] Starting GPA recompute for " + scale + ", retake policy " + retakePolicy);
+                job.start();
+                return null;
+            }
+        };
+        startTask.setOnSucceeded(event -> submitRecomputeChunk(job, onProgress, onComplete));
+        startTask.setOnFailed(event -> {
+            Throwable error = startTask.getException();
+            System.err.println("[ERROR] Failed to start GPA recompute: " + error.getMessage());
+            
+            if (onComplete != null) {
+                onComplete.accept(job.progress());
+            }
+        });
+        
+        submit(startTask, onComplete == null ? null : () -> onComplete.accept(job.progress()));
+        return job;
+    }
+    
+    private void submitRecomputeChunk(GpaRecomputeJob job,
+                                      Consumer<GpaRecomputeJob.Progress> onProgress,
+                                      Consumer<GpaRecomputeJob.Progress> onComplete) {
+        
+        Task<Boolean> chunkTask = new Task<>() {
+            @Override
+            protected Boolean call() {
+                return job.runChunk();
+            }
+        };
+        
+        chunkTask.setOnSucceeded(event -> {
+            GpaRecomputeJob.Progress progress = job.progress();
+            if (chunkTask.getValue()) {
+                if (onProgress != null) {
+                    onProgress.accept(progress);
+                }
+                submitRecomputeChunk(job, onProgress, onComplete);
+            } else {
+                System.out.println("[FX Thread] GPA recompute ended: " + progress);
+                // Reload so the history table shows the recomputed values
+                loadAllSummaries(() -> {
+                    if (onComplete != null) {
+                        onComplete.accept(progress);
+                    }
+                });
+            }
+        });
+        
+        chunkTask.setOnFailed(event -> {
+            Throwable error = chunkTask.getException();
+            System.err.println("[ERROR] GPA recompute stopped: " + error.getMessage());
+            
+            if (onComplete != null) {
+                onComplete.accept(job.progress());
+            }
+        });
+        
+        submit(chunkTask, onComplete == null ? null : () -> onComplete.accept(job.progress()));
+    }
+    
+    /**
+     * Grade distribution, pass rate and average points per group, over every stored course.
+     * The column store is brought up to date on the worker first; after the initial load that
+     * only reads courses saved since the previous report.
+     * 
+     * @param dimension What to group by (course code, teacher, ...)
+     * @param bucket Optional time bucket of the session date
+     * @param onSuccess Callback with the report (executed on JavaFX thread)
+     */
+    public void loadCourseAnalytics(CourseAnalytics.Dimension dimension, CourseAnalytics.TimeBucket bucket,
+                                    Consumer<CourseAnalytics.Report> onSuccess) {
+        
+        Task<CourseAnalytics.Report> analyticsTask = new Task<>() {
+            @Override
+            protected CourseAnalytics.Report call() {
+                System.out.println("[BG Thread] Course analytics by " + dimension + " / " + bucket);
+                analytics.refresh();
+                return analytics.query(dimension, bucket);
+            }
+        };
+        
+        analyticsTask.setOnSucceeded(event -> {
+            CourseAnalytics.Report report = analyticsTask.getValue();
+            System.out.println("[FX Thread] Course analytics: " + report.groups().size() + " groups from "
+                    + report.rowsScanned() + " rows in " + report.scanMicros() / 1000.0 + " ms");
+            if (onSuccess != null) {
+                dispatcher.run(() -> onSuccess.accept(report));
+            }
+        });
+        
+        analyticsTask.setOnFailed(event -> {
+            Throwable error = analyticsTask.getException();
+            System.err.println("[ERROR] Course analytics failed: " + error.getMessage());
+            error.printStackTrace();
+        });
+        
+        submit(analyticsTask);
+    }
+    
+    /**
+     * Project the final CGPA by simulating the grades of the remaining credits.
+     * Grade odds are the student's own grades blended with the distribution over all stored
+     * courses, read from the analytics column store on the worker. The simulation itself runs
+     * on the common ForkJoin pool, so database work is not held up by it.
+     * 
+     * @param completed Courses graded so far
+     * @param remainingCredits Credits still to be taken
+     * @param onSuccess Callback with the projection (executed on JavaFX thread)
+     * @param onFailure Callback if the projection failed (optional)
+     */
+    public void projectCgpa(List<Course> completed, double remainingCredits,
+                            Consumer<CgpaProjection.Projection> onSuccess, Runnable onFailure) {
+        projectCgpa(completed, remainingCredits, null, new CancellationToken(), onSuccess, onFailure);
+    }
+    
+    /**
+     * Project the final CGPA on behalf of a screen. A newer projection supersedes an older
+     * one, and cancelling {@code screenToken} drops it; either way the simulation is skipped
+     * if it has not started and no callback runs.
+     * 
+     * @param screenToken Token of the requesting screen
+     */
+    public void projectCgpa(List<Course> completed, double remainingCredits, CancellationToken screenToken,
+                            Consumer<CgpaProjection.Projection> onSuccess, Runnable onFailure) {
+        projectCgpa(completed, remainingCredits, "projectCgpa", screenToken.child(), onSuccess, onFailure);
+    }
+    
+    private void projectCgpa(List<Course> completed, double remainingCredits, String key, CancellationToken token,
+                             Consumer<CgpaProjection.Projection> onSuccess, Runnable onFailure) {
+        List<Course> courses = List.copyOf(completed);
+        
+        Task<long[]> historyTask = new Task<>() {
+            @Override
+            protected long[] call() {
+                analytics.refresh();
+                long[] counts = new long[Grade.values().length];
+                for (CourseAnalytics.GroupStats group : analytics.query(
+                        CourseAnalytics.Dimension.ALL, CourseAnalytics.TimeBucket.NONE).groups()) {
+                    for (int g = 0; g < counts.length; g++) {
+                        counts[g] += group.gradeCounts()[g];
+                    }
+                }
+                return counts;
+            }
+        };
+        
+        historyTask.setOnSucceeded(event -> {
+            if (token.isCancelled()) {
+                return;
+            }
+            double[] probabilities = CgpaProjection.gradeProbabilities(historyTask.getValue(), courses);
+            CompletableFuture.supplyAsync(() -> CgpaProjection.run(courses, remainingCredits, probabilities,
+                            CgpaProjection.DEFAULT_COURSE_CREDIT, CgpaProjection.DEFAULT_SAMPLES, System.nanoTime()))
+                    .whenComplete((projection, error) -> {
+                        if (token.isCancelled()) {
+                            return;
+                        }
+                        if (error != null) {
+                            System.err.println("[ERROR] CGPA projection failed: " + error.getMessage());
+                            dispatcher.run(onFailure);
+                        } else {
+                            System.out.println("CGPA projection: " + projection);
+                            dispatcher.run(() -> onSuccess.accept(projection));
+                        }
+                    });
+        });
+        
+        historyTask.setOnFailed(event -> {
+            Throwable error = historyTask.getException();
+            System.err.println("[ERROR] Failed to read grade history: " + error.getMessage());
+            
+            if (!token.isCancelled()) {
+                dispatcher.run(onFailure);
+            }
+        });
+        
+        submit(historyTask, key, token, onFailure);
+    }
+    
+    /**
+     * Rank, percentile and top-k over every stored GPA. Kept in step with saves, edits, deletes,
+     * archiving and reloads on the worker; queries are O(log n) and safe on the JavaFX thread.
+     */
+    public GpaRankIndex getRankIndex() {
+        return rankIndex;
+    }
+    
+    /**
+     * Get the current ObservableList (for binding to UI components)
+     */
+    public ObservableList<GpaSummary> getGpaHistoryList() {
+        return gpaHistoryList;
+    }
+    
+    /**
+     * Submitted, completed, superseded, cancelled, shed and rejected worker tasks
+     */
+    public WorkQueue.Metrics getWorkQueueMetrics() {
+        return workQueue.metrics();
+    }
+    
+    /**
+     * Queue lag and batch sizes of UI updates, for spotting bursts that fall behind
+     */
+    public FxDispatcher.Metrics getDispatchMetrics() {
+        return dispatcher.metrics();
+    }
+    
+    /**
+     * Save a GPA summary with associated courses.
+     * If a stored session already has exactly these courses and the same GPA and credits,
+     * nothing is written: the lookup goes through the content_hash index, and the existing
+     * session counts as saved.
+     * 
+     * @param gpa Calculated GPA value
+     * @param credits Total credits
+     * @param courses List of courses
+     * @param onSuccess Callback on success (optional)
+     * @param onFailure Callback on failure (optional)
+     */
+    public void saveSummaryWithCourses(double gpa, double credits, List<Course> courses,
+                                      Runnable onSuccess, Runnable onFailure) {
+        saveSummaryWithCourses(gpa, credits, courses, onSuccess == null ? null : id -> onSuccess.run(), onFailure);
+    }
+    
+    /**
+     * Save a GPA summary with associated courses, reporting which session holds them.
+     * 
+     * @param onSaved Callback with the ID of the new session, or of the stored session with the
+     *                same courses when nothing was written (executed on JavaFX thread, optional)
+     * @see #saveSummaryWithCourses(double, double, List, Runnable, Runnable)
+     */
+    public void saveSummaryWithCourses(double gpa, double credits, List<Course> courses,
+                                      Consumer<Integer> onSaved, Runnable onFailure) {
+        // Set on the worker before the task succeeds, read on the FX thread after
+        boolean[] duplicate = new boolean[1];
+        
+        Task<GpaSummary> saveTask = new Task<>() {
+            @Override
+            protected GpaSummary call() {
+                System.out.println("[BG Thread] Saving GPA summary with " + courses.size() + " courses");
+                
+                long contentHash = SessionFingerprint.of(courses);
+                int existing = courseDao.findSessionWithCourses(contentHash, gpa, credits, courses);
+                if (existing > 0) {
+                    System.out.println("[BG Thread] Same courses as saved summary " + existing + ", not saved again");
+                    GpaSummary summary = dao.fetchSummary(existing);
+                    if (summary != null) {
+                        duplicate[0] = true;
+                        summary.setCourses(courses);
+                        return summary;
+                    }
+                }
+                
+                // Summary and courses in one transaction
+                int id = courseDao.insertSession(gpa, credits, contentHash, courses);
+                
+                if (id > 0) {
+                    rankIndex.put(id, gpa);
+                    
+                    // Fetch the inserted record with timestamp
+                    GpaSummary summary = dao.fetchSummary(id);
+                    if (summary != null) {
+                        summary.setCourses(courses);
+                        return summary;
+                    }
+                }
+                
+                throw new RuntimeException("Failed to save GPA summary with courses");
+            }
+        };
+        
+        saveTask.setOnSucceeded(event -> {
+            GpaSummary savedSummary = saveTask.getValue();
+            Runnable onSuccess = onSaved == null ? null : () -> onSaved.accept(savedSummary.getId());
+            if (duplicate[0]) {
+                dispatcher.run(onSuccess);
+                return;
+            }
+            
+            dispatcher.update(list -> {
+                list.add(0, savedSummary);
+                System.out.println("[FX Thread] GPA summary with courses added to list: " + savedSummary);
+            }, onSuccess);
+        });
+        
+        saveTask.setOnFailed(event -> {
+            Throwable error = saveTask.getException();
+            System.err.println("[ERROR] Failed to save summary with courses: " + error.getMessage());
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(saveTask, onFailure);
+    }
+    
+    /**
+     * Simplified save method with courses
+     */
+    public void saveSummaryWithCourses(double gpa, double credits, List<Course> courses) {
+        saveSummaryWithCourses(gpa, credits, courses, (Runnable) null, null);
+    }
+    
+    /**
+     * Load courses for a specific GPA summary.
+     * 
+     * @param summaryId The GPA summary ID
+     * @param onSuccess Callback with loaded courses (executed on JavaFX thread)
+     * @param onFailure Callback on failure
+     */
+    public void loadCoursesForSummary(int summaryId, 
+                                     java.util.function.Consumer<List<Course>> onSuccess,
+                                     Runnable onFailure) {
+        loadCoursesForSummary(summaryId, null, new CancellationToken(), onSuccess, onFailure);
+    }
+    
+    /**
+     * Load courses for a summary on behalf of a screen. Only the newest such request matters:
+     * it supersedes any earlier one still queued or running, whose callbacks then never run.
+     * Cancelling {@code screenToken} (when the user leaves the screen) drops it the same way.
+     * 
+     * @param screenToken Token of the requesting screen
+     */
+    public void loadCoursesForSummary(int summaryId, CancellationToken screenToken,
+                                      Consumer<List<Course>> onSuccess, Runnable onFailure) {
+        loadCoursesForSummary(summaryId, "loadCoursesForSummary", screenToken.child(), onSuccess, onFailure);
+    }
+    
+    private void loadCoursesForSummary(int summaryId, String key, CancellationToken token,
+                                       Consumer<List<Course>> onSuccess, Runnable onFailure) {
+        
+        Task<List<Course>> loadTask = new Task<>() {
+            @Override
+            protected List<Course> call() {
+                System.out.println("[BG Thread] Loading courses for summary ID: " + summaryId);
+                return courseDao.fetchCoursesByGpaSummaryId(summaryId);
+            }
+        };
+        
+        loadTask.setOnSucceeded(event -> {
+            List<Course> courses = loadTask.getValue();
+            
+            dispatcher.run(() -> {
+                if (token.isCancelled()) {
+                    return;
+                }
+                System.out.println("[FX Thread] Loaded " + courses.size() + " courses for summary " + summaryId);
+                
+                // Update the summary in the list with courses
+                for (GpaSummary summary : gpaHistoryList) {
+                    if (summary.getId() == summaryId) {
+                        summary.setCourses(courses);
+                        break;
+                    }
+                }
+                
+                if (onSuccess != null) {
+                    onSuccess.accept(courses);
+                }
+            });
+        });
+        
+        loadTask.setOnFailed(event -> {
+            Throwable error = loadTask.getException();
+            System.err.println("[ERROR] Failed to load courses: " + error.getMessage());
+            
+            if (!token.isCancelled()) {
+                dispatcher.run(onFailure);
+            }
+        });
+        
+        submit(loadTask, key, token, onFailure);
+    }
+    
+    /**
+     * Result of a maintenance run: sessions moved to the archive, duplicate sessions merged
+     * and space reclaimed
+     */
+    public record MaintenanceReport(List<Integer> archivedIds, List<Integer> mergedIds,
+                                    MaintenanceDao.SpaceReport space) {
+        @Override
+        public String toString() {
+            return String.format("MaintenanceReport{archived=%d, merged=%d, reclaimedBytes=%d, fileBytes=%d}",
+                    archivedIds.size(), mergedIds.size(),
+                    space == null ? 0 : space.reclaimedBytes(),
+                    space == null ? 0 : space.fileBytes());
+        }
+    }
+    
+    /**
+     * Archive sessions past the retention age, merge sessions stored more than once with the
+     * same courses, then run incremental vacuum and PRAGMA optimize in the background.
+     * Archived and merged sessions are removed from the ObservableList in one change.
+     * 
+     * @param onComplete Callback with the report (optional)
+     */
+    public void runMaintenance(Consumer<MaintenanceReport> onComplete) {
+        
+        Task<MaintenanceReport> maintenanceTask = new Task<>() {
+            @Override
+            protected MaintenanceReport call() {
+                System.out.println("[BG Thread] Running database maintenance...");
+                List<Integer> archived = List.of();
+                if (RETENTION_DAYS > 0) {
+                    String cutoff = LocalDateTime.now().minusDays(RETENTION_DAYS).format(TIMESTAMP_FORMAT);
+                    archived = archiveDao.archiveOlderThan(cutoff);
+                    archived.forEach(rankIndex::remove);
+                }
+                // Stop merging and vacuuming as soon as user work is queued behind this task
+                List<Integer> merged = duplicateJob.run(() -> workQueue.pending() > 1).removedIds();
+                if (!merged.isEmpty()) {
+                    merged.forEach(rankIndex::remove);
+                    analytics.invalidate();
+                }
+                MaintenanceDao.SpaceReport space = maintenanceDao.vacuumAndOptimize(() -> workQueue.pending() > 1);
+                lastMaintenanceMillis = System.currentTimeMillis();
+                return new MaintenanceReport(archived, merged, space);
+            }
+        };
+        
+        maintenanceTask.setOnSucceeded(event -> {
+            MaintenanceReport report = maintenanceTask.getValue();
+            
+            dispatcher.update(list -> {
+                if (!report.archivedIds().isEmpty() || !report.mergedIds().isEmpty()) {
+                    Set<Integer> gone = new HashSet<>(report.archivedIds());
+                    gone.addAll(report.mergedIds());
+                    List<GpaSummary> removed = new ArrayList<>();
+                    for (GpaSummary summary : list) {
+                        if (gone.contains(summary.getId())) {
+                            removed.add(summary);
+                        }
+                    }
+                    list.removeAll(removed);
+                }
+                System.out.println("[FX Thread] Maintenance finished: " + report);
+            }, onComplete == null ? null : () -> onComplete.accept(report));
+        });
+        
+        maintenanceTask.setOnFailed(event -> {
+            Throwable error = maintenanceTask.getException();
+            System.err.println("[ERROR] Database maintenance failed: " + error.getMessage());
+        });
+        
+        submit(maintenanceTask);
+    }
+    
+    /**
+     * Timer hook: run maintenance once the worker has been idle for a while
+     */
+    private void runMaintenanceIfIdle() {
+        long now = System.currentTimeMillis();
+        if (workQueue.pending() == 0
+                && now - lastActivityMillis >= IDLE_BEFORE_MAINTENANCE_MS
+                && now - lastMaintenanceMillis >= MAINTENANCE_INTERVAL_MS) {
+            lastMaintenanceMillis = now;
+            runMaintenance(null);
+        }
+    }
+    
+    /**
+     * Timer hook (memory mode): queue a backup on the worker if anything ran since the last one.
+     * Running it on the worker keeps it from overlapping a DAO write.
+     */
+    private void backupIfChanged() {
+        if (lastActivityMillis <= lastBackupMillis) {
+            return;
+        }
+        Task<Boolean> backupTask = new Task<>() {
+            @Override
+            protected Boolean call() {
+                lastBackupMillis = System.currentTimeMillis();
+                return DatabaseManager.getInstance().backupToDisk();
+            }
+        };
+        backupTask.setOnFailed(event -> {
+            Throwable error = backupTask.getException();
+            System.err.println("[ERROR] Database backup failed: " + error.getMessage());
+        });
+        submit(backupTask);
+    }
+    
+    public boolean isSyncEnabled() {
+        return syncEngine != null;
+    }
+    
+    /**
+     * Exchange changes with the other instances sharing the sync directory, in the background.
+     * If anything was applied, the history list is reloaded in one change.
+     * 
+     * @param onComplete Callback with the sync result (optional)
+     * @param onFailure Callback if the sync failed or is not configured (optional)
+     */
+    public void syncHistory(Consumer<SyncEngine.Result> onComplete, Runnable onFailure) {
+        if (syncEngine == null) {
+            dispatcher.run(onFailure);
+            return;
+        }
+        
+        Task<SyncEngine.Result> syncTask = new Task<>() {
+            @Override
+            protected SyncEngine.Result call() throws Exception {
+                System.out.println("[BG Thread] Syncing history...");
+                SyncEngine.Result result = syncEngine.sync();
+                if (result.applied() > 0) {
+                    analytics.invalidate();
+                }
+                return result;
+            }
+        };
+        
+        syncTask.setOnSucceeded(event -> {
+            SyncEngine.Result result = syncTask.getValue();
+            System.out.println("[FX Thread] Sync finished: " + result);
+            if (result.applied() > 0) {
+                loadAllSummaries(onComplete == null ? null : () -> onComplete.accept(result));
+            } else if (onComplete != null) {
+                dispatcher.run(() -> onComplete.accept(result));
+            }
+        });
+        
+        syncTask.setOnFailed(event -> {
+            Throwable error = syncTask.getException();
+            System.err.println("[ERROR] History sync failed: " + error.getMessage());
+            error.printStackTrace();
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(syncTask, onFailure);
+    }
+    
+    /**
+     * Load archived summaries (without courses) in the background
+     * 
+     * @param onSuccess Callback with the archived summaries (executed on JavaFX thread)
+     */
+    public void loadArchivedSummaries(Consumer<List<GpaSummary>> onSuccess) {
+        
+        Task<List<GpaSummary>> loadTask = new Task<>() {
+            @Override
+            protected List<GpaSummary> call() {
+                System.out.println("[BG Thread] Loading archived GPA summaries...");
+                return archiveDao.fetchArchivedSummaries();
+            }
+        };
+        
+        loadTask.setOnSucceeded(event -> {
+            List<GpaSummary> summaries = loadTask.getValue();
+            if (onSuccess != null) {
+                dispatcher.run(() -> onSuccess.accept(summaries));
+            }
+        });
+        
+        loadTask.setOnFailed(event -> {
+            Throwable error = loadTask.getException();
+            System.err.println("[ERROR] Failed to load archived summaries: " + error.getMessage());
+        });
+        
+        submit(loadTask);
+    }
+    
+    /**
+     * Load the courses of an archived session in the background
+     * 
+     * @param archivedId The archived summary ID
+     * @param onSuccess Callback with loaded courses (executed on JavaFX thread)
+     * @param onFailure Callback on failure
+     */
+    public void loadArchivedCourses(int archivedId, Consumer<List<Course>> onSuccess, Runnable onFailure) {
+        
+        Task<List<Course>> loadTask = new Task<>() {
+            @Override
+            protected List<Course> call() {
+                System.out.println("[BG Thread] Loading archived courses for summary ID: " + archivedId);
+                return archiveDao.fetchArchivedCourses(archivedId);
+            }
+        };
+        
+        loadTask.setOnSucceeded(event -> {
+            List<Course> courses = loadTask.getValue();
+            if (onSuccess != null) {
+                dispatcher.run(() -> onSuccess.accept(courses));
+            }
+        });
+        
+        loadTask.setOnFailed(event -> {
+            Throwable error = loadTask.getException();
+            System.err.println("[ERROR] Failed to load archived courses: " + error.getMessage());
+            
+            dispatcher.run(onFailure);
+        });
+        
+        submit(loadTask, onFailure);
+    }
+    
+    /**
+     * Shutdown the worker gracefully.
+     * Call this when application is closing.
+     */
+    public void shutdown() {
+        System.out.println("Shutting down GpaSummaryService worker...");
+        maintenanceTimer.shutdownNow();
+        workQueue.shutdown();
+        
+        DatabaseManager database = DatabaseManager.getInstance();
+        if (database.isInMemory()) {
+            // Let queued work finish, then persist the in-memory database one last time
+            try {
+                if (!workQueue.awaitTermination(10, TimeUnit.SECONDS)) {
+                    System.err.println("[ERROR] Worker still busy, backing up anyway");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            database.backupToDisk();
+        }
+    }
+}